@@ -84,7 +84,8 @@ CREATE TABLE users (
     INDEX idx_active (is_active),
     INDEX idx_membership (membership_tier_id),
     INDEX idx_deleted (deleted_at),
-    INDEX idx_birth_date (birth_date) COMMENT 'Dùng cho birthday bonus scheduler'
+    INDEX idx_birth_date (birth_date) COMMENT 'Dùng cho birthday bonus scheduler',
+    INDEX idx_created_at (created_at, user_id) COMMENT 'Phân trang keyset danh sách user (admin)'
 ) ENGINE=InnoDB COMMENT='Người dùng hệ thống';
 
 -- Email Verification
@@ -203,6 +204,29 @@ CREATE TABLE movies (
     FULLTEXT INDEX ft_description (description)
 ) ENGINE=InnoDB COMMENT='Phim';
 
+-- Movie Search Documents: bản bỏ dấu (đ -> d, chữ thường) của tiêu đề, mô tả, tên diễn viên / đạo diễn,
+-- do ứng dụng ghi khi tạo / sửa phim. utf8mb4_unicode_ci không coi 'đ' là 'd', và parser mặc định bỏ các từ
+-- ngắn hơn innodb_ft_min_token_size (3) như "ma", "em" nên dùng parser ngram (token 2 ký tự) trên văn bản
+-- đã bỏ dấu. ngram loại mọi token chứa stopword (danh sách mặc định có "a", "i") nên index được tạo với
+-- một bảng stopword rỗng.
+CREATE TABLE ft_no_stopwords (
+    value VARCHAR(30)
+) ENGINE=InnoDB COMMENT='Danh sách stopword rỗng cho FULLTEXT ngram';
+
+SET SESSION innodb_ft_user_stopword_table = 'movie_booking_system/ft_no_stopwords';
+
+CREATE TABLE movie_search_documents (
+    movie_id INT PRIMARY KEY,
+    title_folded VARCHAR(255) NOT NULL,
+    body_folded TEXT COMMENT 'Mô tả + tên diễn viên + tên đạo diễn (bỏ dấu)',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (movie_id) REFERENCES movies(movie_id) ON DELETE CASCADE,
+    FULLTEXT INDEX ft_search_title (title_folded) WITH PARSER ngram,
+    FULLTEXT INDEX ft_search_all (title_folded, body_folded) WITH PARSER ngram
+) ENGINE=InnoDB COMMENT='Tài liệu tìm kiếm phim (FULLTEXT ngram, bỏ dấu)';
+
+SET SESSION innodb_ft_user_stopword_table = NULL;
+
 -- Movie Directors (Many-to-Many)
 CREATE TABLE movie_directors (
     movie_id INT NOT NULL,
@@ -263,7 +287,8 @@ CREATE TABLE movie_reviews (
     INDEX idx_user (user_id),
     INDEX idx_rating (rating),
     INDEX idx_verified (is_verified_booking),
-    INDEX idx_deleted (deleted_at)
+    INDEX idx_deleted (deleted_at),
+    INDEX idx_movie_created (movie_id, created_at, review_id) COMMENT 'Phân trang keyset review theo phim'
 ) ENGINE=InnoDB COMMENT='Đánh giá phim';
 
 -- Loyalty Points History (v10: thêm review_id)
@@ -287,7 +312,8 @@ CREATE TABLE loyalty_points_history (
     INDEX idx_booking (booking_id),
     INDEX idx_review (review_id),
     INDEX idx_type (points_type),
-    INDEX idx_created_at (created_at)
+    INDEX idx_created_at (created_at),
+    INDEX idx_user_created (user_id, created_at, history_id) COMMENT 'Phân trang keyset lịch sử điểm'
 ) ENGINE=InnoDB COMMENT='Lịch sử tích điểm — v10';
 
 -- ============================================================
@@ -371,6 +397,8 @@ CREATE TABLE showtimes (
     end_time DATETIME NOT NULL,
     base_price DECIMAL(10, 2) NOT NULL COMMENT 'Giá vé cơ bản',
     is_active BOOLEAN DEFAULT TRUE,
+    admission_rate_per_minute INT NULL COMMENT 'Phòng chờ: số user được vào mỗi phút (NULL = tắt)',
+    admission_burst INT NULL COMMENT 'Phòng chờ: số user được vào cùng lúc',
     deleted_at TIMESTAMP NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
@@ -482,6 +510,37 @@ CREATE TABLE payments (
     INDEX idx_transaction_time (transaction_time)
 ) ENGINE=InnoDB COMMENT='Thanh toán';
 
+-- Kết quả xử lý callback / IPN của VNPay, chống xử lý trùng khi VNPay gửi lại (backstop cho LRU trong bộ nhớ)
+CREATE TABLE payment_deliveries (
+    delivery_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    channel VARCHAR(10) NOT NULL COMMENT 'Kênh đã xử lý: CALLBACK, IPN',
+    txn_ref VARCHAR(100) NOT NULL,
+    response_code VARCHAR(10) NOT NULL COMMENT 'vnp_ResponseCode của lần gửi',
+    result_code VARCHAR(10) NOT NULL COMMENT 'Mã đã trả cho lần xử lý đầu tiên',
+    result_message VARCHAR(255),
+    booking_code VARCHAR(20),
+    transaction_no VARCHAR(50),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_delivery (txn_ref, response_code)
+) ENGINE=InnoDB COMMENT='Dedup callback / IPN VNPay';
+
+-- Outbox: side effect sau thanh toán (tích điểm, thống kê, email) được ghi cùng transaction
+-- với trạng thái booking và được dispatcher chạy nền, có retry
+CREATE TABLE outbox_events (
+    event_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL COMMENT 'BOOKING_PAID',
+    aggregate_id INT NOT NULL COMMENT 'ID của đối tượng phát sinh event (booking_id)',
+    idempotency_key VARCHAR(100) NOT NULL UNIQUE COMMENT 'event_type:aggregate_id, mỗi event chỉ ghi một lần',
+    status ENUM('PENDING', 'DONE', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    completed_handlers VARCHAR(255) NULL COMMENT 'Các handler đã chạy xong, phân cách bởi dấu phẩy',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP NULL,
+    INDEX idx_status_next_attempt (status, next_attempt_at)
+) ENGINE=InnoDB COMMENT='Transactional outbox';
+
 -- ============================================================
 -- 5. COMBO & PROMOTION
 -- ============================================================
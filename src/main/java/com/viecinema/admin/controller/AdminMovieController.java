@@ -7,6 +7,7 @@ import com.viecinema.movie.dto.request.CreateMovieRequest;
 import com.viecinema.movie.dto.request.MovieFilterRequest;
 import com.viecinema.movie.dto.request.UpdateMovieRequest;
 import com.viecinema.movie.dto.response.AdminMovieResponse;
+import com.viecinema.movie.dto.response.CursorPagedResponse;
 import com.viecinema.movie.dto.response.PagedResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -79,10 +80,16 @@ public class AdminMovieController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid filter parameters")
     })
     @GetMapping
-    public ResponseEntity<ApiResponse<PagedResponse<AdminMovieResponse>>> getAllMovies(
+    public ResponseEntity<ApiResponse<?>> getAllMovies(
             @Valid @ModelAttribute MovieFilterRequest request) {
         log.info("GET {} - Filter: {}", ADMIN_MOVIES_PATH, request);
 
+        if (request.isCursorMode()) {
+            CursorPagedResponse<AdminMovieResponse> response = adminMovieService.getAllMoviesByCursor(request);
+            return ResponseEntity.ok(
+                    ApiResponse.success(ApiMessage.RESOURCE_RETRIEVED, response, "Movies"));
+        }
+
         PagedResponse<AdminMovieResponse> response = adminMovieService.getAllMovies(request);
         return ResponseEntity.ok(
                 ApiResponse.success(ApiMessage.RESOURCE_RETRIEVED, response, "Movies"));
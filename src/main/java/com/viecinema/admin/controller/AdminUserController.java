@@ -8,6 +8,7 @@ import com.viecinema.auth.security.CurrentUser;
 import com.viecinema.auth.security.UserPrincipal;
 import com.viecinema.common.constant.ApiMessage;
 import com.viecinema.common.constant.ApiResponse;
+import com.viecinema.movie.dto.response.CursorPagedResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -45,11 +46,19 @@ public class AdminUserController {
 
     // ============ CRUD ============
 
-    @Operation(summary = "Get user list", description = "Search, filter, sort and paginate users")
+    @Operation(summary = "Get user list", description = "Search, filter, sort and paginate users. "
+            + "Pass cursor=* (then the returned nextCursor) instead of page for keyset pagination: the data is then "
+            + "a cursor page without page numbers, and the total count is only computed with withTotal=true.")
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<AdminUserListDto>>> getUsers(
+    public ResponseEntity<ApiResponse<?>> getUsers(
             @ModelAttribute UserSearchCriteria criteria) {
 
+        if (criteria.getCursor() != null) {
+            CursorPagedResponse<AdminUserListDto> users = adminUserService.getUsersByCursor(criteria);
+            return ResponseEntity.ok(
+                    ApiResponse.success(ApiMessage.RESOURCE_RETRIEVED, users, "User list"));
+        }
+
         Page<AdminUserListDto> users = adminUserService.getUsers(criteria);
         return ResponseEntity.ok(
                 ApiResponse.success(ApiMessage.RESOURCE_RETRIEVED, users, "User list"));
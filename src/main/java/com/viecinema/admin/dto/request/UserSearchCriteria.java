@@ -57,4 +57,10 @@ public class UserSearchCriteria {
 
     /** Số lượng mỗi trang (mặc định: 20) */
     private int size = 20;
+
+    /** Phân trang keyset: "*" cho trang đầu, sau đó là nextCursor của trang trước (page bị bỏ qua) */
+    private String cursor;
+
+    /** Ở chế độ cursor: có đếm tổng số user hay không */
+    private boolean withTotal = false;
 }
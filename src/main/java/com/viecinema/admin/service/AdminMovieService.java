@@ -1,10 +1,14 @@
 package com.viecinema.admin.service;
 
+import com.viecinema.common.exception.BadRequestException;
 import com.viecinema.common.exception.ResourceNotFoundException;
+import com.viecinema.common.util.KeysetPagination;
+import com.viecinema.common.util.PageCursor;
 import com.viecinema.movie.dto.request.CreateMovieRequest;
 import com.viecinema.movie.dto.request.MovieFilterRequest;
 import com.viecinema.movie.dto.request.UpdateMovieRequest;
 import com.viecinema.movie.dto.response.AdminMovieResponse;
+import com.viecinema.movie.dto.response.CursorPagedResponse;
 import com.viecinema.movie.dto.response.PagedResponse;
 import com.viecinema.movie.entity.Actor;
 import com.viecinema.movie.entity.Director;
@@ -16,12 +20,16 @@ import com.viecinema.movie.repository.DirectorRepository;
 import com.viecinema.movie.repository.GenreRepository;
 import com.viecinema.movie.repository.MovieRepository;
 import com.viecinema.movie.repository.MovieSpecification;
+import com.viecinema.movie.service.MovieSearchService;
+import com.viecinema.movie.service.MovieSuggestService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,11 +43,15 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AdminMovieService {
 
+    private static final String MOVIE_ID = "movieId";
+
     private final MovieRepository movieRepository;
     private final GenreRepository genreRepository;
     private final ActorRepository actorRepository;
     private final DirectorRepository directorRepository;
     private final MovieMapper movieMapper;
+    private final MovieSearchService movieSearchService;
+    private final MovieSuggestService movieSuggestService;
 
     // ========== CREATE ==========
 
@@ -50,7 +62,8 @@ public class AdminMovieService {
     @Transactional
     @Caching(evict = {
             @CacheEvict(value = "moviesByStatus", allEntries = true),
-            @CacheEvict(value = "movieDetails", allEntries = true)
+            @CacheEvict(value = "movieDetails", allEntries = true),
+            @CacheEvict(value = "genres", allEntries = true)
     })
     public AdminMovieResponse createMovie(CreateMovieRequest request) {
         log.info("Admin: Creating new movie with title '{}'", request.getTitle());
@@ -81,6 +94,8 @@ public class AdminMovieService {
         resolveAndSetDirectors(movie, request.getDirectorIds());
 
         Movie saved = movieRepository.save(movie);
+        movieSearchService.index(saved);
+        movieSuggestService.refreshMovieAfterCommit(saved.getMovieId());
         log.info("Admin: Movie created with ID {}", saved.getMovieId());
         return movieMapper.toAdminMovieResponse(saved);
     }
@@ -95,31 +110,43 @@ public class AdminMovieService {
     public PagedResponse<AdminMovieResponse> getAllMovies(MovieFilterRequest request) {
         log.info("Admin: Fetching all movies with filters: {}", request);
 
-        Specification<Movie> spec = Specification
-                .where(MovieSpecification.isNotDeleted())
-                .and(MovieSpecification.fetchGenres())
-                .and(MovieSpecification.hasKeyWords(request.getKeyword()))
-                .and(MovieSpecification.hasGenres(request.getGenreIds()))
-                .and(MovieSpecification.hasStatus(request.getStatus()));
+        List<Integer> matchingIds = movieSearchService.findMatchingIds(request.getKeyword());
+        Specification<Movie> spec = adminSpecification(request, matchingIds);
 
+        // Phân trang trên ID, rồi nạp genres / actors / directors cho riêng các phim của trang
         Pageable pageable = request.toPageable();
-        Page<Movie> page = movieRepository.findAll(spec, pageable);
+        Page<Integer> idPage = request.isRelevanceSort()
+                ? movieRepository.findIdsInRankOrder(spec, matchingIds, pageable)
+                : movieRepository.findIds(spec, pageable);
+        List<AdminMovieResponse> content = toAdminResponses(loadPage(idPage.getContent()));
+        return PagedResponse.of(new PageImpl<>(content, pageable, idPage.getTotalElements()));
+    }
 
-        List<AdminMovieResponse> content = page.getContent()
-                .stream()
-                .map(movieMapper::toAdminMovieResponse)
-                .collect(Collectors.toList());
+    /**
+     * Như {@link #getAllMovies} nhưng phân trang keyset trên movie_id từ {@code request.cursor}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<AdminMovieResponse> getAllMoviesByCursor(MovieFilterRequest request) {
+        log.info("Admin: Fetching all movies after cursor with filters: {}", request);
+        if (request.isRelevanceSort()) {
+            throw new BadRequestException("Cursor pagination does not support sorting by relevance");
+        }
 
-        return PagedResponse.<AdminMovieResponse>builder()
-                .content(content)
-                .pageNumber(page.getNumber())
-                .pageSize(page.getSize())
-                .totalElements(page.getTotalElements())
-                .totalPages(page.getTotalPages())
-                .last(page.isLast())
-                .first(page.isFirst())
-                .empty(page.isEmpty())
-                .build();
+        Specification<Movie> spec = adminSpecification(request,
+                movieSearchService.findMatchingIds(request.getKeyword()));
+        Sort.Order order = request.toSortOrder();
+        PageCursor position = PageCursor.decode(request.getCursor(), order);
+        List<Integer> ids = movieRepository.findIds(
+                spec.and(KeysetPagination.after(position, MOVIE_ID)),
+                KeysetPagination.sort(order, MOVIE_ID),
+                request.getSize() + 1);
+        boolean hasMore = ids.size() > request.getSize();
+        List<Movie> movies = loadPage(hasMore ? ids.subList(0, request.getSize()) : ids);
+        String nextCursor = hasMore && !movies.isEmpty()
+                ? PageCursor.after(movies.get(movies.size() - 1), order, MOVIE_ID).encode()
+                : null;
+        Long total = request.isWithTotal() ? movieRepository.count(spec) : null;
+        return KeysetPagination.response(toAdminResponses(movies), request.getSize(), position == null, nextCursor, total);
     }
 
     /**
@@ -142,7 +169,8 @@ public class AdminMovieService {
     @Transactional
     @Caching(evict = {
             @CacheEvict(value = "moviesByStatus", allEntries = true),
-            @CacheEvict(value = "movieDetails", key = "#id")
+            @CacheEvict(value = "movieDetails", key = "#id"),
+            @CacheEvict(value = "genres", allEntries = true)
     })
     public AdminMovieResponse updateMovie(Integer id, UpdateMovieRequest request) {
         log.info("Admin: Updating movie ID {}", id);
@@ -171,6 +199,8 @@ public class AdminMovieService {
         if (request.getDirectorIds() != null) resolveAndSetDirectors(movie, request.getDirectorIds());
 
         Movie updated = movieRepository.save(movie);
+        movieSearchService.index(updated);
+        movieSuggestService.refreshMovieAfterCommit(updated.getMovieId());
         log.info("Admin: Movie ID {} updated successfully", id);
         return movieMapper.toAdminMovieResponse(updated);
     }
@@ -185,7 +215,8 @@ public class AdminMovieService {
     @Transactional
     @Caching(evict = {
             @CacheEvict(value = "moviesByStatus", allEntries = true),
-            @CacheEvict(value = "movieDetails", key = "#id")
+            @CacheEvict(value = "movieDetails", key = "#id"),
+            @CacheEvict(value = "genres", allEntries = true)
     })
     public void deleteMovie(Integer id) {
         log.info("Admin: Soft-deleting movie ID {}", id);
@@ -193,6 +224,7 @@ public class AdminMovieService {
                 .orElseThrow(() -> new ResourceNotFoundException("Movie with ID " + id + " not found"));
 
         movieRepository.delete(movie); // Trigger @SQLDelete → UPDATE movies SET deleted_at = NOW()
+        movieSuggestService.refreshMovieAfterCommit(id);
         log.info("Admin: Movie ID {} soft-deleted successfully", id);
     }
 
@@ -205,7 +237,8 @@ public class AdminMovieService {
     @Transactional
     @Caching(evict = {
             @CacheEvict(value = "moviesByStatus", allEntries = true),
-            @CacheEvict(value = "movieDetails", key = "#id")
+            @CacheEvict(value = "movieDetails", key = "#id"),
+            @CacheEvict(value = "genres", allEntries = true)
     })
     public AdminMovieResponse restoreMovie(Integer id) {
         log.info("Admin: Restoring movie ID {}", id);
@@ -224,11 +257,39 @@ public class AdminMovieService {
         // Reload lại sau khi restore để trả về dữ liệu mới nhất
         Movie restored = movieRepository.findByIdWithDetails(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie with ID " + id + " not found after restore"));
+        movieSearchService.index(restored);
+        movieSuggestService.refreshMovieAfterCommit(id);
         return movieMapper.toAdminMovieResponse(restored);
     }
 
     // ========== PRIVATE HELPERS ==========
 
+    private Specification<Movie> adminSpecification(MovieFilterRequest request, List<Integer> matchingIds) {
+        return Specification
+                .where(MovieSpecification.isNotDeleted())
+                .and(MovieSpecification.hasIdIn(matchingIds))
+                .and(MovieSpecification.hasGenres(request.getGenreIds()))
+                .and(MovieSpecification.hasStatus(request.getStatus()));
+    }
+
+    /**
+     * Nạp phim của một trang (theo thứ tự ID) kèm genres, actors, directors: ba truy vấn cho cả trang.
+     */
+    private List<Movie> loadPage(List<Integer> movieIds) {
+        List<Movie> movies = movieRepository.findAllWithGenresInOrder(movieIds);
+        if (!movies.isEmpty()) {
+            movieRepository.fetchActorsByIdIn(movieIds);
+            movieRepository.fetchDirectorsByIdIn(movieIds);
+        }
+        return movies;
+    }
+
+    private List<AdminMovieResponse> toAdminResponses(List<Movie> movies) {
+        return movies.stream()
+                .map(movieMapper::toAdminMovieResponse)
+                .collect(Collectors.toList());
+    }
+
     private void resolveAndSetGenres(Movie movie, List<Integer> genreIds) {
         if (genreIds == null || genreIds.isEmpty()) {
             movie.setGenres(new HashSet<>());
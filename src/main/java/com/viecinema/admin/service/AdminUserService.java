@@ -14,8 +14,11 @@ import com.viecinema.common.enums.Role;
 import com.viecinema.common.exception.BadRequestException;
 import com.viecinema.common.exception.DuplicateResourceException;
 import com.viecinema.common.exception.ResourceNotFoundException;
+import com.viecinema.common.util.KeysetPagination;
+import com.viecinema.movie.dto.response.CursorPagedResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -79,6 +82,27 @@ public class AdminUserService {
         return userPage.map(adminUserMapper::toListDto);
     }
 
+    /**
+     * Như {@link #getUsers} nhưng phân trang keyset theo (cột sort, user_id) từ {@code criteria.cursor}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<AdminUserListDto> getUsersByCursor(UserSearchCriteria criteria) {
+        log.info("Admin fetching users with criteria: keyword={}, role={}, cursor={}, size={}",
+                criteria.getKeyword(), criteria.getRole(), criteria.getCursor(), criteria.getSize());
+
+        if (criteria.getSize() < 1 || criteria.getSize() > 100) {
+            criteria.setSize(20);
+        }
+        Sort.Order order = buildSort(criteria.getSortBy(), criteria.getSortDirection()).iterator().next();
+        // role là cột ENUM: MySQL sort theo thứ tự khai báo nhưng so sánh theo chuỗi, không seek được
+        if ("role".equals(order.getProperty())) {
+            throw new BadRequestException("Cursor pagination does not support sorting by role");
+        }
+        Specification<User> spec = UserSpecification.buildFromCriteria(criteria);
+        return KeysetPagination.fetch(userRepository, spec, order, "id", criteria.getCursor(),
+                criteria.getSize(), criteria.isWithTotal(), adminUserMapper::toListDto);
+    }
+
     // Get user by ID (even if soft deleted)
     @Transactional(readOnly = true)
     public AdminUserDetailDto getUserById(Integer userId) {
@@ -125,6 +149,7 @@ public class AdminUserService {
      * Cập nhật thông tin user (partial update)
      */
     @Transactional
+    @CacheEvict(value = "userProfile", key = "#userId")
     public AdminUserDetailDto updateUser(Integer userId, AdminUpdateUserRequest request, Integer adminId) {
         log.info("Admin {} updating user ID: {}", adminId, userId);
 
@@ -167,6 +192,7 @@ public class AdminUserService {
      * Xóa mềm user (Soft Delete)
      */
     @Transactional
+    @CacheEvict(value = "userProfile", key = "#userId")
     public void softDeleteUser(Integer userId, Integer adminId, String reason) {
         log.info("Admin {} soft deleting user ID: {} - Reason: {}", adminId, userId, reason);
 
@@ -187,6 +213,7 @@ public class AdminUserService {
      * Khôi phục user đã bị xóa mềm
      */
     @Transactional
+    @CacheEvict(value = "userProfile", key = "#userId")
     public AdminUserDetailDto restoreUser(Integer userId, Integer adminId) {
         log.info("Admin {} restoring user ID: {}", adminId, userId);
 
@@ -211,6 +238,7 @@ public class AdminUserService {
      * Khóa tài khoản user (Ban/Deactivate)
      */
     @Transactional
+    @CacheEvict(value = "userProfile", key = "#userId")
     public void banUser(Integer userId, AdminBanUserRequest request, Integer adminId) {
         log.info("Admin {} banning user ID: {} - Reason: {}", adminId, userId, request.getReason());
 
@@ -239,6 +267,7 @@ public class AdminUserService {
      * Mở khóa tài khoản user
      */
     @Transactional
+    @CacheEvict(value = "userProfile", key = "#userId")
     public AdminUserDetailDto unbanUser(Integer userId, Integer adminId) {
         log.info("Admin {} unbanning user ID: {}", adminId, userId);
 
@@ -261,6 +290,7 @@ public class AdminUserService {
      * Đổi role của user
      */
     @Transactional
+    @CacheEvict(value = "userProfile", key = "#userId")
     public AdminUserDetailDto changeRole(Integer userId, AdminChangeRoleRequest request, Integer adminId) {
         log.info("Admin {} changing role of user ID: {} to {}", adminId, userId, request.getRole());
 
@@ -0,0 +1,189 @@
+package com.viecinema.booking.admission;
+
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Phòng chờ của một suất chiếu: token bucket (tốc độ / burst cấu hình theo suất chiếu) + hàng đợi FIFO.
+ *
+ * <p>Mỗi token cho phép một user vào luồng chọn ghế trong {@code admissionMillis}. User vào hàng nhận số thứ tự
+ * tăng dần; vị trí trong hàng = số thứ tự của user - số thứ tự của người vừa được cho vào. User không poll trong
+ * {@code pollTimeoutMillis} bị coi là đã rời hàng và bị bỏ qua khi tới lượt (không tốn token).
+ *
+ * <p>Mọi thao tác đều synchronized trên queue, mỗi suất chiếu một queue nên không tranh chấp giữa các suất.
+ */
+public class AdmissionQueue {
+
+    @Getter
+    private final Integer showtimeId;
+    private final long admissionMillis;
+    private final long pollTimeoutMillis;
+
+    private int ratePerMinute;
+    private int burst;
+    private double tokens;
+    private long lastRefillAt;
+
+    private final ArrayDeque<Ticket> waiting = new ArrayDeque<>();
+    private final Map<Integer, Ticket> waitingByUser = new HashMap<>();
+    private final Map<Integer, Long> admittedUntil = new HashMap<>();
+    private long nextSequence;
+    private long admittedSequence;
+
+    public AdmissionQueue(Integer showtimeId, int ratePerMinute, int burst,
+                          long admissionMillis, long pollTimeoutMillis, long now) {
+        this.showtimeId = showtimeId;
+        this.admissionMillis = admissionMillis;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.ratePerMinute = ratePerMinute;
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefillAt = now;
+    }
+
+    /**
+     * Cập nhật tốc độ cho vào khi admin sửa cấu hình suất chiếu.
+     */
+    public synchronized void configure(int ratePerMinute, int burst) {
+        if (this.ratePerMinute == ratePerMinute && this.burst == burst) {
+            return;
+        }
+        this.ratePerMinute = ratePerMinute;
+        this.burst = burst;
+        this.tokens = Math.min(tokens, burst);
+    }
+
+    /**
+     * Vào hàng (idempotent). Nếu hàng trống và còn token thì user được cho vào ngay.
+     */
+    public synchronized Position join(int userId, long now) {
+        Position current = position(userId, now);
+        if (current != null) {
+            return current;
+        }
+        refill(now);
+        if (waiting.isEmpty() && tokens >= 1) {
+            tokens -= 1;
+            return admit(userId, now);
+        }
+        Ticket ticket = new Ticket(userId, ++nextSequence, now);
+        waiting.addLast(ticket);
+        waitingByUser.put(userId, ticket);
+        return waitingPosition(ticket);
+    }
+
+    /**
+     * @return vị trí hiện tại của user, hoặc null nếu user không ở trong hàng và chưa được cho vào.
+     */
+    public synchronized Position poll(int userId, long now) {
+        return position(userId, now);
+    }
+
+    public synchronized boolean isAdmitted(int userId, long now) {
+        Long until = admittedUntil.get(userId);
+        return until != null && until > now;
+    }
+
+    /**
+     * Nạp token theo thời gian trôi qua rồi cho người đầu hàng vào.
+     *
+     * @return số user vừa được cho vào.
+     */
+    public synchronized int advance(long now) {
+        refill(now);
+        int admitted = 0;
+        while (tokens >= 1 && !waiting.isEmpty()) {
+            Ticket ticket = waiting.pollFirst();
+            waitingByUser.remove(ticket.userId);
+            admittedSequence = ticket.sequence;
+            if (now - ticket.lastSeenAt > pollTimeoutMillis) {
+                continue;
+            }
+            tokens -= 1;
+            admit(ticket.userId, now);
+            admitted++;
+        }
+
+        Iterator<Long> iterator = admittedUntil.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() <= now) {
+                iterator.remove();
+            }
+        }
+        return admitted;
+    }
+
+    /**
+     * Cho toàn bộ hàng vào (khi admin tắt phòng chờ của suất chiếu).
+     */
+    public synchronized void admitAll(long now) {
+        for (Ticket ticket : waiting) {
+            admit(ticket.userId, now);
+        }
+        waiting.clear();
+        waitingByUser.clear();
+        admittedSequence = nextSequence;
+    }
+
+    public synchronized boolean isIdle() {
+        return waiting.isEmpty() && admittedUntil.isEmpty();
+    }
+
+    public synchronized int getWaitingCount() {
+        return waiting.size();
+    }
+
+    private Position position(int userId, long now) {
+        Long until = admittedUntil.get(userId);
+        if (until != null && until > now) {
+            return new Position(true, 0, 0, until);
+        }
+        Ticket ticket = waitingByUser.get(userId);
+        if (ticket == null) {
+            return null;
+        }
+        ticket.lastSeenAt = now;
+        return waitingPosition(ticket);
+    }
+
+    private Position admit(int userId, long now) {
+        long until = now + admissionMillis;
+        admittedUntil.put(userId, until);
+        return new Position(true, 0, 0, until);
+    }
+
+    private Position waitingPosition(Ticket ticket) {
+        long position = ticket.sequence - admittedSequence;
+        // Thời gian chờ ước tính theo tốc độ cho vào hiện tại (làm tròn lên)
+        long waitSeconds = ratePerMinute > 0 ? (position * 60 + ratePerMinute - 1) / ratePerMinute : -1;
+        return new Position(false, position, waitSeconds, 0);
+    }
+
+    private void refill(long now) {
+        if (now > lastRefillAt) {
+            tokens = Math.min(burst, tokens + (now - lastRefillAt) * ratePerMinute / 60000.0);
+            lastRefillAt = now;
+        }
+    }
+
+    /**
+     * @param admittedUntil epoch millis hết hạn được vào; 0 nếu đang chờ
+     */
+    public record Position(boolean admitted, long position, long estimatedWaitSeconds, long admittedUntil) {}
+
+    private static final class Ticket {
+        private final int userId;
+        private final long sequence;
+        private long lastSeenAt;
+
+        private Ticket(int userId, long sequence, long lastSeenAt) {
+            this.userId = userId;
+            this.sequence = sequence;
+            this.lastSeenAt = lastSeenAt;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.viecinema.booking.controller;
 import com.viecinema.common.constant.ApiResponse;
 import com.viecinema.auth.security.CurrentUser;
 import com.viecinema.auth.security.UserPrincipal;
+import com.viecinema.booking.dto.request.HoldBestSeatsRequest;
 import com.viecinema.booking.dto.request.HoldSeatsRequest;
 import com.viecinema.booking.dto.request.ReleaseSeatRequest;
 import com.viecinema.booking.dto.response.HoldSeatsResponse;
@@ -27,6 +28,7 @@ import org.springframework.web.bind.annotation.RestController;
 import static com.viecinema.common.constant.ApiConstant.*;
 import static com.viecinema.common.constant.ApiMessage.HOLD_SEAT;
 import static com.viecinema.common.constant.ApiMessage.RELEASE_SEAT;
+import static com.viecinema.common.constant.ApiMessage.SEATS_AVAILABLE;
 
 @RestController
 @RequestMapping(BOOKING_PATH)
@@ -62,6 +64,50 @@ public class SeatHoldingController {
                 ApiResponse.success(HOLD_SEAT, response));
     }
 
+    @Operation(
+            summary = "Check seats before holding",
+            description = "Checks that the specified seats can still be held or booked by the authenticated user, without locking or holding them. The result is a snapshot; holding or booking may still fail if another user is faster.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Seats are available"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request or seats already taken"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @PostMapping(CHECK_SEATS_PATH)
+    public ResponseEntity<ApiResponse<Void>> checkSeats(
+            @Valid @RequestBody HoldSeatsRequest request,
+            @CurrentUser UserPrincipal userPrincipal) {
+
+        seatHoldingService.checkSeats(request, userPrincipal.getId());
+
+        return ResponseEntity.status(HttpStatus.OK).body(
+                ApiResponse.successWithoutData(SEATS_AVAILABLE));
+    }
+
+    @Operation(
+            summary = "Hold the best available seats",
+            description = "Picks the best block of adjacent seats for the requested quantity (centre of the room, optional preferred seat type) and holds it for the authenticated user in a single call.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Seats held successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request or no adjacent seats available"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    @PostMapping(HOLD_BEST_SEATS_PATH)
+    public ResponseEntity<ApiResponse<HoldSeatsResponse>> holdBestSeats(
+            @Valid @RequestBody HoldBestSeatsRequest request,
+            @CurrentUser UserPrincipal userPrincipal) {
+
+        log.info("API POST /api/bookings/hold-best-seats - request: {}", request);
+        HoldSeatsResponse response = seatHoldingService.holdBestSeats(request, userPrincipal.getId());
+
+        return ResponseEntity.status(HttpStatus.OK).body(
+                ApiResponse.success(HOLD_SEAT, response));
+    }
+
     @Operation(
             summary = "Release all held seats for current user",
             description = "Releases all seats currently held by the authenticated user across all showtimes.",
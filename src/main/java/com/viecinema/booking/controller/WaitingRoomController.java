@@ -0,0 +1,78 @@
+package com.viecinema.booking.controller;
+
+import com.viecinema.auth.security.CurrentUser;
+import com.viecinema.auth.security.UserPrincipal;
+import com.viecinema.booking.dto.response.AdmissionStatusResponse;
+import com.viecinema.booking.service.AdmissionService;
+import com.viecinema.common.constant.ApiMessage;
+import com.viecinema.common.constant.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static com.viecinema.common.constant.ApiConstant.BOOKING_PATH;
+import static com.viecinema.common.constant.ApiConstant.WAITING_ROOM_PATH;
+
+@RestController
+@RequestMapping(BOOKING_PATH)
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Bookings", description = "Create and manage ticket bookings")
+public class WaitingRoomController {
+
+    private final AdmissionService admissionService;
+
+    @Operation(
+            summary = "Join the waiting room of a showtime",
+            description = "Joins the admission queue of a high-demand showtime. Returns ADMITTED immediately when the showtime has no waiting room or capacity is available, otherwise the queue position and estimated wait.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Admission status returned",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Authentication required"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Showtime not found")
+    })
+    @PostMapping(WAITING_ROOM_PATH)
+    public ResponseEntity<ApiResponse<AdmissionStatusResponse>> joinWaitingRoom(
+            @Parameter(description = "ID of the showtime", required = true, example = "1") @PathVariable Integer showtimeId,
+            @CurrentUser UserPrincipal userPrincipal) {
+
+        log.info("API POST /api/bookings/waiting-room/{} - user: {}", showtimeId, userPrincipal.getId());
+        AdmissionStatusResponse response = admissionService.join(showtimeId, userPrincipal.getId());
+
+        return ResponseEntity.ok(ApiResponse.success(ApiMessage.RESOURCE_RETRIEVED, response, "Admission status"));
+    }
+
+    @Operation(
+            summary = "Poll waiting room position",
+            description = "Returns the current queue position / estimated wait, or ADMITTED with the admission deadline. Clients should poll every pollAfterSeconds; users who stop polling lose their place.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Admission status returned",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Authentication required"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Showtime not found")
+    })
+    @GetMapping(WAITING_ROOM_PATH)
+    public ResponseEntity<ApiResponse<AdmissionStatusResponse>> getWaitingRoomStatus(
+            @Parameter(description = "ID of the showtime", required = true, example = "1") @PathVariable Integer showtimeId,
+            @CurrentUser UserPrincipal userPrincipal) {
+
+        AdmissionStatusResponse response = admissionService.getStatus(showtimeId, userPrincipal.getId());
+        return ResponseEntity.ok(ApiResponse.success(ApiMessage.RESOURCE_RETRIEVED, response, "Admission status"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.viecinema.booking.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class HoldBestSeatsRequest {
+
+    @NotNull(message = "Showtime ID cannot be null.")
+    @Positive(message = "Showtime ID must be a positive number.")
+    private Integer showtimeId;
+
+    @NotNull(message = "Quantity cannot be null.")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Max(value = 9, message = "Only a maximum of 9 seats can be reserved")
+    private Integer quantity;
+
+    /** Loại ghế ưu tiên (không bắt buộc). */
+    @Positive(message = "Seat type ID must be a positive number")
+    private Integer seatTypeId;
+}
@@ -0,0 +1,27 @@
+package com.viecinema.booking.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.viecinema.common.enums.AdmissionStatusType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AdmissionStatusResponse {
+    private Integer showtimeId;
+    private AdmissionStatusType status;
+    /** Vị trí trong hàng chờ (1 = người tiếp theo được vào). */
+    private Long position;
+    private Long estimatedWaitSeconds;
+    /** Hạn được ở trong luồng chọn ghế; null nếu suất chiếu không bật phòng chờ. */
+    private LocalDateTime admittedUntil;
+    /** Số giây client nên chờ trước khi poll lại. */
+    private Integer pollAfterSeconds;
+}
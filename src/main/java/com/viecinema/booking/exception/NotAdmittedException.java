@@ -0,0 +1,7 @@
+package com.viecinema.booking.exception;
+
+public class NotAdmittedException extends RuntimeException {
+    public NotAdmittedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,102 @@
+package com.viecinema.booking.inventory;
+
+/**
+ * Chọn khối ghế liền nhau tốt nhất cho "chọn giúp tôi N ghế" trên trạng thái hiện tại của inventory.
+ *
+ * <p>Với mỗi hàng, quét các đoạn ghế liền nhau (số ghế liên tiếp, ghế bị vô hiệu hoá không có trong inventory
+ * nên tự động cắt đoạn) mà user có thể giữ, rồi chấm điểm từng cửa sổ N ghế (điểm càng thấp càng tốt):
+ * <ul>
+ *   <li>độ lệch của tâm khối so với tâm hàng,</li>
+ *   <li>độ lệch của hàng so với hàng lý tưởng (khoảng 2/3 phòng tính từ màn hình),</li>
+ *   <li>tỉ lệ ghế không đúng loại ghế ưu tiên (nếu có).</li>
+ * </ul>
+ * Chỉ đọc các word trong bộ nhớ, O(số ghế) và không cấp phát ngoài mảng kết quả, nên dùng được ở giờ cao điểm.
+ * Kết quả chưa được giữ: caller giữ bằng CAS và chọn lại nếu bị người khác chiếm trước.
+ */
+public final class BestSeatAllocator {
+
+    private static final double CENTER_WEIGHT = 1.0;
+    private static final double ROW_WEIGHT = 0.6;
+    private static final double SEAT_TYPE_WEIGHT = 2.0;
+    private static final double IDEAL_ROW_RATIO = 2.0 / 3.0;
+
+    private BestSeatAllocator() {
+    }
+
+    /**
+     * @param preferredSeatTypeId loại ghế ưu tiên, null nếu không quan tâm
+     * @return vị trí các ghế của khối tốt nhất, hoặc null nếu không còn {@code quantity} ghế liền nhau.
+     */
+    public static int[] allocate(SeatInventory inventory, int quantity, Integer preferredSeatTypeId,
+                                 int userId, long now) {
+        int rowCount = inventory.rowCount();
+        double idealRow = (rowCount - 1) * IDEAL_ROW_RATIO;
+        double rowSpan = Math.max(1.0, rowCount - 1);
+
+        double bestScore = Double.MAX_VALUE;
+        int bestRow = -1;
+        int bestStart = -1;
+
+        for (int r = 0; r < rowCount; r++) {
+            int[] row = inventory.rowAt(r);
+            if (row.length < quantity) {
+                continue;
+            }
+            double rowScore = ROW_WEIGHT * Math.abs(r - idealRow) / rowSpan;
+            if (rowScore >= bestScore) {
+                continue;
+            }
+            double rowCenter = (row.length - 1) / 2.0;
+            double halfRow = Math.max(1.0, row.length / 2.0);
+
+            int runLength = 0;
+            int mismatches = 0;
+            for (int i = 0; i < row.length; i++) {
+                boolean adjacent = i > 0
+                        && inventory.seatAt(row[i]).seatNumber() == inventory.seatAt(row[i - 1]).seatNumber() + 1;
+                if (!SeatInventory.isClaimable(inventory.wordAt(row[i]), userId, now)) {
+                    runLength = 0;
+                    mismatches = 0;
+                    continue;
+                }
+                if (!adjacent) {
+                    runLength = 0;
+                    mismatches = 0;
+                }
+                runLength++;
+                if (isMismatch(inventory, row[i], preferredSeatTypeId)) {
+                    mismatches++;
+                }
+                if (runLength > quantity) {
+                    // Trượt cửa sổ: bỏ ghế đầu
+                    if (isMismatch(inventory, row[i - quantity], preferredSeatTypeId)) {
+                        mismatches--;
+                    }
+                }
+                if (runLength >= quantity) {
+                    int start = i - quantity + 1;
+                    double blockCenter = start + (quantity - 1) / 2.0;
+                    double score = rowScore
+                            + CENTER_WEIGHT * Math.abs(blockCenter - rowCenter) / halfRow
+                            + SEAT_TYPE_WEIGHT * mismatches / quantity;
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestRow = r;
+                        bestStart = start;
+                    }
+                }
+            }
+        }
+
+        if (bestRow < 0) {
+            return null;
+        }
+        int[] block = new int[quantity];
+        System.arraycopy(inventory.rowAt(bestRow), bestStart, block, 0, quantity);
+        return block;
+    }
+
+    private static boolean isMismatch(SeatInventory inventory, int index, Integer preferredSeatTypeId) {
+        return preferredSeatTypeId != null && !preferredSeatTypeId.equals(inventory.seatAt(index).seatTypeId());
+    }
+}
@@ -0,0 +1,76 @@
+package com.viecinema.booking.inventory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel cho hạn giữ ghế, mỗi tick = 1 giây (epoch second).
+ *
+ * <p>Các thread giữ ghế chỉ đẩy hạn mới vào hàng đợi {@code pending} (lock-free). Chỉ thread gọi
+ * {@link #advance(long)} mới đụng tới các slot của wheel: nó chuyển hạn mới vào slot
+ * {@code deadline % SLOT_COUNT}, rồi lấy ra các hạn đã tới ở những tick vừa trôi qua. Hạn xa hơn một
+ * vòng wheel được giữ lại trong slot cho tới vòng sau.
+ */
+public class HoldExpiryWheel {
+
+    private static final int SLOT_COUNT = 128;
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+
+    private final Queue<Expiry> pending = new ConcurrentLinkedQueue<>();
+    private final List<ArrayDeque<Expiry>> slots = new ArrayList<>(SLOT_COUNT);
+    private long lastTick = -1;
+
+    public HoldExpiryWheel() {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            slots.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Đăng ký hạn giữ ghế. {@code word} là word của ghế tại thời điểm giữ, dùng để bỏ qua các hạn cũ
+     * khi ghế đã được giữ lại / đặt / nhả trước khi hết hạn.
+     */
+    public void schedule(Integer showtimeId, int seatIndex, long word, long deadline) {
+        pending.add(new Expiry(showtimeId, seatIndex, word, deadline));
+    }
+
+    /**
+     * Chạy wheel tới tick {@code now}. Chỉ được gọi từ một thread.
+     *
+     * @return các hạn giữ ghế đã tới.
+     */
+    public List<Expiry> advance(long now) {
+        if (lastTick < 0) {
+            lastTick = now - 1;
+        }
+
+        Expiry expiry;
+        while ((expiry = pending.poll()) != null) {
+            // Hạn đã qua được xử lý ngay ở tick hiện tại
+            long tick = Math.max(expiry.deadline(), lastTick + 1);
+            slots.get((int) (tick & SLOT_MASK)).add(expiry);
+        }
+
+        List<Expiry> due = new ArrayList<>();
+        // Nếu scheduler bị trễ hơn một vòng thì chỉ cần quét mỗi slot một lần
+        long from = Math.max(lastTick + 1, now - SLOT_MASK);
+        for (long tick = from; tick <= now; tick++) {
+            Iterator<Expiry> iterator = slots.get((int) (tick & SLOT_MASK)).iterator();
+            while (iterator.hasNext()) {
+                Expiry candidate = iterator.next();
+                if (candidate.deadline() <= now) {
+                    due.add(candidate);
+                    iterator.remove();
+                }
+            }
+        }
+        lastTick = Math.max(lastTick, now);
+        return due;
+    }
+
+    public record Expiry(Integer showtimeId, int seatIndex, long word, long deadline) {}
+}
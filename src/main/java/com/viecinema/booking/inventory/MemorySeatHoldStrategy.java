@@ -0,0 +1,46 @@
+package com.viecinema.booking.inventory;
+
+import com.viecinema.common.enums.SeatHoldStrategyType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Inventory trong bộ nhớ là nguồn quyết định (CAS trên từng ghế), seat_status được ghi write-behind.
+ * Chỉ đúng khi chạy một instance ứng dụng.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.seat-inventory", name = "hold-strategy", havingValue = "memory", matchIfMissing = true)
+public class MemorySeatHoldStrategy implements SeatHoldStrategy {
+
+    @Override
+    public SeatHoldStrategyType getType() {
+        return SeatHoldStrategyType.MEMORY;
+    }
+
+    @Override
+    public boolean isWriteBehind() {
+        return true;
+    }
+
+    @Override
+    public List<Integer> hold(SeatInventory inventory, int[] indexes, int userId, long heldUntil, long now) {
+        return inventory.hold(indexes, userId, heldUntil, now);
+    }
+
+    @Override
+    public boolean release(SeatInventory inventory, int index, int userId, boolean force) {
+        return inventory.release(index, userId, force);
+    }
+
+    @Override
+    public void releaseAllHeldBy(int userId) {
+        // Inventory chính là nơi lưu trạng thái giữ ghế
+    }
+
+    @Override
+    public long[] book(SeatInventory inventory, int[] indexes, int userId, long now) {
+        return inventory.book(indexes, userId, now);
+    }
+}
@@ -0,0 +1,227 @@
+package com.viecinema.booking.inventory;
+
+import com.viecinema.common.enums.SeatHoldStrategyType;
+import com.viecinema.common.enums.SeatStatusType;
+import com.viecinema.config.SeatInventoryConfig;
+import com.viecinema.showtime.dto.projection.SeatStatusSnapshot;
+import com.viecinema.showtime.repository.SeatStatusBatchRepository;
+import com.viecinema.showtime.repository.SeatStatusRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.viecinema.common.constant.PolicyConstants.SCHEDULER_DELAY_MS;
+
+/**
+ * seat_status là nguồn quyết định: mỗi lần giữ / đặt ghế là một câu UPDATE có điều kiện cho cả nhóm ghế
+ * ({@code status = 'AVAILABLE' OR (status = 'HELD' AND held_until < now)}), kiểm tra số dòng bị ảnh hưởng
+ * thay vì SELECT ... FOR UPDATE, nên chạy được nhiều instance. Inventory phản chiếu kết quả của instance này ngay và
+ * của instance khác qua {@code SeatInventoryService.resyncFromDatabase}: seatmap, SSE, bộ đếm ghế và gợi ý ghế có thể
+ * trễ tối đa {@code SEAT_INVENTORY_RESYNC_MS} so với thay đổi từ instance khác (quyết định giữ / đặt thì không).
+ *
+ * <p>Hết hạn giữ ghế không cần ghi DB: dòng HELD quá hạn đã được câu UPDATE coi là trống.
+ *
+ * <p>Ghế chưa có dòng seat_status được chiếm bằng cách tạo thẳng dòng HELD / BOOKED, không tạo dòng AVAILABLE. Ở chế
+ * độ sparse, nhả ghế là xoá dòng và dòng HELD quá hạn được xoá định kỳ, nên bảng chỉ chứa ghế đang giữ / đã đặt.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.seat-inventory", name = "hold-strategy", havingValue = "optimistic")
+public class OptimisticSeatHoldStrategy implements SeatHoldStrategy {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final SeatStatusRepository seatStatusRepository;
+    private final SeatStatusBatchRepository seatStatusBatchRepository;
+    private final SeatInventoryConfig seatInventoryConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public SeatHoldStrategyType getType() {
+        return SeatHoldStrategyType.OPTIMISTIC;
+    }
+
+    @Override
+    public boolean isWriteBehind() {
+        return false;
+    }
+
+    @Override
+    public List<Integer> hold(SeatInventory inventory, int[] indexes, int userId, long heldUntil, long now) {
+        int[] distinct = Arrays.stream(indexes).distinct().toArray();
+        List<Integer> seatIds = seatIdsOf(inventory, distinct);
+        LocalDateTime until = SeatInventory.toLocalDateTime(heldUntil);
+        LocalDateTime nowTime = SeatInventory.toLocalDateTime(now);
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            Integer held;
+            try {
+                held = transactionTemplate.execute(status -> {
+                    int rows = seatStatusBatchRepository.holdIfAvailable(
+                            inventory.getShowtimeId(), seatIds, userId, until, nowTime);
+                    if (rows != seatIds.size()) {
+                        rows += seatStatusBatchRepository.insertHeld(inventory.getShowtimeId(), seatIds, userId, until);
+                    }
+                    if (rows != seatIds.size()) {
+                        status.setRollbackOnly();
+                    }
+                    return rows;
+                });
+            } catch (ConcurrencyFailureException e) {
+                // Hai lượt cùng tạo dòng cho một khoảng ghế có thể deadlock trên gap lock: coi như một lần xung đột
+                held = null;
+            }
+            if (held != null && held == seatIds.size()) {
+                inventory.overwrite(distinct, SeatInventory.encode(SeatInventory.HELD, userId, heldUntil));
+                return List.of();
+            }
+
+            // Đồng bộ lại inventory từ DB để báo đúng ghế xung đột
+            List<Integer> conflicts = refreshAndFindConflicts(inventory, distinct, seatIds, userId, now);
+            if (!conflicts.isEmpty()) {
+                return conflicts;
+            }
+            log.debug("Hold attempt {} for showtime {} raced with another change, retrying",
+                    attempt, inventory.getShowtimeId());
+        }
+        return Arrays.stream(distinct).boxed().toList();
+    }
+
+    @Override
+    public boolean release(SeatInventory inventory, int index, int userId, boolean force) {
+        Integer seatId = inventory.seatAt(index).seatId();
+        Integer released = transactionTemplate.execute(status -> {
+            if (seatInventoryConfig.isSparseSeatStatus()) {
+                return seatStatusBatchRepository.deleteHeld(inventory.getShowtimeId(), seatId, force ? null : userId);
+            }
+            return force
+                    ? seatStatusRepository.forceReleaseSeat(inventory.getShowtimeId(), seatId)
+                    : seatStatusRepository.releaseSeatByUser(inventory.getShowtimeId(), seatId, userId);
+        });
+        if (released == null || released == 0) {
+            return false;
+        }
+        inventory.overwrite(new int[]{index}, SeatInventory.encode(SeatInventory.AVAILABLE, 0, 0));
+        return true;
+    }
+
+    @Override
+    public void releaseAllHeldBy(int userId) {
+        Integer released = transactionTemplate.execute(status -> seatInventoryConfig.isSparseSeatStatus()
+                ? seatStatusBatchRepository.deleteHeldBy(userId)
+                : seatStatusRepository.releaseUserSeats(userId));
+        log.debug("Released {} seat_status rows held by user {}", released, userId);
+    }
+
+    @Override
+    public long[] book(SeatInventory inventory, int[] indexes, int userId, long now) {
+        int[] distinct = Arrays.stream(indexes).distinct().toArray();
+        List<Integer> seatIds = seatIdsOf(inventory, distinct);
+        LocalDateTime nowTime = SeatInventory.toLocalDateTime(now);
+
+        long[] previous = new long[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            previous[i] = inventory.wordAt(indexes[i]);
+        }
+
+        // Chạy trong transaction đặt vé: nếu thiếu ghế thì transaction đó sẽ rollback
+        int booked = seatStatusBatchRepository.bookIfAvailable(inventory.getShowtimeId(), seatIds, userId, nowTime);
+        if (booked != seatIds.size()) {
+            booked += seatStatusBatchRepository.insertBooked(inventory.getShowtimeId(), seatIds);
+        }
+        if (booked != seatIds.size()) {
+            // Một phần ghế đã thành BOOKED trong transaction này và sẽ bị rollback cùng nó: trạng thái đọc được
+            // lúc này không phải trạng thái đã commit, nên chỉ đồng bộ inventory sau khi transaction kết thúc
+            refreshAfterCompletion(inventory, seatIds);
+            return null;
+        }
+
+        inventory.overwrite(indexes, SeatInventory.encode(SeatInventory.BOOKED, userId, 0));
+        return previous;
+    }
+
+    /**
+     * Sparse: dòng HELD quá hạn đã được coi là trống nhưng vẫn chiếm chỗ trong bảng, xoá định kỳ.
+     */
+    @Scheduled(fixedDelay = SCHEDULER_DELAY_MS, initialDelay = SCHEDULER_DELAY_MS)
+    public void purgeExpiredHolds() {
+        if (!seatInventoryConfig.isSparseSeatStatus()) {
+            return;
+        }
+        try {
+            int purged = seatStatusRepository.deleteExpiredHolds();
+            if (purged > 0) {
+                log.debug("Deleted {} expired seat_status holds", purged);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to delete expired seat_status holds: {}", e.getMessage());
+        }
+    }
+
+    private void refreshAfterCompletion(SeatInventory inventory, List<Integer> seatIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(inventory, seatIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    refresh(inventory, seatIds);
+                } catch (DataAccessException e) {
+                    log.warn("Could not refresh {} seats of showtime {} after a failed booking: {}",
+                            seatIds.size(), inventory.getShowtimeId(), e.getMessage());
+                }
+            }
+        });
+    }
+
+    /*
+     * Chép trạng thái đã commit của các ghế vào inventory; ghế không có dòng seat_status là ghế trống.
+     * Đọc trong transaction riêng vì có thể được gọi từ afterCompletion của transaction đặt vé.
+     */
+    private void refresh(SeatInventory inventory, List<Integer> seatIds) {
+        TransactionTemplate read = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        read.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        read.setReadOnly(true);
+        List<SeatStatusSnapshot> snapshots = read.execute(status ->
+                seatStatusRepository.findSnapshotsByShowtimeIdAndSeatIds(inventory.getShowtimeId(), seatIds));
+        Set<Integer> missing = new HashSet<>(seatIds);
+        for (SeatStatusSnapshot snapshot : snapshots) {
+            missing.remove(snapshot.getSeatId());
+            inventory.restore(
+                    snapshot.getSeatId(),
+                    snapshot.getStatus(),
+                    snapshot.getHeldByUserId(),
+                    snapshot.getHeldUntil() != null ? SeatInventory.toEpochSecond(snapshot.getHeldUntil()) : 0);
+        }
+        missing.forEach(seatId -> inventory.restore(seatId, SeatStatusType.AVAILABLE, null, 0));
+    }
+
+    private List<Integer> refreshAndFindConflicts(
+            SeatInventory inventory, int[] indexes, List<Integer> seatIds, int userId, long now) {
+        refresh(inventory, seatIds);
+        return inventory.findConflicts(indexes, userId, now);
+    }
+
+    private static List<Integer> seatIdsOf(SeatInventory inventory, int[] indexes) {
+        return Arrays.stream(indexes)
+                .mapToObj(index -> inventory.seatAt(index).seatId())
+                .toList();
+    }
+}
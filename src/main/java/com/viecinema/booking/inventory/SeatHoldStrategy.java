@@ -0,0 +1,40 @@
+package com.viecinema.booking.inventory;
+
+import com.viecinema.common.enums.SeatHoldStrategyType;
+
+import java.util.List;
+
+/**
+ * Cách quyết định giữ / nhả / đặt ghế, chọn bằng {@code app.seat-inventory.hold-strategy}.
+ * Mọi chiến lược đều để {@link SeatInventory} phản ánh kết quả cuối cùng (seatmap, SSE, hết hạn giữ ghế).
+ */
+public interface SeatHoldStrategy {
+
+    SeatHoldStrategyType getType();
+
+    /**
+     * true nếu trạng thái HELD / AVAILABLE chỉ nằm trong inventory và cần flusher ghi xuống seat_status.
+     */
+    boolean isWriteBehind();
+
+    /**
+     * Giữ ghế cho user (all-or-nothing).
+     *
+     * @return vị trí các ghế không thể giữ; rỗng nếu thành công.
+     */
+    List<Integer> hold(SeatInventory inventory, int[] indexes, int userId, long heldUntil, long now);
+
+    boolean release(SeatInventory inventory, int index, int userId, boolean force);
+
+    /**
+     * Nhả mọi ghế user đang giữ ở tầng lưu trữ, trước khi inventory của từng suất chiếu được cập nhật.
+     */
+    void releaseAllHeldBy(int userId);
+
+    /**
+     * Chiếm ghế cho booking trong transaction hiện tại.
+     *
+     * @return word cũ của các ghế (để khôi phục khi rollback); null nếu có ghế không còn trống.
+     */
+    long[] book(SeatInventory inventory, int[] indexes, int userId, long now);
+}
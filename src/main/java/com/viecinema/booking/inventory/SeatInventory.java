@@ -0,0 +1,518 @@
+package com.viecinema.booking.inventory;
+
+import com.viecinema.common.enums.SeatStatusType;
+import com.viecinema.showtime.entity.Seat;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trạng thái ghế trong bộ nhớ của một suất chiếu.
+ *
+ * <p>Mỗi ghế được mã hoá vào một {@code long} trong {@link AtomicLongArray}, đánh chỉ số theo vị trí
+ * ghế trong phòng (sắp theo seatId):
+ * <pre>
+ *   bit 0-1   : trạng thái (AVAILABLE / HELD / BOOKED)
+ *   bit 2-31  : userId đang giữ / đã đặt ghế
+ *   bit 32-63 : hạn giữ ghế (epoch second)
+ * </pre>
+ * Mọi thao tác giữ / nhả / đặt ghế đều là compare-and-set trên word của ghế, nên request giữ ghế
+ * không bao giờ phải chờ khoá dòng trong database. Thao tác nhiều ghế là all-or-nothing: nếu một ghế
+ * bị người khác chiếm giữa chừng, các ghế đã claim sẽ được trả về word cũ.
+ *
+ * <p>Các ghế thay đổi được đánh dấu "dirty" (1 bit / ghế) để flusher ghi xuống bảng seat_status.
+ *
+ * <p>Số ghế theo trạng thái được giữ trong các {@link LongAdder} (striped, không tranh chấp khi nhiều thread
+ * cùng giữ ghế), cập nhật ở mỗi lần word của ghế đổi trạng thái, nên đọc số ghế trống là O(1).
+ */
+public class SeatInventory {
+
+    public static final int AVAILABLE = 0;
+    public static final int HELD = 1;
+    public static final int BOOKED = 2;
+
+    private static final long STATUS_MASK = 0x3L;
+    private static final long USER_MASK = 0x3FFFFFFFL;
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    @Getter
+    private final Integer showtimeId;
+    @Getter
+    private final Integer roomId;
+    /** Giờ bắt đầu suất chiếu (epoch second), dùng để dọn inventory của suất đã chiếu. */
+    @Getter
+    private final long startsAt;
+
+    private final SeatRef[] seats;
+    private final int[] seatIds;
+    /** Vị trí ghế theo từng hàng (hàng gần màn hình trước), trong hàng sắp theo số ghế. */
+    private final int[][] rows;
+    private final AtomicLongArray words;
+    private final AtomicLongArray dirty;
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder[] counters = {new LongAdder(), new LongAdder(), new LongAdder()};
+    /** Định danh duy nhất của lần nạp inventory; đổi khi inventory bị evict và nạp lại. */
+    @Getter
+    private final long generation = GENERATIONS.incrementAndGet();
+
+    public SeatInventory(Integer showtimeId, Integer roomId, long startsAt, List<Seat> roomSeats) {
+        this.showtimeId = showtimeId;
+        this.roomId = roomId;
+        this.startsAt = startsAt;
+        this.seats = roomSeats.stream()
+                .map(SeatRef::of)
+                .sorted(Comparator.comparingInt(SeatRef::seatId))
+                .toArray(SeatRef[]::new);
+        this.seatIds = Arrays.stream(seats).mapToInt(SeatRef::seatId).toArray();
+        this.rows = buildRows(seats);
+        this.counters[AVAILABLE].add(seats.length);
+        this.words = new AtomicLongArray(seats.length);
+        this.dirty = new AtomicLongArray((seats.length + 63) >>> 6);
+    }
+
+    // ========== ENCODING ==========
+
+    public static long encode(int status, int userId, long heldUntil) {
+        return (heldUntil << 32) | (((long) userId & USER_MASK) << 2) | (status & STATUS_MASK);
+    }
+
+    public static int statusOf(long word) {
+        return (int) (word & STATUS_MASK);
+    }
+
+    public static int userOf(long word) {
+        return (int) ((word >>> 2) & USER_MASK);
+    }
+
+    public static long heldUntilOf(long word) {
+        return word >>> 32;
+    }
+
+    /**
+     * Trạng thái thực tế tại thời điểm {@code now}: ghế HELD đã hết hạn được coi là AVAILABLE.
+     */
+    public static int effectiveStatus(long word, long now) {
+        int status = statusOf(word);
+        if (status == HELD && heldUntilOf(word) <= now) {
+            return AVAILABLE;
+        }
+        return status;
+    }
+
+    public static long toEpochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+
+    public static SeatStatusType toStatusType(int status) {
+        return switch (status) {
+            case HELD -> SeatStatusType.HELD;
+            case BOOKED -> SeatStatusType.BOOKED;
+            default -> SeatStatusType.AVAILABLE;
+        };
+    }
+
+    // ========== LOOKUP ==========
+
+    public int size() {
+        return seats.length;
+    }
+
+    /**
+     * @return vị trí của ghế trong inventory, hoặc -1 nếu ghế không thuộc phòng (hoặc đã bị vô hiệu hoá).
+     */
+    public int indexOf(int seatId) {
+        int index = Arrays.binarySearch(seatIds, seatId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * @return vị trí của từng ghế; phần tử bằng -1 nếu ghế không thuộc phòng.
+     */
+    public int[] indexesOf(List<Integer> seatIds) {
+        return seatIds.stream().mapToInt(this::indexOf).toArray();
+    }
+
+    public int rowCount() {
+        return rows.length;
+    }
+
+    /**
+     * @return vị trí các ghế của hàng thứ {@code row}, sắp theo số ghế. Không được sửa mảng trả về.
+     */
+    public int[] rowAt(int row) {
+        return rows[row];
+    }
+
+    public SeatRef seatAt(int index) {
+        return seats[index];
+    }
+
+    public long wordAt(int index) {
+        return words.get(index);
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Số ghế theo trạng thái, đọc từ bộ đếm (O(1)). Ghế HELD đã quá hạn vẫn được tính là HELD cho tới khi
+     * wheel hết hạn trả ghế (trễ tối đa ~1 tick).
+     */
+    public SeatCounts counts() {
+        return new SeatCounts(
+                counters[AVAILABLE].intValue(),
+                counters[HELD].intValue(),
+                counters[BOOKED].intValue());
+    }
+
+    /**
+     * Đếm lại từ các word và chỉnh bộ đếm nếu lệch.
+     *
+     * @return tổng độ lệch (số ghế) đã chỉnh.
+     */
+    public int reconcileCounts() {
+        int[] actual = new int[3];
+        for (int index = 0; index < seats.length; index++) {
+            actual[statusOf(words.get(index))]++;
+        }
+        int drift = 0;
+        for (int status = AVAILABLE; status <= BOOKED; status++) {
+            long delta = actual[status] - counters[status].sum();
+            if (delta != 0) {
+                counters[status].add(delta);
+                drift += (int) Math.abs(delta);
+            }
+        }
+        return drift;
+    }
+
+    // ========== RECOVERY ==========
+
+    /**
+     * Nạp trạng thái đã lưu trong seat_status (khi dựng inventory hoặc đồng bộ lại từ DB). Không đánh dấu dirty.
+     */
+    public void restore(int seatId, SeatStatusType status, Integer heldByUserId, long heldUntil) {
+        int index = indexOf(seatId);
+        if (index < 0 || status == null) {
+            return;
+        }
+        long word = storedWord(status, heldByUserId, heldUntil);
+        count(words.getAndSet(index, word), word);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Đồng bộ một ghế với trạng thái đọc từ seat_status, chỉ khi word vẫn là {@code seen} (đọc trước truy vấn DB):
+     * thay đổi cục bộ sau đó mới hơn bản đọc từ DB nên được giữ lại. Không đánh dấu dirty.
+     *
+     * @return true nếu word đã được thay.
+     */
+    public boolean resync(int index, long seen, long word) {
+        if (!words.compareAndSet(index, seen, word)) {
+            return false;
+        }
+        count(seen, word);
+        version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Word tương ứng với một dòng seat_status; dòng HELD không có người giữ được coi là trống.
+     */
+    public static long storedWord(SeatStatusType status, Integer heldByUserId, long heldUntil) {
+        return switch (status) {
+            case BOOKED -> encode(BOOKED, heldByUserId != null ? heldByUserId : 0, 0);
+            case HELD -> heldByUserId != null ? encode(HELD, heldByUserId, heldUntil) : encode(AVAILABLE, 0, 0);
+            default -> encode(AVAILABLE, 0, 0);
+        };
+    }
+
+    /**
+     * Ghi đè trạng thái ghế không điều kiện, dùng khi quyết định đã được đưa ra ở tầng lưu trữ
+     * (ví dụ chiến lược giữ ghế optimistic trên DB) và inventory chỉ phản chiếu lại kết quả.
+     */
+    public void overwrite(int[] indexes, long word) {
+        for (int index : indexes) {
+            count(words.getAndSet(index, word), word);
+        }
+        markChanged(indexes);
+    }
+
+    // ========== TRANSITIONS ==========
+
+    /**
+     * Giữ tất cả ghế cho user (all-or-nothing).
+     *
+     * @return danh sách vị trí ghế không thể giữ; rỗng nếu giữ thành công.
+     */
+    public List<Integer> hold(int[] indexes, int userId, long heldUntil, long now) {
+        List<Integer> conflicts = findConflicts(indexes, userId, now);
+        if (!conflicts.isEmpty()) {
+            return conflicts;
+        }
+
+        long claimed = encode(HELD, userId, heldUntil);
+        long[] previous = new long[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            int index = indexes[i];
+            while (true) {
+                long current = words.get(index);
+                if (!isClaimable(current, userId, now)) {
+                    rollback(indexes, previous, claimed, i);
+                    return List.of(index);
+                }
+                if (words.compareAndSet(index, current, claimed)) {
+                    count(current, claimed);
+                    previous[i] = current;
+                    break;
+                }
+            }
+        }
+        markChanged(indexes);
+        return List.of();
+    }
+
+    /**
+     * Chuyển ghế sang BOOKED cho user (all-or-nothing). Ghế phải đang trống hoặc do chính user giữ.
+     *
+     * @return word cũ của từng ghế để có thể hoàn tác khi transaction đặt vé rollback,
+     * hoặc {@code null} nếu có ghế không thể đặt (xem {@link #findConflicts}).
+     */
+    public long[] book(int[] indexes, int userId, long now) {
+        long booked = encode(BOOKED, userId, 0);
+        long[] previous = new long[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            int index = indexes[i];
+            while (true) {
+                long current = words.get(index);
+                if (!isClaimable(current, userId, now)) {
+                    rollback(indexes, previous, booked, i);
+                    return null;
+                }
+                if (words.compareAndSet(index, current, booked)) {
+                    count(current, booked);
+                    previous[i] = current;
+                    break;
+                }
+            }
+        }
+        version.incrementAndGet();
+        return previous;
+    }
+
+    /**
+     * Hoàn tác {@link #book} khi transaction đặt vé không commit được. Ghế HELD mà hạn giữ đã qua trong lúc đặt vé
+     * được trả về AVAILABLE: wheel đã bỏ qua ghế (word lúc đó là BOOKED) nên không còn ai hết hạn giúp nó nữa.
+     */
+    public void unbook(int[] indexes, long[] previous, int userId, long now) {
+        long booked = encode(BOOKED, userId, 0);
+        long available = encode(AVAILABLE, 0, 0);
+        for (int j = indexes.length - 1; j >= 0; j--) {
+            long restored = effectiveStatus(previous[j], now) == AVAILABLE ? available : previous[j];
+            if (words.compareAndSet(indexes[j], booked, restored)) {
+                count(booked, restored);
+                if (restored != previous[j]) {
+                    markDirty(indexes[j]);
+                }
+            }
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Trả ghế đã BOOKED về AVAILABLE sau khi booking bị huỷ (DB đã được cập nhật bởi caller).
+     */
+    public void releaseBooked(int[] indexes) {
+        long available = encode(AVAILABLE, 0, 0);
+        for (int index : indexes) {
+            long current = words.get(index);
+            if (statusOf(current) == BOOKED && words.compareAndSet(index, current, available)) {
+                count(current, available);
+            }
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Nhả một ghế đang HELD. Nếu {@code force} là false thì ghế phải do chính user giữ.
+     */
+    public boolean release(int index, int userId, boolean force) {
+        long available = encode(AVAILABLE, 0, 0);
+        while (true) {
+            long current = words.get(index);
+            if (statusOf(current) != HELD || (!force && userOf(current) != userId)) {
+                return false;
+            }
+            if (words.compareAndSet(index, current, available)) {
+                count(current, available);
+                markChanged(index);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Nhả tất cả ghế đang được user giữ trong suất chiếu này.
+     *
+     * @return vị trí các ghế đã nhả.
+     */
+    public int[] releaseAll(int userId) {
+        int[] released = new int[seats.length];
+        int count = 0;
+        for (int index = 0; index < seats.length; index++) {
+            long current = words.get(index);
+            if (statusOf(current) == HELD && userOf(current) == userId && release(index, userId, false)) {
+                released[count++] = index;
+            }
+        }
+        return Arrays.copyOf(released, count);
+    }
+
+    /**
+     * Trả ghế về AVAILABLE khi hết hạn giữ, chỉ khi ghế vẫn giữ nguyên word lúc được giữ.
+     */
+    public boolean expire(int index, long heldWord) {
+        long available = encode(AVAILABLE, 0, 0);
+        if (statusOf(heldWord) != HELD || !words.compareAndSet(index, heldWord, available)) {
+            return false;
+        }
+        count(heldWord, available);
+        markChanged(index);
+        return true;
+    }
+
+    /**
+     * Danh sách ghế (trong {@code indexes}) mà user không thể giữ / đặt tại thời điểm {@code now}.
+     */
+    public List<Integer> findConflicts(int[] indexes, int userId, long now) {
+        List<Integer> conflicts = new ArrayList<>();
+        for (int index : indexes) {
+            if (!isClaimable(words.get(index), userId, now)) {
+                conflicts.add(index);
+            }
+        }
+        return conflicts;
+    }
+
+    // ========== WRITE-BEHIND ==========
+
+    /**
+     * Lấy và xoá toàn bộ bit dirty.
+     *
+     * @return vị trí các ghế đã thay đổi kể từ lần drain trước.
+     */
+    public int[] drainDirty() {
+        int[] buffer = new int[seats.length];
+        int count = 0;
+        for (int w = 0; w < dirty.length(); w++) {
+            long bits = dirty.getAndSet(w, 0L);
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                buffer[count++] = (w << 6) + bit;
+                bits &= bits - 1;
+            }
+        }
+        return Arrays.copyOf(buffer, count);
+    }
+
+    public void markDirty(int[] indexes) {
+        for (int index : indexes) {
+            markDirty(index);
+        }
+    }
+
+    private void markDirty(int index) {
+        int w = index >>> 6;
+        long mask = 1L << (index & 63);
+        long bits;
+        do {
+            bits = dirty.get(w);
+            if ((bits & mask) != 0) {
+                return;
+            }
+        } while (!dirty.compareAndSet(w, bits, bits | mask));
+    }
+
+    // ========== HELPERS ==========
+
+    static boolean isClaimable(long word, int userId, long now) {
+        return switch (effectiveStatus(word, now)) {
+            case AVAILABLE -> true;
+            case HELD -> userOf(word) == userId;
+            default -> false;
+        };
+    }
+
+    private static int[][] buildRows(SeatRef[] seats) {
+        Map<String, List<Integer>> byRow = new TreeMap<>(
+                Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+        for (int index = 0; index < seats.length; index++) {
+            byRow.computeIfAbsent(seats[index].seatRow(), k -> new ArrayList<>()).add(index);
+        }
+        return byRow.values().stream()
+                .map(indexes -> indexes.stream()
+                        .sorted(Comparator.comparingInt(index -> seats[index].seatNumber()))
+                        .mapToInt(Integer::intValue)
+                        .toArray())
+                .toArray(int[][]::new);
+    }
+
+    private void rollback(int[] indexes, long[] previous, long claimed, int claimedCount) {
+        for (int j = claimedCount - 1; j >= 0; j--) {
+            if (words.compareAndSet(indexes[j], claimed, previous[j])) {
+                count(claimed, previous[j]);
+            }
+        }
+    }
+
+    private void count(long from, long to) {
+        int fromStatus = statusOf(from);
+        int toStatus = statusOf(to);
+        if (fromStatus != toStatus) {
+            counters[fromStatus].decrement();
+            counters[toStatus].increment();
+        }
+    }
+
+    private void markChanged(int index) {
+        markDirty(index);
+        version.incrementAndGet();
+    }
+
+    private void markChanged(int[] indexes) {
+        markDirty(indexes);
+        version.incrementAndGet();
+    }
+
+    public record SeatCounts(int available, int held, int booked) {}
+
+    /**
+     * Thông tin bất biến của ghế trong phòng.
+     */
+    public record SeatRef(int seatId, String seatRow, int seatNumber, Integer seatTypeId, String seatTypeName) {
+        static SeatRef of(Seat seat) {
+            return new SeatRef(
+                    seat.getSeatId(),
+                    seat.getSeatRow(),
+                    seat.getSeatNumber(),
+                    seat.getSeatType().getSeatTypeId(),
+                    seat.getSeatType().getName());
+        }
+    }
+}
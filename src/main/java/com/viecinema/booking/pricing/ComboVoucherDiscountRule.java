@@ -0,0 +1,39 @@
+package com.viecinema.booking.pricing;
+
+import com.viecinema.booking.dto.PricingContext;
+import com.viecinema.booking.service.VoucherService;
+import com.viecinema.common.enums.DiscountKind;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Voucher COMBO_DISCOUNT, tính trên tiền combo.
+ */
+@Component
+@Order(300)
+@RequiredArgsConstructor
+public class ComboVoucherDiscountRule implements DiscountRule {
+
+    private final VoucherService voucherService;
+
+    @Override
+    public DiscountKind getKind() {
+        return DiscountKind.COMBO_VOUCHER;
+    }
+
+    @Override
+    public boolean appliesTo(PricingContext context) {
+        return context.getComboVoucherId() != null;
+    }
+
+    @Override
+    public BigDecimal discount(PricingContext context, PriceSubtotals subtotals) {
+        return voucherService.calculateComboVoucherDiscount(
+                context.getComboVoucherId(),
+                context.getUser().getId(),
+                subtotals.combos());
+    }
+}
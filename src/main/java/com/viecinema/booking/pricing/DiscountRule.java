@@ -0,0 +1,25 @@
+package com.viecinema.booking.pricing;
+
+import com.viecinema.booking.dto.PricingContext;
+import com.viecinema.common.enums.DiscountKind;
+
+import java.math.BigDecimal;
+
+/**
+ * Một bước trong chuỗi giảm giá. Các rule là bean, được Spring sắp theo {@code @Order} một lần lúc khởi động;
+ * mỗi lần tính giá chỉ các rule có {@link #appliesTo} đúng mới được gọi.
+ */
+public interface DiscountRule {
+
+    DiscountKind getKind();
+
+    /**
+     * Kiểm tra nhanh trên input (không truy vấn DB), ví dụ user có nhập mã hay không.
+     */
+    boolean appliesTo(PricingContext context);
+
+    /**
+     * @return số tiền giảm (không âm); ném exception nếu mã / voucher không hợp lệ.
+     */
+    BigDecimal discount(PricingContext context, PriceSubtotals subtotals);
+}
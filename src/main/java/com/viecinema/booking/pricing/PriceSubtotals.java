@@ -0,0 +1,8 @@
+package com.viecinema.booking.pricing;
+
+import java.math.BigDecimal;
+
+/**
+ * Tạm tính trước giảm giá, đầu vào của các {@link DiscountRule}.
+ */
+public record PriceSubtotals(BigDecimal tickets, BigDecimal combos, BigDecimal subtotal) {}
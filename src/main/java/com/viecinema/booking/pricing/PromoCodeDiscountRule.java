@@ -0,0 +1,42 @@
+package com.viecinema.booking.pricing;
+
+import com.viecinema.booking.dto.PricingContext;
+import com.viecinema.booking.service.PromotionValidationService;
+import com.viecinema.common.enums.DiscountKind;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+
+/**
+ * Mã khuyến mãi, tính trên tổng tạm tính (vé + combo).
+ */
+@Component
+@Order(100)
+@RequiredArgsConstructor
+public class PromoCodeDiscountRule implements DiscountRule {
+
+    private final PromotionValidationService promotionValidationService;
+
+    @Override
+    public DiscountKind getKind() {
+        return DiscountKind.PROMO_CODE;
+    }
+
+    @Override
+    public boolean appliesTo(PricingContext context) {
+        return StringUtils.hasText(context.getPromoCode());
+    }
+
+    @Override
+    public BigDecimal discount(PricingContext context, PriceSubtotals subtotals) {
+        return promotionValidationService.validateAndCalculate(
+                context.getPromoCode(),
+                context.getUser().getId(),
+                subtotals.subtotal(),
+                context.getShowtime().getMovie().getMovieId(),
+                context.getShowtime().getStartTime());
+    }
+}
@@ -0,0 +1,39 @@
+package com.viecinema.booking.pricing;
+
+import com.viecinema.booking.dto.PricingContext;
+import com.viecinema.booking.service.VoucherService;
+import com.viecinema.common.enums.DiscountKind;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Voucher TICKET_DISCOUNT, tính trên tiền vé.
+ */
+@Component
+@Order(200)
+@RequiredArgsConstructor
+public class TicketVoucherDiscountRule implements DiscountRule {
+
+    private final VoucherService voucherService;
+
+    @Override
+    public DiscountKind getKind() {
+        return DiscountKind.TICKET_VOUCHER;
+    }
+
+    @Override
+    public boolean appliesTo(PricingContext context) {
+        return context.getTicketVoucherId() != null;
+    }
+
+    @Override
+    public BigDecimal discount(PricingContext context, PriceSubtotals subtotals) {
+        return voucherService.calculateTicketVoucherDiscount(
+                context.getTicketVoucherId(),
+                context.getUser().getId(),
+                subtotals.tickets());
+    }
+}
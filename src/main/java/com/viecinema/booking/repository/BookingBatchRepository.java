@@ -0,0 +1,57 @@
+package com.viecinema.booking.repository;
+
+import com.viecinema.booking.entity.BookingCombo;
+import com.viecinema.booking.entity.BookingSeat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Ghi các dòng con của booking (ghế, combo) theo lô bằng JDBC.
+ *
+ * <p>Các entity dùng {@code GenerationType.IDENTITY} nên Hibernate không gom INSERT được: mỗi ghế là một
+ * round-trip trong lúc đang giữ khoá ghế. Ở đây mỗi loại dòng là một batch (với
+ * {@code rewriteBatchedStatements=true} driver MySQL gộp thành một câu INSERT nhiều VALUES).
+ * Các dòng được ghi trong transaction hiện tại nhưng không nằm trong persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingBatchRepository {
+
+    private static final String INSERT_BOOKING_SEAT_SQL = """
+            INSERT INTO booking_seats (booking_id, seat_id, price)
+            VALUES (?, ?, ?)
+            """;
+
+    private static final String INSERT_BOOKING_COMBO_SQL = """
+            INSERT INTO booking_combos (booking_id, combo_id, quantity, price)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertBookingSeats(Integer bookingId, List<BookingSeat> bookingSeats) {
+        if (bookingSeats.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_BOOKING_SEAT_SQL, bookingSeats, bookingSeats.size(), (ps, bookingSeat) -> {
+            ps.setInt(1, bookingId);
+            ps.setInt(2, bookingSeat.getSeat().getSeatId());
+            ps.setBigDecimal(3, bookingSeat.getPrice());
+        });
+    }
+
+    public void insertBookingCombos(Integer bookingId, List<BookingCombo> bookingCombos) {
+        if (bookingCombos.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_BOOKING_COMBO_SQL, bookingCombos, bookingCombos.size(), (ps, bookingCombo) -> {
+            ps.setInt(1, bookingId);
+            ps.setInt(2, bookingCombo.getCombo().getId());
+            ps.setInt(3, bookingCombo.getQuantity());
+            ps.setBigDecimal(4, bookingCombo.getPrice());
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package com.viecinema.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Huỷ booking PENDING quá hạn theo từng đoạn booking_id, bằng các câu lệnh theo tập hợp (JDBC).
+ *
+ * <p>Mọi câu lệnh của một đoạn lọc cùng điều kiện ({@code booking_id BETWEEN :fromId AND :toId AND status =
+ * 'PENDING' AND created_at < :cutoff}) nên chỉ chạm đúng các booking của đoạn; booking đã PAID / CANCELLED nằm
+ * trong khoảng id không bị ảnh hưởng. Ghế phải được trả trước khi booking đổi sang CANCELLED.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingCleanupRepository {
+
+    private static final String FIND_EXPIRED_IDS_SQL = """
+            SELECT booking_id
+            FROM bookings
+            WHERE status = 'PENDING'
+            AND created_at < :cutoff
+            AND booking_id > :afterId
+            ORDER BY booking_id
+            LIMIT :limit
+            """;
+
+    /*
+     * Khoá các booking của đoạn (và dòng booking_seats) giữa lúc trả ghế và lúc huỷ. VnpayService lock booking
+     * (findByIdWithLock) trước khi xét trạng thái, nên chờ đoạn này commit rồi thấy CANCELLED thay vì ghi PAID.
+     */
+    private static final String LOCK_EXPIRED_SEATS_SQL = """
+            SELECT b.showtime_id, bs.seat_id
+            FROM bookings b
+            JOIN booking_seats bs ON bs.booking_id = b.booking_id
+            WHERE b.booking_id BETWEEN :fromId AND :toId
+            AND b.status = 'PENDING'
+            AND b.created_at < :cutoff
+            FOR UPDATE
+            """;
+
+    private static final String RELEASE_SEATS_SQL = """
+            UPDATE seat_status ss
+            JOIN booking_seats bs ON bs.seat_id = ss.seat_id
+            JOIN bookings b ON b.booking_id = bs.booking_id AND b.showtime_id = ss.showtime_id
+            SET ss.held_by_user_id = NULL,
+                ss.held_until = NULL,
+                ss.version = ss.version + 1,
+                ss.status = 'AVAILABLE'
+            WHERE b.booking_id BETWEEN :fromId AND :toId
+            AND b.status = 'PENDING'
+            AND b.created_at < :cutoff
+            AND ss.status = 'BOOKED'
+            """;
+
+    /*
+     * Chế độ sparse: ghế trống không có dòng seat_status.
+     */
+    private static final String DELETE_SEATS_SQL = """
+            DELETE ss
+            FROM seat_status ss
+            JOIN booking_seats bs ON bs.seat_id = ss.seat_id
+            JOIN bookings b ON b.booking_id = bs.booking_id AND b.showtime_id = ss.showtime_id
+            WHERE b.booking_id BETWEEN :fromId AND :toId
+            AND b.status = 'PENDING'
+            AND b.created_at < :cutoff
+            AND ss.status = 'BOOKED'
+            """;
+
+    private static final String CANCEL_SQL = """
+            UPDATE bookings
+            SET status = 'CANCELLED'
+            WHERE booking_id BETWEEN :fromId AND :toId
+            AND status = 'PENDING'
+            AND created_at < :cutoff
+            """;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * @return tối đa {@code limit} booking_id quá hạn lớn hơn {@code afterId}, tăng dần.
+     */
+    public List<Integer> findExpiredIds(LocalDateTime cutoff, int afterId, int limit) {
+        return namedParameterJdbcTemplate.queryForList(FIND_EXPIRED_IDS_SQL, new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("afterId", afterId)
+                .addValue("limit", limit), Integer.class);
+    }
+
+    public List<ExpiredSeat> lockExpiredSeats(int fromId, int toId, LocalDateTime cutoff) {
+        return namedParameterJdbcTemplate.query(LOCK_EXPIRED_SEATS_SQL, range(fromId, toId, cutoff),
+                (rs, rowNum) -> new ExpiredSeat(rs.getInt("showtime_id"), rs.getInt("seat_id")));
+    }
+
+    /**
+     * Trả ghế BOOKED của các booking trong đoạn (về AVAILABLE, hoặc xoá dòng ở chế độ sparse).
+     *
+     * @return số dòng seat_status bị ảnh hưởng.
+     */
+    public int releaseSeats(int fromId, int toId, LocalDateTime cutoff, boolean sparse) {
+        return namedParameterJdbcTemplate.update(sparse ? DELETE_SEATS_SQL : RELEASE_SEATS_SQL,
+                range(fromId, toId, cutoff));
+    }
+
+    /**
+     * @return số booking bị huỷ.
+     */
+    public int cancel(int fromId, int toId, LocalDateTime cutoff) {
+        return namedParameterJdbcTemplate.update(CANCEL_SQL, range(fromId, toId, cutoff));
+    }
+
+    private static MapSqlParameterSource range(int fromId, int toId, LocalDateTime cutoff) {
+        return new MapSqlParameterSource()
+                .addValue("fromId", fromId)
+                .addValue("toId", toId)
+                .addValue("cutoff", Timestamp.valueOf(cutoff));
+    }
+
+    public record ExpiredSeat(int showtimeId, int seatId) {}
+}
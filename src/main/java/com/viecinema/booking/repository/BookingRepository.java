@@ -2,8 +2,10 @@ package com.viecinema.booking.repository;
 
 import com.viecinema.booking.entity.Booking;
 import com.viecinema.common.enums.BookingStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -33,15 +35,14 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
             @Param("oldStatus") BookingStatus oldStatus,
             @Param("expirationTime") LocalDateTime expirationTime
     );
-    @EntityGraph(attributePaths = {
-            "showtime",
-            "bookingSeats.seat"
-    })
-    @Query("SELECT b FROM Booking b WHERE b.status = :status AND b.createdAt < :expirationTime")
-    List<Booking> findExpiredBookings(
-            @Param("status") BookingStatus status,
-            @Param("expirationTime") LocalDateTime expirationTime
-    );
+
+    /**
+     * Tìm booking và lock pessimistic: thanh toán chờ job huỷ booking hết hạn commit rồi mới đọc trạng thái,
+     * nên không ghi PAID đè lên booking đã huỷ và đã trả ghế.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findByIdWithLock(@Param("id") Integer id);
 
     /**
      * Load booking với đầy đủ associations cần thiết để gửi email xác nhận.
@@ -69,4 +70,13 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
     })
     @Query("SELECT b FROM Booking b WHERE b.id = :bookingId AND b.deletedAt IS NULL")
     Optional<Booking> findByIdWithFullDetails(@Param("bookingId") Integer bookingId);
+
+    /**
+     * Mã đặt vé lớn nhất có tiền tố cho trước (tra theo index uk của booking_code), dùng để nối tiếp sequence
+     * của {@code BookingCodeGenerator} sau khi khởi động lại.
+     */
+    @Query(value = "SELECT MAX(booking_code) FROM bookings " +
+            "WHERE booking_code LIKE CONCAT(:prefix, '%') AND CHAR_LENGTH(booking_code) = :length",
+            nativeQuery = true)
+    Optional<String> findMaxBookingCode(@Param("prefix") String prefix, @Param("length") int length);
 }
@@ -0,0 +1,170 @@
+package com.viecinema.booking.service;
+
+import com.viecinema.booking.admission.AdmissionQueue;
+import com.viecinema.booking.dto.response.AdmissionStatusResponse;
+import com.viecinema.booking.exception.NotAdmittedException;
+import com.viecinema.common.enums.AdmissionStatusType;
+import com.viecinema.common.exception.ResourceNotFoundException;
+import com.viecinema.showtime.entity.Showtime;
+import com.viecinema.showtime.repository.ShowtimeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.viecinema.common.constant.PolicyConstants.ADMISSION_POLL_INTERVAL_SECONDS;
+import static com.viecinema.common.constant.PolicyConstants.ADMISSION_POLL_TIMEOUT_SECONDS;
+import static com.viecinema.common.constant.PolicyConstants.ADMISSION_TICK_MS;
+import static com.viecinema.common.constant.PolicyConstants.ADMISSION_WINDOW_MINUTES;
+
+/**
+ * Phòng chờ (virtual waiting room) cho các suất chiếu mở bán "nóng".
+ *
+ * <p>Suất chiếu có {@code admissionRatePerMinute} thì user phải vào hàng và được cho vào luồng chọn ghế / đặt vé
+ * theo tốc độ đó (token bucket, burst = {@code admissionBurst}); các suất khác không bị ảnh hưởng. Trạng thái
+ * phòng chờ nằm trong bộ nhớ của instance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdmissionService {
+
+    private final ShowtimeRepository showtimeRepository;
+
+    private final Map<Integer, AdmissionQueue> queues = new ConcurrentHashMap<>();
+
+    public AdmissionStatusResponse join(Integer showtimeId, Integer userId) {
+        Showtime showtime = showtimeRepository.findById(showtimeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Showtime"));
+        if (!isEnabled(showtime)) {
+            disable(showtimeId);
+            return open(showtimeId);
+        }
+        long now = System.currentTimeMillis();
+        AdmissionQueue.Position[] position = new AdmissionQueue.Position[1];
+        // Vào hàng ngay trong compute: advanceQueues không thể bỏ queue (đang rảnh) giữa lúc lấy ra và lúc vào hàng
+        queues.compute(showtimeId, (id, queue) -> {
+            AdmissionQueue target = configure(queue, showtime, now);
+            position[0] = target.join(userId, now);
+            return target;
+        });
+        return toResponse(showtimeId, position[0]);
+    }
+
+    public AdmissionStatusResponse getStatus(Integer showtimeId, Integer userId) {
+        AdmissionQueue queue = queues.get(showtimeId);
+        if (queue == null) {
+            // Queue chưa được tạo (hoặc phòng chờ đã tắt): xử lý như vào hàng
+            return join(showtimeId, userId);
+        }
+        AdmissionQueue.Position position = queue.poll(userId, System.currentTimeMillis());
+        if (position == null) {
+            return join(showtimeId, userId);
+        }
+        return toResponse(showtimeId, position);
+    }
+
+    /**
+     * Chặn user chưa được cho vào luồng chọn ghế / đặt vé của suất chiếu đang bật phòng chờ.
+     */
+    public void checkAdmitted(Showtime showtime, Integer userId) {
+        if (!isEnabled(showtime)) {
+            disable(showtime.getId());
+            return;
+        }
+        // User đã được cho vào thì queue không rảnh nên không bị bỏ; không có queue nghĩa là chưa được cho vào
+        AdmissionQueue queue = queues.get(showtime.getId());
+        long now = System.currentTimeMillis();
+        if (queue != null) {
+            configure(queue, showtime, now);
+        }
+        if (queue == null || !queue.isAdmitted(userId, now)) {
+            throw new NotAdmittedException("This showtime is in high demand, please join the waiting room first");
+        }
+    }
+
+    @Scheduled(fixedRate = ADMISSION_TICK_MS)
+    public void advanceQueues() {
+        long now = System.currentTimeMillis();
+        queues.values().forEach(queue -> {
+            int admitted = queue.advance(now);
+            if (admitted > 0) {
+                log.debug("Admitted {} users to showtime {} ({} waiting)",
+                        admitted, queue.getShowtimeId(), queue.getWaitingCount());
+            }
+        });
+        // Bỏ queue rảnh theo từng key, nguyên tử với join (cùng chạy trong compute của map)
+        for (Integer showtimeId : queues.keySet()) {
+            queues.computeIfPresent(showtimeId, (id, queue) -> queue.isIdle() ? null : queue);
+        }
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private boolean isEnabled(Showtime showtime) {
+        Integer rate = showtime.getAdmissionRatePerMinute();
+        return rate != null && rate > 0;
+    }
+
+    /**
+     * Phòng chờ đã tắt: bỏ queue và cho cả hàng vào.
+     */
+    private void disable(Integer showtimeId) {
+        AdmissionQueue disabled = queues.remove(showtimeId);
+        if (disabled != null) {
+            disabled.admitAll(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * @return {@code queue} (tạo mới nếu null) với tốc độ theo cấu hình hiện tại của suất chiếu.
+     */
+    private AdmissionQueue configure(AdmissionQueue queue, Showtime showtime, long now) {
+        int rate = showtime.getAdmissionRatePerMinute();
+        int burst = showtime.getAdmissionBurst() != null && showtime.getAdmissionBurst() > 0
+                ? showtime.getAdmissionBurst()
+                : rate;
+        if (queue == null) {
+            return new AdmissionQueue(
+                    showtime.getId(),
+                    rate,
+                    burst,
+                    ADMISSION_WINDOW_MINUTES * 60_000L,
+                    ADMISSION_POLL_TIMEOUT_SECONDS * 1000L,
+                    now);
+        }
+        queue.configure(rate, burst);
+        return queue;
+    }
+
+    private AdmissionStatusResponse open(Integer showtimeId) {
+        return AdmissionStatusResponse.builder()
+                .showtimeId(showtimeId)
+                .status(AdmissionStatusType.ADMITTED)
+                .build();
+    }
+
+    private AdmissionStatusResponse toResponse(Integer showtimeId, AdmissionQueue.Position position) {
+        if (position.admitted()) {
+            return AdmissionStatusResponse.builder()
+                    .showtimeId(showtimeId)
+                    .status(AdmissionStatusType.ADMITTED)
+                    .admittedUntil(LocalDateTime.ofInstant(
+                            Instant.ofEpochMilli(position.admittedUntil()), ZoneId.systemDefault()))
+                    .build();
+        }
+        return AdmissionStatusResponse.builder()
+                .showtimeId(showtimeId)
+                .status(AdmissionStatusType.WAITING)
+                .position(position.position())
+                .estimatedWaitSeconds(position.estimatedWaitSeconds() >= 0 ? position.estimatedWaitSeconds() : null)
+                .pollAfterSeconds(ADMISSION_POLL_INTERVAL_SECONDS)
+                .build();
+    }
+}
@@ -9,24 +9,29 @@ import com.viecinema.booking.dto.PricingContext;
 import com.viecinema.booking.dto.request.CalculateBookingRequest;
 import com.viecinema.booking.dto.response.CalculateBookingResponse;
 import com.viecinema.booking.entity.Combo;
+import com.viecinema.booking.pricing.DiscountRule;
+import com.viecinema.booking.pricing.PriceSubtotals;
 import com.viecinema.booking.repository.ComboRepository;
 import com.viecinema.booking.validator.BookingValidator;
+import com.viecinema.common.enums.DiscountKind;
+import com.viecinema.common.exception.BadRequestException;
 import com.viecinema.common.exception.ResourceNotFoundException;
+import com.viecinema.showtime.dto.PriceTable;
 import com.viecinema.showtime.dto.SeatInfo;
 import com.viecinema.showtime.dto.ShowtimeInfo;
 import com.viecinema.showtime.entity.Seat;
 import com.viecinema.showtime.entity.Showtime;
 import com.viecinema.showtime.repository.SeatRepository;
 import com.viecinema.showtime.repository.ShowtimeRepository;
+import com.viecinema.showtime.service.PriceTableCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -40,16 +45,39 @@ public class BookingCalculationService {
     private final SeatRepository seatRepository;
     private final UserRepository userRepository;
     private final ComboRepository comboRepository;
-    private final VoucherService voucherService;
     private final ComboService comboService;
     private final BookingValidator bookingValidator;
-    private final PromotionValidationService promotionValidationService;
-
-    @Transactional
+    private final PriceTableCache priceTableCache;
+    private final List<DiscountRule> discountRules;
+    private final SeatInventoryService seatInventoryService;
+    private final QuoteCache quoteCache;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Tính giá tạm (quote) cho lựa chọn hiện tại của user.
+     *
+     * <p>Không khoá ghế: ghế chỉ được kiểm tra trên inventory trong bộ nhớ, việc chiếm ghế nằm ở lúc tạo booking,
+     * nên quote không chặn người mua khác. Kết quả được cache ngắn hạn theo toàn bộ input ({@link QuoteCache}).
+     */
     public CalculateBookingResponse calculateBooking(
             Integer userId,
             CalculateBookingRequest request) {
 
+        seatInventoryService.checkAvailable(request.getShowtimeId(), request.getSeatIds(), userId);
+
+        QuoteCache.QuoteKey key = QuoteCache.QuoteKey.of(userId, request);
+        CalculateBookingResponse cached = quoteCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = quoteCache.version();
+        CalculateBookingResponse response = transactionTemplate.execute(status -> quote(userId, request));
+        quoteCache.put(key, response, version);
+        return response;
+    }
+
+    private CalculateBookingResponse quote(Integer userId, CalculateBookingRequest request) {
         log.info("Calculating booking for user: {}, showtime: {}", userId, request.getShowtimeId());
 
         User user = userRepository.findById(userId)
@@ -60,7 +88,6 @@ public class BookingCalculationService {
 
         bookingValidator.validateUser(user);
         bookingValidator.validateShowtime(showtime);
-        bookingValidator.validateSeatAvailability(request.getShowtimeId(), request.getSeatIds(), userId);
 
         Map<Combo, Integer> selectedCombos = resolveCombos(request);
 
@@ -77,18 +104,11 @@ public class BookingCalculationService {
                         .comboVoucherId(request.getComboVoucherId())
                         .build();
 
-        PriceBreakdown priceBreakdown = calculatePrice(context);
-
-        List<SeatInfo> seatInfos = new ArrayList<>();
-        BigDecimal seatsSubtotal = BigDecimal.ZERO;
+        PriceTable priceTable = priceTableCache.get(showtime);
+        PriceBreakdown priceBreakdown = calculatePrice(context, priceTable);
 
+        List<SeatInfo> seatInfos = new ArrayList<>(seats.size());
         for (Seat seat : seats) {
-            BigDecimal seatPrice = showtime.getBasePrice()
-                    .multiply(seat.getSeatType().getPriceMultiplier())
-                    .setScale(0, RoundingMode.HALF_UP);
-
-            seatsSubtotal = seatsSubtotal.add(seatPrice);
-
             seatInfos.add(
                     SeatInfo.builder()
                             .seatId(seat.getSeatId())
@@ -96,7 +116,7 @@ public class BookingCalculationService {
                             .seatNumber(seat.getSeatNumber())
                             .seatTypeName(seat.getSeatType().getName())
                             .priceMultiplier(seat.getSeatType().getPriceMultiplier())
-                            .price(seatPrice)
+                            .price(seatPrice(priceTable, seat))
                             .build());
         }
 
@@ -136,78 +156,43 @@ public class BookingCalculationService {
     }
 
     public PriceBreakdown calculatePrice(PricingContext context) {
+        return calculatePrice(context, priceTableCache.get(context.getShowtime()));
+    }
 
-        // Calculate ticket price
-        Showtime showtime = context.getShowtime();
-
-        List<Seat> seats = context.getSeats();
+    /**
+     * Tính giá với bảng giá đã có của suất chiếu (caller dùng lại bảng này cho giá từng ghế).
+     */
+    public PriceBreakdown calculatePrice(PricingContext context, PriceTable priceTable) {
 
-        BigDecimal ticketsSubtotal = seats.stream()
-                .map(seat -> {
-                    BigDecimal basePrice = showtime.getBasePrice();
-                    BigDecimal multiplier = seat.getSeatType().getPriceMultiplier();
-                    return basePrice.multiply(multiplier);
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Calculate ticket price
+        long ticketsTotal = 0;
+        for (Seat seat : context.getSeats()) {
+            ticketsTotal += seatPriceValue(priceTable, seat);
+        }
+        BigDecimal ticketsSubtotal = BigDecimal.valueOf(ticketsTotal);
 
         // Calculate combo price
-        Map<Combo, Integer> selectedCombos = context.getSelectedCombos();
-        BigDecimal combosSubtotal = selectedCombos.entrySet().stream()
-                .map(entry -> {
-                    BigDecimal price = entry.getKey().getPrice();
-                    BigDecimal quantity = BigDecimal.valueOf(entry.getValue());
-                    return price.multiply(quantity);
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-
-        BigDecimal subtotal = ticketsSubtotal.add(combosSubtotal);
-
-        // Apply discount
-        BigDecimal promoDiscount = BigDecimal.ZERO;
-        BigDecimal ticketVoucherDiscount = BigDecimal.ZERO;
-        BigDecimal comboVoucherDiscount = BigDecimal.ZERO;
-        BigDecimal loyaltyDiscount = BigDecimal.ZERO;
-        BigDecimal membershipDiscount = BigDecimal.ZERO;
-        int pointsEarned = 0;
-
-        // Validate mã KM và tính discount
-        String promoCode = context.getPromoCode();
-        if (StringUtils.hasText(promoCode)) {
-            Integer movieId = context.getShowtime().getMovie().getMovieId();
-            promoDiscount = promotionValidationService.validateAndCalculate(
-                    promoCode,
-                    context.getUser().getId(),
-                    subtotal,
-                    movieId,
-                    context.getShowtime().getStartTime()
-            );
+        BigDecimal combosSubtotal = BigDecimal.ZERO;
+        for (Map.Entry<Combo, Integer> entry : context.getSelectedCombos().entrySet()) {
+            combosSubtotal = combosSubtotal.add(entry.getKey().getPrice().multiply(BigDecimal.valueOf(entry.getValue())));
         }
 
-        // Tính voucher TICKET_DISCOUNT (giảm tiền vé)
-        if (context.getTicketVoucherId() != null) {
-            ticketVoucherDiscount = voucherService.calculateTicketVoucherDiscount(
-                    context.getTicketVoucherId(),
-                    context.getUser().getId(),
-                    ticketsSubtotal
-            );
-        }
+        BigDecimal subtotal = ticketsSubtotal.add(combosSubtotal);
 
-        // Tính voucher COMBO_DISCOUNT (giảm tiền combo)
-        if (context.getComboVoucherId() != null) {
-            comboVoucherDiscount = voucherService.calculateComboVoucherDiscount(
-                    context.getComboVoucherId(),
-                    context.getUser().getId(),
-                    combosSubtotal
-            );
+        // Apply discount: chạy các rule áp dụng được theo thứ tự của chuỗi
+        PriceSubtotals subtotals = new PriceSubtotals(ticketsSubtotal, combosSubtotal, subtotal);
+        Map<DiscountKind, BigDecimal> discounts = new EnumMap<>(DiscountKind.class);
+        BigDecimal totalDiscount = BigDecimal.ZERO;
+        for (DiscountRule rule : discountRules) {
+            if (rule.appliesTo(context)) {
+                BigDecimal discount = rule.discount(context, subtotals);
+                discounts.merge(rule.getKind(), discount, BigDecimal::add);
+                totalDiscount = totalDiscount.add(discount);
+            }
         }
 
-        BigDecimal voucherDiscount = ticketVoucherDiscount.add(comboVoucherDiscount);
-
-        BigDecimal totalDiscount = promoDiscount
-                .add(voucherDiscount)
-                .add(loyaltyDiscount)
-                .add(membershipDiscount);
+        BigDecimal ticketVoucherDiscount = discounts.getOrDefault(DiscountKind.TICKET_VOUCHER, BigDecimal.ZERO);
+        BigDecimal comboVoucherDiscount = discounts.getOrDefault(DiscountKind.COMBO_VOUCHER, BigDecimal.ZERO);
 
         BigDecimal finalAmount = subtotal.subtract(totalDiscount);
         if (finalAmount.compareTo(BigDecimal.ZERO) < 0) {
@@ -218,18 +203,36 @@ public class BookingCalculationService {
                 .ticketsSubtotal(ticketsSubtotal)
                 .combosSubtotal(combosSubtotal)
                 .subtotal(subtotal)
-                .promoDiscount(promoDiscount)
+                .promoDiscount(discounts.getOrDefault(DiscountKind.PROMO_CODE, BigDecimal.ZERO))
                 .ticketVoucherDiscount(ticketVoucherDiscount)
                 .comboVoucherDiscount(comboVoucherDiscount)
-                .voucherDiscount(voucherDiscount)
-                .loyaltyDiscount(loyaltyDiscount)
-                .membershipDiscount(membershipDiscount)
+                .voucherDiscount(ticketVoucherDiscount.add(comboVoucherDiscount))
+                .loyaltyDiscount(discounts.getOrDefault(DiscountKind.LOYALTY, BigDecimal.ZERO))
+                .membershipDiscount(discounts.getOrDefault(DiscountKind.MEMBERSHIP, BigDecimal.ZERO))
                 .totalDiscount(totalDiscount)
                 .finalAmount(finalAmount)
-                .pointsEarned(pointsEarned)
+                .pointsEarned(0)
                 .build();
     }
 
+    /**
+     * Giá một ghế theo bảng giá của suất chiếu.
+     */
+    public BigDecimal seatPrice(PriceTable priceTable, Seat seat) {
+        BigDecimal price = priceTable.decimalPrice(seat.getSeatType().getSeatTypeId());
+        if (price == null) {
+            throw new BadRequestException("Seat " + seat.getSeatId() + " does not belong to this showtime's room");
+        }
+        return price;
+    }
+
+    private long seatPriceValue(PriceTable priceTable, Seat seat) {
+        long price = priceTable.price(seat.getSeatType().getSeatTypeId());
+        if (price < 0) {
+            throw new BadRequestException("Seat " + seat.getSeatId() + " does not belong to this showtime's room");
+        }
+        return price;
+    }
 
     private Map<Combo, Integer> resolveCombos(CalculateBookingRequest request) {
         List<SelectedCombo> selectedCombos = request.getCombos();
@@ -1,72 +1,127 @@
 package com.viecinema.booking.service;
 
-import com.viecinema.booking.entity.Booking;
-import com.viecinema.booking.repository.BookingRepository;
-import com.viecinema.common.enums.BookingStatus;
-import com.viecinema.common.enums.SeatStatusType;
-import com.viecinema.showtime.repository.SeatStatusRepository;
-import lombok.RequiredArgsConstructor;
+import com.viecinema.booking.repository.BookingCleanupRepository;
+import com.viecinema.config.BookingConfig;
+import com.viecinema.config.SeatInventoryConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import static com.viecinema.common.constant.PolicyConstants.BOOKING_EXPIRATION_MINUTES;
 import static com.viecinema.common.constant.PolicyConstants.SCHEDULER_DELAY_MS;
 
+/**
+ * Huỷ booking PENDING quá hạn thanh toán và trả ghế.
+ *
+ * <p>Booking quá hạn được xử lý theo đoạn {@code app.booking.cleanup-chunk-size} booking_id, mỗi đoạn một
+ * transaction ngắn gồm vài câu lệnh theo tập hợp: khoá booking của đoạn, trả ghế bằng một câu UPDATE / DELETE
+ * join, rồi huỷ booking bằng một câu UPDATE theo khoảng id. Inventory được cập nhật sau khi đoạn commit.
+ * Đoạn lỗi dừng lượt chạy; lượt sau xử lý lại từ đầu.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class BookingCleanupService {
 
-    private final BookingRepository bookingRepository;
-    private final SeatStatusRepository seatStatusRepository;
+    private final BookingCleanupRepository bookingCleanupRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final SeatInventoryConfig seatInventoryConfig;
+    private final BookingConfig bookingConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter cancelledBookings;
+    private final Counter releasedSeats;
+    private final Timer chunkTimer;
 
-    @Scheduled(fixedDelay = SCHEDULER_DELAY_MS)
-    @Transactional
+    public BookingCleanupService(BookingCleanupRepository bookingCleanupRepository,
+                                 SeatInventoryService seatInventoryService,
+                                 SeatInventoryConfig seatInventoryConfig,
+                                 BookingConfig bookingConfig,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.bookingCleanupRepository = bookingCleanupRepository;
+        this.seatInventoryService = seatInventoryService;
+        this.seatInventoryConfig = seatInventoryConfig;
+        this.bookingConfig = bookingConfig;
+        this.transactionTemplate = transactionTemplate;
+        this.cancelledBookings = Counter.builder("booking.cleanup.rows")
+                .tag("table", "bookings")
+                .description("Expired unpaid bookings cancelled")
+                .register(meterRegistry);
+        this.releasedSeats = Counter.builder("booking.cleanup.rows")
+                .tag("table", "seat_status")
+                .description("seat_status rows released from expired unpaid bookings")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("booking.cleanup.chunk")
+                .description("Time to cancel one chunk of expired unpaid bookings")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking.cleanup-delay-ms:" + SCHEDULER_DELAY_MS + "}")
     public void cancelUnpaidBookings() {
-        LocalDateTime expirationTime = LocalDateTime.now().minusMinutes(BOOKING_EXPIRATION_MINUTES);
-        List<Booking> expiredBookings = bookingRepository.findExpiredBookings(
-                BookingStatus.PENDING,
-                expirationTime
-        );
-
-        if (expiredBookings.isEmpty()) {
-            return;
-        }
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(BOOKING_EXPIRATION_MINUTES);
+        int chunkSize = bookingConfig.getCleanupChunkSize();
+        int afterId = 0;
+        int cancelled = 0;
+        int released = 0;
 
-        log.info("Found {} expired bookings. Processing cancellation...", expiredBookings.size());
-
-        for (Booking booking : expiredBookings) {
-            // 1. Update Booking status to CANCELLED
-            booking.setStatus(BookingStatus.CANCELLED);
-            bookingRepository.save(booking);
-
-            // 2. Release corresponding seats to AVAILABLE
-            if (booking.getBookingSeats() != null && !booking.getBookingSeats().isEmpty()) {
-                List<Integer> seatIds = booking.getBookingSeats().stream()
-                        .map(bs -> bs.getSeat().getSeatId())
-                        .collect(Collectors.toList());
-                int releasedRows = seatStatusRepository.releaseSeats(
-                        booking.getShowtime().getId(),
-                        seatIds,
-                        SeatStatusType.AVAILABLE
-                );
-                log.info("Released {} seats for expired booking {}", releasedRows, booking.getBookingCode());
+        while (true) {
+            List<Integer> ids;
+            ChunkResult result;
+            try {
+                ids = bookingCleanupRepository.findExpiredIds(cutoff, afterId, chunkSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                int fromId = ids.get(0);
+                int toId = ids.get(ids.size() - 1);
+                result = chunkTimer.record(() -> transactionTemplate.execute(status -> cancelChunk(fromId, toId, cutoff)));
+            } catch (DataAccessException e) {
+                log.error("Failed to cancel expired bookings after id {}: {}", afterId, e.getMessage());
+                break;
+            }
+
+            cancelledBookings.increment(result.cancelled());
+            releasedSeats.increment(result.releasedSeats());
+            cancelled += result.cancelled();
+            released += result.releasedSeats();
+
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize) {
+                break;
             }
         }
+
+        if (cancelled > 0) {
+            log.info("Cancelled {} expired bookings, released {} seats", cancelled, released);
+        }
     }
 
-    @Scheduled(fixedDelay = SCHEDULER_DELAY_MS)
-    @Transactional
-    public void releaseHeldSeats() {
-        int updatedRows = seatStatusRepository.updateSeatStatusForExpiredHolding(
-                SeatStatusType.AVAILABLE,
-                SeatStatusType.HELD);
-        log.info("Found {} expired holding seats. Processing release...", updatedRows);
+    // ==================== PRIVATE METHODS ====================
+
+    private ChunkResult cancelChunk(int fromId, int toId, LocalDateTime cutoff) {
+        List<BookingCleanupRepository.ExpiredSeat> seats = bookingCleanupRepository.lockExpiredSeats(fromId, toId, cutoff);
+        int releasedRows = bookingCleanupRepository.releaseSeats(
+                fromId, toId, cutoff, seatInventoryConfig.isSparseSeatStatus());
+        int cancelledRows = bookingCleanupRepository.cancel(fromId, toId, cutoff);
+
+        Map<Integer, List<Integer>> seatIdsByShowtime = new HashMap<>();
+        for (BookingCleanupRepository.ExpiredSeat seat : seats) {
+            seatIdsByShowtime.computeIfAbsent(seat.showtimeId(), id -> new ArrayList<>()).add(seat.seatId());
+        }
+        seatIdsByShowtime.forEach(seatInventoryService::releaseBookedAfterCommit);
+
+        return new ChunkResult(cancelledRows, releasedRows);
     }
+
+    private record ChunkResult(int cancelled, int releasedSeats) {}
 }
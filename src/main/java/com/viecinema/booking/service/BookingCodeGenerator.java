@@ -0,0 +1,128 @@
+package com.viecinema.booking.service;
+
+import com.viecinema.booking.repository.BookingRepository;
+import com.viecinema.config.BookingConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sinh mã đặt vé duy nhất theo cấu tạo: {@code BK + yyyyMMdd + node (2 số) + sequence (7 số) + check digit}
+ * (20 ký tự, vừa cột booking_code).
+ *
+ * <p>Sequence là một {@link AtomicLong} theo ngày nên đường sinh mã không khoá và không cấp phát ngoài chuỗi
+ * kết quả. Khi sang ngày mới (hoặc lần đầu sau khi khởi động), sequence được nối tiếp từ mã lớn nhất trong DB
+ * của node này. Các node khác nhau phải được cấu hình {@code app.booking.node-id} khác nhau.
+ */
+@Slf4j
+@Component
+public class BookingCodeGenerator {
+
+    private static final String PREFIX = "BK";
+    private static final int NODE_DIGITS = 2;
+    private static final int SEQUENCE_DIGITS = 7;
+    private static final int MAX_NODE_ID = 99;
+    private static final long MAX_SEQUENCE = 9_999_999L;
+    private static final int PREFIX_LENGTH = PREFIX.length() + 8 + NODE_DIGITS;
+    private static final int CODE_LENGTH = PREFIX_LENGTH + SEQUENCE_DIGITS + 1;
+
+    private final BookingRepository bookingRepository;
+    private final Clock clock;
+    private final ZoneId zone;
+    private final int nodeId;
+
+    private volatile Day current;
+
+    @Autowired
+    public BookingCodeGenerator(BookingRepository bookingRepository, BookingConfig bookingConfig) {
+        this(bookingRepository, bookingConfig, Clock.systemDefaultZone());
+    }
+
+    BookingCodeGenerator(BookingRepository bookingRepository, BookingConfig bookingConfig, Clock clock) {
+        if (bookingConfig.getNodeId() < 0 || bookingConfig.getNodeId() > MAX_NODE_ID) {
+            throw new IllegalStateException("app.booking.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.bookingRepository = bookingRepository;
+        this.clock = clock;
+        this.zone = clock.getZone();
+        this.nodeId = bookingConfig.getNodeId();
+    }
+
+    public String next() {
+        long now = clock.millis();
+        Day day = current;
+        if (day == null || now < day.startMillis() || now >= day.endMillis()) {
+            day = rollOver(now);
+        }
+
+        long sequence = day.sequence().incrementAndGet();
+        if (sequence > MAX_SEQUENCE) {
+            throw new IllegalStateException("Booking code sequence exhausted for node " + nodeId);
+        }
+
+        char[] code = new char[CODE_LENGTH];
+        System.arraycopy(day.prefix(), 0, code, 0, PREFIX_LENGTH);
+        for (int i = PREFIX_LENGTH + SEQUENCE_DIGITS - 1; i >= PREFIX_LENGTH; i--) {
+            code[i] = (char) ('0' + sequence % 10);
+            sequence /= 10;
+        }
+        code[CODE_LENGTH - 1] = checkDigit(code, CODE_LENGTH - 1);
+        return new String(code);
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    /**
+     * Đường chậm, chạy một lần mỗi ngày: dựng tiền tố của ngày và nối tiếp sequence từ DB.
+     */
+    private synchronized Day rollOver(long now) {
+        Day day = current;
+        if (day != null && now >= day.startMillis() && now < day.endMillis()) {
+            return day;
+        }
+
+        LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(now), zone);
+        String prefix = PREFIX + date.format(DateTimeFormatter.BASIC_ISO_DATE) + String.format("%02d", nodeId);
+        long lastSequence = bookingRepository.findMaxBookingCode(prefix, CODE_LENGTH)
+                .map(code -> Long.parseLong(code.substring(PREFIX_LENGTH, PREFIX_LENGTH + SEQUENCE_DIGITS)))
+                .orElse(0L);
+
+        day = new Day(
+                date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli(),
+                prefix.toCharArray(),
+                new AtomicLong(lastSequence));
+        current = day;
+        log.info("Booking code sequence for {} starts after {}", prefix, lastSequence);
+        return day;
+    }
+
+    /**
+     * Check digit Luhn trên phần số của mã (bỏ tiền tố "BK").
+     */
+    private static char checkDigit(char[] code, int length) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = length - 1; i >= PREFIX.length(); i--) {
+            int digit = code[i] - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+
+    private record Day(long startMillis, long endMillis, char[] prefix, AtomicLong sequence) {}
+}
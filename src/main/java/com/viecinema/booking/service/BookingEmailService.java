@@ -12,7 +12,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -29,7 +28,7 @@ import java.util.stream.Collectors;
  * Service chuyen gui email xac nhan dat ve kem QR Code.
  *
  * Nhan vao bookingId (Integer) thay vi Booking entity de tranh LazyInitializationException:
- * khi @Async chay tren thread moi, Hibernate session cu da dong nen cac
+ * email duoc gui tu outbox worker tren thread khac, Hibernate session cu da dong nen cac
  * lazy collection (bookingSeats, showtime.movie...) se bi loi neu dung entity cu.
  * Giai phap: load lai Booking voi EntityGraph day du trong @Transactional moi.
  */
@@ -54,12 +53,12 @@ public class BookingEmailService {
 
     /**
      * Gui email xac nhan dat ve thanh cong kem QR Code checkin.
+     * Duoc goi tu outbox worker (khong @Async): loi duoc nem ra de outbox retry.
      *
      * @param bookingId ID cua don dat ve vua thanh toan thanh cong
      */
-    @Async
     @Transactional(readOnly = true)
-    public void sendBookingConfirmationEmail(Integer bookingId) {
+    public void sendBookingConfirmation(Integer bookingId) {
         try {
             log.info("[BookingEmail] Bat dau gui email xac nhan cho bookingId: {}", bookingId);
 
@@ -157,9 +156,9 @@ public class BookingEmailService {
                     booking.getUser().getEmail(), booking.getBookingCode());
 
         } catch (Exception e) {
-            // Khong throw exception de khong anh huong den luong thanh toan
             log.error("[BookingEmail] Failed to send email for bookingId {}: {}",
-                    bookingId, e.getMessage(), e);
+                    bookingId, e.getMessage());
+            throw new IllegalStateException("Could not send booking confirmation email: " + e.getMessage(), e);
         }
     }
 }
\ No newline at end of file
@@ -14,24 +14,24 @@ import com.viecinema.booking.entity.Booking;
 import com.viecinema.booking.entity.BookingCombo;
 import com.viecinema.booking.entity.BookingSeat;
 import com.viecinema.booking.entity.Combo;
+import com.viecinema.booking.repository.BookingBatchRepository;
 import com.viecinema.booking.repository.BookingComboRepository;
 import com.viecinema.booking.repository.BookingRepository;
-import com.viecinema.booking.repository.BookingSeatRepository;
 import com.viecinema.booking.repository.ComboRepository;
 import com.viecinema.booking.validator.BookingValidator;
 import com.viecinema.common.enums.BookingStatus;
 import com.viecinema.common.enums.Role;
-import com.viecinema.common.enums.SeatStatusType;
 import com.viecinema.common.exception.ResourceNotFoundException;
 import com.viecinema.common.util.QrCodeUtil;
+import com.viecinema.showtime.dto.PriceTable;
 import com.viecinema.showtime.dto.SeatInfo;
 import com.viecinema.showtime.dto.ShowtimeInfo;
 import com.viecinema.showtime.entity.Seat;
-import com.viecinema.showtime.entity.SeatStatus;
 import com.viecinema.showtime.entity.Showtime;
 import com.viecinema.showtime.repository.SeatRepository;
-import com.viecinema.showtime.repository.SeatStatusRepository;
+import com.viecinema.showtime.repository.SeatStatusBatchRepository;
 import com.viecinema.showtime.repository.ShowtimeRepository;
+import com.viecinema.showtime.service.PriceTableCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -51,8 +51,8 @@ import java.util.stream.Collectors;
 public class BookingService {
     private static final int PAYMENT_TIMEOUT_MINUTES = 10;
     private final BookingRepository bookingRepository;
-    private final SeatStatusRepository seatStatusRepository;
-    private final BookingSeatRepository bookingSeatRepository;
+    private final SeatStatusBatchRepository seatStatusBatchRepository;
+    private final BookingBatchRepository bookingBatchRepository;
     private final BookingComboRepository bookingComboRepository;
     private final ShowtimeRepository showtimeRepository;
     private final SeatRepository seatRepository;
@@ -62,6 +62,11 @@ public class BookingService {
     private final BookingValidator bookingValidator;
     private final PromotionValidationService promotionValidationService;
     private final VoucherService voucherService;
+    private final SeatInventoryService seatInventoryService;
+    private final AdmissionService admissionService;
+    private final BookingCodeGenerator bookingCodeGenerator;
+    private final PriceTableCache priceTableCache;
+    private final QuoteCache quoteCache;
 
     @Transactional
     public BookingResponse createBooking(Integer userId, BookingRequest request) {
@@ -77,7 +82,9 @@ public class BookingService {
 
         bookingValidator.validateUser(user);
         bookingValidator.validateShowtime(showtime);
-        bookingValidator.validateSeatAvailability(request.getShowtimeId(), request.getSeatIds(), userId);
+        admissionService.checkAdmitted(showtime, userId);
+        seatInventoryService.claimForBooking(request.getShowtimeId(), request.getSeatIds(), userId);
+        quoteCache.evictUser(userId);
 
 
         PricingContext context = PricingContext.builder()
@@ -92,12 +99,13 @@ public class BookingService {
                 .comboVoucherId(request.getComboVoucherId())
                 .build();
 
-        PriceBreakdown priceBreakdown = bookingCalculationService.calculatePrice(context);
+        PriceTable priceTable = priceTableCache.get(showtime);
+        PriceBreakdown priceBreakdown = bookingCalculationService.calculatePrice(context, priceTable);
 
         Booking booking = Booking.builder()
                 .user(user)
                 .showtime(showtime)
-                .bookingCode(generateBookingCode())
+                .bookingCode(bookingCodeGenerator.next())
                 .status(BookingStatus.PENDING)
                 .totalAmount(priceBreakdown.getSubtotal())
                 .finalAmount(priceBreakdown.getFinalAmount())
@@ -106,10 +114,10 @@ public class BookingService {
         booking = bookingRepository.save(booking);
 
         // Save booking seats and combos
-        List<BookingSeat> bookingSeats = saveBookingSeats(booking, seats, showtime);
+        // Ghi theo lô bằng JDBC; không gắn vào booking.bookingSeats vì cascade sẽ INSERT lại khi flush
+        List<BookingSeat> bookingSeats = saveBookingSeats(booking, seats, priceTable);
         List<BookingCombo> bookingCombos = saveBookingCombos(booking, selectedCombos);
-        booking.setBookingSeats(bookingSeats);
-        updateSeatStatus(request.getShowtimeId(), request.getSeatIds(), booking);
+        seatStatusBatchRepository.upsertBooked(request.getShowtimeId(), request.getSeatIds());
 
         // Bước 4: Commit promotion nếu có mã KM
         if (StringUtils.hasText(request.getPromoCode())) {
@@ -180,7 +188,9 @@ public class BookingService {
 
         // bookingValidator.validateUser(user);
         bookingValidator.validateShowtime(showtime);
-        bookingValidator.validateSeatAvailability(request.getShowtimeId(), request.getSeatIds(), user.getId());
+        admissionService.checkAdmitted(showtime, user.getId());
+        seatInventoryService.claimForBooking(request.getShowtimeId(), request.getSeatIds(), user.getId());
+        quoteCache.evictUser(user.getId());
 
 
         PricingContext context = PricingContext.builder()
@@ -195,12 +205,13 @@ public class BookingService {
                 .comboVoucherId(null)
                 .build();
 
-        PriceBreakdown priceBreakdown = bookingCalculationService.calculatePrice(context);
+        PriceTable priceTable = priceTableCache.get(showtime);
+        PriceBreakdown priceBreakdown = bookingCalculationService.calculatePrice(context, priceTable);
 
         Booking booking = Booking.builder()
                 .user(user)
                 .showtime(showtime)
-                .bookingCode(generateBookingCode())
+                .bookingCode(bookingCodeGenerator.next())
                 .status(BookingStatus.PENDING)
                 .totalAmount(priceBreakdown.getSubtotal())
                 .finalAmount(priceBreakdown.getFinalAmount())
@@ -209,10 +220,10 @@ public class BookingService {
         booking = bookingRepository.save(booking);
 
         // Save booking seats and combos
-        List<BookingSeat> bookingSeats = saveBookingSeats(booking, seats, showtime);
+        // Ghi theo lô bằng JDBC; không gắn vào booking.bookingSeats vì cascade sẽ INSERT lại khi flush
+        List<BookingSeat> bookingSeats = saveBookingSeats(booking, seats, priceTable);
         List<BookingCombo> bookingCombos = saveBookingCombos(booking, selectedCombos);
-        booking.setBookingSeats(bookingSeats);
-        updateSeatStatus(request.getShowtimeId(), request.getSeatIds(), booking);
+        seatStatusBatchRepository.upsertBooked(request.getShowtimeId(), request.getSeatIds());
 
         // Bước 4: Commit promotion nếu có mã KM
         if (StringUtils.hasText(request.getPromoCode())) {
@@ -276,30 +287,20 @@ public class BookingService {
 
     // ========== PRIVATE HELPER METHODS ==========
 
-    private String generateBookingCode() {
-        // Format: BK + YYYYMMDD + Random 6 digits
-        String datePart = LocalDateTime.now()
-                .format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String randomPart = String.format("%06d", new Random().nextInt(1000000));
-        return "BK" + datePart + randomPart;
-    }
-
-    private List<BookingSeat> saveBookingSeats(Booking booking, List<Seat> seats, Showtime showtime) {
+    private List<BookingSeat> saveBookingSeats(Booking booking, List<Seat> seats, PriceTable priceTable) {
         List<BookingSeat> bookingSeats = new ArrayList<>();
 
         for (Seat seat : seats) {
-            BigDecimal seatPrice = showtime.getBasePrice()
-                    .multiply(seat.getSeatType().getPriceMultiplier());
-
             BookingSeat bookingSeat = BookingSeat.builder()
                     .booking(booking)
                     .seat(seat)
-                    .price(seatPrice)
+                    .price(bookingCalculationService.seatPrice(priceTable, seat))
                     .build();
 
-            bookingSeats.add(bookingSeatRepository.save(bookingSeat));
+            bookingSeats.add(bookingSeat);
         }
 
+        bookingBatchRepository.insertBookingSeats(booking.getId(), bookingSeats);
         return bookingSeats;
     }
 
@@ -324,21 +325,11 @@ public class BookingService {
             listToSave.add(bookingCombo);
         }
 
-        return bookingComboRepository.saveAll(listToSave);
+        bookingBatchRepository.insertBookingCombos(booking.getId(), listToSave);
+        return listToSave;
     }
 
 
-    private void updateSeatStatus(Integer showtimeId, List<Integer> seatIds, Booking booking) {
-        List<SeatStatus> seatStatuses = seatStatusRepository
-                .findByShowtimeAndSeatsWithLock(showtimeId, seatIds);
-
-        for (SeatStatus seatStatus : seatStatuses) {
-            seatStatus.setStatus(SeatStatusType.BOOKED);
-            seatStatus.setHeldByUser(null);
-            seatStatus.setHeldUntil(null);
-        }
-    }
-
     private BookingResponse buildBookingResponse(
             Booking booking,
             Showtime showtime,
@@ -0,0 +1,137 @@
+package com.viecinema.booking.service;
+
+import com.viecinema.booking.dto.request.CalculateBookingRequest;
+import com.viecinema.booking.dto.response.CalculateBookingResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static com.viecinema.common.constant.PolicyConstants.QUOTE_CACHE_MAX_ENTRIES;
+import static com.viecinema.common.constant.PolicyConstants.QUOTE_CACHE_TTL_MS;
+
+/**
+ * Cache ngắn hạn kết quả tính giá (POST /calculate) theo toàn bộ input: user, suất chiếu, tập ghế, tập combo,
+ * mã KM và voucher. Đổi bất kỳ input nào là một khoá khác.
+ *
+ * <p>Chỉ kết quả thành công được cache. Ngoài TTL, quote của user bị bỏ khi user đặt vé (mã KM / voucher đã bị
+ * dùng) và quote của suất chiếu bị bỏ khi suất chiếu bị sửa / xoá. Mỗi lần bỏ tăng {@link #version()}; kết quả
+ * được tính trong lúc có lần bỏ xen vào sẽ không được ghi vào cache.
+ */
+@Slf4j
+@Service
+public class QuoteCache {
+
+    private final Map<QuoteKey, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public CalculateBookingResponse get(QuoteKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.response();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Ghi quote vào cache nếu không có lần bỏ nào kể từ {@code versionBefore} (đọc trước khi tính).
+     */
+    public void put(QuoteKey key, CalculateBookingResponse response, long versionBefore) {
+        if (entries.size() >= QUOTE_CACHE_MAX_ENTRIES || version.get() != versionBefore) {
+            return;
+        }
+        entries.put(key, new Entry(response, System.currentTimeMillis() + QUOTE_CACHE_TTL_MS));
+    }
+
+    /**
+     * Bỏ quote của user, sau khi transaction hiện tại commit.
+     */
+    public void evictUser(Integer userId) {
+        evictAfterCommit(key -> key.userId().equals(userId));
+    }
+
+    /**
+     * Bỏ quote của suất chiếu, sau khi transaction hiện tại commit.
+     */
+    public void evictShowtime(Integer showtimeId) {
+        evictAfterCommit(key -> key.showtimeId().equals(showtimeId));
+    }
+
+    @Scheduled(fixedDelay = QUOTE_CACHE_TTL_MS)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private void evictAfterCommit(Predicate<QuoteKey> matches) {
+        Runnable evict = () -> {
+            version.incrementAndGet();
+            entries.keySet().removeIf(matches);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Bỏ cả trước lẫn sau commit: quote tính trong lúc transaction chưa commit vẫn bị chặn ghi vào cache
+            version.incrementAndGet();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    private record Entry(CalculateBookingResponse response, long expiresAt) {}
+
+    /**
+     * Khoá quote; ghế và combo được chuẩn hoá (sắp xếp) để thứ tự chọn không tạo khoá khác.
+     */
+    public record QuoteKey(
+            Integer userId,
+            Integer showtimeId,
+            List<Integer> seatIds,
+            List<ComboKey> combos,
+            String promotionCode,
+            Integer ticketVoucherId,
+            Integer comboVoucherId
+    ) {
+        public static QuoteKey of(Integer userId, CalculateBookingRequest request) {
+            List<ComboKey> combos = request.getCombos() == null
+                    ? List.of()
+                    : request.getCombos().stream()
+                    .map(combo -> new ComboKey(combo.getComboId(), combo.getQuantity()))
+                    .sorted(Comparator.comparing(ComboKey::comboId).thenComparing(ComboKey::quantity))
+                    .toList();
+            return new QuoteKey(
+                    userId,
+                    request.getShowtimeId(),
+                    request.getSeatIds().stream().sorted().toList(),
+                    combos,
+                    StringUtils.hasText(request.getPromotionCode()) ? request.getPromotionCode() : null,
+                    request.getTicketVoucherId(),
+                    request.getComboVoucherId());
+        }
+    }
+
+    public record ComboKey(Integer comboId, Integer quantity) {}
+}
@@ -1,34 +1,31 @@
 package com.viecinema.booking.service;
 
-import com.viecinema.auth.entity.User;
-import com.viecinema.auth.repository.UserRepository;
 import com.viecinema.booking.dto.HeldSeatInfo;
 import com.viecinema.booking.dto.response.SeatStatusResponse;
+import com.viecinema.booking.dto.request.HoldBestSeatsRequest;
 import com.viecinema.booking.dto.request.HoldSeatsRequest;
 import com.viecinema.booking.dto.response.HoldSeatsResponse;
 import com.viecinema.booking.exception.SeatAlreadyHeldException;
 import com.viecinema.booking.exception.SeatNotHeldByUserException;
+import com.viecinema.booking.inventory.BestSeatAllocator;
+import com.viecinema.booking.inventory.SeatInventory;
 import com.viecinema.booking.validator.SeatHoldingValidator;
-import com.viecinema.common.enums.SeatStatusType;
 import com.viecinema.common.exception.ResourceNotFoundException;
-import com.viecinema.showtime.entity.Seat;
-import com.viecinema.showtime.entity.SeatStatus;
+import com.viecinema.common.exception.SpecificBusinessException;
 import com.viecinema.showtime.entity.Showtime;
-import com.viecinema.showtime.repository.SeatRepository;
-import com.viecinema.showtime.repository.SeatStatusRepository;
 import com.viecinema.showtime.repository.ShowtimeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Set;
 
+import static com.viecinema.common.constant.PolicyConstants.BEST_SEATS_MAX_ATTEMPTS;
 import static com.viecinema.common.constant.PolicyConstants.SEAT_HOLDING_MINUTES;
 
 @Service
@@ -36,146 +33,141 @@ import static com.viecinema.common.constant.PolicyConstants.SEAT_HOLDING_MINUTES
 @Slf4j
 public class SeatHoldingService {
 
-    private final SeatStatusRepository seatStatusRepository;
-    private final SeatRepository seatRepository;
-    private final UserRepository userRepository;
     private final ShowtimeRepository showtimeRepository;
     private final SeatHoldingValidator seatHoldingValidator;
+    private final SeatInventoryService seatInventoryService;
+    private final AdmissionService admissionService;
 
-
-
-    @Transactional
     public HoldSeatsResponse holdSeats(HoldSeatsRequest request, Integer userId) {
 
         Showtime showtime = showtimeRepository.findById(request.getShowtimeId())
                 .orElseThrow(() -> new ResourceNotFoundException("Showtime"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User with id " + userId));
 
-        //Verifying user, showtime, and seats
+        //Verifying showtime and seats
         seatHoldingValidator.validateRequest(request);
         seatHoldingValidator.validateShowtime(showtime);
-        seatHoldingValidator.validateSeatsInRoom(request.getSeatIds(), showtime.getRoom().getId());
+        admissionService.checkAdmitted(showtime, userId);
 
-        // Lock and check seat status (PESSIMISTIC LOCK)
-        List<SeatStatus> seatStatuses = seatStatusRepository
-                .findByShowtimeAndSeatsWithLock(
-                        request.getShowtimeId(),
-                        request.getSeatIds()
-                );
+        SeatInventory inventory = seatInventoryService.getInventory(showtime);
+        int[] seatIndexes = inventory.indexesOf(request.getSeatIds());
+        seatHoldingValidator.validateSeatsInRoom(seatIndexes);
 
-        // Check availability
-        List<SeatStatusResponse> unavailableSeats = new ArrayList<>();
-        List<Integer> availableSeats = new ArrayList<>();
-        Map<Integer, SeatStatus> statusMap = seatStatuses.stream()
-                .collect(Collectors.toMap(ss -> ss.getSeat().getSeatId(), Function.identity()));
-
-        LocalDateTime heldUntil = LocalDateTime.now().plusMinutes(SEAT_HOLDING_MINUTES);
-        List<HeldSeatInfo> heldSeats = new ArrayList<>();
-        List<Seat> seatsToHold = seatRepository.findAllById(request.getSeatIds());
-        Map<Integer, Seat> seatMap = seatsToHold.stream()
-                .collect(Collectors.toMap(Seat::getSeatId, Function.identity()));
-        List<SeatStatus> seatStatusToSave = new ArrayList<>();
-
-        for (Integer seatId : request.getSeatIds()) {
-            SeatStatus status = statusMap.get(seatId);
-            Seat seat = seatMap.get(seatId);
-            // Seat has no status record -> available for holding
-            if (status == null) {
-                availableSeats.add(seatId);
-                status = SeatStatus.builder()
-                        .showtime(showtime)
-                        .seat(seat)
-                        .status(SeatStatusType.HELD)
-                        .heldByUser(user)
-                        .heldUntil(heldUntil)
-                        .build();
-                seatStatusToSave.add(status);
-            }
-            // Seat is already BOOKED by the user
-            else if (status.getStatus() == SeatStatusType.BOOKED) {
-                unavailableSeats.add(SeatStatusResponse.builder()
-                        .seatId(seatId)
-                        .seatRow(seat.getSeatRow())
-                        .seatNumber(seat.getSeatNumber())
-                        .status(SeatStatusType.BOOKED.getValue())
-                        .build());
+        long heldUntilEpoch = SeatInventoryService.now() + SEAT_HOLDING_MINUTES * 60L;
+        LocalDateTime heldUntil = SeatInventory.toLocalDateTime(heldUntilEpoch);
+
+        // Compare-and-set on the in-memory inventory, seat_status is written behind
+        List<Integer> conflicts = seatInventoryService.hold(inventory, seatIndexes, userId, heldUntilEpoch);
+        if (!conflicts.isEmpty()) {
+            throw buildUnavailableException(inventory, seatIndexes, conflicts);
+        }
+
+        log.info("User {} held {} seats for showtime {}", userId, request.getSeatIds().size(), request.getShowtimeId());
+
+        return buildHoldResponse(inventory, seatIndexes, heldUntil);
+    }
+
+    /**
+     * Chọn và giữ khối ghế liền nhau tốt nhất trong một lần gọi. Nếu khối vừa chọn bị người khác giữ trước
+     * (CAS thất bại) thì chọn lại trên trạng thái mới, tối đa {@code BEST_SEATS_MAX_ATTEMPTS} lần.
+     */
+    public HoldSeatsResponse holdBestSeats(HoldBestSeatsRequest request, Integer userId) {
+
+        Showtime showtime = showtimeRepository.findById(request.getShowtimeId())
+                .orElseThrow(() -> new ResourceNotFoundException("Showtime"));
+        seatHoldingValidator.validateShowtime(showtime);
+        admissionService.checkAdmitted(showtime, userId);
+
+        SeatInventory inventory = seatInventoryService.getInventory(showtime);
+        long heldUntilEpoch = SeatInventoryService.now() + SEAT_HOLDING_MINUTES * 60L;
+
+        for (int attempt = 1; attempt <= BEST_SEATS_MAX_ATTEMPTS; attempt++) {
+            int[] seatIndexes = BestSeatAllocator.allocate(
+                    inventory, request.getQuantity(), request.getSeatTypeId(), userId, SeatInventoryService.now());
+            if (seatIndexes == null) {
+                break;
             }
-            // Seat is already HELD by the user
-            else if (status.getStatus() == SeatStatusType.HELD) {
-                // Seat is already held by another user
-                if (!userId.equals(status.getHeldByUser().getId())) {
-                    unavailableSeats.add(SeatStatusResponse.builder()
-                            .seatId(seatId)
-                            .seatRow(seat.getSeatRow())
-                            .seatNumber(seat.getSeatNumber())
-                            .status(SeatStatusType.HELD.getValue())
-                            .heldUntil(status.getHeldUntil())
-                            .build());
-                } else {
-                    // Seat is already held by the current user
-                    availableSeats.add(seatId);
-                    status.setHeldUntil(heldUntil);
-                    seatStatusToSave.add(status);
-                }
-            } else {
-                // Seat is AVAILABLE
-                availableSeats.add(seatId);
-                status.setStatus(SeatStatusType.HELD);
-                status.setHeldByUser(user);
-                status.setHeldUntil(heldUntil);
-                seatStatusToSave.add(status);
+            if (seatInventoryService.hold(inventory, seatIndexes, userId, heldUntilEpoch).isEmpty()) {
+                log.info("User {} held best {} seats for showtime {} (attempt {})",
+                        userId, seatIndexes.length, request.getShowtimeId(), attempt);
+                return buildHoldResponse(inventory, seatIndexes, SeatInventory.toLocalDateTime(heldUntilEpoch));
             }
-            heldSeats.add(HeldSeatInfo.builder()
-                    .seatId(seatId)
-                    .seatRow(seat.getSeatRow())
-                    .seatNumber(seat.getSeatNumber())
-                    .seatType(seat.getSeatType().getName())
-                    .heldUntil(heldUntil)
-                    .build());
         }
 
-        if (!unavailableSeats.isEmpty()) {
-            throw new SeatAlreadyHeldException(
-                    "Some seats are unavailable",
-                    unavailableSeats,
-                    availableSeats
-            );
+        throw new SpecificBusinessException(
+                String.format("No block of %d adjacent seats is available", request.getQuantity()));
+    }
+
+    /**
+     * Kiểm tra trước (không khoá, không giữ ghế) rằng user còn chọn được các ghế này.
+     */
+    public void checkSeats(HoldSeatsRequest request, Integer userId) {
+        seatInventoryService.checkAvailable(request.getShowtimeId(), request.getSeatIds(), userId);
+    }
+
+    public void releaseUserSeats(Integer userId) {
+        int released = seatInventoryService.releaseAllForUser(userId);
+        log.info("Released {} seats for user {}", released, userId);
+    }
+
+    public void releaseSeat(Integer showtimeId, Integer seatId, Integer userId, boolean force) {
+        if (!seatInventoryService.release(showtimeId, seatId, userId, force)) {
+            // Seat not held, or held by someone else, or already released
+            throw new SeatNotHeldByUserException("Seat not held by this user or already released");
         }
 
-        seatStatusRepository.saveAll(seatStatusToSave);
+        log.info("Released seat {} for showtime {} by user {} (force={})", seatId, showtimeId, userId, force);
+    }
 
-        log.info("User {} held {} seats for showtime {}", userId, request.getSeatIds().size(), request.getShowtimeId());
+    private HoldSeatsResponse buildHoldResponse(SeatInventory inventory, int[] seatIndexes, LocalDateTime heldUntil) {
+        List<HeldSeatInfo> heldSeats = Arrays.stream(seatIndexes)
+                .mapToObj(inventory::seatAt)
+                .map(seat -> HeldSeatInfo.builder()
+                        .seatId(seat.seatId())
+                        .seatRow(seat.seatRow())
+                        .seatNumber(seat.seatNumber())
+                        .seatType(seat.seatTypeName())
+                        .heldUntil(heldUntil)
+                        .build())
+                .toList();
 
         return HoldSeatsResponse.builder()
-                .showtimeId(request.getShowtimeId())
+                .showtimeId(inventory.getShowtimeId())
                 .heldSeats(heldSeats)
                 .heldUntil(heldUntil)
                 .remainingSeconds(SEAT_HOLDING_MINUTES*60)
                 .build();
     }
 
-    @Transactional
-    public void releaseUserSeats(Integer userId) {
-        int released = seatStatusRepository.releaseUserSeats(userId);
-        log.info("Released {} seats for user {}", released, userId);
-    }
-
-    @Transactional
-    public void releaseSeat(Integer showtimeId, Integer seatId, Integer userId, boolean force) {
-        int updated;
-        if (force) {
-            updated = seatStatusRepository.forceReleaseSeat(showtimeId, seatId);
-        } else {
-            updated = seatStatusRepository.releaseSeatByUser(showtimeId, seatId, userId);
-        }
+    private SeatAlreadyHeldException buildUnavailableException(
+            SeatInventory inventory, int[] seatIndexes, List<Integer> conflicts) {
+        long now = SeatInventoryService.now();
+        Set<Integer> conflictSet = new HashSet<>(conflicts);
+        List<SeatStatusResponse> unavailableSeats = new ArrayList<>();
+        List<Integer> availableSeats = new ArrayList<>();
 
-        if (updated == 0) {
-            // No row updated -> either seat not held, or held by someone else, or already released
-            throw new SeatNotHeldByUserException("Seat not held by this user or already released");
+        for (int index : seatIndexes) {
+            SeatInventory.SeatRef seat = inventory.seatAt(index);
+            if (!conflictSet.contains(index)) {
+                availableSeats.add(seat.seatId());
+                continue;
+            }
+            long word = inventory.wordAt(index);
+            int status = SeatInventory.effectiveStatus(word, now);
+            unavailableSeats.add(SeatStatusResponse.builder()
+                    .seatId(seat.seatId())
+                    .seatRow(seat.seatRow())
+                    .seatNumber(seat.seatNumber())
+                    .status(SeatInventory.toStatusType(status).getValue())
+                    .heldUntil(status == SeatInventory.HELD
+                            ? SeatInventory.toLocalDateTime(SeatInventory.heldUntilOf(word))
+                            : null)
+                    .build());
         }
 
-        log.info("Released seat {} for showtime {} by user {} (force={})", seatId, showtimeId, userId, force);
-        // Optionally: publish an event or audit log here
+        return new SeatAlreadyHeldException(
+                "Some seats are unavailable",
+                unavailableSeats,
+                availableSeats
+        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,626 @@
+package com.viecinema.booking.service;
+
+import com.viecinema.booking.inventory.HoldExpiryWheel;
+import com.viecinema.booking.inventory.SeatHoldStrategy;
+import com.viecinema.booking.inventory.SeatInventory;
+import com.viecinema.booking.validator.BookingValidator;
+import com.viecinema.common.enums.SeatStatusType;
+import com.viecinema.common.exception.ResourceNotFoundException;
+import com.viecinema.common.exception.SpecificBusinessException;
+import com.viecinema.config.SeatInventoryConfig;
+import com.viecinema.showtime.dto.SeatDelta;
+import com.viecinema.showtime.dto.SeatStatusChange;
+import com.viecinema.showtime.dto.projection.SeatStatusSnapshot;
+import com.viecinema.showtime.dto.projection.ShowtimeStatusCount;
+import com.viecinema.showtime.entity.Seat;
+import com.viecinema.showtime.entity.Showtime;
+import com.viecinema.showtime.event.SeatStatusChangedEvent;
+import com.viecinema.showtime.repository.SeatRepository;
+import com.viecinema.showtime.repository.SeatStatusBatchRepository;
+import com.viecinema.showtime.repository.SeatStatusRepository;
+import com.viecinema.showtime.repository.ShowtimeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.viecinema.common.constant.PolicyConstants.HOLD_EXPIRY_TICK_MS;
+import static com.viecinema.common.constant.PolicyConstants.SEAT_COUNTER_RECONCILE_MS;
+import static com.viecinema.common.constant.PolicyConstants.SEAT_INVENTORY_FLUSH_DELAY_MS;
+import static com.viecinema.common.constant.PolicyConstants.SEAT_INVENTORY_PURGE_DELAY_MS;
+import static com.viecinema.common.constant.PolicyConstants.SEAT_INVENTORY_RESYNC_MS;
+import static com.viecinema.common.constant.PolicyConstants.SEAT_INVENTORY_WARMUP_HOURS;
+
+/**
+ * Quản lý {@link SeatInventory} của các suất chiếu đang mở bán.
+ *
+ * <p>Việc quyết định giữ / nhả / đặt ghế do {@link SeatHoldStrategy} đảm nhận. Với chiến lược mặc định
+ * (memory), inventory là nguồn quyết định và trạng thái HELD / AVAILABLE được ghi xuống seat_status theo kiểu
+ * write-behind (flush theo lô mỗi {@code SEAT_INVENTORY_FLUSH_DELAY_MS}); chiến lược này chỉ đúng khi chạy một
+ * instance. Với chiến lược optimistic, seat_status quyết định và inventory chỉ phản chiếu; thay đổi từ instance khác
+ * được đồng bộ về định kỳ mỗi {@code SEAT_INVENTORY_RESYNC_MS}.
+ * Trạng thái BOOKED luôn được ghi đồng bộ trong transaction đặt vé / huỷ vé.
+ *
+ * <p>Bộ đếm ghế theo trạng thái của từng inventory được đối soát định kỳ với chính các word và với seat_status;
+ * độ lệch được báo qua metric {@code seat.inventory.counter.drift} và {@code seat.inventory.db.drift}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeatInventoryService {
+
+    private final ShowtimeRepository showtimeRepository;
+    private final SeatRepository seatRepository;
+    private final SeatStatusRepository seatStatusRepository;
+    private final SeatStatusBatchRepository seatStatusBatchRepository;
+    private final SeatHoldStrategy holdStrategy;
+    private final BookingValidator bookingValidator;
+    private final SeatInventoryConfig seatInventoryConfig;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Integer, SeatInventory> inventories = new ConcurrentHashMap<>();
+    private final Set<Integer> dirtyShowtimes = ConcurrentHashMap.newKeySet();
+    private final HoldExpiryWheel expiryWheel = new HoldExpiryWheel();
+    private final AtomicLong counterDrift = new AtomicLong();
+    private final AtomicLong databaseDrift = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("seat.inventory.loaded", inventories, Map::size)
+                .description("Showtimes with a loaded seat inventory")
+                .register(meterRegistry);
+        Gauge.builder("seat.inventory.counter.drift", counterDrift, AtomicLong::get)
+                .description("Seats the availability counters were off by at the last reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("seat.inventory.db.drift", databaseDrift, AtomicLong::get)
+                .description("HELD/BOOKED seats differing between inventory and seat_status at the last reconciliation")
+                .register(meterRegistry);
+    }
+
+    // ========== LOOKUP ==========
+
+    public SeatInventory getInventory(Integer showtimeId) {
+        SeatInventory inventory = inventories.get(showtimeId);
+        if (inventory != null) {
+            return inventory;
+        }
+        Showtime showtime = showtimeRepository.findById(showtimeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Showtime"));
+        return getInventory(showtime);
+    }
+
+    public SeatInventory getInventory(Showtime showtime) {
+        SeatInventory inventory = inventories.get(showtime.getId());
+        if (inventory != null) {
+            return inventory;
+        }
+        // Nạp ngoài map để không chặn các suất chiếu khác; nếu có thread khác nạp trước thì dùng bản đó
+        SeatInventory loaded = load(showtime);
+        SeatInventory existing = inventories.putIfAbsent(showtime.getId(), loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Số ghế theo trạng thái của suất chiếu nếu inventory đã được nạp (không nạp thêm).
+     */
+    public Optional<SeatInventory.SeatCounts> findCounts(Integer showtimeId) {
+        SeatInventory inventory = inventories.get(showtimeId);
+        return inventory != null ? Optional.of(inventory.counts()) : Optional.empty();
+    }
+
+    /**
+     * Kiểm tra (không khoá, không đổi trạng thái) rằng user có thể đặt các ghế này tại thời điểm hiện tại:
+     * ghế trống, hoặc đang được chính user giữ. Dùng cho quote / kiểm tra trước trên UI; kết quả chỉ là ảnh chụp,
+     * {@link #claimForBooking} mới là bước chiếm ghế.
+     */
+    public void checkAvailable(Integer showtimeId, List<Integer> seatIds, Integer userId) {
+        SeatInventory inventory = getInventory(showtimeId);
+        int[] indexes = inventory.indexesOf(seatIds);
+        for (int index : indexes) {
+            if (index < 0) {
+                throw new SpecificBusinessException("Some seats don't belong to the room.");
+            }
+        }
+        if (!holdStrategy.isWriteBehind()) {
+            // seat_status là nguồn quyết định (nhiều instance): inventory của instance này có thể chưa thấy thay đổi
+            bookingValidator.checkSeatAvailability(showtimeId, seatIds, userId);
+            return;
+        }
+        long now = now();
+        if (!inventory.findConflicts(indexes, userId, now).isEmpty()) {
+            throw conflictException(inventory, indexes, userId, now);
+        }
+    }
+
+    public static long now() {
+        return Instant.now().getEpochSecond();
+    }
+
+    // ========== TRANSITIONS ==========
+
+    /**
+     * Giữ ghế cho user (all-or-nothing).
+     *
+     * @return vị trí các ghế không thể giữ; rỗng nếu thành công.
+     */
+    public List<Integer> hold(SeatInventory inventory, int[] indexes, Integer userId, long heldUntil) {
+        List<Integer> conflicts = holdStrategy.hold(inventory, indexes, userId, heldUntil, now());
+        if (conflicts.isEmpty()) {
+            dirtyShowtimes.add(inventory.getShowtimeId());
+            long heldWord = SeatInventory.encode(SeatInventory.HELD, userId, heldUntil);
+            for (int index : indexes) {
+                expiryWheel.schedule(inventory.getShowtimeId(), index, heldWord, heldUntil);
+            }
+            publishChanges(inventory, indexes);
+        }
+        return conflicts;
+    }
+
+    public boolean release(Integer showtimeId, Integer seatId, Integer userId, boolean force) {
+        SeatInventory inventory = getInventory(showtimeId);
+        int index = inventory.indexOf(seatId);
+        if (index < 0 || !holdStrategy.release(inventory, index, userId, force)) {
+            return false;
+        }
+        dirtyShowtimes.add(showtimeId);
+        publishChanges(inventory, new int[]{index});
+        return true;
+    }
+
+    public int releaseAllForUser(Integer userId) {
+        holdStrategy.releaseAllHeldBy(userId);
+        int released = 0;
+        for (SeatInventory inventory : inventories.values()) {
+            int[] indexes = inventory.releaseAll(userId);
+            if (indexes.length > 0) {
+                dirtyShowtimes.add(inventory.getShowtimeId());
+                publishChanges(inventory, indexes);
+                released += indexes.length;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Chiếm ghế cho booking trong transaction hiện tại. Nếu transaction rollback, ghế được trả về trạng thái cũ.
+     */
+    public void claimForBooking(Integer showtimeId, List<Integer> seatIds, Integer userId) {
+        SeatInventory inventory = getInventory(showtimeId);
+        int[] indexes = inventory.indexesOf(seatIds);
+        for (int index : indexes) {
+            if (index < 0) {
+                throw new SpecificBusinessException("Some seats don't belong to the room.");
+            }
+        }
+
+        long now = now();
+        long[] previous = holdStrategy.book(inventory, indexes, userId, now);
+        if (previous == null) {
+            throw conflictException(inventory, indexes, userId, now);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        inventory.unbook(indexes, previous, userId, now());
+                        log.info("Restored {} seats of showtime {} after booking rollback", indexes.length, showtimeId);
+                    }
+                    publishChanges(inventory, indexes);
+                }
+            });
+        } else {
+            publishChanges(inventory, indexes);
+        }
+    }
+
+    /**
+     * Trả ghế BOOKED của booking bị huỷ về AVAILABLE: ghi seat_status trong transaction hiện tại
+     * (xoá dòng ở chế độ sparse), inventory được cập nhật sau khi transaction commit.
+     *
+     * @return số dòng seat_status bị ảnh hưởng.
+     */
+    public int releaseBooked(Integer showtimeId, List<Integer> seatIds) {
+        int rows = seatInventoryConfig.isSparseSeatStatus()
+                ? seatStatusRepository.deleteSeats(showtimeId, seatIds)
+                : seatStatusRepository.releaseSeats(showtimeId, seatIds, SeatStatusType.AVAILABLE);
+        releaseBookedAfterCommit(showtimeId, seatIds);
+        return rows;
+    }
+
+    /**
+     * Cập nhật inventory cho ghế BOOKED mà caller đã trả ở seat_status, sau khi transaction hiện tại commit.
+     */
+    public void releaseBookedAfterCommit(Integer showtimeId, List<Integer> seatIds) {
+        Runnable release = () -> {
+            SeatInventory inventory = inventories.get(showtimeId);
+            if (inventory == null) {
+                return;
+            }
+            int[] indexes = seatIds.stream()
+                    .mapToInt(inventory::indexOf)
+                    .filter(index -> index >= 0)
+                    .toArray();
+            inventory.releaseBooked(indexes);
+            publishChanges(inventory, indexes);
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release.run();
+                }
+            });
+        } else {
+            release.run();
+        }
+    }
+
+    /**
+     * Bỏ inventory của suất chiếu (khi sửa / xoá suất chiếu), sau khi transaction hiện tại commit.
+     * Các thay đổi chưa flush được ghi trước khi bỏ.
+     */
+    public void evict(Integer showtimeId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(showtimeId);
+                }
+            });
+        } else {
+            evictNow(showtimeId);
+        }
+    }
+
+    private void evictNow(Integer showtimeId) {
+        SeatInventory inventory = inventories.remove(showtimeId);
+        if (inventory != null) {
+            flush(inventory);
+        }
+    }
+
+    // ========== HOLD EXPIRY ==========
+
+    /**
+     * Nhả các ghế hết hạn giữ (độ trễ tối đa ~1 tick). Ghi DB do flusher đảm nhận, gộp theo suất chiếu.
+     */
+    @Scheduled(fixedRate = HOLD_EXPIRY_TICK_MS)
+    public void expireDueHolds() {
+        Map<SeatInventory, List<Integer>> expiredByShowtime = new HashMap<>();
+        for (HoldExpiryWheel.Expiry expiry : expiryWheel.advance(now())) {
+            SeatInventory inventory = inventories.get(expiry.showtimeId());
+            if (inventory != null && inventory.expire(expiry.seatIndex(), expiry.word())) {
+                expiredByShowtime.computeIfAbsent(inventory, k -> new ArrayList<>()).add(expiry.seatIndex());
+            }
+        }
+        if (expiredByShowtime.isEmpty()) {
+            return;
+        }
+
+        int expired = 0;
+        for (Map.Entry<SeatInventory, List<Integer>> entry : expiredByShowtime.entrySet()) {
+            dirtyShowtimes.add(entry.getKey().getShowtimeId());
+            publishChanges(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+            expired += entry.getValue().size();
+        }
+        log.info("Released {} expired holding seats in {} showtimes", expired, expiredByShowtime.size());
+    }
+
+    // ========== WRITE-BEHIND ==========
+
+    @Scheduled(fixedDelay = SEAT_INVENTORY_FLUSH_DELAY_MS)
+    public void flushDirtySeats() {
+        if (!holdStrategy.isWriteBehind()) {
+            dirtyShowtimes.clear();
+            return;
+        }
+        for (Integer showtimeId : List.copyOf(dirtyShowtimes)) {
+            dirtyShowtimes.remove(showtimeId);
+            SeatInventory inventory = inventories.get(showtimeId);
+            if (inventory != null) {
+                flush(inventory);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        inventories.values().forEach(this::flush);
+    }
+
+    private void flush(SeatInventory inventory) {
+        int[] indexes = inventory.drainDirty();
+        if (indexes.length == 0 || !holdStrategy.isWriteBehind()) {
+            return;
+        }
+
+        boolean sparse = seatInventoryConfig.isSparseSeatStatus();
+        List<SeatStatusChange> changes = new ArrayList<>(indexes.length);
+        List<Integer> released = new ArrayList<>();
+        for (int index : indexes) {
+            long word = inventory.wordAt(index);
+            int status = SeatInventory.statusOf(word);
+            // BOOKED được ghi đồng bộ bởi luồng đặt vé
+            if (status == SeatInventory.BOOKED) {
+                continue;
+            }
+            boolean held = status == SeatInventory.HELD;
+            if (sparse && !held) {
+                released.add(inventory.seatAt(index).seatId());
+                continue;
+            }
+            changes.add(new SeatStatusChange(
+                    inventory.seatAt(index).seatId(),
+                    SeatInventory.toStatusType(status),
+                    held ? SeatInventory.userOf(word) : null,
+                    held ? SeatInventory.toLocalDateTime(SeatInventory.heldUntilOf(word)) : null));
+        }
+
+        try {
+            seatStatusBatchRepository.upsertHoldStates(inventory.getShowtimeId(), changes);
+            seatStatusBatchRepository.deleteReleased(inventory.getShowtimeId(), released);
+            log.debug("Flushed {} seat changes for showtime {}",
+                    changes.size() + released.size(), inventory.getShowtimeId());
+        } catch (DataAccessException e) {
+            log.error("Failed to flush seat changes for showtime {}: {}", inventory.getShowtimeId(), e.getMessage());
+            inventory.markDirty(indexes);
+            dirtyShowtimes.add(inventory.getShowtimeId());
+        }
+    }
+
+    // ========== MULTI-INSTANCE RESYNC ==========
+
+    /**
+     * Chiến lược optimistic: ghế được giữ / nhả / đặt ở instance khác chỉ có trong seat_status, nên inventory đã nạp
+     * được đồng bộ lại định kỳ. Seatmap (và ETag), SSE, bộ đếm ghế và gợi ý ghế trễ tối đa một chu kỳ so với instance
+     * khác. Chiến lược memory là nguồn quyết định (một instance) nên bỏ qua.
+     */
+    @Scheduled(fixedDelay = SEAT_INVENTORY_RESYNC_MS, initialDelay = SEAT_INVENTORY_RESYNC_MS)
+    public void resyncFromDatabase() {
+        if (holdStrategy.isWriteBehind()) {
+            return;
+        }
+        for (SeatInventory inventory : List.copyOf(inventories.values())) {
+            try {
+                resync(inventory);
+            } catch (DataAccessException e) {
+                log.warn("Failed to resync seat inventory of showtime {}: {}",
+                        inventory.getShowtimeId(), e.getMessage());
+            }
+        }
+    }
+
+    private void resync(SeatInventory inventory) {
+        int size = inventory.size();
+        long[] seen = new long[size];
+        for (int index = 0; index < size; index++) {
+            seen[index] = inventory.wordAt(index);
+        }
+
+        // Ghế không có dòng seat_status là ghế trống
+        long[] stored = new long[size];
+        Arrays.fill(stored, SeatInventory.encode(SeatInventory.AVAILABLE, 0, 0));
+        for (SeatStatusSnapshot snapshot : seatStatusRepository.findSnapshotsByShowtimeId(inventory.getShowtimeId())) {
+            int index = inventory.indexOf(snapshot.getSeatId());
+            if (index >= 0 && snapshot.getStatus() != null) {
+                stored[index] = SeatInventory.storedWord(
+                        snapshot.getStatus(),
+                        snapshot.getHeldByUserId(),
+                        snapshot.getHeldUntil() != null ? SeatInventory.toEpochSecond(snapshot.getHeldUntil()) : 0);
+            }
+        }
+
+        long now = now();
+        List<Integer> changed = new ArrayList<>();
+        for (int index = 0; index < size; index++) {
+            if (sameState(seen[index], stored[index], now) || !inventory.resync(index, seen[index], stored[index])) {
+                continue;
+            }
+            changed.add(index);
+            if (SeatInventory.statusOf(stored[index]) == SeatInventory.HELD) {
+                expiryWheel.schedule(inventory.getShowtimeId(), index, stored[index],
+                        SeatInventory.heldUntilOf(stored[index]));
+            }
+        }
+        if (!changed.isEmpty()) {
+            publishChanges(inventory, changed.stream().mapToInt(Integer::intValue).toArray());
+            log.debug("Resynced {} seats of showtime {} from seat_status", changed.size(), inventory.getShowtimeId());
+        }
+    }
+
+    /*
+     * Cùng trạng thái thực tế: dòng HELD quá hạn trong DB (chưa bị xoá / ghi AVAILABLE) khớp với ghế đã hết hạn
+     * trong inventory; ghế BOOKED không so người đặt.
+     */
+    private static boolean sameState(long word, long storedWord, long now) {
+        int status = SeatInventory.effectiveStatus(word, now);
+        if (status != SeatInventory.effectiveStatus(storedWord, now)) {
+            return false;
+        }
+        return status != SeatInventory.HELD
+                || (SeatInventory.userOf(word) == SeatInventory.userOf(storedWord)
+                    && SeatInventory.heldUntilOf(word) == SeatInventory.heldUntilOf(storedWord));
+    }
+
+    // ========== COUNTER RECONCILIATION ==========
+
+    /**
+     * Đối soát bộ đếm ghế: đếm lại từ các word (chỉnh bộ đếm nếu lệch), rồi so số ghế HELD / BOOKED với
+     * seat_status bằng một truy vấn GROUP BY cho mọi suất chiếu đã nạp. Suất chiếu còn thay đổi chưa flush
+     * được bỏ qua ở bước so với DB.
+     */
+    @Scheduled(fixedDelay = SEAT_COUNTER_RECONCILE_MS, initialDelay = SEAT_COUNTER_RECONCILE_MS)
+    public void reconcileCounters() {
+        if (inventories.isEmpty()) {
+            counterDrift.set(0);
+            databaseDrift.set(0);
+            return;
+        }
+
+        long drift = 0;
+        for (SeatInventory inventory : inventories.values()) {
+            int corrected = inventory.reconcileCounts();
+            if (corrected > 0) {
+                log.warn("Corrected seat counters of showtime {} by {} seats", inventory.getShowtimeId(), corrected);
+                drift += corrected;
+            }
+        }
+        counterDrift.set(drift);
+
+        List<Integer> showtimeIds = inventories.keySet().stream()
+                .filter(showtimeId -> !dirtyShowtimes.contains(showtimeId))
+                .toList();
+        if (showtimeIds.isEmpty()) {
+            return;
+        }
+        Map<Integer, int[]> occupied = new HashMap<>();
+        try {
+            for (ShowtimeStatusCount count : seatStatusRepository.countOccupiedByShowtimeIdsGroupByStatus(showtimeIds)) {
+                int[] counts = occupied.computeIfAbsent(count.getShowtimeId(), id -> new int[2]);
+                counts[SeatStatusType.BOOKED.name().equals(count.getStatus()) ? 1 : 0] = count.getCount();
+            }
+        } catch (DataAccessException e) {
+            log.error("Failed to reconcile seat counters: {}", e.getMessage());
+            return;
+        }
+
+        long dbDrift = 0;
+        for (Integer showtimeId : showtimeIds) {
+            SeatInventory inventory = inventories.get(showtimeId);
+            if (inventory == null) {
+                continue;
+            }
+            SeatInventory.SeatCounts counts = inventory.counts();
+            int[] db = occupied.getOrDefault(showtimeId, new int[2]);
+            int showtimeDrift = Math.abs(counts.held() - db[0]) + Math.abs(counts.booked() - db[1]);
+            if (showtimeDrift > 0) {
+                log.warn("Seat inventory of showtime {} differs from seat_status: held {}/{}, booked {}/{}",
+                        showtimeId, counts.held(), db[0], counts.booked(), db[1]);
+                dbDrift += showtimeDrift;
+            }
+        }
+        databaseDrift.set(dbDrift);
+    }
+
+    // ========== RECOVERY ==========
+
+    /**
+     * Dựng lại inventory từ seat_status khi khởi động: các suất sắp chiếu và các suất còn ghế đang được giữ
+     * (tra theo idx_held_until). Ghế đang giữ được đưa lại vào wheel hết hạn khi nạp inventory.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        LocalDateTime now = LocalDateTime.now();
+        int expiredRows = seatInventoryConfig.isSparseSeatStatus()
+                ? seatStatusRepository.deleteExpiredHolds()
+                : seatStatusRepository.updateSeatStatusForExpiredHolding(SeatStatusType.AVAILABLE, SeatStatusType.HELD);
+        log.info("Released {} seats whose hold expired while the application was down", expiredRows);
+
+        Set<Integer> showtimeIds = new LinkedHashSet<>(
+                seatStatusRepository.findShowtimeIdsWithActiveHolds(now));
+        showtimeIds.addAll(showtimeRepository.findActiveIdsStartingBetween(
+                now, now.plusHours(SEAT_INVENTORY_WARMUP_HOURS)));
+
+        int recovered = 0;
+        for (Integer showtimeId : showtimeIds) {
+            try {
+                getInventory(showtimeId);
+                recovered++;
+            } catch (RuntimeException e) {
+                log.warn("Could not recover seat inventory for showtime {}: {}", showtimeId, e.getMessage());
+            }
+        }
+        log.info("Recovered seat inventory for {} showtimes (hold strategy: {})", recovered, holdStrategy.getType());
+    }
+
+    @Scheduled(fixedDelay = SEAT_INVENTORY_PURGE_DELAY_MS)
+    public void purgeStartedShowtimes() {
+        long now = now();
+        inventories.values().stream()
+                .filter(inventory -> inventory.getStartsAt() < now)
+                .map(SeatInventory::getShowtimeId)
+                .toList()
+                .forEach(this::evictNow);
+    }
+
+    private SeatInventory load(Showtime showtime) {
+        Integer roomId = showtime.getRoom().getId();
+        List<Seat> seats = seatRepository.findByRoomIdOrderBySeatRowAndNumber(roomId);
+        SeatInventory inventory = new SeatInventory(
+                showtime.getId(),
+                roomId,
+                SeatInventory.toEpochSecond(showtime.getStartTime()),
+                seats);
+
+        for (SeatStatusSnapshot snapshot : seatStatusRepository.findSnapshotsByShowtimeId(showtime.getId())) {
+            inventory.restore(
+                    snapshot.getSeatId(),
+                    snapshot.getStatus(),
+                    snapshot.getHeldByUserId(),
+                    snapshot.getHeldUntil() != null ? SeatInventory.toEpochSecond(snapshot.getHeldUntil()) : 0);
+        }
+        for (int index = 0; index < inventory.size(); index++) {
+            long word = inventory.wordAt(index);
+            if (SeatInventory.statusOf(word) == SeatInventory.HELD) {
+                expiryWheel.schedule(showtime.getId(), index, word, SeatInventory.heldUntilOf(word));
+            }
+        }
+        log.debug("Loaded seat inventory for showtime {} ({} seats)", showtime.getId(), inventory.size());
+        return inventory;
+    }
+
+    private void publishChanges(SeatInventory inventory, int[] indexes) {
+        long now = now();
+        List<SeatDelta> deltas = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            long word = inventory.wordAt(index);
+            int status = SeatInventory.effectiveStatus(word, now);
+            deltas.add(new SeatDelta(
+                    inventory.seatAt(index).seatId(),
+                    SeatInventory.toStatusType(status).getValue().toLowerCase(),
+                    status == SeatInventory.HELD ? SeatInventory.heldUntilOf(word) - now : null));
+        }
+        eventPublisher.publishEvent(new SeatStatusChangedEvent(this, inventory.getShowtimeId(), deltas));
+    }
+
+    private SpecificBusinessException conflictException(SeatInventory inventory, int[] indexes, Integer userId, long now) {
+        List<Integer> conflicts = inventory.findConflicts(indexes, userId, now);
+        if (conflicts.isEmpty()) {
+            return new SpecificBusinessException("Some seats are unavailable");
+        }
+        int index = conflicts.get(0);
+        SeatInventory.SeatRef seat = inventory.seatAt(index);
+        String reason = SeatInventory.effectiveStatus(inventory.wordAt(index), now) == SeatInventory.BOOKED
+                ? "has been reserved"
+                : "is held by another user";
+        return new SpecificBusinessException(
+                String.format("Seat %s%d %s", seat.seatRow(), seat.seatNumber(), reason));
+    }
+}
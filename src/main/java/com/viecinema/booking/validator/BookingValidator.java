@@ -5,24 +5,20 @@ import com.viecinema.booking.entity.Combo;
 import com.viecinema.common.enums.SeatStatusType;
 import com.viecinema.common.exception.ResourceNotFoundException;
 import com.viecinema.common.exception.SpecificBusinessException;
+import com.viecinema.showtime.dto.projection.SeatStatusSnapshot;
 import com.viecinema.showtime.entity.Seat;
-import com.viecinema.showtime.entity.SeatStatus;
 import com.viecinema.showtime.entity.Showtime;
 import com.viecinema.showtime.repository.SeatRepository;
 import com.viecinema.showtime.repository.SeatStatusRepository;
-import com.viecinema.showtime.repository.ShowtimeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class BookingValidator {
-    private final ShowtimeRepository showtimeRepository;
     private final SeatRepository seatRepository;
     private final SeatStatusRepository seatStatusRepository;
 
@@ -46,64 +42,21 @@ public class BookingValidator {
         }
     }
 
-    public void validateSeatAvailability(Integer showtimeId, List<Integer> seatIds, Integer userId) {
-        // Get seat statuses
-        List<SeatStatus> seatStatuses = seatStatusRepository
-                .findByShowtimeAndSeatsWithLock(showtimeId, seatIds);
-
-        // Check seat statuses
-        if (seatStatuses.size() != seatIds.size()) {
-            Set<Integer> existingSeatIds = seatStatuses.stream()
-                    .map(ss -> ss.getSeat().getSeatId())
-                    .collect(Collectors.toSet());
-            // Get missing seat ids, which one is not in existingSeatIds
-            List<Integer> missingSeatIds = seatIds.stream()
-                    .filter(id -> !existingSeatIds.contains(id))
-                    .collect(Collectors.toList());
-
-            List<Seat> missingSeats = seatRepository.findAllById(missingSeatIds);
-            Showtime showtime = showtimeRepository.findById(showtimeId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Showtime not found"));
-
-            // Save a new status for missing seats
-            for (Seat seat : missingSeats) {
-                SeatStatus newStatus = SeatStatus.builder()
-                        .showtime(showtime)
-                        .seat(seat)
-                        .status(SeatStatusType.AVAILABLE)
-                        .version(0)
-                        .build();
-                seatStatusRepository.save(newStatus);
-            }
-
-            // Get all seat statuses again
-            seatStatuses = seatStatusRepository
-                    .findByShowtimeAndSeatsWithLock(showtimeId, seatIds);
-        }
-
-        // Check status
+    /**
+     * Kiểm tra ghế trên ảnh chụp seat_status, không khoá dòng và không ghi gì: ghế chưa có dòng được coi là trống.
+     * Dùng cho quote / kiểm tra trước trên UI khi seat_status là nguồn quyết định; việc chiếm ghế thật sự nằm ở
+     * {@code SeatInventoryService.claimForBooking} lúc tạo booking.
+     */
+    public void checkSeatAvailability(Integer showtimeId, List<Integer> seatIds, Integer userId) {
         LocalDateTime now = LocalDateTime.now();
-        for (SeatStatus status : seatStatuses) {
-            if (SeatStatusType.BOOKED.equals(status.getStatus())) {
-                throw new SpecificBusinessException(
-                        String.format("Seat %s%d has been reserved",
-                                status.getSeat().getSeatRow(),
-                                status.getSeat().getSeatNumber())
-                );
+        for (SeatStatusSnapshot snapshot : seatStatusRepository.findSnapshotsByShowtimeIdAndSeatIds(showtimeId, seatIds)) {
+            if (SeatStatusType.BOOKED.equals(snapshot.getStatus())) {
+                throw seatUnavailable(snapshot.getSeatId(), "has been reserved");
             }
-
-            if (SeatStatusType.HELD.equals(status.getStatus())) {
-                // Check if seat holding has expired.
-                if (status.getHeldUntil() != null && status.getHeldUntil().isAfter(now)) {
-                    // If the seat is already hold by someone else
-                    if (status.getHeldByUser() != null && !status.getHeldByUser().getId().equals(userId)) {
-                        throw new SpecificBusinessException(
-                                String.format("Seat %s%d is held by another user",
-                                        status.getSeat().getSeatRow(),
-                                        status.getSeat().getSeatNumber())
-                        );
-                    }
-                }
+            if (SeatStatusType.HELD.equals(snapshot.getStatus())
+                    && snapshot.getHeldUntil() != null && snapshot.getHeldUntil().isAfter(now)
+                    && snapshot.getHeldByUserId() != null && !snapshot.getHeldByUserId().equals(userId)) {
+                throw seatUnavailable(snapshot.getSeatId(), "is held by another user");
             }
         }
     }
@@ -119,4 +72,11 @@ public class BookingValidator {
             }
         }
     }
+
+    private SpecificBusinessException seatUnavailable(Integer seatId, String reason) {
+        Seat seat = seatRepository.findById(seatId)
+                .orElseThrow(() -> new ResourceNotFoundException("Seat " + seatId));
+        return new SpecificBusinessException(
+                String.format("Seat %s%d %s", seat.getSeatRow(), seat.getSeatNumber(), reason));
+    }
 }
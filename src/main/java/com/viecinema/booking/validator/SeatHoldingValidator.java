@@ -55,6 +55,14 @@ public class SeatHoldingValidator {
         }
     }
 
-
-    
+    /**
+     * @param seatIndexes vị trí ghế trong inventory của suất chiếu (-1 nếu ghế không thuộc phòng)
+     */
+    public void validateSeatsInRoom(int[] seatIndexes) {
+        for (int index : seatIndexes) {
+            if (index < 0) {
+                throw new SpecificBusinessException("Some seats don't belong to the room.");
+            }
+        }
+    }
 }
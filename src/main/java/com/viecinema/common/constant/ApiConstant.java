@@ -20,6 +20,7 @@ public final class ApiConstant {
     public static final String ADMIN_MOVIE_DETAIL_PATH = "/{id}";
     public static final String ADMIN_MOVIE_RESTORE_PATH = "/{id}/restore";
     public static final String LOYALTY_PATH = "/api/loyalty";
+    public static final String VNPAY_SIM_PATH = "/api/vnpay-sim";
     public static final String LOYALTY_MY_POINTS_PATH = "/my-points";
     public static final String LOYALTY_HISTORY_PATH = "/history";
     public static final String LOYALTY_REDEEM_PATH = "/redeem";
@@ -34,10 +35,15 @@ public final class ApiConstant {
     public static final String MOVIE_TOP_RATED_PATH = "/top-rated";
     public static final String MOVIE_MOST_VIEWED_PATH = "/most-viewed";
     public static final String MOVIE_OUTSTANDING_PATH = "/outstanding";
+    public static final String MOVIE_SUGGEST_PATH = "/suggest";
     public static final String SHOWTIMES_SEATMAP_PATH = "/{showtimeId}/seatmap";
+    public static final String SHOWTIMES_SEATMAP_STREAM_PATH = "/{showtimeId}/seatmap/stream";
     public static final String SHOWTIMES_BY_MOVIE_PATH = "/by-movie/{movieId}";
     public static final String GENRE_DETAIL_PATH = "/{id}";
     public static final String HOLD_SEATS_PATH = "/hold-seats";
+    public static final String HOLD_BEST_SEATS_PATH = "/hold-best-seats";
+    public static final String CHECK_SEATS_PATH = "/check-seats";
+    public static final String WAITING_ROOM_PATH = "/waiting-room/{showtimeId}";
     public static final String RELEASE_SEATS_PATH = "/release-seats";
     public static final String RELEASE_SEAT_PATH = "/release-seat";
     public static final String CAlCULATE_PATH = "/calculate";
@@ -45,6 +51,8 @@ public final class ApiConstant {
     public static final String BOOKING_DETAIL_PATH = "/{bookingId}";
     public static final String VNPAY_CREATE_PATH = "/vnpay/create";
     public static final String VNPAY_CALLBACK_PATH = "/vnpay/callback";
+    public static final String VNPAY_SIM_PAY_PATH = "/pay";
+    public static final String VNPAY_SIM_LOAD_TEST_PATH = "/load-test";
     public static final String USER_PROFILE_PATH = "/profile";
     public static final String BOOKINGS_USER_PATH = "/my-bookings";
     public static final String PAYMENT_DETAIL_PATH = "/booking/{bookingId}";
@@ -16,6 +16,7 @@ public enum ApiMessage {
     RESOURCE_UPDATED("S005", "success", "%s updated successfully"),
     HOLD_SEAT("S014", "success", "Hold seats successfully"),
     RELEASE_SEAT("S015", "success", "Release seats successfully"),
+    SEATS_AVAILABLE("S017", "success", "Seats are available"),
 
     // Delete operations
     RESOURCE_DELETED("S006", "success", "%s deleted successfully"),
@@ -47,6 +48,9 @@ public enum ApiMessage {
     DUPLICATE_EMAIL("E409_EMAIL", "error", "An account with this email already exists"),
     DUPLICATE_PHONE("E409_PHONE", "error", "An account with this phone number already exists"),
 
+    // Too Many Requests (HTTP 429)
+    NOT_ADMITTED("E429", "error", "%s"),
+
     // Validation & Bad Request (HTTP 400)
     VALIDATION_ERROR("E400_VALID", "error", "Validation failed"),
     FIELD_INVALID("E400_INV", "error", "%s is invalid"),
@@ -3,5 +3,32 @@ package com.viecinema.common.constant;
 public final class PolicyConstants {
     public static final int BOOKING_EXPIRATION_MINUTES = 1;
     public static final int SEAT_HOLDING_MINUTES = 1;
+    public static final int BEST_SEATS_MAX_ATTEMPTS = 3;
     public static final long SCHEDULER_DELAY_MS = 60000;
+    public static final long SEAT_INVENTORY_FLUSH_DELAY_MS = 250;
+    public static final long SEAT_INVENTORY_PURGE_DELAY_MS = 600000;
+    public static final int SEAT_INVENTORY_WARMUP_HOURS = 24;
+    public static final long HOLD_EXPIRY_TICK_MS = 1000;
+    public static final long SEAT_COUNTER_RECONCILE_MS = 60000;
+    public static final long SEAT_INVENTORY_RESYNC_MS = 5000;
+    public static final long SEATMAP_STREAM_DISPATCH_MS = 200;
+    public static final int SEATMAP_STREAM_SEND_THREADS = 8;
+    public static final int SEATMAP_STREAM_SEND_QUEUE = 10000;
+    public static final long SEATMAP_STREAM_SEND_TIMEOUT_MS = 5000;
+    public static final long ROOM_LAYOUT_TTL_MS = 30 * 60 * 1000L;
+    public static final long SEATMAP_HEADER_TTL_MS = 5 * 60 * 1000L;
+    public static final long ADMISSION_TICK_MS = 1000;
+    public static final int ADMISSION_WINDOW_MINUTES = 10;
+    public static final int ADMISSION_POLL_TIMEOUT_SECONDS = 60;
+    public static final int ADMISSION_POLL_INTERVAL_SECONDS = 5;
+    public static final long OUTBOX_POLL_MS = 500;
+    public static final int OUTBOX_LEASE_SECONDS = 120;
+    public static final int OUTBOX_RETRY_BASE_SECONDS = 10;
+    public static final long OUTBOX_FAILED_RECOUNT_MS = 5 * 60 * 1000L;
+    public static final long QUOTE_CACHE_TTL_MS = 30000;
+    public static final int QUOTE_CACHE_MAX_ENTRIES = 50000;
+    public static final int MOVIE_SEARCH_MAX_RESULTS = 1000;
+    public static final int MOVIE_SEARCH_TITLE_WEIGHT = 3;
+    public static final int MOVIE_SUGGEST_MAX_RESULTS = 10;
+    public static final long MOVIE_SUGGEST_RELOAD_MS = 10 * 60 * 1000L;
 }
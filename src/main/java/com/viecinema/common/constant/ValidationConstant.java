@@ -17,6 +17,6 @@ public final class ValidationConstant {
             "^(\\+84|0)(3[2-9]|5[689]|7[06-9]|8[1-9]|9[0-9])[0-9]{7}$";
     public static final String PASSWORD_REGEX =
             "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]+$";
-    public static final String FILTER_MOVIE_REGEX = "^(title|releaseDate|duration|createdAt),(asc|desc)$";
+    public static final String FILTER_MOVIE_REGEX = "^(title|releaseDate|duration|createdAt|relevance),(asc|desc)$";
 
 }
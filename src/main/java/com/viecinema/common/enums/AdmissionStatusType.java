@@ -0,0 +1,8 @@
+package com.viecinema.common.enums;
+
+public enum AdmissionStatusType {
+    /** Được vào luồng chọn ghế / đặt vé (hoặc suất chiếu không bật phòng chờ). */
+    ADMITTED,
+    /** Đang xếp hàng trong phòng chờ. */
+    WAITING
+}
@@ -0,0 +1,12 @@
+package com.viecinema.common.enums;
+
+/**
+ * Dòng giảm giá trong {@code PriceBreakdown} mà một {@code DiscountRule} ghi vào.
+ */
+public enum DiscountKind {
+    PROMO_CODE,
+    TICKET_VOUCHER,
+    COMBO_VOUCHER,
+    LOYALTY,
+    MEMBERSHIP
+}
@@ -0,0 +1,6 @@
+package com.viecinema.common.enums;
+
+public enum OutboxEventType {
+    /** Booking vừa chuyển sang PAID (aggregateId = bookingId). */
+    BOOKING_PAID
+}
@@ -0,0 +1,7 @@
+package com.viecinema.common.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.viecinema.common.enums;
+
+public enum SeatHoldStrategyType {
+    /** Inventory trong bộ nhớ quyết định, seat_status được ghi write-behind (một instance). */
+    MEMORY,
+    /** Conditional UPDATE trên seat_status quyết định, inventory chỉ phản chiếu (nhiều instance). */
+    OPTIMISTIC
+}
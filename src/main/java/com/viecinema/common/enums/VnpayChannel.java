@@ -0,0 +1,8 @@
+package com.viecinema.common.enums;
+
+public enum VnpayChannel {
+    /** Return URL: trình duyệt của user được VNPay chuyển về. */
+    CALLBACK,
+    /** Instant Payment Notification: VNPay gọi server-to-server. */
+    IPN
+}
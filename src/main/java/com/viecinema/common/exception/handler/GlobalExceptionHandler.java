@@ -1,6 +1,7 @@
 package com.viecinema.common.exception.handler;
 
 import com.viecinema.common.constant.ApiResponse;
+import com.viecinema.booking.exception.NotAdmittedException;
 import com.viecinema.booking.exception.SeatAlreadyHeldException;
 import com.viecinema.booking.exception.SeatNotHeldByUserException;
 import com.viecinema.common.constant.ApiMessage;
@@ -47,6 +48,12 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(apiResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(NotAdmittedException.class)
+    public ResponseEntity<ApiResponse<Object>> handleNotAdmittedException(NotAdmittedException ex) {
+        ApiResponse<Object> apiResponse = ApiResponse.error(ApiMessage.NOT_ADMITTED, ex.getMessage());
+        return new ResponseEntity<>(apiResponse, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     @ExceptionHandler(DuplicateResourceException.class)
     public ResponseEntity<ApiResponse<Object>> handleDuplicateResourceException(DuplicateResourceException ex) {
         ApiResponse<Object> apiResponse = ApiResponse.error(ApiMessage.FIELD_ALREADY_EXISTS, ex.getMessage());
@@ -0,0 +1,142 @@
+package com.viecinema.common.util;
+
+import com.viecinema.common.exception.BadRequestException;
+import com.viecinema.movie.dto.response.CursorPagedResponse;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Phân trang keyset (seek) trên {@link Specification}: thay vì OFFSET, trang sau lọc các dòng đứng sau dòng cuối
+ * của trang trước theo (cột sort, id), nên chi phí mỗi trang không tăng theo độ sâu.
+ *
+ * <p>Thứ tự NULL theo MySQL: NULL nhỏ nhất (đứng đầu khi ASC, cuối khi DESC). Cột sort phải so sánh được ở DB
+ * theo đúng thứ tự của ORDER BY (không dùng cho cột ENUM của MySQL, vốn sort theo chỉ số khai báo).
+ */
+public final class KeysetPagination {
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Chạy một trang ở chế độ cursor: lấy {@code size + 1} dòng để biết còn trang sau hay không,
+     * đếm tổng chỉ khi {@code withTotal}.
+     */
+    public static <E, D> CursorPagedResponse<D> fetch(JpaSpecificationExecutor<E> repository,
+                                                      Specification<E> spec,
+                                                      Sort.Order order,
+                                                      String idProperty,
+                                                      String cursor,
+                                                      int size,
+                                                      boolean withTotal,
+                                                      Function<E, D> mapper) {
+        if (size < 1) {
+            throw new BadRequestException("Size must be a positive number");
+        }
+        PageCursor position = PageCursor.decode(cursor, order);
+        Specification<E> filter = Specification.where(spec);
+        List<E> rows = repository.findBy(
+                filter.and(after(position, idProperty)),
+                query -> query.sortBy(sort(order, idProperty)).limit(size + 1).all());
+
+        boolean hasMore = rows.size() > size;
+        List<E> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? PageCursor.after(page.get(size - 1), order, idProperty).encode() : null;
+        Long total = withTotal ? repository.count(filter) : null;
+        return response(page.stream().map(mapper).toList(), size, position == null, nextCursor, total);
+    }
+
+    /**
+     * Điều kiện "đứng sau cursor"; không lọc gì khi {@code cursor} là null (trang đầu).
+     */
+    public static <T> Specification<T> after(PageCursor cursor, String idProperty) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return cb.conjunction();
+            }
+            Path<Comparable<Object>> id = root.get(idProperty);
+            Comparable<Object> idValue = convert(cursor.id(), id.getJavaType());
+            boolean asc = cursor.direction().isAscending();
+            if (idProperty.equals(cursor.property())) {
+                return asc ? cb.greaterThan(id, idValue) : cb.lessThan(id, idValue);
+            }
+
+            Path<Comparable<Object>> column = root.get(cursor.property());
+            Predicate afterId = asc ? cb.greaterThan(id, idValue) : cb.lessThan(id, idValue);
+            if (cursor.value() == null) {
+                return asc
+                        ? cb.or(cb.and(cb.isNull(column), afterId), cb.isNotNull(column))
+                        : cb.and(cb.isNull(column), afterId);
+            }
+            Comparable<Object> value = convert(cursor.value(), column.getJavaType());
+            Predicate sameValue = cb.and(cb.equal(column, value), afterId);
+            return asc
+                    ? cb.or(cb.greaterThan(column, value), sameValue)
+                    : cb.or(cb.lessThan(column, value), sameValue, cb.isNull(column));
+        };
+    }
+
+    /**
+     * Sort của {@code order} thêm id làm tie-breaker (cùng chiều) để thứ tự là toàn phần.
+     */
+    public static Sort sort(Sort.Order order, String idProperty) {
+        Sort sort = Sort.by(order);
+        return idProperty.equals(order.getProperty()) ? sort : sort.and(Sort.by(order.getDirection(), idProperty));
+    }
+
+    public static <D> CursorPagedResponse<D> response(List<D> content, int size, boolean first, String nextCursor,
+                                                      Long total) {
+        return CursorPagedResponse.<D>builder()
+                .content(content)
+                .pageSize(size)
+                .totalElements(total)
+                .first(first)
+                .last(nextCursor == null)
+                .empty(content.isEmpty())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable<Object> convert(String raw, Class<?> type) {
+        try {
+            Object value;
+            if (type == String.class) {
+                value = raw;
+            } else if (type == Integer.class || type == int.class) {
+                value = Integer.valueOf(raw);
+            } else if (type == Long.class || type == long.class) {
+                value = Long.valueOf(raw);
+            } else if (type == BigDecimal.class) {
+                value = new BigDecimal(raw);
+            } else if (type == Boolean.class || type == boolean.class) {
+                value = Boolean.valueOf(raw);
+            } else if (type == LocalDateTime.class) {
+                value = LocalDateTime.parse(raw);
+            } else if (type == LocalDate.class) {
+                value = LocalDate.parse(raw);
+            } else if (type == Instant.class) {
+                value = Instant.parse(raw);
+            } else if (type.isEnum()) {
+                value = Enum.valueOf((Class<? extends Enum>) type, raw);
+            } else {
+                throw new IllegalStateException("Keyset pagination does not support " + type.getName());
+            }
+            return (Comparable<Object>) value;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.viecinema.common.util;
+
+import com.viecinema.common.exception.BadRequestException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Vị trí trong một danh sách phân trang kiểu keyset: giá trị cột sort và id của dòng cuối đã trả về.
+ *
+ * <p>Token gửi cho client là base64url của {@code property \n direction \n id [\n value]} (không có value khi
+ * giá trị cột sort là null). Token chỉ mô tả vị trí, không mang quyền gì nên không cần ký; token bị sửa chỉ
+ * làm client nhảy tới vị trí khác trong cùng danh sách.
+ */
+public record PageCursor(String property, Sort.Direction direction, String id, String value) {
+
+    /** Token cho trang đầu ở chế độ cursor. */
+    public static final String FIRST_PAGE = "*";
+
+    private static final String SEPARATOR = "\n";
+    private static final String INVALID_CURSOR = "Invalid cursor";
+
+    /**
+     * Cursor trỏ ngay sau {@code row} (entity hoặc DTO có getter cho cột sort và cột id).
+     */
+    public static PageCursor after(Object row, Sort.Order order, String idProperty) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(row);
+        Object value = wrapper.getPropertyValue(order.getProperty());
+        return new PageCursor(
+                order.getProperty(),
+                order.getDirection(),
+                String.valueOf(wrapper.getPropertyValue(idProperty)),
+                value == null ? null : (value instanceof Enum<?> e ? e.name() : value.toString()));
+    }
+
+    /**
+     * @return null cho trang đầu ({@code null}, rỗng hoặc {@link #FIRST_PAGE}).
+     * @throws BadRequestException token hỏng hoặc được tạo cho một kiểu sort khác.
+     */
+    public static PageCursor decode(String token, Sort.Order order) {
+        if (token == null || token.isBlank() || FIRST_PAGE.equals(token)) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(INVALID_CURSOR);
+        }
+        if (parts.length < 3 || !order.getProperty().equals(parts[0]) || !order.getDirection().name().equals(parts[1])) {
+            throw new BadRequestException(INVALID_CURSOR + ": it does not belong to the requested sort order");
+        }
+        return new PageCursor(parts[0], order.getDirection(), parts[2], parts.length == 4 ? parts[3] : null);
+    }
+
+    public String encode() {
+        String raw = property + SEPARATOR + direction.name() + SEPARATOR + id + (value == null ? "" : SEPARATOR + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,160 @@
+package com.viecinema.common.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Trie nén (radix tree) bất biến trả về top-k theo tiền tố.
+ *
+ * <p>Mỗi entry được định danh bằng hạng của nó (0 là tốt nhất) và có thể có nhiều key. Mỗi node giữ sẵn
+ * {@code k} hạng nhỏ nhất trong cây con của nó, nên tra cứu chỉ là đi theo tiền tố (tìm nhị phân ký tự đầu của
+ * cạnh con) rồi trả mảng có sẵn: O(độ dài tiền tố), không phụ thuộc số entry khớp.
+ *
+ * <p>Không thread-safe khi dựng; sau khi dựng chỉ đọc nên dùng chung giữa các thread được.
+ */
+public final class PrefixIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final Node root;
+
+    private PrefixIndex(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @param keysByRank key của từng entry, phần tử thứ i là key của entry hạng i
+     * @param k          số hạng giữ ở mỗi node (số kết quả tối đa của {@link #top})
+     */
+    public static PrefixIndex build(List<? extends Iterable<String>> keysByRank, int k) {
+        List<Key> keys = new ArrayList<>();
+        for (int rank = 0; rank < keysByRank.size(); rank++) {
+            for (String key : keysByRank.get(rank)) {
+                keys.add(new Key(key, rank));
+            }
+        }
+        keys.sort(Comparator.comparing(Key::text).thenComparingInt(Key::rank));
+        return new PrefixIndex(node(keys.toArray(Key[]::new), 0, keys.size(), 0, k));
+    }
+
+    /**
+     * @return hạng của tối đa {@code k} entry có key bắt đầu bằng {@code prefix}, tốt nhất trước.
+     *         Mảng dùng chung, không được sửa.
+     */
+    public int[] top(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int child = Arrays.binarySearch(node.firstChars, prefix.charAt(i));
+            if (child < 0) {
+                return NONE;
+            }
+            String label = node.labels[child];
+            int length = Math.min(label.length(), prefix.length() - i);
+            if (!prefix.regionMatches(i, label, 0, length)) {
+                return NONE;
+            }
+            i += label.length();
+            node = node.children[child];
+        }
+        return node.top;
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    /*
+     * keys[lo, hi) đã sort và cùng tiền tố độ dài depth. Key kết thúc đúng tại depth đứng đầu đoạn; phần còn lại
+     * chia nhóm theo ký tự tại depth, mỗi nhóm thành một cạnh nhãn là tiền tố chung dài nhất của nhóm
+     * (của key đầu và key cuối, vì đã sort).
+     */
+    private static Node node(Key[] keys, int lo, int hi, int depth, int k) {
+        List<int[]> candidates = new ArrayList<>();
+        int start = lo;
+        while (start < hi && keys[start].text.length() == depth) {
+            start++;
+        }
+        if (start > lo) {
+            int[] terminals = new int[start - lo];
+            for (int i = lo; i < start; i++) {
+                terminals[i - lo] = keys[i].rank;
+            }
+            candidates.add(terminals);
+        }
+
+        StringBuilder firstChars = new StringBuilder();
+        List<String> labels = new ArrayList<>();
+        List<Node> children = new ArrayList<>();
+        while (start < hi) {
+            char c = keys[start].text.charAt(depth);
+            int end = start + 1;
+            while (end < hi && keys[end].text.charAt(depth) == c) {
+                end++;
+            }
+            String first = keys[start].text;
+            String last = keys[end - 1].text;
+            int common = depth + 1;
+            while (common < first.length() && common < last.length() && first.charAt(common) == last.charAt(common)) {
+                common++;
+            }
+            Node child = node(keys, start, end, common, k);
+            firstChars.append(c);
+            labels.add(first.substring(depth, common));
+            children.add(child);
+            candidates.add(child.top);
+            start = end;
+        }
+
+        return new Node(firstChars.toString().toCharArray(), labels.toArray(String[]::new),
+                children.toArray(Node[]::new), top(candidates, k));
+    }
+
+    /*
+     * k hạng nhỏ nhất, không trùng, từ các mảng đã sort tăng dần: trộn k-way theo đầu từng mảng (mỗi node một lần
+     * khi dựng, nên không dùng stream).
+     */
+    private static int[] top(List<int[]> candidates, int k) {
+        if (candidates.size() == 1 && candidates.get(0).length <= k && isStrictlyAscending(candidates.get(0))) {
+            return candidates.get(0);
+        }
+        int[][] lists = new int[candidates.size()][];
+        for (int i = 0; i < lists.length; i++) {
+            int[] ranks = candidates.get(i);
+            lists[i] = isStrictlyAscending(ranks) ? ranks : Arrays.stream(ranks).sorted().distinct().toArray();
+        }
+        int[] heads = new int[lists.length];
+        int[] result = new int[k];
+        int size = 0;
+        while (size < k) {
+            int best = -1;
+            for (int i = 0; i < lists.length; i++) {
+                if (heads[i] < lists[i].length
+                        && (best < 0 || lists[i][heads[i]] < lists[best][heads[best]])) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            int rank = lists[best][heads[best]++];
+            if (size == 0 || result[size - 1] != rank) {
+                result[size++] = rank;
+            }
+        }
+        return size == k ? result : Arrays.copyOf(result, size);
+    }
+
+    private static boolean isStrictlyAscending(int[] ranks) {
+        for (int i = 1; i < ranks.length; i++) {
+            if (ranks[i] <= ranks[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Key(String text, int rank) {}
+
+    private record Node(char[] firstChars, String[] labels, Node[] children, int[] top) {}
+}
@@ -0,0 +1,44 @@
+package com.viecinema.common.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Chuẩn hoá văn bản tiếng Việt cho tìm kiếm: bỏ dấu, {@code đ -> d}, chữ thường.
+ * Ví dụ: "Phim Mà Đà Nẵng" -> "phim ma da nang".
+ */
+public final class VietnameseTextUtil {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private VietnameseTextUtil() {
+    }
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Các từ (chỉ a-z, 0-9) của văn bản đã bỏ dấu.
+     */
+    public static List<String> tokens(String text) {
+        String folded = fold(text).trim();
+        if (folded.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(NON_ALPHANUMERIC.split(folded))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+}
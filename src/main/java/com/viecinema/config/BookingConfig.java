@@ -0,0 +1,25 @@
+package com.viecinema.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import static com.viecinema.common.constant.PolicyConstants.SCHEDULER_DELAY_MS;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.booking")
+public class BookingConfig {
+    /**
+     * Mã node (0-99) ghép vào mã đặt vé. Mỗi instance phải có mã riêng để mã đặt vé không trùng giữa các node.
+     */
+    private int nodeId = 0;
+    /**
+     * Số booking quá hạn được huỷ trong một transaction.
+     */
+    private int cleanupChunkSize = 500;
+    /**
+     * Chu kỳ (ms) quét booking quá hạn.
+     */
+    private long cleanupDelayMs = SCHEDULER_DELAY_MS;
+}
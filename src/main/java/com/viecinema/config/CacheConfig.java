@@ -0,0 +1,47 @@
+package com.viecinema.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Giới hạn của các cache trong bộ nhớ (Caffeine, W-TinyLFU).
+ *
+ * <p>Mặc định được chọn cho heap {@code -Xmx350m}: tổng cộng cỡ 30-40MB khi mọi cache đầy
+ * (một trang moviesByStatus ~40KB, một movieDetails ~10KB, một userProfile ~1KB).
+ * Cache không khai báo ở đây dùng {@link #defaultSpec}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheConfig {
+
+    /**
+     * Áp dụng cho cache được tạo động (tên không có trong {@link #caches}).
+     */
+    private Spec defaultSpec = new Spec(500, Duration.ofMinutes(10));
+
+    private Map<String, Spec> caches = new LinkedHashMap<>(Map.of(
+            "moviesByStatus", new Spec(300, Duration.ofMinutes(10)),
+            "movieDetails", new Spec(1000, Duration.ofMinutes(30)),
+            "genres", new Spec(10, Duration.ofHours(1)),
+            // Hồ sơ có thống kê và hạng thành viên, đổi sau mỗi lần thanh toán nên chỉ giữ ngắn
+            "userProfile", new Spec(5000, Duration.ofSeconds(60))
+    ));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Spec {
+        /** Số entry tối đa; vượt quá thì Caffeine loại entry ít được dùng nhất. */
+        private long maximumSize;
+        /** Thời gian sống tính từ lúc ghi. */
+        private Duration ttl;
+    }
+}
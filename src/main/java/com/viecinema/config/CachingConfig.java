@@ -0,0 +1,55 @@
+package com.viecinema.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Bật {@code @Cacheable} / {@code @CacheEvict} với Caffeine.
+ *
+ * <p>Advice cache được đặt ngoài advice transaction: cache hit trả về mà không mở transaction (không mượn
+ * connection), và {@code @CacheEvict} chạy sau khi transaction đã commit nên request đọc song song không nạp
+ * lại dữ liệu cũ vào cache. Mọi cache đều bật recordStats để actuator xuất
+ * {@code cache.gets{result=hit|miss}}, {@code cache.puts}, {@code cache.evictions}, {@code cache.size}.
+ */
+@Slf4j
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CachingConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheConfig cacheConfig) {
+        CacheConfig.Spec defaults = cacheConfig.getDefaultSpec();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(builder(defaults, defaults));
+        cacheConfig.getCaches().forEach((name, spec) -> {
+            cacheManager.registerCustomCache(name, builder(spec, defaults).build());
+            log.info("Cache '{}': maximumSize={}, ttl={}", name, maximumSize(spec, defaults), ttl(spec, defaults));
+        });
+        return cacheManager;
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private static Caffeine<Object, Object> builder(CacheConfig.Spec spec, CacheConfig.Spec defaults) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize(spec, defaults))
+                .expireAfterWrite(ttl(spec, defaults))
+                .recordStats();
+    }
+
+    private static long maximumSize(CacheConfig.Spec spec, CacheConfig.Spec defaults) {
+        return spec.getMaximumSize() > 0 ? spec.getMaximumSize() : defaults.getMaximumSize();
+    }
+
+    private static Duration ttl(CacheConfig.Spec spec, CacheConfig.Spec defaults) {
+        return spec.getTtl() != null ? spec.getTtl() : defaults.getTtl();
+    }
+}
@@ -0,0 +1,17 @@
+package com.viecinema.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxConfig {
+    /** Số worker chạy handler song song. */
+    private int workers = 4;
+    /** Số event tối đa nhận về mỗi lần poll (trừ đi số event đang xử lý). */
+    private int batchSize = 50;
+    /** Sau số lần thử này event chuyển sang FAILED và cần xử lý tay. */
+    private int maxAttempts = 8;
+}
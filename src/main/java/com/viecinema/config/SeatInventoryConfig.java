@@ -0,0 +1,19 @@
+package com.viecinema.config;
+
+import com.viecinema.common.enums.SeatHoldStrategyType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.seat-inventory")
+public class SeatInventoryConfig {
+    /** Chiến lược giữ ghế, bean tương ứng được chọn bằng @ConditionalOnProperty. */
+    private SeatHoldStrategyType holdStrategy = SeatHoldStrategyType.MEMORY;
+    /**
+     * Sparse seat_status: không tạo sẵn dòng AVAILABLE cho suất chiếu mới, chỉ lưu ghế đang giữ / đã đặt.
+     * Không có dòng = ghế trống.
+     */
+    private boolean sparseSeatStatus = false;
+}
@@ -0,0 +1,27 @@
+package com.viecinema.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Cấu hình VNPay giả lập (profile {@code vnpay-sim}).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.vnpay-sim")
+public class VnpaySimulatorConfig {
+    /** Thời gian "user thanh toán" trước khi redirect về return URL. */
+    private long latencyMs = 200;
+    /** Độ trễ của IPN tính từ lúc thanh toán xong. */
+    private long ipnLatencyMs = 500;
+    private boolean ipnEnabled = true;
+    /** Tỉ lệ giao dịch thất bại (0..1), mã lỗi được chọn ngẫu nhiên trong {@link #failureCodes}. */
+    private double failureRate = 0.0;
+    private List<String> failureCodes = List.of("07", "24", "51");
+    /** Số lần gửi lặp thêm return callback (server-to-server) và IPN cho mỗi giao dịch. */
+    private int duplicateCallbacks = 0;
+    private int duplicateIpns = 0;
+}
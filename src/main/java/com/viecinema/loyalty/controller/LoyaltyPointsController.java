@@ -12,6 +12,7 @@ import com.viecinema.loyalty.dto.response.VoucherDto;
 import com.viecinema.loyalty.entity.PointRedemption;
 import com.viecinema.loyalty.service.LoyaltyPointsService;
 import com.viecinema.loyalty.service.LoyaltyQueryService;
+import com.viecinema.movie.dto.response.CursorPagedResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -67,22 +68,33 @@ public class LoyaltyPointsController {
 
     @Operation(
             summary = "Get loyalty points history",
-            description = "Returns a paginated history of all points earned and redeemed by the authenticated user, ordered by most recent first.",
+            description = "Returns a paginated history of all points earned and redeemed by the authenticated user, ordered by most recent first. "
+                    + "Pass cursor=* (then the returned nextCursor) instead of page for keyset pagination: the data is then a cursor page without page numbers, and the total count is only computed with withTotal=true.",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "History retrieved successfully",
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Authentication required")
     })
     @GetMapping(LOYALTY_HISTORY_PATH)
-    public ResponseEntity<ApiResponse<Page<LoyaltyHistoryItemDto>>> getHistory(
+    public ResponseEntity<ApiResponse<?>> getHistory(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal,
             @CurrentUser UserPrincipal currentUser) {
 
         size = Math.min(size, 100);
-        log.info("User {} requesting loyalty history — page={}, size={}", currentUser.getId(), page, size);
+        log.info("User {} requesting loyalty history — page={}, cursor={}, size={}", currentUser.getId(), page, cursor, size);
+
+        if (cursor != null) {
+            CursorPagedResponse<LoyaltyHistoryItemDto> history =
+                    loyaltyQueryService.getHistory(currentUser.getId(), cursor, size, withTotal);
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(ApiResponse.success(RESOURCE_RETRIEVED, history, "Loyalty points history"));
+        }
 
         PageRequest pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<LoyaltyHistoryItemDto> history = loyaltyQueryService.getHistory(currentUser.getId(), pageable);
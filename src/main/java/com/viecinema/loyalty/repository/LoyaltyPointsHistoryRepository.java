@@ -5,6 +5,7 @@ import com.viecinema.loyalty.entity.LoyaltyPointsHistory.PointsType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,7 +14,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface LoyaltyPointsHistoryRepository extends JpaRepository<LoyaltyPointsHistory, Integer> {
+public interface LoyaltyPointsHistoryRepository extends JpaRepository<LoyaltyPointsHistory, Integer>,
+        JpaSpecificationExecutor<LoyaltyPointsHistory> {
 
     /**
      * Kiểm tra đã EARN cho booking này chưa — chống duplicate.
@@ -5,15 +5,19 @@ import com.viecinema.auth.entity.User;
 import com.viecinema.auth.repository.MembershipTierRepository;
 import com.viecinema.auth.repository.UserRepository;
 import com.viecinema.common.exception.ResourceNotFoundException;
+import com.viecinema.common.util.KeysetPagination;
 import com.viecinema.loyalty.dto.LoyaltyHistoryItemDto;
 import com.viecinema.loyalty.dto.LoyaltySummaryDto;
 import com.viecinema.loyalty.entity.LoyaltyPointsHistory;
 import com.viecinema.loyalty.entity.LoyaltyPointsHistory.PointsType;
 import com.viecinema.loyalty.mapper.LoyaltyMapper;
 import com.viecinema.loyalty.repository.LoyaltyPointsHistoryRepository;
+import com.viecinema.movie.dto.response.CursorPagedResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -88,6 +92,20 @@ public class LoyaltyQueryService {
                 .map(loyaltyMapper::toHistoryItemDto);
     }
 
+    /**
+     * Như {@link #getHistory(Integer, Pageable)} nhưng phân trang keyset theo (created_at, history_id).
+     */
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<LoyaltyHistoryItemDto> getHistory(Integer userId, String cursor, int size, boolean withTotal) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User không tồn tại: " + userId);
+        }
+        Specification<LoyaltyPointsHistory> ofUser = (root, query, cb) ->
+                cb.equal(root.get("user").get("id"), userId);
+        return KeysetPagination.fetch(historyRepository, ofUser, Sort.Order.desc("createdAt"), "id",
+                cursor, size, withTotal, loyaltyMapper::toHistoryItemDto);
+    }
+
     /**
      * Tải thông tin user (dùng để lấy số dư điểm sau khi redeem).
      */
@@ -5,10 +5,13 @@ import com.viecinema.common.constant.ApiMessage;
 import com.viecinema.common.enums.MovieStatus;
 import com.viecinema.movie.dto.MovieDetail;
 import com.viecinema.movie.dto.MovieSummary;
+import com.viecinema.movie.dto.SuggestionDto;
 import com.viecinema.movie.dto.TopMovieDto;
 import com.viecinema.movie.dto.request.MovieFilterRequest;
+import com.viecinema.movie.dto.response.CursorPagedResponse;
 import com.viecinema.movie.dto.response.PagedResponse;
 import com.viecinema.movie.service.MovieService;
+import com.viecinema.movie.service.MovieSuggestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -29,6 +32,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 import static com.viecinema.common.constant.ApiConstant.*;
+import static com.viecinema.common.constant.PolicyConstants.MOVIE_SUGGEST_MAX_RESULTS;
 
 @RestController
 @RequestMapping(MOVIE_PATH)
@@ -38,10 +42,12 @@ import static com.viecinema.common.constant.ApiConstant.*;
 @Tag(name = "Movies", description = "Browse movies that are currently showing or coming soon")
 public class MovieController {
     private final MovieService movieService;
+    private final MovieSuggestService movieSuggestService;
 
     @Operation(
             summary = "Get now-showing movies",
-            description = "Returns a paginated list of movies currently showing in cinemas. Supports filtering by genre, keyword, and pagination."
+            description = "Returns a paginated list of movies currently showing in cinemas. Supports filtering by genre, keyword, and pagination. "
+                    + "The keyword is matched accent-insensitively against title, description, actor and director names; use sort=relevance,desc to rank by match quality."
     )
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Movies retrieved successfully",
@@ -50,10 +56,16 @@ public class MovieController {
     })
     @SecurityRequirements
     @GetMapping(MOVIE_NOW_SHOWING_PATH)
-    public ResponseEntity<ApiResponse<PagedResponse<MovieSummary>>>
+    public ResponseEntity<ApiResponse<?>>
     getNowShowingMovies(@Valid @ModelAttribute MovieFilterRequest request) {
 
         log.info("GET /api/movies/now-showing - Request: {}", request);
+        if (request.isCursorMode()) {
+            CursorPagedResponse<MovieSummary> movies = movieService.getMoviesByCursor(request, MovieStatus.NOW_SHOWING);
+            return ResponseEntity.status(HttpStatus.OK).body(
+                    ApiResponse.success(ApiMessage.RESOURCE_RETRIEVED, movies, "Movies now showing"));
+        }
+
         PagedResponse<MovieSummary> movies = movieService.getMoviesByStatus(request, MovieStatus.NOW_SHOWING);
 
         return ResponseEntity.status(HttpStatus.OK).body(
@@ -72,10 +84,16 @@ public class MovieController {
     })
     @SecurityRequirements
     @GetMapping(MOVIE_COMING_SOON_PATH)
-    public ResponseEntity<ApiResponse<PagedResponse<MovieSummary>>>
+    public ResponseEntity<ApiResponse<?>>
     getComingSoonMovies(@Valid @ModelAttribute MovieFilterRequest request) {
 
         log.info("GET /api/movies/coming-soon");
+        if (request.isCursorMode()) {
+            CursorPagedResponse<MovieSummary> movies = movieService.getMoviesByCursor(request, MovieStatus.COMING_SOON);
+            return ResponseEntity.status(HttpStatus.OK).body(
+                    ApiResponse.success(ApiMessage.RESOURCE_RETRIEVED, movies, "Movies coming soon"));
+        }
+
         PagedResponse<MovieSummary> movies = movieService.getMoviesByStatus(request, MovieStatus.COMING_SOON);
 
         return ResponseEntity.status(HttpStatus.OK).body(
@@ -102,6 +120,24 @@ public class MovieController {
                 ApiResponse.success(ApiMessage.RESOURCE_RETRIEVED, detail, "Movie detail"));
     }
 
+    @Operation(
+            summary = "Suggest movies, actors and directors",
+            description = "Typeahead suggestions for the search box: movie titles, actor and director names starting with the query "
+                    + "(accent-insensitive, any word of the name), most booked first. Served from memory; meant to be called on every keystroke."
+    )
+    @SecurityRequirements
+    @GetMapping(MOVIE_SUGGEST_PATH)
+    public ResponseEntity<ApiResponse<List<SuggestionDto>>> suggest(
+            @Parameter(description = "Text typed so far", required = true, example = "da n")
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions to return", example = "10")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MOVIE_SUGGEST_MAX_RESULTS) int limit) {
+
+        List<SuggestionDto> suggestions = movieSuggestService.suggest(q, limit);
+        return ResponseEntity.ok(
+                ApiResponse.success(ApiMessage.RESOURCE_RETRIEVED, suggestions, "Search suggestions"));
+    }
+
     // ========== MOVIE RANKING ENDPOINTS ==========
 
     @Operation(
@@ -4,6 +4,7 @@ import com.viecinema.auth.security.CurrentUser;
 import com.viecinema.auth.security.UserPrincipal;
 import com.viecinema.common.constant.ApiResponse;
 import com.viecinema.movie.dto.request.CreateReviewRequest;
+import com.viecinema.movie.dto.response.CursorPagedResponse;
 import com.viecinema.movie.dto.response.ReviewResponse;
 import com.viecinema.movie.service.MovieReviewService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -61,20 +62,30 @@ public class MovieReviewController {
 
     @Operation(
             summary = "Get reviews for a movie",
-            description = "Returns a paginated list of approved reviews for the specified movie, ordered by most recent first. This endpoint is public and does not require authentication."
+            description = "Returns a paginated list of approved reviews for the specified movie, ordered by most recent first. This endpoint is public and does not require authentication. "
+                    + "Pass cursor=* (then the returned nextCursor) instead of page for keyset pagination: the data is then a cursor page without page numbers, and the total count is only computed with withTotal=true."
     )
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Reviews retrieved successfully",
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Movie not found")
     })
     @GetMapping("/{movieId}")
-    public ResponseEntity<ApiResponse<Page<ReviewResponse>>> getReviewsByMovie(
+    public ResponseEntity<ApiResponse<?>> getReviewsByMovie(
             @PathVariable Integer movieId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
 
         size = Math.min(size, 50);
+        if (cursor != null) {
+            CursorPagedResponse<ReviewResponse> reviews = reviewService.getReviewsByMovie(movieId, cursor, size, withTotal);
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(ApiResponse.success(RESOURCE_RETRIEVED, reviews, "Reviews"));
+        }
+
         PageRequest pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<ReviewResponse> reviews = reviewService.getReviewsByMovie(movieId, pageable);
         return ResponseEntity.status(HttpStatus.OK)
@@ -0,0 +1,21 @@
+package com.viecinema.movie.dto;
+
+import com.viecinema.common.enums.SuggestionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một gợi ý của ô tìm kiếm: phim, diễn viên hoặc đạo diễn.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SuggestionDto {
+    private SuggestionType type;
+    /** movieId, actorId hoặc directorId tuỳ theo type. */
+    private Integer id;
+    private String text;
+}
@@ -24,6 +24,8 @@ import static com.viecinema.common.constant.ValidationConstant.*;
 @AllArgsConstructor
 @Builder
 public class MovieFilterRequest {
+    private static final String RELEVANCE = "relevance";
+
     private List<Integer> genreIds;
 
     @Min(value = 0, message = MOVIE_FILTER_PAGE_ERROR)
@@ -48,25 +50,53 @@ public class MovieFilterRequest {
     private String city;
     private MovieStatus status; // Admin filter: lọc theo trạng thái phim
 
+    /**
+     * Bật phân trang keyset: "*" (hoặc rỗng) cho trang đầu, sau đó là nextCursor của trang trước.
+     * Khi có cursor thì page bị bỏ qua.
+     */
+    private String cursor;
+
+    /** Ở chế độ cursor: có đếm tổng số phim (COUNT) hay không. */
+    @Builder.Default
+    private boolean withTotal = false;
+
     // ============== HELPER METHODS ==============
 
     //    Convert from request to pageable
     public Pageable toPageable() {
+        return PageRequest.of(page, size, Sort.by(toSortOrder()));
+    }
+
+    /**
+     * Sort theo cột; "relevance" (chỉ có nghĩa khi có keyword) được thay bằng releaseDate,desc.
+     */
+    public Sort.Order toSortOrder() {
         String[] sortParams = sort.split(",");
         String property = sortParams[0];
+        if (RELEVANCE.equals(property)) {
+            return Sort.Order.desc("releaseDate");
+        }
         Sort.Direction direction = sortParams.length > 1
                 && sortParams[1].equalsIgnoreCase("asc")
                 ? Sort.Direction.ASC
                 : Sort.Direction.DESC;
+        return new Sort.Order(direction, property);
+    }
+
+    public boolean isCursorMode() {
+        return cursor != null;
+    }
 
-        return PageRequest.of(page, size, Sort.by(direction, property));
+    /** Xếp theo độ liên quan của tìm kiếm từ khoá. */
+    public boolean isRelevanceSort() {
+        return sort.startsWith(RELEVANCE + ",") && keyword != null && !keyword.isBlank();
     }
 
     public String toCacheKey(MovieStatus status) {
-        return String.format("movies:%s:%s:%d:%d:%s:%s:%s:%s:%s",
+        return String.format("movies:%s:%s:%s:%d:%s:%s:%s:%s:%s",
                 status.name(),
                 genreIds != null ? genreIds.toString() : "all",
-                page,
+                isCursorMode() ? "cursor=" + cursor + (withTotal ? "+total" : "") : page,
                 size,
                 sort,
                 keyword != null ? keyword : "all",
@@ -81,6 +111,7 @@ public class MovieFilterRequest {
         return "MovieFilterRequest{" +
                 "genreIds=" + genreIds +
                 ", page=" + page +
+                ", cursor='" + cursor + '\'' +
                 ", size=" + size +
                 ", sort='" + sort + '\'' +
                 ", keyword='" + keyword + '\'' +
@@ -0,0 +1,29 @@
+package com.viecinema.movie.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Một trang ở chế độ cursor (keyset): không có số trang; trang sau lấy bằng {@code nextCursor}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPagedResponse<T> {
+    private List<T> content;
+    private int pageSize;
+    /** Chỉ có khi yêu cầu đếm tổng (withTotal=true). */
+    private Long totalElements;
+    private boolean last;
+    private boolean first;
+    private boolean empty;
+    /** Token để lấy trang kế tiếp; null khi đã hết dữ liệu. */
+    private String nextCursor;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
 
 import java.util.List;
 
@@ -22,4 +23,17 @@ public class PagedResponse<T> {
     private boolean last;
     private boolean first;
     private boolean empty;
+
+    public static <T> PagedResponse<T> of(Page<T> page) {
+        return PagedResponse.<T>builder()
+                .content(page.getContent())
+                .pageNumber(page.getNumber())
+                .pageSize(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .last(page.isLast())
+                .first(page.isFirst())
+                .empty(page.isEmpty())
+                .build();
+    }
 }
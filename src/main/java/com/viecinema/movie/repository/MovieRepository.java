@@ -8,10 +8,17 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
-public interface MovieRepository extends JpaRepository<Movie, Integer>, JpaSpecificationExecutor<Movie> {
+public interface MovieRepository extends JpaRepository<Movie, Integer>, JpaSpecificationExecutor<Movie>,
+        MovieRepositoryCustom {
 
     @Query("""
             SELECT DISTINCT m FROM Movie m
@@ -23,6 +30,52 @@ public interface MovieRepository extends JpaRepository<Movie, Integer>, JpaSpeci
             """)
     Optional<Movie> findByIdWithDetails(@Param("movieId") Integer movieId);
 
+    /**
+     * Bước 2 của phân trang hai bước: nạp phim kèm genres cho các ID của một trang (không giữ thứ tự ID).
+     */
+    @Query("""
+            SELECT DISTINCT m FROM Movie m
+            LEFT JOIN FETCH m.genres
+            WHERE m.movieId IN :movieIds
+            """)
+    List<Movie> findAllWithGenresByIdIn(@Param("movieIds") Collection<Integer> movieIds);
+
+    /**
+     * {@link #findAllWithGenresByIdIn} theo đúng thứ tự của {@code movieIds} (thứ tự của trang ID).
+     * ID không còn tìm thấy (bị xoá giữa hai bước) bị bỏ qua.
+     */
+    default List<Movie> findAllWithGenresInOrder(List<Integer> movieIds) {
+        if (movieIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Movie> movies = findAllWithGenresByIdIn(movieIds).stream()
+                .collect(Collectors.toMap(Movie::getMovieId, Function.identity()));
+        return movieIds.stream()
+                .map(movies::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Nạp actors cho các phim đã có trong persistence context (gọi sau {@link #findAllWithGenresByIdIn}).
+     */
+    @Query("""
+            SELECT DISTINCT m FROM Movie m
+            LEFT JOIN FETCH m.actors
+            WHERE m.movieId IN :movieIds
+            """)
+    List<Movie> fetchActorsByIdIn(@Param("movieIds") Collection<Integer> movieIds);
+
+    /**
+     * Nạp directors cho các phim đã có trong persistence context (gọi sau {@link #findAllWithGenresByIdIn}).
+     */
+    @Query("""
+            SELECT DISTINCT m FROM Movie m
+            LEFT JOIN FETCH m.directors
+            WHERE m.movieId IN :movieIds
+            """)
+    List<Movie> fetchDirectorsByIdIn(@Param("movieIds") Collection<Integer> movieIds);
+
     /**
      * Tìm phim kể cả đã soft-delete — dùng cho admin (restore, xem chi tiết phim đã xóa).
      * Bỏ qua @Where(clause = "deleted_at IS NULL") bằng cách dùng native query.
@@ -0,0 +1,30 @@
+package com.viecinema.movie.repository;
+
+import com.viecinema.movie.entity.Movie;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface MovieRepositoryCustom {
+
+    /**
+     * Phân trang chỉ trên movie_id (bước 1 của phân trang hai bước).
+     * LIMIT/OFFSET chạy ở DB; collection của Movie được nạp sau, chỉ cho các ID của trang.
+     * Sort theo pageable, thêm movie_id làm tie-breaker để thứ tự giữa các trang ổn định.
+     */
+    Page<Integer> findIds(Specification<Movie> spec, Pageable pageable);
+
+    /**
+     * Tối đa {@code limit} movie_id theo {@code sort}, không đếm tổng (dùng cho phân trang keyset).
+     */
+    List<Integer> findIds(Specification<Movie> spec, Sort sort, int limit);
+
+    /**
+     * Phân trang theo thứ tự của {@code rankedIds} (kết quả tìm kiếm, đã giới hạn số lượng): lọc
+     * {@code rankedIds} bằng {@code spec} ở DB rồi cắt trang trong bộ nhớ; sort của pageable bị bỏ qua.
+     */
+    Page<Integer> findIdsInRankOrder(Specification<Movie> spec, List<Integer> rankedIds, Pageable pageable);
+}
@@ -0,0 +1,92 @@
+package com.viecinema.movie.repository;
+
+import com.viecinema.movie.entity.Movie;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class MovieRepositoryCustomImpl implements MovieRepositoryCustom {
+
+    private static final String ID = "movieId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Integer> findIds(Specification<Movie> spec, Pageable pageable) {
+        TypedQuery<Integer> query = idQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<Integer> ids = query.getResultList();
+
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<Integer> findIds(Specification<Movie> spec, Sort sort, int limit) {
+        return idQuery(spec, sort).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Page<Integer> findIdsInRankOrder(Specification<Movie> spec, List<Integer> rankedIds, Pageable pageable) {
+        Set<Integer> matched = new HashSet<>(idQuery(spec, Sort.unsorted()).getResultList());
+        List<Integer> ordered = rankedIds.stream()
+                .filter(matched::contains)
+                .toList();
+
+        int from = (int) Math.min(pageable.getOffset(), ordered.size());
+        int to = Math.min(from + pageable.getPageSize(), ordered.size());
+        return new PageImpl<>(ordered.subList(from, to), pageable, ordered.size());
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private TypedQuery<Integer> idQuery(Specification<Movie> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        Root<Movie> root = query.from(Movie.class);
+        query.select(root.get(ID));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(sort, root, cb));
+        if (sort.getOrderFor(ID) == null) {
+            orders.add(cb.asc(root.get(ID)));
+        }
+        query.orderBy(orders);
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Movie> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Movie> root = query.from(Movie.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
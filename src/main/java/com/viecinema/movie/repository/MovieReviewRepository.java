@@ -4,6 +4,7 @@ import com.viecinema.movie.entity.MovieReview;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,7 +12,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface MovieReviewRepository extends JpaRepository<MovieReview, Integer> {
+public interface MovieReviewRepository extends JpaRepository<MovieReview, Integer>, JpaSpecificationExecutor<MovieReview> {
 
     boolean existsByMovie_MovieIdAndUser_Id(Integer movieId, Integer userId);
 
@@ -0,0 +1,93 @@
+package com.viecinema.movie.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Truy vấn FULLTEXT (ngram) trên movie_search_documents.
+ *
+ * <p>WHERE dùng index trên (title_folded, body_folded); điểm xếp hạng cộng thêm điểm của riêng tiêu đề nhân
+ * {@code :titleWeight} để phim khớp ở tiêu đề đứng trước phim chỉ khớp ở mô tả / tên diễn viên.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MovieSearchRepository {
+
+    private static final String SEARCH_SQL = """
+            SELECT d.movie_id
+            FROM movie_search_documents d
+            JOIN movies m ON m.movie_id = d.movie_id AND m.deleted_at IS NULL
+            WHERE MATCH(d.title_folded, d.body_folded) AGAINST (:query IN BOOLEAN MODE)
+            ORDER BY MATCH(d.title_folded) AGAINST (:query IN BOOLEAN MODE) * :titleWeight
+                     + MATCH(d.title_folded, d.body_folded) AGAINST (:query IN BOOLEAN MODE) DESC,
+                     d.movie_id DESC
+            LIMIT :limit
+            """;
+
+    /*
+     * Cho từ khoá chỉ gồm một ký tự (ngắn hơn token ngram): so tiền tố tiêu đề.
+     */
+    private static final String SEARCH_TITLE_PREFIX_SQL = """
+            SELECT d.movie_id
+            FROM movie_search_documents d
+            JOIN movies m ON m.movie_id = d.movie_id AND m.deleted_at IS NULL
+            WHERE d.title_folded LIKE :prefix
+            ORDER BY d.movie_id DESC
+            LIMIT :limit
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO movie_search_documents (movie_id, title_folded, body_folded)
+            VALUES (:movieId, :title, :body)
+            ON DUPLICATE KEY UPDATE title_folded = VALUES(title_folded), body_folded = VALUES(body_folded)
+            """;
+
+    private static final String FIND_UNINDEXED_SQL = """
+            SELECT m.movie_id
+            FROM movies m
+            LEFT JOIN movie_search_documents d ON d.movie_id = m.movie_id
+            WHERE d.movie_id IS NULL
+            AND m.movie_id > :afterId
+            ORDER BY m.movie_id
+            LIMIT :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * @param query câu truy vấn BOOLEAN MODE đã dựng sẵn (chỉ a-z, 0-9, '+', khoảng trắng)
+     * @return movie_id theo độ liên quan giảm dần
+     */
+    public List<Integer> search(String query, int titleWeight, int limit) {
+        return jdbcTemplate.queryForList(SEARCH_SQL, new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("titleWeight", titleWeight)
+                .addValue("limit", limit), Integer.class);
+    }
+
+    public List<Integer> searchTitlePrefix(String foldedPrefix, int limit) {
+        return jdbcTemplate.queryForList(SEARCH_TITLE_PREFIX_SQL, new MapSqlParameterSource()
+                .addValue("prefix", foldedPrefix + "%")
+                .addValue("limit", limit), Integer.class);
+    }
+
+    public void upsert(int movieId, String titleFolded, String bodyFolded) {
+        jdbcTemplate.update(UPSERT_SQL, new MapSqlParameterSource()
+                .addValue("movieId", movieId)
+                .addValue("title", titleFolded)
+                .addValue("body", bodyFolded));
+    }
+
+    /**
+     * Phim chưa có tài liệu tìm kiếm (dữ liệu seed, phim tạo trước khi có bảng), theo movie_id tăng dần.
+     */
+    public List<Integer> findUnindexedIds(int afterId, int limit) {
+        return jdbcTemplate.queryForList(FIND_UNINDEXED_SQL, new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("limit", limit), Integer.class);
+    }
+}
@@ -4,9 +4,11 @@ import com.viecinema.common.enums.MovieStatus;
 import com.viecinema.movie.entity.Genre;
 import com.viecinema.movie.entity.Movie;
 import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Collection;
 import java.util.List;
 
 public class MovieSpecification {
@@ -20,28 +22,23 @@ public class MovieSpecification {
         };
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Phim có ít nhất một genre trong danh sách. Dùng EXISTS thay cho JOIN + DISTINCT để mỗi phim chỉ ra một
+     * dòng, nên truy vấn ID và truy vấn đếm phân trang được ở DB.
+     */
     public static Specification<Movie> hasGenres(List<Integer> genreIds) {
         return (root, query, criteriaBuilder) -> {
             if (genreIds == null || genreIds.isEmpty()) {
                 return criteriaBuilder.conjunction();
             }
 
-            Class<?> resultType = query.getResultType();
-            boolean isCountQuery = Long.class.equals(resultType) || long.class.equals(resultType);
-
-            Join<Movie, Genre> genreJoin;
-
-            if (isCountQuery) {
-                genreJoin = root.join("genres", JoinType.INNER);
-            } else {
-                genreJoin = (Join<Movie, Genre>) root.getJoins().stream()
-                        .filter(join -> "genres".equals(join.getAttribute().getName()))
-                        .findFirst()
-                        .orElseGet(() -> root.join("genres", JoinType.LEFT));
-            }
-            query.distinct(true);
-            return genreJoin.get("genreId").in(genreIds);
+            Subquery<Integer> subquery = query.subquery(Integer.class);
+            Root<Movie> movie = subquery.from(Movie.class);
+            Join<Movie, Genre> genreJoin = movie.join("genres");
+            subquery.select(movie.get("movieId"))
+                    .where(criteriaBuilder.equal(movie.get("movieId"), root.get("movieId")),
+                            genreJoin.get("genreId").in(genreIds));
+            return criteriaBuilder.exists(subquery);
         };
     }
 
@@ -50,23 +47,18 @@ public class MovieSpecification {
                 criteriaBuilder.isNull(root.get("deletedAt"));
     }
 
-    public static Specification<Movie> fetchGenres() {
+    /**
+     * Giới hạn theo kết quả tìm kiếm từ khoá ({@code MovieSearchService}); null = không có từ khoá.
+     */
+    public static Specification<Movie> hasIdIn(Collection<Integer> movieIds) {
         return (root, query, criteriaBuilder) -> {
-
-            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
-                root.fetch("genres", JoinType.LEFT);
-                query.distinct(true);
-            }
-            return criteriaBuilder.conjunction();
-        };
-    }
-
-    public static Specification<Movie> hasKeyWords(String keyword) {
-        return  (root, query, criteriaBuilder) -> {
-            if(keyword == null || keyword.isBlank()) {
+            if (movieIds == null) {
                 return criteriaBuilder.conjunction();
             }
-            return criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), "%" + keyword.toLowerCase() + "%");
+            if (movieIds.isEmpty()) {
+                return criteriaBuilder.disjunction();
+            }
+            return root.get("movieId").in(movieIds);
         };
     }
 
@@ -0,0 +1,79 @@
+package com.viecinema.movie.repository;
+
+import com.viecinema.common.enums.SuggestionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Nguồn dữ liệu của gợi ý tìm kiếm: phim chưa xoá, diễn viên và đạo diễn chưa xoá, kèm độ phổ biến.
+ *
+ * <p>Độ phổ biến của phim là movie_statistics.total_bookings; của diễn viên / đạo diễn là tổng total_bookings
+ * các phim chưa xoá họ tham gia (movie_actors có thể lặp cặp phim - diễn viên với vai khác nhau nên lấy DISTINCT).
+ */
+@Repository
+@RequiredArgsConstructor
+public class MovieSuggestRepository {
+
+    private static final String MOVIES_SQL = """
+            SELECT 'MOVIE' AS type, m.movie_id AS id, m.title AS text, COALESCE(s.total_bookings, 0) AS popularity
+            FROM movies m
+            LEFT JOIN movie_statistics s ON s.movie_id = m.movie_id
+            WHERE m.deleted_at IS NULL
+            """;
+
+    private static final String ACTORS_SQL = """
+            SELECT 'ACTOR' AS type, a.actor_id AS id, a.name AS text, COALESCE(SUM(s.total_bookings), 0) AS popularity
+            FROM actors a
+            LEFT JOIN (SELECT DISTINCT movie_id, actor_id FROM movie_actors) ma ON ma.actor_id = a.actor_id
+            LEFT JOIN movies m ON m.movie_id = ma.movie_id AND m.deleted_at IS NULL
+            LEFT JOIN movie_statistics s ON s.movie_id = m.movie_id
+            WHERE a.deleted_at IS NULL
+            """;
+
+    private static final String DIRECTORS_SQL = """
+            SELECT 'DIRECTOR' AS type, d.director_id AS id, d.name AS text, COALESCE(SUM(s.total_bookings), 0) AS popularity
+            FROM directors d
+            LEFT JOIN movie_directors md ON md.director_id = d.director_id
+            LEFT JOIN movies m ON m.movie_id = md.movie_id AND m.deleted_at IS NULL
+            LEFT JOIN movie_statistics s ON s.movie_id = m.movie_id
+            WHERE d.deleted_at IS NULL
+            """;
+
+    private static final String ALL_SQL = MOVIES_SQL
+            + "UNION ALL\n" + ACTORS_SQL + "GROUP BY a.actor_id, a.name\n"
+            + "UNION ALL\n" + DIRECTORS_SQL + "GROUP BY d.director_id, d.name\n";
+
+    private static final String BY_MOVIE_SQL = MOVIES_SQL + "AND m.movie_id = :movieId\n"
+            + "UNION ALL\n" + ACTORS_SQL
+            + "AND a.actor_id IN (SELECT actor_id FROM movie_actors WHERE movie_id = :movieId)\n"
+            + "GROUP BY a.actor_id, a.name\n"
+            + "UNION ALL\n" + DIRECTORS_SQL
+            + "AND d.director_id IN (SELECT director_id FROM movie_directors WHERE movie_id = :movieId)\n"
+            + "GROUP BY d.director_id, d.name\n";
+
+    private static final RowMapper<Source> SOURCE_MAPPER = (rs, rowNum) -> new Source(
+            SuggestionType.valueOf(rs.getString("type")),
+            rs.getInt("id"),
+            rs.getString("text"),
+            rs.getLong("popularity"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<Source> findAll() {
+        return jdbcTemplate.query(ALL_SQL, SOURCE_MAPPER);
+    }
+
+    /**
+     * Phim (nếu chưa xoá) cùng diễn viên, đạo diễn hiện gắn với phim, độ phổ biến tính lại.
+     */
+    public List<Source> findByMovieId(int movieId) {
+        return jdbcTemplate.query(BY_MOVIE_SQL, new MapSqlParameterSource("movieId", movieId), SOURCE_MAPPER);
+    }
+
+    public record Source(SuggestionType type, int id, String text, long popularity) {}
+}
@@ -4,8 +4,10 @@ import com.viecinema.auth.entity.User;
 import com.viecinema.auth.repository.UserRepository;
 import com.viecinema.common.exception.ResourceNotFoundException;
 import com.viecinema.common.exception.SpecificBusinessException;
+import com.viecinema.common.util.KeysetPagination;
 import com.viecinema.loyalty.service.LoyaltyPointsService;
 import com.viecinema.movie.dto.request.CreateReviewRequest;
+import com.viecinema.movie.dto.response.CursorPagedResponse;
 import com.viecinema.movie.dto.response.ReviewResponse;
 import com.viecinema.movie.entity.Movie;
 import com.viecinema.movie.entity.MovieReview;
@@ -16,6 +18,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -126,4 +130,22 @@ public class MovieReviewService {
                 .findByMovie_MovieIdAndIsApprovedTrueOrderByCreatedAtDesc(movieId, pageable)
                 .map(reviewMapper::toReviewResponse);
     }
+
+    /**
+     * Như {@link #getReviewsByMovie(Integer, Pageable)} nhưng phân trang keyset theo (created_at, review_id).
+     *
+     * @param cursor    "*" cho trang đầu, sau đó là nextCursor của trang trước
+     * @param withTotal có đếm tổng số review hay không
+     */
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<ReviewResponse> getReviewsByMovie(Integer movieId, String cursor, int size, boolean withTotal) {
+        if (!movieRepository.existsById(movieId)) {
+            throw new ResourceNotFoundException("Phim không tồn tại: " + movieId);
+        }
+        Specification<MovieReview> approvedForMovie = (root, query, cb) -> cb.and(
+                cb.equal(root.get("movie").get("movieId"), movieId),
+                cb.isTrue(root.get("isApproved")));
+        return KeysetPagination.fetch(reviewRepository, approvedForMovie, Sort.Order.desc("createdAt"), "id",
+                cursor, size, withTotal, reviewMapper::toReviewResponse);
+    }
 }
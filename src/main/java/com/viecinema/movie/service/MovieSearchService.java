@@ -0,0 +1,110 @@
+package com.viecinema.movie.service;
+
+import com.viecinema.common.util.VietnameseTextUtil;
+import com.viecinema.movie.entity.Actor;
+import com.viecinema.movie.entity.Director;
+import com.viecinema.movie.entity.Movie;
+import com.viecinema.movie.repository.MovieRepository;
+import com.viecinema.movie.repository.MovieSearchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.viecinema.common.constant.PolicyConstants.MOVIE_SEARCH_MAX_RESULTS;
+import static com.viecinema.common.constant.PolicyConstants.MOVIE_SEARCH_TITLE_WEIGHT;
+
+/**
+ * Tìm phim theo từ khoá bằng FULLTEXT trên movie_search_documents (tiêu đề, mô tả, tên diễn viên / đạo diễn,
+ * đã bỏ dấu nên "da nang" khớp "Đà Nẵng").
+ *
+ * <p>Mỗi từ của từ khoá là bắt buộc ({@code +tu}); parser ngram khớp cả chuỗi con nên từ đang gõ dở vẫn khớp.
+ * Kết quả là danh sách movie_id theo độ liên quan (tối đa {@code MOVIE_SEARCH_MAX_RESULTS}); bộ lọc và phân
+ * trang của danh sách phim chạy trên danh sách đó.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MovieSearchService {
+
+    /** ngram_token_size mặc định của MySQL: từ ngắn hơn không có token nào trong index. */
+    private static final int NGRAM_TOKEN_SIZE = 2;
+    private static final int BACKFILL_CHUNK_SIZE = 200;
+
+    private final MovieSearchRepository movieSearchRepository;
+    private final MovieRepository movieRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * @return movie_id khớp từ khoá, liên quan nhất trước; null khi từ khoá rỗng (không lọc).
+     */
+    public List<Integer> findMatchingIds(String keyword) {
+        List<String> tokens = VietnameseTextUtil.tokens(keyword);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        List<String> terms = tokens.stream()
+                .filter(token -> token.length() >= NGRAM_TOKEN_SIZE)
+                .toList();
+        if (terms.isEmpty()) {
+            return movieSearchRepository.searchTitlePrefix(tokens.get(0), MOVIE_SEARCH_MAX_RESULTS);
+        }
+        String query = terms.stream()
+                .map(term -> "+" + term)
+                .collect(Collectors.joining(" "));
+        return movieSearchRepository.search(query, MOVIE_SEARCH_TITLE_WEIGHT, MOVIE_SEARCH_MAX_RESULTS);
+    }
+
+    /**
+     * Ghi lại tài liệu tìm kiếm của phim. Gọi trong transaction ghi phim, sau khi phim đã có movie_id;
+     * actors / directors của phim phải nạp được (đang trong session).
+     */
+    public void index(Movie movie) {
+        String body = Stream.concat(
+                        Stream.of(movie.getDescription()),
+                        Stream.concat(
+                                movie.getActors().stream().map(Actor::getName),
+                                movie.getDirectors().stream().map(Director::getName)))
+                .filter(Objects::nonNull)
+                .map(VietnameseTextUtil::fold)
+                .collect(Collectors.joining(" "));
+        movieSearchRepository.upsert(movie.getMovieId(), VietnameseTextUtil.fold(movie.getTitle()), body);
+    }
+
+    /**
+     * Tạo tài liệu cho các phim chưa có (dữ liệu seed, phim tạo trước khi có bảng tìm kiếm).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int afterId = 0;
+        int indexed = 0;
+        try {
+            List<Integer> ids;
+            while (!(ids = movieSearchRepository.findUnindexedIds(afterId, BACKFILL_CHUNK_SIZE)).isEmpty()) {
+                List<Integer> chunk = ids;
+                indexed += transactionTemplate.execute(status -> {
+                    List<Movie> movies = movieRepository.findAllWithGenresByIdIn(chunk);
+                    movieRepository.fetchActorsByIdIn(chunk);
+                    movieRepository.fetchDirectorsByIdIn(chunk);
+                    movies.forEach(this::index);
+                    return movies.size();
+                });
+                afterId = chunk.get(chunk.size() - 1);
+            }
+        } catch (DataAccessException e) {
+            log.warn("[MovieSearch] Backfill stopped after {} movies: {}", indexed, e.getMessage());
+            return;
+        }
+        if (indexed > 0) {
+            log.info("[MovieSearch] Indexed {} movies without a search document", indexed);
+        }
+    }
+}
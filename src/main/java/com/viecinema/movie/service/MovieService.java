@@ -1,12 +1,16 @@
 package com.viecinema.movie.service;
 
 import com.viecinema.common.enums.MovieStatus;
+import com.viecinema.common.exception.BadRequestException;
 import com.viecinema.common.exception.ResourceNotFoundException;
+import com.viecinema.common.util.KeysetPagination;
+import com.viecinema.common.util.PageCursor;
 import com.viecinema.movie.dto.GenreInfo;
 import com.viecinema.movie.dto.MovieDetail;
 import com.viecinema.movie.dto.MovieSummary;
 import com.viecinema.movie.dto.TopMovieDto;
 import com.viecinema.movie.dto.request.MovieFilterRequest;
+import com.viecinema.movie.dto.response.CursorPagedResponse;
 import com.viecinema.movie.dto.response.PagedResponse;
 import com.viecinema.movie.entity.Movie;
 import com.viecinema.movie.entity.MovieStatistic;
@@ -18,13 +22,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -32,9 +40,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class MovieService {
+    private static final String MOVIE_ID = "movieId";
+
     private final MovieRepository movieRepository;
     private final MovieMapper movieMapper;
     private final MovieStatisticsRepository movieStatisticsRepository;
+    private final MovieSearchService movieSearchService;
 
     @Cacheable( // Save data to cache, when the same request be sent, use this cache instead query to database
             value = "moviesByStatus",
@@ -44,36 +55,53 @@ public class MovieService {
     public PagedResponse<MovieSummary> getMoviesByStatus(MovieFilterRequest request, MovieStatus status) {
         log.info("Fetching movies with status '{}' and filters: {}", status, request);
 
-        Specification<Movie> spec = buildSpecification(request, status);
+        List<Integer> matchingIds = movieSearchService.findMatchingIds(request.getKeyword());
+        Specification<Movie> spec = buildSpecification(request, status, matchingIds);
         Pageable pageable = request.toPageable();
-        Page<Movie> moviePage = movieRepository.findAll(spec, pageable);
-
-        List<Integer> movieIds = moviePage.getContent().stream()
-                .map(Movie::getMovieId)
-                .collect(Collectors.toList());
-        var statsMap = movieStatisticsRepository.findAllById(movieIds).stream()
-                .collect(Collectors.toMap(s -> s.getMovies().getMovieId(), s -> s));
+        Page<Integer> idPage = request.isRelevanceSort()
+                ? movieRepository.findIdsInRankOrder(spec, matchingIds, pageable)
+                : movieRepository.findIds(spec, pageable);
 
         log.info("Found {} movies out of {} total",
-                moviePage.getNumberOfElements(),
-                moviePage.getTotalElements()
+                idPage.getNumberOfElements(),
+                idPage.getTotalElements()
         );
 
-        List<MovieSummary> content = moviePage.getContent()
-                .stream()
-                .map(movie -> mapToSummaryWithStats(movie,statsMap.get(movie.getMovieId())))
-                .collect(Collectors.toList());
+        List<MovieSummary> content = toSummaries(movieRepository.findAllWithGenresInOrder(idPage.getContent()));
+        return PagedResponse.of(new PageImpl<>(content, pageable, idPage.getTotalElements()));
+    }
 
-        return PagedResponse.<MovieSummary>builder()
-                .content(content)
-                .pageNumber(moviePage.getNumber())
-                .pageSize(moviePage.getSize())
-                .totalElements(moviePage.getTotalElements())
-                .totalPages(moviePage.getTotalPages())
-                .last(moviePage.isLast())
-                .first(moviePage.isFirst())
-                .empty(moviePage.isEmpty())
-                .build();
+    /**
+     * Như {@link #getMoviesByStatus} nhưng phân trang keyset trên movie_id từ {@code request.cursor}:
+     * lấy thêm một ID để biết còn trang sau hay không.
+     */
+    @Cacheable(
+            value = "moviesByStatus",
+            key = "#request.toCacheKey(#status)",
+            unless = "#result == null || #result.content.isEmpty()"
+    )
+    public CursorPagedResponse<MovieSummary> getMoviesByCursor(MovieFilterRequest request, MovieStatus status) {
+        log.info("Fetching movies with status '{}' after cursor: {}", status, request);
+        if (request.isRelevanceSort()) {
+            throw new BadRequestException("Cursor pagination does not support sorting by relevance");
+        }
+
+        Specification<Movie> spec = buildSpecification(request, status,
+                movieSearchService.findMatchingIds(request.getKeyword()));
+        Sort.Order order = request.toSortOrder();
+        PageCursor position = PageCursor.decode(request.getCursor(), order);
+        List<Integer> ids = movieRepository.findIds(
+                spec.and(KeysetPagination.after(position, MOVIE_ID)),
+                KeysetPagination.sort(order, MOVIE_ID),
+                request.getSize() + 1);
+
+        boolean hasMore = ids.size() > request.getSize();
+        List<Movie> movies = movieRepository.findAllWithGenresInOrder(hasMore ? ids.subList(0, request.getSize()) : ids);
+        String nextCursor = hasMore && !movies.isEmpty()
+                ? PageCursor.after(movies.get(movies.size() - 1), order, MOVIE_ID).encode()
+                : null;
+        Long total = request.isWithTotal() ? movieRepository.count(spec) : null;
+        return KeysetPagination.response(toSummaries(movies), request.getSize(), position == null, nextCursor, total);
     }
 
     @Cacheable(value = "movieDetails", key = "#movieId", unless = "#result == null")
@@ -133,15 +161,29 @@ public class MovieService {
 
     // ========== PRIVATE HELPERS ==========
 
-    private Specification<Movie> buildSpecification(MovieFilterRequest request, MovieStatus status) {
+    private Specification<Movie> buildSpecification(MovieFilterRequest request, MovieStatus status,
+                                                    List<Integer> matchingIds) {
         return Specification
                 .where(MovieSpecification.hasStatus(status))
                 .and(MovieSpecification.isNotDeleted())
-                .and(MovieSpecification.fetchGenres())
-                .and(MovieSpecification.hasKeyWords(request.getKeyword()))
+                .and(MovieSpecification.hasIdIn(matchingIds))
                 .and(MovieSpecification.hasGenres(request.getGenreIds()));
     }
 
+    /** Map các phim của một trang, kèm statistics nạp một lần cho cả trang. */
+    private List<MovieSummary> toSummaries(List<Movie> movies) {
+        if (movies.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, MovieStatistic> statsMap = movieStatisticsRepository
+                .findAllById(movies.stream().map(Movie::getMovieId).toList())
+                .stream()
+                .collect(Collectors.toMap(MovieStatistic::getId, Function.identity()));
+        return movies.stream()
+                .map(movie -> mapToSummaryWithStats(movie, statsMap.get(movie.getMovieId())))
+                .collect(Collectors.toList());
+    }
+
     private MovieSummary mapToSummaryWithStats(Movie movie, MovieStatistic statistic) {
         MovieSummary dto = movieMapper.toMovieSummaryDto(movie);
         if (statistic != null) {
@@ -0,0 +1,171 @@
+package com.viecinema.movie.service;
+
+import com.viecinema.common.enums.SuggestionType;
+import com.viecinema.common.util.PrefixIndex;
+import com.viecinema.common.util.VietnameseTextUtil;
+import com.viecinema.movie.dto.SuggestionDto;
+import com.viecinema.movie.repository.MovieSuggestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.viecinema.common.constant.PolicyConstants.MOVIE_SUGGEST_MAX_RESULTS;
+import static com.viecinema.common.constant.PolicyConstants.MOVIE_SUGGEST_RELOAD_MS;
+
+/**
+ * Gợi ý cho ô tìm kiếm theo từng phím gõ: tên phim, diễn viên, đạo diễn khớp tiền tố (đã bỏ dấu, nên "da n"
+ * khớp "Đà Nẵng"), phổ biến nhất trước.
+ *
+ * <p>Tra cứu chạy hoàn toàn trong bộ nhớ trên một {@link PrefixIndex} bất biến, không chạm DB. Mỗi tên được
+ * index theo tiền tố của từng từ ("nguyen van a" có key "nguyen van a", "van a", "a") để gõ tên riêng hay tên
+ * giữa đều ra.
+ *
+ * <p>Nguồn dữ liệu được nạp đủ khi khởi động và định kỳ mỗi {@code MOVIE_SUGGEST_RELOAD_MS} (độ phổ biến đổi
+ * theo booking); ghi phim ở admin chỉ nạp lại phim đó và người gắn với nó từ DB, nhưng vẫn dựng lại toàn bộ index
+ * vì hạng của mọi entry có thể dịch (copy-on-write, request đang đọc vẫn dùng bản cũ).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MovieSuggestService {
+
+    /** Số từ đầu tiên của một tên được làm điểm bắt đầu key. */
+    private static final int MAX_KEY_WORDS = 8;
+
+    private static final Comparator<MovieSuggestRepository.Source> RANKING =
+            Comparator.comparingLong(MovieSuggestRepository.Source::popularity).reversed()
+                    .thenComparingInt(source -> source.text().length())
+                    .thenComparing(MovieSuggestRepository.Source::type)
+                    .thenComparingInt(MovieSuggestRepository.Source::id);
+
+    private final MovieSuggestRepository movieSuggestRepository;
+
+    /** Nguồn hiện tại theo "TYPE:id", kèm key đã tách sẵn; chỉ sửa trong các method synchronized. */
+    private final Map<String, Entry> entries = new HashMap<>();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * @return tối đa {@code limit} gợi ý khớp tiền tố {@code query}; rỗng khi query không có chữ / số nào.
+     */
+    public List<SuggestionDto> suggest(String query, int limit) {
+        String prefix = String.join(" ", VietnameseTextUtil.tokens(query));
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        return Arrays.stream(current.index().top(prefix))
+                .limit(limit)
+                .mapToObj(current.ranked()::get)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = MOVIE_SUGGEST_RELOAD_MS, fixedDelay = MOVIE_SUGGEST_RELOAD_MS)
+    public void reload() {
+        List<MovieSuggestRepository.Source> all;
+        try {
+            all = movieSuggestRepository.findAll();
+        } catch (DataAccessException e) {
+            log.warn("[MovieSuggest] Reload failed, keeping {} entries: {}", snapshot.ranked().size(), e.getMessage());
+            return;
+        }
+        long start = System.nanoTime();
+        synchronized (this) {
+            entries.clear();
+            all.forEach(this::put);
+            rebuild();
+        }
+        log.info("[MovieSuggest] Indexed {} entries in {} ms", all.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Nạp lại phim và diễn viên / đạo diễn của nó sau khi transaction hiện tại commit (ngay lập tức nếu không có
+     * transaction). Phim đã xoá mềm bị bỏ khỏi gợi ý.
+     */
+    public void refreshMovieAfterCommit(int movieId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshMovie(movieId);
+                }
+            });
+        } else {
+            refreshMovie(movieId);
+        }
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private void refreshMovie(int movieId) {
+        List<MovieSuggestRepository.Source> changed;
+        try {
+            changed = movieSuggestRepository.findByMovieId(movieId);
+        } catch (DataAccessException e) {
+            log.warn("[MovieSuggest] Refresh of movie {} failed: {}", movieId, e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            entries.remove(key(SuggestionType.MOVIE, movieId));
+            changed.forEach(this::put);
+            rebuild();
+        }
+    }
+
+    private void put(MovieSuggestRepository.Source source) {
+        SuggestionDto suggestion = SuggestionDto.builder()
+                .type(source.type())
+                .id(source.id())
+                .text(source.text())
+                .build();
+        entries.put(key(source.type(), source.id()), new Entry(source, keys(source.text()), suggestion));
+    }
+
+    /*
+     * Key và DTO của mỗi nguồn được tính một lần lúc put, nên dựng lại chỉ còn sort theo hạng và dựng trie.
+     */
+    private void rebuild() {
+        List<Entry> ranked = entries.values().stream()
+                .sorted(Comparator.comparing(Entry::source, RANKING))
+                .toList();
+        List<List<String>> keys = new ArrayList<>(ranked.size());
+        List<SuggestionDto> suggestions = new ArrayList<>(ranked.size());
+        for (Entry entry : ranked) {
+            keys.add(entry.keys());
+            suggestions.add(entry.suggestion());
+        }
+        snapshot = new Snapshot(List.copyOf(suggestions), PrefixIndex.build(keys, MOVIE_SUGGEST_MAX_RESULTS));
+    }
+
+    private static List<String> keys(String text) {
+        List<String> words = VietnameseTextUtil.tokens(text);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < Math.min(words.size(), MAX_KEY_WORDS); i++) {
+            keys.add(String.join(" ", words.subList(i, words.size())));
+        }
+        return keys;
+    }
+
+    private static String key(SuggestionType type, int id) {
+        return type.name() + ":" + id;
+    }
+
+    private record Entry(MovieSuggestRepository.Source source, List<String> keys, SuggestionDto suggestion) {}
+
+    private record Snapshot(List<SuggestionDto> ranked, PrefixIndex index) {
+        static final Snapshot EMPTY = new Snapshot(List.of(), PrefixIndex.build(List.of(), MOVIE_SUGGEST_MAX_RESULTS));
+    }
+}
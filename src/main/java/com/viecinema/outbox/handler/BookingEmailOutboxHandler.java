@@ -0,0 +1,32 @@
+package com.viecinema.outbox.handler;
+
+import com.viecinema.booking.service.BookingEmailService;
+import com.viecinema.common.enums.OutboxEventType;
+import com.viecinema.outbox.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gửi email xác nhận đặt vé kèm QR Code. Lỗi gửi mail được ném ra để outbox retry.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingEmailOutboxHandler implements OutboxHandler {
+
+    private final BookingEmailService bookingEmailService;
+
+    @Override
+    public String getName() {
+        return "booking-email";
+    }
+
+    @Override
+    public OutboxEventType getEventType() {
+        return OutboxEventType.BOOKING_PAID;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        bookingEmailService.sendBookingConfirmation(event.getAggregateId());
+    }
+}
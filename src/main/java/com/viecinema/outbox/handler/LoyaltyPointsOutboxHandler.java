@@ -0,0 +1,38 @@
+package com.viecinema.outbox.handler;
+
+import com.viecinema.booking.entity.Booking;
+import com.viecinema.booking.repository.BookingRepository;
+import com.viecinema.common.enums.OutboxEventType;
+import com.viecinema.common.exception.ResourceNotFoundException;
+import com.viecinema.loyalty.service.LoyaltyPointsService;
+import com.viecinema.outbox.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cộng điểm EARN cho booking vừa thanh toán.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoyaltyPointsOutboxHandler implements OutboxHandler {
+
+    private final BookingRepository bookingRepository;
+    private final LoyaltyPointsService loyaltyPointsService;
+
+    @Override
+    public String getName() {
+        return "loyalty";
+    }
+
+    @Override
+    public OutboxEventType getEventType() {
+        return OutboxEventType.BOOKING_PAID;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        Booking booking = bookingRepository.findById(event.getAggregateId())
+                .orElseThrow(() -> new ResourceNotFoundException("Booking"));
+        loyaltyPointsService.awardTransactionPoints(booking);
+    }
+}
@@ -0,0 +1,41 @@
+package com.viecinema.outbox.handler;
+
+import com.viecinema.booking.entity.Booking;
+import com.viecinema.booking.repository.BookingRepository;
+import com.viecinema.common.enums.OutboxEventType;
+import com.viecinema.common.exception.ResourceNotFoundException;
+import com.viecinema.movie.service.MovieStatisticsService;
+import com.viecinema.outbox.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cập nhật thống kê phim (số booking, số ghế, doanh thu) cho booking vừa thanh toán.
+ */
+@Component
+@RequiredArgsConstructor
+public class MovieStatisticsOutboxHandler implements OutboxHandler {
+
+    private final BookingRepository bookingRepository;
+    private final MovieStatisticsService movieStatisticsService;
+
+    @Override
+    public String getName() {
+        return "movie-statistics";
+    }
+
+    @Override
+    public OutboxEventType getEventType() {
+        return OutboxEventType.BOOKING_PAID;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        Booking booking = bookingRepository.findById(event.getAggregateId())
+                .orElseThrow(() -> new ResourceNotFoundException("Booking"));
+        movieStatisticsService.onBookingPaid(
+                booking.getShowtime().getMovie().getMovieId(),
+                booking.getBookingSeats() != null ? booking.getBookingSeats().size() : 0,
+                booking.getFinalAmount());
+    }
+}
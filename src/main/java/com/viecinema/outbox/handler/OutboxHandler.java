@@ -0,0 +1,18 @@
+package com.viecinema.outbox.handler;
+
+import com.viecinema.common.enums.OutboxEventType;
+import com.viecinema.outbox.entity.OutboxEvent;
+
+/**
+ * Một side effect của outbox event. Mỗi handler chạy trong transaction riêng cùng với việc đánh dấu hoàn thành,
+ * nên handler chỉ ghi DB sẽ chạy đúng một lần; handler có tác động ra ngoài (email) có thể chạy lại khi retry.
+ */
+public interface OutboxHandler {
+
+    /** Tên ổn định, được lưu trong completed_handlers. */
+    String getName();
+
+    OutboxEventType getEventType();
+
+    void handle(OutboxEvent event);
+}
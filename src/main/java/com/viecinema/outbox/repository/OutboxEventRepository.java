@@ -0,0 +1,59 @@
+package com.viecinema.outbox.repository;
+
+import com.viecinema.common.enums.OutboxStatus;
+import com.viecinema.outbox.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Khoá các event đến hạn; SKIP LOCKED để nhiều instance cùng poll mà không chờ nhau.
+     * Phải gọi trong transaction, rồi {@link #lease} trước khi commit.
+     */
+    @Query(value = """
+            SELECT event_id FROM outbox_events
+            WHERE status = 'PENDING' AND next_attempt_at <= :now
+            ORDER BY event_id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /** Đẩy hạn của các event đã nhận ra sau, để instance khác không nhận lại khi worker còn đang xử lý. */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.nextAttemptAt = :leaseUntil WHERE e.id IN :ids")
+    int lease(@Param("ids") List<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query(value = """
+            UPDATE outbox_events
+            SET completed_handlers = CONCAT_WS(',', completed_handlers, :handler)
+            WHERE event_id = :id
+            """, nativeQuery = true)
+    int markHandlerCompleted(@Param("id") Long id, @Param("handler") String handler);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE OutboxEvent e
+            SET e.status = :status, e.attempts = e.attempts + 1, e.lastError = :lastError,
+                e.nextAttemptAt = :nextAttemptAt, e.processedAt = :processedAt
+            WHERE e.id = :id
+            """)
+    int recordAttempt(@Param("id") Long id,
+                      @Param("status") OutboxStatus status,
+                      @Param("lastError") String lastError,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("processedAt") LocalDateTime processedAt);
+
+    long countByStatus(OutboxStatus status);
+}
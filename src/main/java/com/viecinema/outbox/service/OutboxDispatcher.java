@@ -0,0 +1,206 @@
+package com.viecinema.outbox.service;
+
+import com.viecinema.common.enums.OutboxEventType;
+import com.viecinema.common.enums.OutboxStatus;
+import com.viecinema.config.OutboxConfig;
+import com.viecinema.outbox.entity.OutboxEvent;
+import com.viecinema.outbox.handler.OutboxHandler;
+import com.viecinema.outbox.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.viecinema.common.constant.PolicyConstants.OUTBOX_FAILED_RECOUNT_MS;
+import static com.viecinema.common.constant.PolicyConstants.OUTBOX_LEASE_SECONDS;
+import static com.viecinema.common.constant.PolicyConstants.OUTBOX_POLL_MS;
+import static com.viecinema.common.constant.PolicyConstants.OUTBOX_RETRY_BASE_SECONDS;
+
+/**
+ * Chạy các {@link OutboxHandler} cho event trong outbox_events.
+ *
+ * <p>Mỗi lần poll, dispatcher khoá các event đến hạn ({@code FOR UPDATE SKIP LOCKED}), đẩy hạn của chúng thêm
+ * {@code OUTBOX_LEASE_SECONDS} rồi giao cho pool worker. Mỗi handler chạy trong transaction riêng cùng với việc
+ * ghi tên handler vào completed_handlers, nên khi retry chỉ các handler chưa xong được chạy lại. Event lỗi được
+ * thử lại với backoff luỹ thừa, quá {@code maxAttempts} lần thì chuyển FAILED.
+ *
+ * <p>Gauge {@code outbox.events.failed} đọc giá trị giữ trong bộ nhớ (tăng khi event chuyển FAILED, đếm lại từ DB
+ * mỗi {@code OUTBOX_FAILED_RECOUNT_MS}) nên mỗi lần scrape không chạy COUNT trên outbox_events.
+ */
+@Slf4j
+@Service
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxConfig outboxConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<OutboxEventType, List<OutboxHandler>> handlersByType = new EnumMap<>(OutboxEventType.class);
+    private final ExecutorService workers;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong failed = new AtomicLong();
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            OutboxConfig outboxConfig,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            List<OutboxHandler> handlers) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxConfig = outboxConfig;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        for (OutboxHandler handler : handlers) {
+            handlersByType.computeIfAbsent(handler.getEventType(), type -> new ArrayList<>()).add(handler);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(outboxConfig.getWorkers(), runnable -> {
+            Thread thread = new Thread(runnable, "outbox-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("outbox.events.in_flight", inFlight, AtomicInteger::get)
+                .description("Outbox events currently being processed by this instance")
+                .register(meterRegistry);
+        Gauge.builder("outbox.events.failed", failed, AtomicLong::get)
+                .description("Outbox events that exhausted their retries")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelay = OUTBOX_POLL_MS)
+    public void poll() {
+        int capacity = outboxConfig.getBatchSize() - inFlight.get();
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<Long> eventIds;
+        try {
+            eventIds = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> ids = outboxEventRepository.lockDueIds(now, capacity);
+                if (!ids.isEmpty()) {
+                    outboxEventRepository.lease(ids, now.plusSeconds(OUTBOX_LEASE_SECONDS));
+                }
+                return ids;
+            });
+        } catch (DataAccessException e) {
+            log.error("[Outbox] Failed to poll outbox events: {}", e.getMessage());
+            return;
+        }
+
+        for (Long eventId : eventIds) {
+            inFlight.incrementAndGet();
+            workers.execute(() -> {
+                try {
+                    process(eventId);
+                } catch (RuntimeException e) {
+                    log.error("[Outbox] Unexpected error processing event {}: {}", eventId, e.getMessage(), e);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Đếm lại số event FAILED từ DB, để gauge bắt kịp cả thay đổi ngoài dispatcher (retry / xoá tay, instance khác).
+     */
+    @Scheduled(fixedDelay = OUTBOX_FAILED_RECOUNT_MS)
+    public void recountFailed() {
+        try {
+            failed.set(outboxEventRepository.countByStatus(OutboxStatus.FAILED));
+        } catch (DataAccessException e) {
+            log.warn("[Outbox] Failed to count failed outbox events: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private void process(Long eventId) {
+        OutboxEvent event = outboxEventRepository.findById(eventId).orElse(null);
+        if (event == null || event.getStatus() != OutboxStatus.PENDING) {
+            return;
+        }
+
+        Set<String> completed = event.completedHandlerNames();
+        StringBuilder errors = new StringBuilder();
+        for (OutboxHandler handler : handlersByType.getOrDefault(event.getEventType(), List.of())) {
+            if (completed.contains(handler.getName())) {
+                continue;
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "success";
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    handler.handle(event);
+                    outboxEventRepository.markHandlerCompleted(eventId, handler.getName());
+                });
+            } catch (RuntimeException e) {
+                outcome = "failure";
+                errors.append(handler.getName()).append(": ").append(e.getMessage()).append('\n');
+                log.warn("[Outbox] Handler {} failed for event {} ({} {}): {}",
+                        handler.getName(), eventId, event.getEventType(), event.getAggregateId(), e.getMessage());
+            }
+            sample.stop(Timer.builder("outbox.handler")
+                    .tag("handler", handler.getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (errors.isEmpty()) {
+            outboxEventRepository.recordAttempt(eventId, OutboxStatus.DONE, null, now, now);
+            count(event, "done");
+            return;
+        }
+
+        int attempts = event.getAttempts() + 1;
+        String lastError = errors.length() > MAX_ERROR_LENGTH ? errors.substring(0, MAX_ERROR_LENGTH) : errors.toString();
+        if (attempts >= outboxConfig.getMaxAttempts()) {
+            outboxEventRepository.recordAttempt(eventId, OutboxStatus.FAILED, lastError, now, now);
+            failed.incrementAndGet();
+            count(event, "failed");
+            log.error("[Outbox] Event {} ({} {}) failed after {} attempts",
+                    eventId, event.getEventType(), event.getAggregateId(), attempts);
+        } else {
+            long backoff = OUTBOX_RETRY_BASE_SECONDS * (1L << Math.min(attempts - 1, 10));
+            outboxEventRepository.recordAttempt(eventId, OutboxStatus.PENDING, lastError, now.plusSeconds(backoff), null);
+            count(event, "retry");
+        }
+    }
+
+    private void count(OutboxEvent event, String result) {
+        Counter.builder("outbox.events")
+                .tag("type", event.getEventType().name())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
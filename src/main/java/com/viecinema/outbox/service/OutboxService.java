@@ -0,0 +1,36 @@
+package com.viecinema.outbox.service;
+
+import com.viecinema.common.enums.OutboxEventType;
+import com.viecinema.outbox.entity.OutboxEvent;
+import com.viecinema.outbox.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    /**
+     * Ghi event vào outbox trong transaction nghiệp vụ hiện tại: event chỉ tồn tại nếu transaction commit.
+     * Mỗi cặp (eventType, aggregateId) chỉ được ghi một lần (unique idempotency_key).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEventType eventType, Integer aggregateId) {
+        OutboxEvent event = OutboxEvent.builder()
+                .eventType(eventType)
+                .aggregateId(aggregateId)
+                .idempotencyKey(eventType.name() + ":" + aggregateId)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+        outboxEventRepository.save(event);
+        log.debug("[Outbox] Enqueued {} for {}", eventType, aggregateId);
+    }
+}
@@ -0,0 +1,9 @@
+package com.viecinema.payment.dto;
+
+/**
+ * Kết quả xử lý một giao dịch VNPay (theo vnp_TxnRef, vnp_ResponseCode), dùng chung cho callback và IPN:
+ * {@code code} là "00" khi thanh toán thành công, vnp_ResponseCode khi thất bại, "11" khi tiền về sau lúc booking
+ * đã hết hạn (cần hoàn tiền), "01" / "02" / "04" khi không tìm thấy đơn / đơn đã xác nhận / sai số tiền. Các lần gửi
+ * trùng, ở kênh nào, nhận lại kết quả này.
+ */
+public record VnpayDeliveryResult(String code, String message, String bookingCode, String transactionNo) {}
@@ -0,0 +1,50 @@
+package com.viecinema.payment.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VnpayLoadTestRequest {
+
+    @NotNull(message = "Showtime ID cannot be null.")
+    @Positive(message = "Showtime ID must be a positive number.")
+    private Integer showtimeId;
+
+    /** Các user dùng để đặt vé, lần lượt xoay vòng (mỗi user chỉ giữ được một lượt ghế tại một thời điểm). */
+    @NotEmpty(message = "User IDs cannot be empty.")
+    private List<Integer> userIds;
+
+    @Builder.Default
+    @Min(value = 1, message = "Seats per booking must be at least 1")
+    @Max(value = 9, message = "Only a maximum of 9 seats can be reserved")
+    private Integer seatsPerBooking = 1;
+
+    /** Số lượt hold → book → pay bắt đầu mỗi giây. */
+    @NotNull(message = "Rate cannot be null.")
+    @Min(value = 1, message = "Rate must be at least 1 per second")
+    @Max(value = 1000, message = "Rate must be at most 1000 per second")
+    private Integer ratePerSecond;
+
+    @NotNull(message = "Duration cannot be null.")
+    @Min(value = 1, message = "Duration must be at least 1 second")
+    @Max(value = 600, message = "Duration must be at most 600 seconds")
+    private Integer durationSeconds;
+
+    /** Số lượt chạy đồng thời tối đa; lượt đến hạn khi đã đủ sẽ bị bỏ và tính vào dropped. */
+    @Builder.Default
+    @Min(value = 1, message = "Concurrency must be at least 1")
+    @Max(value = 500, message = "Concurrency must be at most 500")
+    private Integer concurrency = 50;
+}
@@ -0,0 +1,31 @@
+package com.viecinema.payment.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VnpayLoadTestReport {
+    private Integer scheduled;
+    private Integer completed;     // hold → book → pay → callback đều thành công
+    private Integer failed;
+    private Integer dropped;       // bỏ vì đã đủ concurrency
+    private Double achievedRatePerSecond;
+    private Long elapsedMs;
+
+    // Độ trễ end-to-end của các lượt hoàn thành (ms)
+    private Long p50Ms;
+    private Long p90Ms;
+    private Long p95Ms;
+    private Long p99Ms;
+    private Long maxMs;
+
+    private Map<String, Integer> paymentResults;  // vnp_ResponseCode -> số lượt
+    private Map<String, Integer> errors;          // thông báo lỗi -> số lượt
+}
@@ -0,0 +1,52 @@
+package com.viecinema.payment.entity;
+
+import com.viecinema.common.enums.VnpayChannel;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "payment_deliveries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_delivery",
+                columnNames = {"txn_ref", "response_code"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "delivery_id")
+    private Long id;
+
+    /** Kênh của lần gửi đã xử lý giao dịch. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private VnpayChannel channel;
+
+    @Column(name = "txn_ref", nullable = false, length = 100)
+    private String txnRef;
+
+    @Column(name = "response_code", nullable = false, length = 10)
+    private String responseCode;
+
+    @Column(name = "result_code", nullable = false, length = 10)
+    private String resultCode;
+
+    @Column(name = "result_message")
+    private String resultMessage;
+
+    @Column(name = "booking_code", length = 20)
+    private String bookingCode;
+
+    @Column(name = "transaction_no", length = 50)
+    private String transactionNo;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
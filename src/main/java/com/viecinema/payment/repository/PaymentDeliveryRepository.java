@@ -0,0 +1,12 @@
+package com.viecinema.payment.repository;
+
+import com.viecinema.payment.entity.PaymentDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PaymentDeliveryRepository extends JpaRepository<PaymentDelivery, Long> {
+    Optional<PaymentDelivery> findByTxnRefAndResponseCode(String txnRef, String responseCode);
+}
@@ -1,7 +1,9 @@
 package com.viecinema.payment.repository;
 
 import com.viecinema.payment.entity.Payment;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,6 +14,14 @@ import java.util.Optional;
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Integer> {
     Payment findByTransactionId(String transactionId);
+
+    /**
+     * Tìm payment và lock pessimistic: callback và IPN của cùng giao dịch xử lý lần lượt, lần sau thấy trạng thái
+     * lần trước đã ghi.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.transactionId = :transactionId")
+    Optional<Payment> findByTransactionIdWithLock(@Param("transactionId") String transactionId);
     Optional<Payment> findByBooking_Id(Integer bookingId);
 
     @Query("SELECT p FROM Payment p WHERE p.booking.id IN :bookingIds")
@@ -0,0 +1,139 @@
+package com.viecinema.payment.service;
+
+import com.viecinema.common.enums.VnpayChannel;
+import com.viecinema.payment.dto.VnpayDeliveryResult;
+import com.viecinema.payment.entity.PaymentDelivery;
+import com.viecinema.payment.repository.PaymentDeliveryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Chống xử lý trùng callback / IPN của VNPay, theo khoá (vnp_TxnRef, vnp_ResponseCode): return URL và IPN của
+ * cùng một giao dịch là hai lần gửi của cùng một kết quả nên chỉ được xử lý một lần.
+ *
+ * <p>Ba lớp, từ rẻ tới đắt:
+ * <ol>
+ *   <li>LRU trong bộ nhớ các kết quả đã xử lý: lần gửi trùng trả kết quả ngay, không mở transaction.</li>
+ *   <li>Các lần gửi trùng đến cùng lúc gộp về một lần xử lý, các thread còn lại chờ kết quả của lần đó.</li>
+ *   <li>Bảng payment_deliveries (unique key) cho trường hợp LRU không có (khởi động lại, instance khác):
+ *       dòng được ghi trong transaction xử lý nên chỉ một lần xử lý commit được.</li>
+ * </ol>
+ * Lần xử lý lỗi (exception) không được ghi nhớ, lần gửi sau được xử lý lại.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VnpayDeliveryDeduplicator {
+
+    private static final int MAX_CACHED_RESULTS = 10_000;
+
+    private final PaymentDeliveryRepository paymentDeliveryRepository;
+
+    private final Map<String, VnpayDeliveryResult> completed = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, VnpayDeliveryResult> eldest) {
+                    return size() > MAX_CACHED_RESULTS;
+                }
+            });
+    private final Map<String, CompletableFuture<VnpayDeliveryResult>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Chạy {@code processor} một lần cho mỗi khoá. {@code processor} phải gọi {@link #record} trong transaction
+     * của nó.
+     */
+    public VnpayDeliveryResult process(VnpayChannel channel, String txnRef, String responseCode,
+                                       Supplier<VnpayDeliveryResult> processor) {
+        String key = key(txnRef, responseCode);
+        VnpayDeliveryResult cached = completed.get(key);
+        if (cached != null) {
+            log.info("Duplicate VNPay {} for {} ({}), returning previous result", channel, txnRef, responseCode);
+            return cached;
+        }
+
+        CompletableFuture<VnpayDeliveryResult> mine = new CompletableFuture<>();
+        CompletableFuture<VnpayDeliveryResult> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            log.info("VNPay {} for {} ({}) is already being processed, waiting", channel, txnRef, responseCode);
+            return await(running);
+        }
+
+        try {
+            VnpayDeliveryResult result = completed.get(key);
+            if (result == null) {
+                result = findRecorded(txnRef, responseCode);
+            }
+            if (result == null) {
+                try {
+                    result = processor.get();
+                } catch (DataIntegrityViolationException e) {
+                    // Lần gửi khác (kênh khác hoặc instance khác) đã xử lý cùng giao dịch và commit trước
+                    result = findRecorded(txnRef, responseCode);
+                    if (result == null) {
+                        throw e;
+                    }
+                }
+            }
+            completed.put(key, result);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Ghi kết quả vào payment_deliveries trong transaction hiện tại (vi phạm unique key nếu đã có lần xử lý khác).
+     */
+    public void record(VnpayChannel channel, String txnRef, String responseCode, VnpayDeliveryResult result) {
+        paymentDeliveryRepository.save(PaymentDelivery.builder()
+                .channel(channel)
+                .txnRef(txnRef)
+                .responseCode(responseCode)
+                .resultCode(result.code())
+                .resultMessage(result.message())
+                .bookingCode(result.bookingCode())
+                .transactionNo(result.transactionNo())
+                .build());
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private VnpayDeliveryResult findRecorded(String txnRef, String responseCode) {
+        return paymentDeliveryRepository.findByTxnRefAndResponseCode(txnRef, responseCode)
+                .map(delivery -> new VnpayDeliveryResult(
+                        delivery.getResultCode(),
+                        delivery.getResultMessage(),
+                        delivery.getBookingCode(),
+                        delivery.getTransactionNo()))
+                .orElse(null);
+    }
+
+    private static VnpayDeliveryResult await(CompletableFuture<VnpayDeliveryResult> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String key(String txnRef, String responseCode) {
+        return txnRef + '|' + responseCode;
+    }
+}
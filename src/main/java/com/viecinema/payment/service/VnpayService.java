@@ -2,29 +2,28 @@ package com.viecinema.payment.service;
 
 import com.viecinema.booking.entity.Booking;
 import com.viecinema.booking.repository.BookingRepository;
-import com.viecinema.booking.service.BookingEmailService;
+import com.viecinema.booking.service.SeatInventoryService;
 import com.viecinema.common.enums.BookingStatus;
+import com.viecinema.common.enums.OutboxEventType;
 import com.viecinema.common.enums.PaymentStatus;
+import com.viecinema.common.enums.VnpayChannel;
 import com.viecinema.common.exception.ResourceNotFoundException;
 import com.viecinema.common.exception.SpecificBusinessException;
 import com.viecinema.common.util.VnpayUtil;
 import com.viecinema.config.VnpayConfig;
-import com.viecinema.loyalty.service.LoyaltyPointsService;
-import com.viecinema.movie.service.MovieStatisticsService;
+import com.viecinema.payment.dto.VnpayDeliveryResult;
 import com.viecinema.payment.dto.request.VnpayPaymentRequest;
 import com.viecinema.payment.dto.response.VnpayCallbackResponse;
 import com.viecinema.payment.dto.response.VnpayPaymentResponse;
 import com.viecinema.payment.entity.Payment;
 import com.viecinema.payment.repository.PaymentRepository;
-import com.viecinema.showtime.repository.SeatStatusRepository;
+import com.viecinema.outbox.service.OutboxService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -38,19 +37,31 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class VnpayService {
 
+    // Mã VNPay "hết hạn thanh toán", trả khi tiền về sau lúc booking đã bị huỷ (payment chuyển FAILED để hoàn tiền)
+    private static final String BOOKING_EXPIRED_CODE = "11";
+
     private final VnpayConfig vnpayConfig;
     private final BookingRepository bookingRepository;
     private final PaymentRepository paymentRepository;
-    private final LoyaltyPointsService loyaltyPointsService;
-    private final SeatStatusRepository seatStatusRepository;
-    private final BookingEmailService bookingEmailService;
-    private final MovieStatisticsService movieStatisticsService;
+    private final SeatInventoryService seatInventoryService;
+    private final OutboxService outboxService;
+    private final VnpayDeliveryDeduplicator deliveryDeduplicator;
+    private final VnpaySigner vnpaySigner;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public VnpayPaymentResponse createPayment(
             Integer bookingId,
             VnpayPaymentRequest request,
             HttpServletRequest httpRequest) {
+        return createPayment(bookingId, request, VnpayUtil.getIpAddress(httpRequest));
+    }
+
+    /**
+     * Tạo payment và URL thanh toán cho IP của client đã biết (dùng khi không có HTTP request, vd. load test).
+     */
+    @Transactional
+    public VnpayPaymentResponse createPayment(Integer bookingId, VnpayPaymentRequest request, String ipAddress) {
 
         log.info("Creating VNPay payment for booking {}", bookingId);
 
@@ -118,7 +129,6 @@ public class VnpayService {
         vnpParams.put("vnp_ReturnUrl", vnpayConfig.getReturnUrl());
 
         // IP Address
-        String ipAddress = VnpayUtil.getIpAddress(httpRequest);
         vnpParams.put("vnp_IpAddr", ipAddress);
 
         // Create date & Expire date
@@ -131,8 +141,7 @@ public class VnpayService {
         vnpParams.put("vnp_ExpireDate", VnpayUtil.formatDateTime(calendar.getTime()));
 
         // 4. Calculate secure hash
-        String hashData = VnpayUtil.hashAllFields(vnpParams);
-        String secureHash = VnpayUtil.hmacSHA512(vnpayConfig.getHashSecret(), hashData);
+        String secureHash = vnpaySigner.sign(vnpParams);
         vnpParams.put("vnp_SecureHash", secureHash);
 
         // 5. Build payment URL
@@ -191,34 +200,106 @@ public class VnpayService {
         vnpParams.put("vnp_ExpireDate", com.viecinema.common.util.VnpayUtil.formatDateTime(calendar.getTime()));
 
         // Secure hash
-        String hashData = com.viecinema.common.util.VnpayUtil.hashAllFields(vnpParams);
-        String secureHash = com.viecinema.common.util.VnpayUtil.hmacSHA512(vnpayConfig.getHashSecret(), hashData);
+        String secureHash = vnpaySigner.sign(vnpParams);
         vnpParams.put("vnp_SecureHash", secureHash);
 
         String queryString2 = com.viecinema.common.util.VnpayUtil.buildQueryString(vnpParams);
         return vnpayConfig.getApiUrl() + "?" + queryString2;
     }
 
-    @Transactional
+    /**
+     * Return URL của VNPay. Callback và IPN của cùng giao dịch (cùng vnp_TxnRef và vnp_ResponseCode) chỉ được xử lý
+     * một lần; lần gửi trùng nhận lại kết quả lần đầu mà không mở transaction, xem {@link VnpayDeliveryDeduplicator}.
+     */
     public VnpayCallbackResponse handleCallback(Map<String, String> params) {
         log.info("Received VNPay callback: {}", params);
 
         // 1. Validate secure hash
-        String vnpSecureHash = params.get("vnp_SecureHash");
-        params.remove("vnp_SecureHash");
-        params.remove("vnp_SecureHashType");
-
-        String hashData = VnpayUtil.hashAllFields(params);
-        String calculatedHash = VnpayUtil.hmacSHA512(vnpayConfig.getHashSecret(), hashData);
-
-        if (!calculatedHash.equals(vnpSecureHash)) {
-            log.error("Invalid secure hash.  Expected: {}, Got: {}", calculatedHash, vnpSecureHash);
+        if (!verifySignature(params)) {
             return VnpayCallbackResponse.builder()
                     .code("97")
                     .message("Invalid signature")
                     .build();
         }
 
+        VnpayDeliveryResult result = settle(VnpayChannel.CALLBACK, params);
+
+        return VnpayCallbackResponse.builder()
+                .code(result.code())
+                .message(result.message())
+                .bookingCode(result.bookingCode())
+                .transactionNo(result.transactionNo())
+                .build();
+    }
+
+    public Map<String, String> handleIPN(Map<String, String> params) {
+        log.info("Received VNPay IPN: {}", params);
+
+        Map<String, String> response = new HashMap<>();
+
+        try {
+            // Validate secure hash
+            if (!verifySignature(params)) {
+                response.put("RspCode", "97");
+                response.put("Message", "Invalid signature");
+                return response;
+            }
+
+            VnpayDeliveryResult result = settle(VnpayChannel.IPN, params);
+
+            // IPN chỉ xác nhận đã nhận kết quả: thanh toán thất bại cũng là "00"
+            switch (result.code()) {
+                case "01", "02", "04" -> {
+                    response.put("RspCode", result.code());
+                    response.put("Message", result.message());
+                }
+                default -> {
+                    response.put("RspCode", "00");
+                    response.put("Message", "Confirm Success");
+                }
+            }
+
+        } catch (Exception e) {
+            log.error("Error processing IPN", e);
+            response.put("RspCode", "99");
+            response.put("Message", "Unknown error");
+        }
+
+        return response;
+    }
+
+    // ========== HELPER METHODS ==========
+
+    private boolean verifySignature(Map<String, String> params) {
+        String vnpSecureHash = params.get("vnp_SecureHash");
+        params.remove("vnp_SecureHash");
+        params.remove("vnp_SecureHashType");
+
+        if (!vnpaySigner.verify(params, vnpSecureHash)) {
+            log.error("Invalid secure hash for txnRef {}: {}", params.get("vnp_TxnRef"), vnpSecureHash);
+            return false;
+        }
+        return true;
+    }
+
+    private VnpayDeliveryResult settle(VnpayChannel channel, Map<String, String> params) {
+        String txnRef = params.get("vnp_TxnRef");
+        String responseCode = params.get("vnp_ResponseCode");
+        return deliveryDeduplicator.process(channel, txnRef, responseCode,
+                () -> transactionTemplate.execute(status -> {
+                    VnpayDeliveryResult processed = processPayment(params);
+                    deliveryDeduplicator.record(channel, txnRef, responseCode, processed);
+                    return processed;
+                }));
+    }
+
+    /**
+     * Cập nhật payment và booking theo kết quả VNPay. Payment được lock nên callback và IPN đến cùng lúc (ở instance
+     * khác nhau) không cùng thấy PENDING: lần sau chờ lần trước commit rồi trả "02". Booking cũng được lock (sau
+     * payment; job huỷ booking hết hạn không lock payment nên không deadlock) và chỉ chuyển sang PAID khi còn PENDING:
+     * link VNPay còn hiệu lực lâu hơn thời hạn giữ booking, nên tiền có thể về sau khi booking đã bị huỷ và trả ghế.
+     */
+    private VnpayDeliveryResult processPayment(Map<String, String> params) {
         // 2. Extract parameters
         String txnRef = params.get("vnp_TxnRef");
         String responseCode = params.get("vnp_ResponseCode");
@@ -228,200 +309,97 @@ public class VnpayService {
         String cardType = params.get("vnp_CardType");
         String payDate = params.get("vnp_PayDate");
 
-        // 3. Find payment by transaction ID
-        Payment payment = paymentRepository.findByTransactionId(txnRef);
+        // 3. Find and lock payment by transaction ID
+        Payment payment = paymentRepository.findByTransactionIdWithLock(txnRef).orElse(null);
+        if (payment == null) {
+            log.warn("VNPay result for unknown transaction {}", txnRef);
+            return new VnpayDeliveryResult("01", "Order not found", null, null);
+        }
+        Booking booking = bookingRepository.findByIdWithLock(payment.getBooking().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
 
-        // Check if payment exists
+        // Check if the order has been confirmed.
         if (!PaymentStatus.PENDING.equals(payment.getStatus())) {
             log.warn("Payment {} already processed with status: {}", txnRef, payment.getStatus());
-            return VnpayCallbackResponse.builder()
-                    .code("02")
-                    .message("Order already confirmed")
-                    .bookingCode(payment.getBooking().getBookingCode())
-                    .build();
+            return new VnpayDeliveryResult("02", "Order already confirmed", booking.getBookingCode(), null);
         }
 
+        // Validate amount
+        if (!isAmountValid(params.get("vnp_Amount"), payment.getAmount())) {
+            log.warn("VNPay amount {} does not match payment {}", params.get("vnp_Amount"), txnRef);
+            return new VnpayDeliveryResult("04", "Invalid amount", booking.getBookingCode(), null);
+        }
+
+        // include details in gateway response
+        payment.setGatewayResponse(String.format("response=%s, bankCode=%s, bankTranNo=%s, cardType=%s, payDate=%s",
+                params, bankCode, bankTranNo, cardType, payDate));
+
         // 4. Handle payment result
-        Booking booking = payment.getBooking();
+        boolean bookingPending = BookingStatus.PENDING.equals(booking.getStatus());
+        if ("00".equals(responseCode) && !bookingPending) {
+            // Tiền đã trừ nhưng booking đã hết hạn và bị huỷ (ghế có thể đã bán cho người khác): không khôi phục
+            // booking, đánh dấu payment thất bại để hoàn tiền
+            payment.setStatus(PaymentStatus.FAILED);
+            payment.setGatewayResponse(payment.getGatewayResponse() + ", refundRequired=true, bookingStatus="
+                    + booking.getStatus());
+            paymentRepository.save(payment);
+
+            log.error("Payment {} succeeded for booking {} in status {}: refund required",
+                    txnRef, booking.getBookingCode(), booking.getStatus());
+
+            return new VnpayDeliveryResult(BOOKING_EXPIRED_CODE,
+                    "Booking expired before payment completed, the amount will be refunded",
+                    booking.getBookingCode(), transactionNo);
+        }
 
         if ("00".equals(responseCode)) {
             // Payment successful
             payment.setStatus(PaymentStatus.SUCCESS);
-            // include details in gateway response
-            payment.setGatewayResponse(String.format("response=%s, bankCode=%s, bankTranNo=%s, cardType=%s, payDate=%s",
-                    params, bankCode, bankTranNo, cardType, payDate));
-
             booking.setStatus(BookingStatus.PAID);
 
             // Generate QR code data for the booking
-            String qrData = generateQRCodeData(booking);
-            booking.setQrCodeData(qrData);
+            booking.setQrCodeData(generateQRCodeData(booking));
 
             bookingRepository.save(booking);
             paymentRepository.save(payment);
 
-            // Cong diem EARN sau khi thanh toan thanh cong
-            try {
-                loyaltyPointsService.awardTransactionPoints(booking);
-            } catch (Exception e) {
-                log.error("[Loyalty] Loi cong diem EARN cho booking {}: {}",
-                        booking.getBookingCode(), e.getMessage(), e);
-            }
-
-            // Cap nhat thong ke phim
-            try {
-                movieStatisticsService.onBookingPaid(
-                        booking.getShowtime().getMovie().getMovieId(),
-                        booking.getBookingSeats() != null ? booking.getBookingSeats().size() : 0,
-                        booking.getFinalAmount()
-                );
-            } catch (Exception e) {
-                log.error("[MovieStats] Loi cap nhat thong ke phim cho booking {}: {}",
-                        booking.getBookingCode(), e.getMessage(), e);
-            }
-
-            // Gửi email xác nhận đặt vé kèm QR Code sau khi Transaction đã commit thành công
-            // (tránh race condition giữa @Async thread mới và uncommitted transaction hiện tại)
-            Integer bookingId = booking.getId();
-            String bookingCode = booking.getBookingCode();
-            if (TransactionSynchronizationManager.isActualTransactionActive()) {
-                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                    @Override
-                    public void afterCommit() {
-                        try {
-                            bookingEmailService.sendBookingConfirmationEmail(bookingId);
-                        } catch (Exception e) {
-                            log.error("[BookingEmail] Lỗi gửi email xác nhận cho booking {}: {}",
-                                    bookingCode, e.getMessage(), e);
-                        }
-                    }
-                });
-            } else {
-                try {
-                    bookingEmailService.sendBookingConfirmationEmail(bookingId);
-                } catch (Exception e) {
-                    log.error("[BookingEmail] Lỗi gửi email xác nhận cho booking {}: {}",
-                            bookingCode, e.getMessage(), e);
-                }
-            }
+            // Tích điểm, thống kê phim và email xác nhận được outbox chạy nền sau khi transaction commit
+            outboxService.enqueue(OutboxEventType.BOOKING_PAID, booking.getId());
 
             log.info("Payment success for booking {}", booking.getBookingCode());
 
-            return VnpayCallbackResponse.builder()
-                    .code("00")
-                    .message("Payment successful")
-                    .bookingCode(booking.getBookingCode())
-                    .transactionNo(transactionNo)
-                    .build();
+            return new VnpayDeliveryResult("00", "Payment successful", booking.getBookingCode(), transactionNo);
+        }
 
-        } else {
-            // Payment failed
-            payment.setStatus(PaymentStatus.FAILED);
-            payment.setGatewayResponse(String.format("response=%s, bankCode=%s, bankTranNo=%s, cardType=%s, payDate=%s",
-                    params, bankCode, bankTranNo, cardType, payDate));
+        // Payment failed
+        payment.setStatus(PaymentStatus.FAILED);
+        paymentRepository.save(payment);
 
+        // Booking đã bị job hết hạn huỷ thì ghế cũng đã được trả
+        if (bookingPending) {
             booking.setStatus(BookingStatus.CANCELLED);
-
             bookingRepository.save(booking);
-            paymentRepository.save(payment);
 
             // Release seats
             releaseSeatsForBooking(booking);
-
-            log.warn("Payment failed for booking {}. Response code: {}", booking.getBookingCode(), responseCode);
-
-            return VnpayCallbackResponse.builder()
-                    .code(responseCode)
-                    .message(getResponseMessage(responseCode))
-                    .bookingCode(booking.getBookingCode())
-                    .build();
         }
-    }
 
-    @Transactional
-    public Map<String, String> handleIPN(Map<String, String> params) {
-        log.info("Received VNPay IPN: {}", params);
+        log.warn("Payment failed for booking {}. Response code: {}", booking.getBookingCode(), responseCode);
 
-        Map<String, String> response = new HashMap<>();
+        return new VnpayDeliveryResult(responseCode, getResponseMessage(responseCode), booking.getBookingCode(), null);
+    }
 
+    private static boolean isAmountValid(String vnpAmount, BigDecimal amount) {
+        if (vnpAmount == null) {
+            return false;
+        }
         try {
-            // Validate secure hash
-            String vnpSecureHash = params.get("vnp_SecureHash");
-            params.remove("vnp_SecureHash");
-            params.remove("vnp_SecureHashType");
-
-            String hashData = VnpayUtil.hashAllFields(params);
-            String calculatedHash = VnpayUtil.hmacSHA512(vnpayConfig.getHashSecret(), hashData);
-
-            if (!calculatedHash.equals(vnpSecureHash)) {
-                response.put("RspCode", "97");
-                response.put("Message", "Invalid signature");
-                return response;
-            }
-
-            String txnRef = params.get("vnp_TxnRef");
-            String responseCode = params.get("vnp_ResponseCode");
-
-            Payment payment = paymentRepository.findByTransactionId(txnRef);
-
-            // Check if the order has been confirmed.
-            if (!PaymentStatus.PENDING.equals(payment.getStatus())) {
-                response.put("RspCode", "02");
-                response.put("Message", "Order already confirmed");
-                return response;
-            }
-
-            // Validate amount
-            long vnpAmount = Long.parseLong(params.get("vnp_Amount"));
-            long orderAmount = payment.getAmount().multiply(BigDecimal.valueOf(100)).longValue();
-
-            if (vnpAmount != orderAmount) {
-                response.put("RspCode", "04");
-                response.put("Message", "Invalid amount");
-                return response;
-            }
-
-            // Update payment and booking status based on response code
-            if ("00".equals(responseCode)) {
-                payment.setStatus(PaymentStatus.SUCCESS);
-                payment.getBooking().setStatus(BookingStatus.PAID);
-
-                // Cộng điểm EARN sau khi IPN xác nhận thanh toán thành công
-                try {
-                    loyaltyPointsService.awardTransactionPoints(payment.getBooking());
-                } catch (Exception e) {
-                    log.error("[Loyalty] Lỗi cộng điểm EARN (IPN) cho booking {}: {}",
-                            payment.getBooking().getBookingCode(), e.getMessage(), e);
-                }
-
-                response.put("RspCode", "00");
-                response.put("Message", "Confirm Success");
-            } else {
-                payment.setStatus(PaymentStatus.FAILED);
-                Booking booking = payment.getBooking();
-                booking.setStatus(BookingStatus.CANCELLED);
-                bookingRepository.save(booking);
-
-                // Release seats
-                releaseSeatsForBooking(booking);
-
-                response.put("RspCode", "00");
-                response.put("Message", "Confirm Success");
-            }
-
-            paymentRepository.save(payment);
-
-        } catch (Exception e) {
-            log.error("Error processing IPN", e);
-            response.put("RspCode", "99");
-            response.put("Message", "Unknown error");
+            return Long.parseLong(vnpAmount) == amount.multiply(BigDecimal.valueOf(100)).longValue();
+        } catch (NumberFormatException e) {
+            return false;
         }
-
-        return response;
     }
 
-    // ========== HELPER METHODS ==========
-
     private String generateQRCodeData(Booking booking) {
         // Format: BOOKING_CODE|SHOWTIME_ID|USER_ID|TIMESTAMP
         return String.format("%s|%d|%d|%d",
@@ -459,10 +437,7 @@ public class VnpayService {
             java.util.List<Integer> seatIds = booking.getBookingSeats().stream()
                     .map(bs -> bs.getSeat().getSeatId())
                     .collect(java.util.stream.Collectors.toList());
-            seatStatusRepository.releaseSeats(
-                    booking.getShowtime().getId(),
-                    seatIds,
-                    com.viecinema.common.enums.SeatStatusType.AVAILABLE);
+            seatInventoryService.releaseBooked(booking.getShowtime().getId(), seatIds);
             log.info("Released {} seats for cancelled booking {}", seatIds.size(), booking.getBookingCode());
         }
     }
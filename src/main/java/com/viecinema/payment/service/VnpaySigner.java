@@ -0,0 +1,182 @@
+package com.viecinema.payment.service;
+
+import com.viecinema.config.VnpayConfig;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Ký / kiểm tra chữ ký HMAC-SHA512 của VNPay.
+ *
+ * <p>Mỗi thread giữ một {@link Mac} đã nạp sẵn khoá (doFinal tự reset nên dùng lại được) và một buffer byte.
+ * Chuỗi hash data ({@code name=urlencode(value)&...} theo thứ tự tên field) được ghi thẳng vào buffer rồi đưa
+ * vào Mac, không dựng chuỗi trung gian. Định dạng giữ đúng như code mẫu của VNPay: tên field không encode,
+ * value encode kiểu form (như {@link java.net.URLEncoder}), field rỗng bị bỏ qua nhưng dấu {@code &} đứng trước
+ * nó vẫn được giữ.
+ */
+@Component
+public class VnpaySigner {
+
+    private static final String ALGORITHM = "HmacSHA512";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final byte[] HEX_UPPER = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<State> states;
+
+    public VnpaySigner(VnpayConfig vnpayConfig) {
+        this.key = new SecretKeySpec(vnpayConfig.getHashSecret().getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.states = ThreadLocal.withInitial(() -> new State(newMac()));
+    }
+
+    /**
+     * @return chữ ký hex (chữ thường) của các field; caller phải loại vnp_SecureHash / vnp_SecureHashType ra trước.
+     */
+    public String sign(Map<String, String> fields) {
+        State state = states.get();
+        state.length = 0;
+
+        String[] names = fields.keySet().toArray(new String[0]);
+        Arrays.sort(names);
+        for (int i = 0; i < names.length; i++) {
+            String value = fields.get(names[i]);
+            if (value != null && !value.isEmpty()) {
+                state.writeRaw(names[i]);
+                state.write((byte) '=');
+                state.writeFormEncoded(value);
+                if (i < names.length - 1) {
+                    state.write((byte) '&');
+                }
+            }
+        }
+
+        state.mac.update(state.buffer, 0, state.length);
+        byte[] digest = state.mac.doFinal();
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * So chữ ký theo thời gian hằng (không lộ vị trí ký tự sai qua thời gian phản hồi).
+     */
+    public boolean verify(Map<String, String> fields, String signature) {
+        if (signature == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                sign(fields).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not initialise " + ALGORITHM, e);
+        }
+    }
+
+    /**
+     * Mac và buffer của một thread.
+     */
+    private static final class State {
+        private final Mac mac;
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+        private int length;
+
+        private State(Mac mac) {
+            this.mac = mac;
+        }
+
+        private void write(byte b) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[length++] = b;
+        }
+
+        private void writeRaw(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                int codePoint = codePointAt(text, i);
+                if (Character.isSupplementaryCodePoint(codePoint)) {
+                    i++;
+                }
+                writeUtf8(codePoint, false);
+            }
+        }
+
+        /**
+         * Tương đương {@code URLEncoder.encode(text, UTF_8)}: giữ A-Z a-z 0-9 . - * _, dấu cách thành +,
+         * các byte UTF-8 khác thành %XX.
+         */
+        private void writeFormEncoded(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                        || c == '.' || c == '-' || c == '*' || c == '_') {
+                    write((byte) c);
+                } else if (c == ' ') {
+                    write((byte) '+');
+                } else {
+                    int codePoint = codePointAt(text, i);
+                    if (Character.isSupplementaryCodePoint(codePoint)) {
+                        i++;
+                    }
+                    writeUtf8(codePoint, true);
+                }
+            }
+        }
+
+        private void writeUtf8(int codePoint, boolean percentEncode) {
+            if (codePoint < 0x80) {
+                writeByte(codePoint, percentEncode);
+            } else if (codePoint < 0x800) {
+                writeByte(0xC0 | (codePoint >> 6), percentEncode);
+                writeByte(0x80 | (codePoint & 0x3F), percentEncode);
+            } else if (codePoint < 0x10000) {
+                writeByte(0xE0 | (codePoint >> 12), percentEncode);
+                writeByte(0x80 | ((codePoint >> 6) & 0x3F), percentEncode);
+                writeByte(0x80 | (codePoint & 0x3F), percentEncode);
+            } else {
+                writeByte(0xF0 | (codePoint >> 18), percentEncode);
+                writeByte(0x80 | ((codePoint >> 12) & 0x3F), percentEncode);
+                writeByte(0x80 | ((codePoint >> 6) & 0x3F), percentEncode);
+                writeByte(0x80 | (codePoint & 0x3F), percentEncode);
+            }
+        }
+
+        private void writeByte(int b, boolean percentEncode) {
+            if (percentEncode) {
+                write((byte) '%');
+                write(HEX_UPPER[(b >> 4) & 0xF]);
+                write(HEX_UPPER[b & 0xF]);
+            } else {
+                write((byte) b);
+            }
+        }
+
+        /**
+         * Code point tại vị trí i; surrogate lẻ được thay bằng '?' như bộ mã hoá UTF-8 của JDK.
+         */
+        private static int codePointAt(String text, int i) {
+            char c = text.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                return Character.toCodePoint(c, text.charAt(i + 1));
+            }
+            return Character.isSurrogate(c) ? '?' : c;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.viecinema.payment.simulator;
+
+import com.viecinema.booking.dto.HeldSeatInfo;
+import com.viecinema.booking.dto.request.BookingRequest;
+import com.viecinema.booking.dto.request.HoldBestSeatsRequest;
+import com.viecinema.booking.dto.response.BookingResponse;
+import com.viecinema.booking.dto.response.HoldSeatsResponse;
+import com.viecinema.booking.service.BookingService;
+import com.viecinema.booking.service.SeatHoldingService;
+import com.viecinema.common.exception.SpecificBusinessException;
+import com.viecinema.payment.dto.request.VnpayLoadTestRequest;
+import com.viecinema.payment.dto.request.VnpayPaymentRequest;
+import com.viecinema.payment.dto.response.VnpayLoadTestReport;
+import com.viecinema.payment.dto.response.VnpayPaymentResponse;
+import com.viecinema.payment.service.VnpayService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Kịch bản load test đi hết đường đặt vé: hold → book → tạo URL thanh toán → VNPay giả lập → return callback,
+ * bắt đầu các lượt theo tốc độ cố định và báo cáo độ trễ end-to-end theo percentile.
+ *
+ * <p>Hold, book và tạo URL gọi thẳng service; phần thanh toán đi qua HTTP như trình duyệt (không tự đi theo
+ * redirect) để đo cả {@link VnpaySimulator} lẫn endpoint callback. IPN do simulator tự bắn nên không nằm trong
+ * độ trễ đo được. Mỗi lúc chỉ chạy một kịch bản.
+ */
+@Slf4j
+@Component
+@Profile("vnpay-sim")
+public class VnpayLoadScenario {
+
+    private static final String LOAD_TEST_IP = "127.0.0.1";
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private final SeatHoldingService seatHoldingService;
+    private final BookingService bookingService;
+    private final VnpayService vnpayService;
+    private final RestClient restClient;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public VnpayLoadScenario(SeatHoldingService seatHoldingService,
+                             BookingService bookingService,
+                             VnpayService vnpayService) {
+        this.seatHoldingService = seatHoldingService;
+        this.bookingService = bookingService;
+        this.vnpayService = vnpayService;
+        this.restClient = RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                        .followRedirects(HttpClient.Redirect.NEVER)
+                        .build()))
+                .build();
+    }
+
+    public VnpayLoadTestReport run(VnpayLoadTestRequest request) {
+        if (!running.compareAndSet(false, true)) {
+            throw new SpecificBusinessException("A load test is already running");
+        }
+        try {
+            return execute(request);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private VnpayLoadTestReport execute(VnpayLoadTestRequest request) {
+        int total = request.getRatePerSecond() * request.getDurationSeconds();
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / request.getRatePerSecond();
+
+        Semaphore permits = new Semaphore(request.getConcurrency());
+        AtomicInteger scheduled = new AtomicInteger();
+        AtomicInteger dropped = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(total));
+        Map<String, AtomicInteger> paymentResults = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> errors = new ConcurrentHashMap<>();
+
+        ExecutorService workers = Executors.newFixedThreadPool(request.getConcurrency());
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        long startedAt = System.nanoTime();
+        try {
+            ticker.scheduleAtFixedRate(() -> {
+                int iteration = scheduled.getAndIncrement();
+                if (iteration >= total) {
+                    return;
+                }
+                if (!permits.tryAcquire()) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                Integer userId = request.getUserIds().get(iteration % request.getUserIds().size());
+                workers.execute(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        String responseCode = iterate(request, userId);
+                        latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                        paymentResults.computeIfAbsent(responseCode, code -> new AtomicInteger()).incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        errors.computeIfAbsent(String.valueOf(e.getMessage()), message -> new AtomicInteger())
+                                .incrementAndGet();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }, 0, periodNanos, TimeUnit.NANOSECONDS);
+
+            TimeUnit.SECONDS.sleep(request.getDurationSeconds());
+            ticker.shutdownNow();
+            workers.shutdown();
+            if (!workers.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("[VnpaySim] Load test iterations still running after {}s, reporting partial results",
+                        DRAIN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ticker.shutdownNow();
+            workers.shutdownNow();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        List<Long> sorted;
+        synchronized (latencies) {
+            sorted = new ArrayList<>(latencies);
+        }
+        Collections.sort(sorted);
+
+        VnpayLoadTestReport report = VnpayLoadTestReport.builder()
+                .scheduled(Math.min(scheduled.get(), total))
+                .completed(sorted.size())
+                .failed(failed.get())
+                .dropped(dropped.get())
+                .achievedRatePerSecond(elapsedMs == 0 ? 0 : sorted.size() * 1000.0 / elapsedMs)
+                .elapsedMs(elapsedMs)
+                .p50Ms(percentile(sorted, 50))
+                .p90Ms(percentile(sorted, 90))
+                .p95Ms(percentile(sorted, 95))
+                .p99Ms(percentile(sorted, 99))
+                .maxMs(sorted.isEmpty() ? null : sorted.get(sorted.size() - 1))
+                .paymentResults(snapshot(paymentResults))
+                .errors(snapshot(errors))
+                .build();
+        log.info("[VnpaySim] Load test finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Một lượt hold → book → pay.
+     *
+     * @return vnp_ResponseCode mà VNPay giả lập trả về.
+     */
+    private String iterate(VnpayLoadTestRequest request, Integer userId) {
+        HoldBestSeatsRequest holdRequest = new HoldBestSeatsRequest();
+        holdRequest.setShowtimeId(request.getShowtimeId());
+        holdRequest.setQuantity(request.getSeatsPerBooking());
+        HoldSeatsResponse held = seatHoldingService.holdBestSeats(holdRequest, userId);
+
+        BookingResponse booking = bookingService.createBooking(userId, BookingRequest.builder()
+                .showtimeId(request.getShowtimeId())
+                .seatIds(held.getHeldSeats().stream().map(HeldSeatInfo::getSeatId).toList())
+                .build());
+
+        VnpayPaymentResponse payment = vnpayService.createPayment(
+                booking.getBookingId(), VnpayPaymentRequest.builder().build(), LOAD_TEST_IP);
+
+        URI returnUrl = redirectOf(restClient.get().uri(URI.create(payment.getPaymentUrl()))
+                .retrieve().toBodilessEntity());
+        restClient.get().uri(returnUrl).retrieve().toBodilessEntity();
+
+        return UriComponentsBuilder.fromUri(returnUrl).build().getQueryParams().getFirst("vnp_ResponseCode");
+    }
+
+    private static URI redirectOf(ResponseEntity<Void> response) {
+        URI location = response.getHeaders().getLocation();
+        if (!response.getStatusCode().is3xxRedirection() || location == null) {
+            throw new IllegalStateException("Simulator did not redirect (HTTP " + response.getStatusCode().value() + ")");
+        }
+        return location;
+    }
+
+    /**
+     * Percentile theo nearest-rank trên danh sách đã sắp xếp.
+     */
+    private static Long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return null;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(rank, 1) - 1);
+    }
+
+    private static Map<String, Integer> snapshot(Map<String, AtomicInteger> counts) {
+        Map<String, Integer> result = new TreeMap<>();
+        counts.forEach((key, count) -> result.put(key, count.get()));
+        return result;
+    }
+}
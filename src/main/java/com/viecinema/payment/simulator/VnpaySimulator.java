@@ -0,0 +1,143 @@
+package com.viecinema.payment.simulator;
+
+import com.viecinema.common.exception.BadRequestException;
+import com.viecinema.common.util.VnpayUtil;
+import com.viecinema.config.VnpayConfig;
+import com.viecinema.config.VnpaySimulatorConfig;
+import com.viecinema.payment.service.VnpaySigner;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * VNPay giả lập chạy trong app, thay cho sandbox khi load test.
+ *
+ * <p>Nhận URL thanh toán do {@code VnpayService} sinh ra (vnpay.api-url trỏ về {@code /api/vnpay-sim/pay}),
+ * kiểm tra chữ ký, chờ {@code latencyMs}, chọn kết quả (thành công hoặc một mã lỗi theo {@code failureRate}),
+ * ký kết quả bằng hash-secret đã cấu hình rồi trả về return URL. IPN (và các lần gửi lặp để thử dedup) được bắn
+ * bất đồng bộ tới vnpay.ipn-url.
+ */
+@Slf4j
+@Service
+@Profile("vnpay-sim")
+public class VnpaySimulator {
+
+    private final VnpayConfig vnpayConfig;
+    private final VnpaySimulatorConfig simulatorConfig;
+    private final VnpaySigner vnpaySigner;
+    private final RestClient restClient;
+    private final ScheduledExecutorService deliveries = Executors.newScheduledThreadPool(4);
+    private final AtomicLong transactionNo = new AtomicLong(14_000_000L);
+
+    public VnpaySimulator(VnpayConfig vnpayConfig, VnpaySimulatorConfig simulatorConfig, VnpaySigner vnpaySigner) {
+        this.vnpayConfig = vnpayConfig;
+        this.simulatorConfig = simulatorConfig;
+        this.vnpaySigner = vnpaySigner;
+        this.restClient = RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                        .followRedirects(HttpClient.Redirect.NEVER)
+                        .build()))
+                .build();
+    }
+
+    /**
+     * Xử lý một lần thanh toán.
+     *
+     * @return URL redirect về return URL của merchant, kèm kết quả đã ký.
+     */
+    public String pay(Map<String, String> params) {
+        Map<String, String> request = new HashMap<>(params);
+        String secureHash = request.remove("vnp_SecureHash");
+        request.remove("vnp_SecureHashType");
+        if (!vnpaySigner.verify(request, secureHash)) {
+            throw new BadRequestException("Invalid signature");
+        }
+
+        sleep(simulatorConfig.getLatencyMs());
+
+        String responseCode = pickResponseCode();
+        Map<String, String> result = new HashMap<>();
+        result.put("vnp_Amount", request.get("vnp_Amount"));
+        result.put("vnp_BankCode", request.getOrDefault("vnp_BankCode", "NCB"));
+        result.put("vnp_BankTranNo", "VNP" + transactionNo.get());
+        result.put("vnp_CardType", "ATM");
+        result.put("vnp_OrderInfo", request.get("vnp_OrderInfo"));
+        result.put("vnp_PayDate", VnpayUtil.formatDateTime(new Date()));
+        result.put("vnp_ResponseCode", responseCode);
+        result.put("vnp_TmnCode", request.get("vnp_TmnCode"));
+        result.put("vnp_TransactionNo", String.valueOf(transactionNo.incrementAndGet()));
+        result.put("vnp_TransactionStatus", "00".equals(responseCode) ? "00" : "02");
+        result.put("vnp_TxnRef", request.get("vnp_TxnRef"));
+        result.put("vnp_SecureHash", vnpaySigner.sign(result));
+        String query = VnpayUtil.buildQueryString(result);
+
+        if (simulatorConfig.isIpnEnabled()) {
+            for (int i = 0; i <= simulatorConfig.getDuplicateIpns(); i++) {
+                deliver("IPN", vnpayConfig.getIpnUrl() + "?" + query, true,
+                        simulatorConfig.getIpnLatencyMs() * (i + 1));
+            }
+        }
+        String returnUrl = request.getOrDefault("vnp_ReturnUrl", vnpayConfig.getReturnUrl()) + "?" + query;
+        for (int i = 1; i <= simulatorConfig.getDuplicateCallbacks(); i++) {
+            deliver("callback", returnUrl, false, simulatorConfig.getLatencyMs() * i);
+        }
+
+        log.debug("[VnpaySim] {} -> {}", request.get("vnp_TxnRef"), responseCode);
+        return returnUrl;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveries.shutdownNow();
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private String pickResponseCode() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (simulatorConfig.getFailureCodes().isEmpty() || random.nextDouble() >= simulatorConfig.getFailureRate()) {
+            return "00";
+        }
+        return simulatorConfig.getFailureCodes().get(random.nextInt(simulatorConfig.getFailureCodes().size()));
+    }
+
+    private void deliver(String kind, String url, boolean post, long delayMs) {
+        deliveries.schedule(() -> {
+            try {
+                if (post) {
+                    restClient.post().uri(URI.create(url)).retrieve().toBodilessEntity();
+                } else {
+                    restClient.get().uri(URI.create(url)).retrieve().toBodilessEntity();
+                }
+            } catch (RestClientException e) {
+                log.warn("[VnpaySim] {} delivery failed: {}", kind, e.getMessage());
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.viecinema.payment.simulator;
+
+import com.viecinema.common.constant.ApiResponse;
+import com.viecinema.payment.dto.request.VnpayLoadTestRequest;
+import com.viecinema.payment.dto.response.VnpayLoadTestReport;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirements;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.viecinema.common.constant.ApiConstant.*;
+import static com.viecinema.common.constant.ApiMessage.RESOURCE_RETRIEVED;
+
+@Slf4j
+@RestController
+@Profile("vnpay-sim")
+@RequestMapping(VNPAY_SIM_PATH)
+@RequiredArgsConstructor
+@Tag(name = "VNPay Simulator", description = "Local VNPay gateway and payment load test (profile vnpay-sim only)")
+public class VnpaySimulatorController {
+
+    private final VnpaySimulator vnpaySimulator;
+    private final VnpayLoadScenario vnpayLoadScenario;
+
+    /**
+     * Payment page of the simulated gateway (vnpay.api-url points here under the vnpay-sim profile).
+     */
+    @Operation(
+            summary = "Simulated VNPay payment page",
+            description = "Verifies the payment request signature, waits for the configured latency and redirects to the return URL with a signed result. IPNs and duplicate deliveries are sent in the background."
+    )
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "302", description = "Redirects to the merchant return URL"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid signature")
+    })
+    @SecurityRequirements
+    @GetMapping(VNPAY_SIM_PAY_PATH)
+    public void pay(
+            @Parameter(description = "VNPay payment parameters")
+            @RequestParam Map<String, String> params,
+            HttpServletResponse response) throws IOException {
+        response.sendRedirect(vnpaySimulator.pay(params));
+    }
+
+    /**
+     * Run a hold → book → pay load scenario and report end-to-end latency percentiles.
+     */
+    @Operation(
+            summary = "Run payment load test",
+            description = "Starts hold → book → pay iterations at the requested rate for the requested duration against the simulated gateway, then reports throughput and end-to-end latency percentiles. Blocks until the run finishes."
+    )
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Load test finished",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request or a load test is already running")
+    })
+    @SecurityRequirements
+    @PostMapping(VNPAY_SIM_LOAD_TEST_PATH)
+    public ResponseEntity<ApiResponse<VnpayLoadTestReport>> runLoadTest(
+            @Valid @RequestBody VnpayLoadTestRequest request) {
+        log.info("Running VNPay load test: {}", request);
+        VnpayLoadTestReport report = vnpayLoadScenario.run(request);
+        return ResponseEntity.ok(ApiResponse.success(RESOURCE_RETRIEVED, report, "Load test report"));
+    }
+}
@@ -6,6 +6,7 @@ import com.viecinema.auth.security.UserPrincipal;
 import com.viecinema.common.constant.ApiMessage;
 import com.viecinema.showtime.dto.response.SeatmapResponse;
 import com.viecinema.showtime.service.SeatmapService;
+import com.viecinema.showtime.service.SeatmapStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,14 +17,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import static com.viecinema.common.constant.ApiConstant.SHOWTIMES_PATH;
 import static com.viecinema.common.constant.ApiConstant.SHOWTIMES_SEATMAP_PATH;
+import static com.viecinema.common.constant.ApiConstant.SHOWTIMES_SEATMAP_STREAM_PATH;
 
 @RestController
 @RequestMapping(SHOWTIMES_PATH)
@@ -33,34 +38,61 @@ import static com.viecinema.common.constant.ApiConstant.SHOWTIMES_SEATMAP_PATH;
 public class SeatmapController {
 
     private final SeatmapService seatmapService;
+    private final SeatmapStreamService seatmapStreamService;
 
     @Operation(
             summary = "Get seatmap for a showtime",
-            description = "Returns the seat layout for a specific showtime, including seat availability status (available, held, booked). Held seats belonging to the current user are marked distinctly.",
+            description = "Returns the seat layout for a specific showtime, including seat availability status (available, held, booked). Held seats belonging to the current user are marked distinctly. Supports If-None-Match with the returned ETag.",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Seatmap retrieved successfully",
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Seatmap not modified since the given ETag"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Authentication required"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Showtime not found")
     })
     @GetMapping(SHOWTIMES_SEATMAP_PATH)
     public ResponseEntity<ApiResponse<SeatmapResponse>> getSeatmap(
             @Parameter(description = "ID of the showtime", required = true, example = "1")
-            @PathVariable Integer showtimeId
+            @PathVariable Integer showtimeId,
+            WebRequest webRequest
         //     ,
         //     @CurrentUser UserPrincipal currentUser
     ) {
         // Integer currentUserId = currentUser.getId();
         Integer currentUserId = 1;
 
+        // Conditional GET: seatmap chưa đổi -> 304, không dựng lại response
+        String eTag = seatmapService.getSeatmapETag(showtimeId, currentUserId);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         log.info("GET /api/showtimes/{}/seatmap by user {}", showtimeId, currentUserId);
         SeatmapResponse seatmap = seatmapService.getSeatmap(showtimeId, currentUserId);
 
-        return ResponseEntity.status(HttpStatus.OK).body(
-                ApiResponse.success(ApiMessage.RESOURCE_RETRIEVED, seatmap, "Seatmap")
-        );
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(eTag)
+                .body(ApiResponse.success(ApiMessage.RESOURCE_RETRIEVED, seatmap, "Seatmap"));
+    }
+
+    @Operation(
+            summary = "Subscribe to seatmap changes",
+            description = "Opens a Server-Sent Events stream for a showtime. Each `seats` event carries an array of seat deltas "
+                    + "(seatId, status, holdExpiresIn). A `resync` event means the client fell behind and must reload the full seatmap."
+    )
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Stream opened"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Showtime not found")
+    })
+    @GetMapping(value = SHOWTIMES_SEATMAP_STREAM_PATH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatmap(
+            @Parameter(description = "ID of the showtime", required = true, example = "1")
+            @PathVariable Integer showtimeId
+    ) {
+        log.info("GET /api/showtimes/{}/seatmap/stream", showtimeId);
+        return seatmapStreamService.subscribe(showtimeId);
     }
 }
 
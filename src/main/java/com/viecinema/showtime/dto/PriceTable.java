@@ -0,0 +1,43 @@
+package com.viecinema.showtime.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Bảng giá vé bất biến của một suất chiếu: loại ghế → giá cuối (VND, đã làm tròn) = basePrice × priceMultiplier.
+ *
+ * <p>Số loại ghế trong một phòng rất ít nên tra bằng quét mảng, không cần map. Giá được giữ cả dạng long
+ * (để cộng) và BigDecimal (để trả ra DTO/entity mà không cấp phát lại).
+ */
+public record PriceTable(
+        Integer showtimeId,
+        BigDecimal basePrice,
+        long layoutBuiltAt,
+        int[] seatTypeIds,
+        long[] prices,
+        BigDecimal[] decimalPrices
+) {
+    /**
+     * @return giá của loại ghế, hoặc -1 nếu phòng không có loại ghế này.
+     */
+    public long price(int seatTypeId) {
+        int index = indexOf(seatTypeId);
+        return index < 0 ? -1 : prices[index];
+    }
+
+    /**
+     * @return giá của loại ghế, hoặc null nếu phòng không có loại ghế này.
+     */
+    public BigDecimal decimalPrice(int seatTypeId) {
+        int index = indexOf(seatTypeId);
+        return index < 0 ? null : decimalPrices[index];
+    }
+
+    private int indexOf(int seatTypeId) {
+        for (int i = 0; i < seatTypeIds.length; i++) {
+            if (seatTypeIds[i] == seatTypeId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,35 @@
+package com.viecinema.showtime.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Sơ đồ phòng chiếu bất biến (hàng ghế, loại ghế), dùng chung cho mọi suất chiếu của phòng.
+ */
+public record RoomLayout(
+        RoomInfo roomInfo,
+        List<Row> rows,
+        List<SeatTypeCell> seatTypes,
+        int seatCount,
+        long builtAt
+) {
+    public record Row(String rowLabel, int rowIndex, List<SeatCell> seats) {}
+
+    public record SeatCell(
+            Integer seatId,
+            String seatLabel,
+            String rowLabel,
+            Integer seatNumber,
+            Integer seatTypeId,
+            String seatTypeName,
+            boolean active
+    ) {}
+
+    public record SeatTypeCell(
+            Integer seatTypeId,
+            String name,
+            String description,
+            BigDecimal priceMultiplier,
+            String colorCode
+    ) {}
+}
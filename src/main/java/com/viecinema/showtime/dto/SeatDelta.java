@@ -0,0 +1,16 @@
+package com.viecinema.showtime.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Thay đổi trạng thái của một ghế, được đẩy qua kênh seatmap realtime.
+ *
+ * @param status         "available", "held" hoặc "booked" (cùng giá trị với seatmap)
+ * @param holdExpiresIn  số giây còn lại của lượt giữ ghế, chỉ có khi status = "held"
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SeatDelta(
+        Integer seatId,
+        String status,
+        Long holdExpiresIn
+) {}
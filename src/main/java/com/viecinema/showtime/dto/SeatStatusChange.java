@@ -0,0 +1,15 @@
+package com.viecinema.showtime.dto;
+
+import com.viecinema.common.enums.SeatStatusType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Trạng thái mới nhất của một ghế cần ghi xuống bảng seat_status.
+ */
+public record SeatStatusChange(
+        Integer seatId,
+        SeatStatusType status,
+        Integer heldByUserId,
+        LocalDateTime heldUntil
+) {}
@@ -0,0 +1,15 @@
+package com.viecinema.showtime.dto.projection;
+
+import com.viecinema.common.enums.SeatStatusType;
+
+import java.time.LocalDateTime;
+
+public interface SeatStatusSnapshot {
+    Integer getSeatId();
+
+    SeatStatusType getStatus();
+
+    Integer getHeldByUserId();
+
+    LocalDateTime getHeldUntil();
+}
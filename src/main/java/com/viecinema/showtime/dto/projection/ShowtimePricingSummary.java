@@ -0,0 +1,5 @@
+package com.viecinema.showtime.dto.projection;
+
+public interface ShowtimePricingSummary extends PricingSummary {
+    Integer getShowtimeId();
+}
@@ -0,0 +1,9 @@
+package com.viecinema.showtime.dto.projection;
+
+public interface ShowtimeStatusCount {
+    Integer getShowtimeId();
+
+    String getStatus();
+
+    Integer getCount();
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -38,4 +39,10 @@ public class CreateShowtimeRequest {
 
     @Builder.Default
     private Boolean isActive = true;
+
+    @Positive(message = "Admission rate must be a positive number")
+    private Integer admissionRatePerMinute;
+
+    @Positive(message = "Admission burst must be a positive number")
+    private Integer admissionBurst;
 }
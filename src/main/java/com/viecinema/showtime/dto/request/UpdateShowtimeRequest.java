@@ -3,6 +3,7 @@ package com.viecinema.showtime.dto.request;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -35,4 +36,13 @@ public class UpdateShowtimeRequest {
     private BigDecimal basePrice;
 
     private Boolean isActive;
+
+    @Positive(message = "Admission rate must be a positive number")
+    private Integer admissionRatePerMinute;
+
+    @Positive(message = "Admission burst must be a positive number")
+    private Integer admissionBurst;
+
+    /** true = tắt phòng chờ (xoá admissionRatePerMinute và admissionBurst); bỏ trống các trường trên là giữ nguyên. */
+    private Boolean clearAdmission;
 }
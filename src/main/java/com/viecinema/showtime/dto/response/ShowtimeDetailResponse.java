@@ -25,6 +25,8 @@ public class ShowtimeDetailResponse {
 
     private BigDecimal basePrice;
     private Boolean isActive;
+    private Integer admissionRatePerMinute;
+    private Integer admissionBurst;
     private MovieInfo movie;
     private CinemaInfo cinema;
     private RoomInfo room;
@@ -46,4 +46,12 @@ public class Showtime extends DeletableEntity {
     @ColumnDefault("1")
     @Column(name = "is_active")
     private Boolean isActive;
-}
\ No newline at end of file
+
+    /** Số user được vào luồng chọn ghế mỗi phút khi mở bán; null = không bật phòng chờ. */
+    @Column(name = "admission_rate_per_minute")
+    private Integer admissionRatePerMinute;
+
+    /** Số user được vào cùng lúc khi phòng chờ vừa mở; null = bằng admissionRatePerMinute. */
+    @Column(name = "admission_burst")
+    private Integer admissionBurst;
+}
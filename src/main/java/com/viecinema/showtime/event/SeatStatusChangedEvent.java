@@ -0,0 +1,24 @@
+package com.viecinema.showtime.event;
+
+import com.viecinema.showtime.dto.SeatDelta;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Event phát ra khi trạng thái ghế của một suất chiếu thay đổi
+ * (giữ ghế, nhả ghế, hết hạn giữ, đặt vé, huỷ vé).
+ */
+@Getter
+public class SeatStatusChangedEvent extends ApplicationEvent {
+
+    private final Integer showtimeId;
+    private final List<SeatDelta> deltas;
+
+    public SeatStatusChangedEvent(Object source, Integer showtimeId, List<SeatDelta> deltas) {
+        super(source);
+        this.showtimeId = showtimeId;
+        this.deltas = deltas;
+    }
+}
@@ -2,6 +2,8 @@ package com.viecinema.showtime.repository;
 
 import com.viecinema.showtime.entity.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +11,7 @@ import java.util.Optional;
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Integer> {
     Optional<Room> findByIdAndDeletedAtIsNull(Integer id);
+
+    @Query("SELECT r FROM Room r JOIN FETCH r.cinema WHERE r.id = :id")
+    Optional<Room> findByIdWithCinema(@Param("id") Integer id);
 }
@@ -0,0 +1,247 @@
+package com.viecinema.showtime.repository;
+
+import com.viecinema.common.enums.SeatStatusType;
+import com.viecinema.showtime.dto.SeatStatusChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ghi trạng thái ghế theo lô bằng JDBC (INSERT ... ON DUPLICATE KEY UPDATE trên uk_showtime_seat).
+ */
+@Repository
+@RequiredArgsConstructor
+public class SeatStatusBatchRepository {
+
+    /*
+     * Ghi trạng thái HELD / AVAILABLE từ inventory trong bộ nhớ.
+     * Dòng đang BOOKED không bao giờ bị ghi đè: BOOKED chỉ được ghi đồng bộ bởi luồng đặt vé / huỷ vé.
+     * Lưu ý: MySQL gán các cột trong ON DUPLICATE KEY UPDATE theo thứ tự, nên cột status phải gán cuối cùng.
+     */
+    private static final String UPSERT_HOLD_STATE_SQL = """
+            INSERT INTO seat_status (showtime_id, seat_id, status, held_by_user_id, held_until, version)
+            VALUES (?, ?, ?, ?, ?, 0)
+            ON DUPLICATE KEY UPDATE
+                held_by_user_id = IF(status = 'BOOKED', held_by_user_id, VALUES(held_by_user_id)),
+                held_until = IF(status = 'BOOKED', held_until, VALUES(held_until)),
+                version = IF(status = 'BOOKED', version, version + 1),
+                status = IF(status = 'BOOKED', status, VALUES(status))
+            """;
+
+    private static final String UPSERT_BOOKED_SQL = """
+            INSERT INTO seat_status (showtime_id, seat_id, status, held_by_user_id, held_until, version)
+            VALUES (?, ?, 'BOOKED', NULL, NULL, 0)
+            ON DUPLICATE KEY UPDATE
+                held_by_user_id = NULL,
+                held_until = NULL,
+                version = version + 1,
+                status = 'BOOKED'
+            """;
+
+    /*
+     * Giữ ghế kiểu optimistic: một câu UPDATE có điều kiện cho cả nhóm ghế, không SELECT ... FOR UPDATE.
+     * Số dòng bị ảnh hưởng nhỏ hơn số ghế nghĩa là có ghế không còn trống hoặc chưa có dòng seat_status
+     * (ghế chưa có dòng được chiếm bằng INSERT_CLAIMED_SQL).
+     */
+    private static final String HOLD_IF_AVAILABLE_SQL = """
+            UPDATE seat_status
+            SET held_by_user_id = :userId,
+                held_until = :heldUntil,
+                version = version + 1,
+                updated_at = CURRENT_TIMESTAMP,
+                status = 'HELD'
+            WHERE showtime_id = :showtimeId
+            AND seat_id IN (:seatIds)
+            AND (status = 'AVAILABLE'
+                 OR (status = 'HELD' AND (held_until < :now OR held_by_user_id = :userId)))
+            """;
+
+    private static final String BOOK_IF_AVAILABLE_SQL = """
+            UPDATE seat_status
+            SET held_by_user_id = NULL,
+                held_until = NULL,
+                version = version + 1,
+                updated_at = CURRENT_TIMESTAMP,
+                status = 'BOOKED'
+            WHERE showtime_id = :showtimeId
+            AND seat_id IN (:seatIds)
+            AND (status = 'AVAILABLE'
+                 OR (status = 'HELD' AND (held_until < :now OR held_by_user_id = :userId)))
+            """;
+
+    /*
+     * Chiếm ghế chưa có dòng seat_status (mọi ghế trống ở chế độ sparse) bằng cách tạo thẳng dòng HELD / BOOKED,
+     * không tạo dòng AVAILABLE. Ghế đã có dòng bị NOT EXISTS loại ra, nên số dòng trả về đúng bằng số ghế vừa chiếm.
+     * Không dùng INSERT IGNORE (che cả lỗi FK / NOT NULL / cắt dữ liệu) hay ON DUPLICATE KEY UPDATE (Connector/J mặc
+     * định trả found rows, dòng trùng vẫn tính 1). Chỉ ghế thuộc phòng của suất chiếu.
+     */
+    private static final String INSERT_CLAIMED_SQL = """
+            INSERT INTO seat_status (showtime_id, seat_id, status, held_by_user_id, held_until, version)
+            SELECT st.showtime_id, s.seat_id, :status, :userId, :heldUntil, 0
+            FROM showtimes st
+            JOIN seats s ON s.room_id = st.room_id
+            WHERE st.showtime_id = :showtimeId
+            AND s.seat_id IN (:seatIds)
+            AND NOT EXISTS (
+                SELECT 1 FROM seat_status ss
+                WHERE ss.showtime_id = st.showtime_id
+                AND ss.seat_id = s.seat_id
+            )
+            """;
+
+    /*
+     * Chế độ sparse: ghế trở về AVAILABLE thì xoá dòng thay vì ghi AVAILABLE (không đụng dòng BOOKED).
+     */
+    private static final String DELETE_RELEASED_SQL = """
+            DELETE FROM seat_status
+            WHERE showtime_id = :showtimeId
+            AND seat_id IN (:seatIds)
+            AND status <> 'BOOKED'
+            """;
+
+    /*
+     * Chế độ sparse, nhả ghế đang giữ: userId NULL là nhả bất kể người giữ.
+     */
+    private static final String DELETE_HELD_SQL = """
+            DELETE FROM seat_status
+            WHERE showtime_id = :showtimeId
+            AND seat_id = :seatId
+            AND status = 'HELD'
+            AND (:userId IS NULL OR held_by_user_id = :userId)
+            """;
+
+    private static final String DELETE_HELD_BY_USER_SQL = """
+            DELETE FROM seat_status
+            WHERE held_by_user_id = :userId
+            AND status = 'HELD'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public void upsertHoldStates(Integer showtimeId, List<SeatStatusChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_HOLD_STATE_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setInt(1, showtimeId);
+            ps.setInt(2, change.seatId());
+            ps.setString(3, change.status().getValue());
+            if (change.heldByUserId() != null) {
+                ps.setInt(4, change.heldByUserId());
+            } else {
+                ps.setNull(4, Types.INTEGER);
+            }
+            ps.setTimestamp(5, change.heldUntil() != null ? Timestamp.valueOf(change.heldUntil()) : null);
+        });
+    }
+
+    public void upsertBooked(Integer showtimeId, List<Integer> seatIds) {
+        if (seatIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_BOOKED_SQL, seatIds, seatIds.size(), (ps, seatId) -> {
+            ps.setInt(1, showtimeId);
+            ps.setInt(2, seatId);
+        });
+    }
+
+    public int deleteReleased(Integer showtimeId, List<Integer> seatIds) {
+        if (seatIds.isEmpty()) {
+            return 0;
+        }
+        return namedParameterJdbcTemplate.update(DELETE_RELEASED_SQL, new MapSqlParameterSource()
+                .addValue("showtimeId", showtimeId)
+                .addValue("seatIds", seatIds));
+    }
+
+    /**
+     * @return số ghế giữ được; nhỏ hơn {@code seatIds.size()} nếu có ghế đã bị giữ / đặt.
+     */
+    public int holdIfAvailable(Integer showtimeId, List<Integer> seatIds, Integer userId,
+                               LocalDateTime heldUntil, LocalDateTime now) {
+        return namedParameterJdbcTemplate.update(HOLD_IF_AVAILABLE_SQL, new MapSqlParameterSource()
+                .addValue("showtimeId", showtimeId)
+                .addValue("seatIds", seatIds)
+                .addValue("userId", userId)
+                .addValue("heldUntil", Timestamp.valueOf(heldUntil))
+                .addValue("now", Timestamp.valueOf(now)));
+    }
+
+    /**
+     * @return số ghế đặt được; nhỏ hơn {@code seatIds.size()} nếu có ghế đã bị giữ / đặt.
+     */
+    public int bookIfAvailable(Integer showtimeId, List<Integer> seatIds, Integer userId, LocalDateTime now) {
+        return namedParameterJdbcTemplate.update(BOOK_IF_AVAILABLE_SQL, new MapSqlParameterSource()
+                .addValue("showtimeId", showtimeId)
+                .addValue("seatIds", seatIds)
+                .addValue("userId", userId)
+                .addValue("now", Timestamp.valueOf(now)));
+    }
+
+    /**
+     * Tạo dòng HELD cho các ghế chưa có dòng seat_status.
+     *
+     * @return số ghế giữ được bằng dòng mới.
+     */
+    public int insertHeld(Integer showtimeId, List<Integer> seatIds, Integer userId, LocalDateTime heldUntil) {
+        return insertClaimed(new MapSqlParameterSource()
+                .addValue("showtimeId", showtimeId)
+                .addValue("seatIds", seatIds)
+                .addValue("status", SeatStatusType.HELD.getValue())
+                .addValue("userId", userId)
+                .addValue("heldUntil", Timestamp.valueOf(heldUntil)));
+    }
+
+    /**
+     * Tạo dòng BOOKED cho các ghế chưa có dòng seat_status.
+     *
+     * @return số ghế đặt được bằng dòng mới.
+     */
+    public int insertBooked(Integer showtimeId, List<Integer> seatIds) {
+        return insertClaimed(new MapSqlParameterSource()
+                .addValue("showtimeId", showtimeId)
+                .addValue("seatIds", seatIds)
+                .addValue("status", SeatStatusType.BOOKED.getValue())
+                .addValue("userId", null, Types.INTEGER)
+                .addValue("heldUntil", null, Types.TIMESTAMP));
+    }
+
+    /**
+     * @param userId người giữ; null để nhả bất kể người giữ
+     * @return 1 nếu đã nhả, 0 nếu ghế không còn được giữ (bởi user này)
+     */
+    public int deleteHeld(Integer showtimeId, Integer seatId, Integer userId) {
+        return namedParameterJdbcTemplate.update(DELETE_HELD_SQL, new MapSqlParameterSource()
+                .addValue("showtimeId", showtimeId)
+                .addValue("seatId", seatId)
+                .addValue("userId", userId, Types.INTEGER));
+    }
+
+    public int deleteHeldBy(Integer userId) {
+        return namedParameterJdbcTemplate.update(DELETE_HELD_BY_USER_SQL,
+                new MapSqlParameterSource("userId", userId));
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    /*
+     * Transaction khác vừa tạo dòng cho cùng ghế sau lúc NOT EXISTS kiểm tra: MySQL chỉ rollback câu lệnh này, coi như
+     * không chiếm được ghế nào (người gọi so số dòng với số ghế và xử lý như xung đột).
+     */
+    private int insertClaimed(MapSqlParameterSource params) {
+        try {
+            return namedParameterJdbcTemplate.update(INSERT_CLAIMED_SQL, params);
+        } catch (DuplicateKeyException e) {
+            return 0;
+        }
+    }
+}
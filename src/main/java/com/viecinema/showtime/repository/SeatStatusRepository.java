@@ -2,15 +2,17 @@ package com.viecinema.showtime.repository;
 
 import com.viecinema.common.enums.SeatStatusType;
 import com.viecinema.showtime.dto.projection.SeatStatusCount;
+import com.viecinema.showtime.dto.projection.SeatStatusSnapshot;
+import com.viecinema.showtime.dto.projection.ShowtimeStatusCount;
 import com.viecinema.showtime.entity.SeatStatus;
-import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -25,6 +27,33 @@ public interface SeatStatusRepository extends JpaRepository<SeatStatus, Integer>
             """)
     List<SeatStatus> findByShowtimeId(@Param("showtimeId") Integer showtimeId);
 
+    @Query("""
+                SELECT ss.seat.seatId AS seatId, ss.status AS status,
+                       u.id AS heldByUserId, ss.heldUntil AS heldUntil
+                FROM SeatStatus ss
+                LEFT JOIN ss.heldByUser u
+                WHERE ss.showtime.id = :showtimeId
+            """)
+    List<SeatStatusSnapshot> findSnapshotsByShowtimeId(@Param("showtimeId") Integer showtimeId);
+
+    @Query("""
+                SELECT ss.seat.seatId AS seatId, ss.status AS status,
+                       u.id AS heldByUserId, ss.heldUntil AS heldUntil
+                FROM SeatStatus ss
+                LEFT JOIN ss.heldByUser u
+                WHERE ss.showtime.id = :showtimeId AND ss.seat.seatId IN :seatIds
+            """)
+    List<SeatStatusSnapshot> findSnapshotsByShowtimeIdAndSeatIds(
+            @Param("showtimeId") Integer showtimeId,
+            @Param("seatIds") List<Integer> seatIds);
+
+    @Query("""
+                SELECT DISTINCT ss.showtime.id FROM SeatStatus ss
+                WHERE ss.status = com.viecinema.common.enums.SeatStatusType.HELD
+                AND ss.heldUntil > :now
+            """)
+    List<Integer> findShowtimeIdsWithActiveHolds(@Param("now") LocalDateTime now);
+
     @Query("""
                 SELECT ss.status AS status, COUNT(ss) AS count
                 FROM SeatStatus ss
@@ -33,11 +62,19 @@ public interface SeatStatusRepository extends JpaRepository<SeatStatus, Integer>
             """)
     List<SeatStatusCount> countByShowtimeIdGroupByStatus(@Param("showtimeId") Integer showtimeId);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT ss FROM SeatStatus ss WHERE ss.showtime.id = :showtimeId AND ss.seat.seatId IN :seatIds")
-    List<SeatStatus> findByShowtimeAndSeatsWithLock(
-            @Param("showtimeId") Integer showtimeId,
-            @Param("seatIds") List<Integer> seatIds);
+    /**
+     * Đếm ghế đang giữ / đã đặt của nhiều suất chiếu trong một truy vấn (bỏ qua dòng AVAILABLE, có thể
+     * không tồn tại ở chế độ sparse). Số ghế trống = sức chứa phòng - kết quả.
+     */
+    @Query("""
+                SELECT ss.showtime.id AS showtimeId, ss.status AS status, COUNT(ss) AS count
+                FROM SeatStatus ss
+                WHERE ss.showtime.id IN :showtimeIds
+                AND ss.status IN (com.viecinema.common.enums.SeatStatusType.HELD,
+                                  com.viecinema.common.enums.SeatStatusType.BOOKED)
+                GROUP BY ss.showtime.id, ss.status
+            """)
+    List<ShowtimeStatusCount> countOccupiedByShowtimeIdsGroupByStatus(@Param("showtimeIds") List<Integer> showtimeIds);
 
     @Modifying
     @Query("UPDATE SeatStatus ss " +
@@ -60,6 +97,7 @@ public interface SeatStatusRepository extends JpaRepository<SeatStatus, Integer>
     int forceReleaseSeat(@Param("showtimeId") Integer showtimeId,
                          @Param("seatId") Integer seatId);
 
+    @Transactional
     @Modifying(clearAutomatically = true) // Reset cache after update
     @Query("UPDATE SeatStatus s " +
             "SET s.status = :newStatus, " +
@@ -80,6 +118,17 @@ public interface SeatStatusRepository extends JpaRepository<SeatStatus, Integer>
                      @Param("seatIds") List<Integer> seatIds,
                      @Param("newStatus") SeatStatusType newStatus);
 
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM SeatStatus s WHERE s.showtime.id = :showtimeId AND s.seat.seatId IN :seatIds")
+    int deleteSeats(@Param("showtimeId") Integer showtimeId,
+                    @Param("seatIds") List<Integer> seatIds);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM SeatStatus s " +
+            "WHERE s.status = com.viecinema.common.enums.SeatStatusType.HELD AND s.heldUntil < CURRENT_TIMESTAMP")
+    int deleteExpiredHolds();
+
     boolean existsByShowtimeIdAndStatus(Integer showtimeId, SeatStatusType status);
 
     @Modifying
@@ -1,6 +1,7 @@
 package com.viecinema.showtime.repository;
 
 import com.viecinema.showtime.dto.projection.PricingSummary;
+import com.viecinema.showtime.dto.projection.ShowtimePricingSummary;
 import com.viecinema.showtime.entity.Showtime;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -17,17 +18,32 @@ public interface ShowtimeRepository extends JpaRepository<Showtime, Integer>,
             SELECT 
                 st.name AS seat_type_name,
                 (sh.base_price * st.price_multiplier) AS final_price,
-                COUNT(CASE WHEN ss.status = 'AVAILABLE' THEN 1 END) AS available_count
+                COUNT(CASE WHEN ss.status IS NULL OR ss.status = 'AVAILABLE' THEN 1 END) AS available_count
             FROM showtimes sh
-            INNER JOIN seat_status ss ON sh.showtime_id = ss.showtime_id
-            INNER JOIN seats se ON ss.seat_id = se.seat_id
+            INNER JOIN seats se ON se.room_id = sh.room_id AND se.is_active = TRUE AND se.deleted_at IS NULL
             INNER JOIN seat_types st ON se.seat_type_id = st.seat_type_id
+            LEFT JOIN seat_status ss ON ss.showtime_id = sh.showtime_id AND ss.seat_id = se.seat_id
             WHERE sh.showtime_id = :showtimeId
             GROUP BY st.seat_type_id, st.name, st.price_multiplier, sh.base_price
             ORDER BY final_price ASC
             """, nativeQuery = true)
     List<PricingSummary> findPricingInfoByShowtime(@Param("showtimeId") Integer showtimeId);
 
+    @Query(value = """
+            SELECT
+                sh.showtime_id AS showtimeId,
+                st.name AS seatTypeName,
+                (sh.base_price * st.price_multiplier) AS finalPrice,
+                COUNT(CASE WHEN ss.status IS NULL OR ss.status = 'AVAILABLE' THEN 1 END) AS availableCount
+            FROM showtimes sh
+            INNER JOIN seats se ON se.room_id = sh.room_id AND se.is_active = TRUE AND se.deleted_at IS NULL
+            INNER JOIN seat_types st ON se.seat_type_id = st.seat_type_id
+            LEFT JOIN seat_status ss ON ss.showtime_id = sh.showtime_id AND ss.seat_id = se.seat_id
+            WHERE sh.showtime_id IN (:showtimeIds)
+            GROUP BY sh.showtime_id, st.seat_type_id, st.name, st.price_multiplier, sh.base_price
+            """, nativeQuery = true)
+    List<ShowtimePricingSummary> findPricingInfoByShowtimes(@Param("showtimeIds") List<Integer> showtimeIds);
+
     @Query("""
             SELECT COUNT(s) > 0 FROM Showtime s
             WHERE s.room.id = :roomId
@@ -40,4 +56,22 @@ public interface ShowtimeRepository extends JpaRepository<Showtime, Integer>,
                                       @Param("startTime") java.time.LocalDateTime startTime,
                                       @Param("endTime") java.time.LocalDateTime endTime,
                                       @Param("excludeShowtimeId") Integer excludeShowtimeId);
+
+    @Query("""
+            SELECT s FROM Showtime s
+            JOIN FETCH s.movie
+            JOIN FETCH s.room r
+            JOIN FETCH r.cinema
+            WHERE s.id = :id
+            """)
+    java.util.Optional<Showtime> findByIdWithMovieAndRoom(@Param("id") Integer id);
+
+    @Query("""
+            SELECT s.id FROM Showtime s
+            WHERE s.deletedAt IS NULL
+            AND s.isActive = true
+            AND s.startTime BETWEEN :from AND :to
+            """)
+    List<Integer> findActiveIdsStartingBetween(@Param("from") java.time.LocalDateTime from,
+                                               @Param("to") java.time.LocalDateTime to);
 }
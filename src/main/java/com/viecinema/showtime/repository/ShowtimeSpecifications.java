@@ -1,6 +1,8 @@
 package com.viecinema.showtime.repository;
 
 import com.viecinema.showtime.entity.Showtime;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
@@ -45,4 +47,19 @@ public class ShowtimeSpecifications {
         return (root, query, cb)
                 -> futureOnly ? cb.greaterThanOrEqualTo(root.get("startTime"), LocalDateTime.now()) : null;
     }
+
+    /**
+     * Fetch movie, room và cinema cùng suất chiếu để map danh sách không phát sinh N+1 truy vấn.
+     */
+    public static Specification<Showtime> fetchMovieAndRoom() {
+        return (root, query, cb) -> {
+            // Không fetch trong count query
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("movie", JoinType.INNER);
+                Fetch<Object, Object> room = root.fetch("room", JoinType.INNER);
+                room.fetch("cinema", JoinType.INNER);
+            }
+            return null;
+        };
+    }
 }
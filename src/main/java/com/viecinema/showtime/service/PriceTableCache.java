@@ -0,0 +1,67 @@
+package com.viecinema.showtime.service;
+
+import com.viecinema.showtime.dto.PriceTable;
+import com.viecinema.showtime.dto.RoomLayout;
+import com.viecinema.showtime.entity.Showtime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache {@link PriceTable} theo showtimeId, dùng chung cho seatmap, tính giá (quote) và tạo booking.
+ *
+ * <p>Bảng giá được dựng từ loại ghế trong {@link RoomLayoutCache} nên tự dựng lại mỗi khi sơ đồ phòng được dựng
+ * lại (hết TTL); hệ số giá loại ghế mới có hiệu lực cùng lúc với sơ đồ. Caller luôn truyền basePrice hiện tại
+ * của suất chiếu; bảng có basePrice khác sẽ bị thay, còn {@link #evict(Integer)} được gọi khi sửa / xoá suất chiếu.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceTableCache {
+
+    private final RoomLayoutCache roomLayoutCache;
+
+    private final Map<Integer, PriceTable> tables = new ConcurrentHashMap<>();
+
+    public PriceTable get(Showtime showtime) {
+        return get(showtime.getId(), showtime.getBasePrice(), roomLayoutCache.get(showtime.getRoom().getId()));
+    }
+
+    public PriceTable get(Integer showtimeId, BigDecimal basePrice, RoomLayout layout) {
+        PriceTable table = tables.get(showtimeId);
+        if (table != null
+                && table.layoutBuiltAt() == layout.builtAt()
+                && table.basePrice().compareTo(basePrice) == 0) {
+            return table;
+        }
+        table = build(showtimeId, basePrice, layout);
+        tables.put(showtimeId, table);
+        return table;
+    }
+
+    public void evict(Integer showtimeId) {
+        tables.remove(showtimeId);
+    }
+
+    private PriceTable build(Integer showtimeId, BigDecimal basePrice, RoomLayout layout) {
+        List<RoomLayout.SeatTypeCell> seatTypes = layout.seatTypes();
+        int[] seatTypeIds = new int[seatTypes.size()];
+        long[] prices = new long[seatTypes.size()];
+        BigDecimal[] decimalPrices = new BigDecimal[seatTypes.size()];
+        for (int i = 0; i < seatTypes.size(); i++) {
+            RoomLayout.SeatTypeCell seatType = seatTypes.get(i);
+            BigDecimal price = basePrice.multiply(seatType.priceMultiplier()).setScale(0, RoundingMode.HALF_UP);
+            seatTypeIds[i] = seatType.seatTypeId();
+            prices[i] = price.longValueExact();
+            decimalPrices[i] = price;
+        }
+        log.debug("Built price table for showtime {} ({} seat types)", showtimeId, seatTypes.size());
+        return new PriceTable(showtimeId, basePrice, layout.builtAt(), seatTypeIds, prices, decimalPrices);
+    }
+}
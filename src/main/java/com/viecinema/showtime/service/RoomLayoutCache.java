@@ -0,0 +1,108 @@
+package com.viecinema.showtime.service;
+
+import com.viecinema.common.exception.ResourceNotFoundException;
+import com.viecinema.showtime.dto.RoomInfo;
+import com.viecinema.showtime.dto.RoomLayout;
+import com.viecinema.showtime.entity.Room;
+import com.viecinema.showtime.entity.Seat;
+import com.viecinema.showtime.entity.SeatType;
+import com.viecinema.showtime.repository.RoomRepository;
+import com.viecinema.showtime.repository.SeatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.viecinema.common.constant.PolicyConstants.ROOM_LAYOUT_TTL_MS;
+
+/**
+ * Cache sơ đồ phòng chiếu theo roomId. Sơ đồ phòng gần như không đổi nên chỉ được dựng lại khi hết TTL:
+ * ứng dụng không có API sửa phòng / ghế / loại ghế, thay đổi làm trực tiếp trong DB có hiệu lực sau tối đa
+ * {@code ROOM_LAYOUT_TTL_MS}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoomLayoutCache {
+
+    private final RoomRepository roomRepository;
+    private final SeatRepository seatRepository;
+
+    private final Map<Integer, RoomLayout> layouts = new ConcurrentHashMap<>();
+
+    public RoomLayout get(Integer roomId) {
+        RoomLayout layout = layouts.get(roomId);
+        if (layout != null && System.currentTimeMillis() - layout.builtAt() < ROOM_LAYOUT_TTL_MS) {
+            return layout;
+        }
+        layout = build(roomId);
+        layouts.put(roomId, layout);
+        return layout;
+    }
+
+    private RoomLayout build(Integer roomId) {
+        Room room = roomRepository.findByIdWithCinema(roomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Room " + roomId));
+        List<Seat> seats = seatRepository.findByRoomIdOrderBySeatRowAndNumber(roomId);
+        if (seats.isEmpty()) {
+            throw new ResourceNotFoundException("Seats in roomId " + roomId);
+        }
+
+        // Group seats by row, keep query order
+        Map<String, List<Seat>> seatsByRow = new LinkedHashMap<>();
+        Map<Integer, RoomLayout.SeatTypeCell> seatTypes = new LinkedHashMap<>();
+        for (Seat seat : seats) {
+            seatsByRow.computeIfAbsent(seat.getSeatRow(), row -> new ArrayList<>()).add(seat);
+            SeatType seatType = seat.getSeatType();
+            seatTypes.computeIfAbsent(seatType.getSeatTypeId(), id -> new RoomLayout.SeatTypeCell(
+                    seatType.getSeatTypeId(),
+                    seatType.getName(),
+                    seatType.getDescription(),
+                    seatType.getPriceMultiplier(),
+                    seatType.getColorCode()));
+        }
+
+        List<RoomLayout.Row> rows = new ArrayList<>();
+        int maxSeatsPerRow = 0;
+        for (Map.Entry<String, List<Seat>> entry : seatsByRow.entrySet()) {
+            List<RoomLayout.SeatCell> cells = entry.getValue().stream()
+                    .sorted(Comparator.comparingInt(Seat::getSeatNumber))
+                    .map(seat -> new RoomLayout.SeatCell(
+                            seat.getSeatId(),
+                            seat.getSeatLabel(),
+                            seat.getSeatRow(),
+                            seat.getSeatNumber(),
+                            seat.getSeatType().getSeatTypeId(),
+                            seat.getSeatType().getName(),
+                            Boolean.TRUE.equals(seat.getIsActive())))
+                    .toList();
+            maxSeatsPerRow = Math.max(maxSeatsPerRow, cells.size());
+            rows.add(new RoomLayout.Row(entry.getKey(), rows.size(), cells));
+        }
+
+        RoomInfo roomInfo = RoomInfo.builder()
+                .roomId(room.getId())
+                .roomName(room.getName())
+                .cinemaId(room.getCinema().getId())
+                .cinemaName(room.getCinema().getName())
+                .cinemaAddress(room.getCinema().getAddress())
+                .totalSeats(room.getTotalSeats())
+                .totalRows(rows.size())
+                .maxSeatsPerRow(maxSeatsPerRow)
+                .build();
+
+        log.debug("Built layout for room {} ({} seats)", roomId, seats.size());
+        return new RoomLayout(
+                roomInfo,
+                List.copyOf(rows),
+                List.copyOf(seatTypes.values()),
+                seats.size(),
+                System.currentTimeMillis());
+    }
+}
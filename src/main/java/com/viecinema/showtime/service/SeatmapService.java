@@ -1,113 +1,192 @@
 package com.viecinema.showtime.service;
 
+import com.viecinema.booking.inventory.SeatInventory;
+import com.viecinema.booking.service.SeatInventoryService;
 import com.viecinema.common.exception.ResourceNotFoundException;
 import com.viecinema.movie.entity.Movie;
 import com.viecinema.showtime.dto.*;
 import com.viecinema.showtime.dto.response.SeatmapResponse;
-import com.viecinema.showtime.entity.*;
-import com.viecinema.showtime.repository.SeatRepository;
-import com.viecinema.showtime.repository.SeatStatusRepository;
+import com.viecinema.showtime.entity.Showtime;
 import com.viecinema.showtime.repository.ShowtimeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.viecinema.common.constant.PolicyConstants.SEATMAP_HEADER_TTL_MS;
+import static com.viecinema.common.constant.PolicyConstants.SEAT_INVENTORY_PURGE_DELAY_MS;
+
+/**
+ * Seatmap = sơ đồ phòng bất biến (cache theo roomId, {@link RoomLayoutCache})
+ * + lớp trạng thái ghế của suất chiếu (lấy từ {@link SeatInventory}, có version tăng dần).
+ *
+ * <p>ETag của seatmap được ghép từ version của inventory, thời điểm dựng thông tin suất chiếu / sơ đồ phòng
+ * và user hiện tại, nên request có If-None-Match chỉ tốn một phép so sánh, không truy vấn DB.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = true)
 public class SeatmapService {
 
     private final ShowtimeRepository showtimeRepository;
-    private final SeatRepository seatRepository;
-    private final SeatStatusRepository seatStatusRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final RoomLayoutCache roomLayoutCache;
+    private final PriceTableCache priceTableCache;
+
+    private final Map<Integer, ShowtimeHeader> headers = new ConcurrentHashMap<>();
 
     public SeatmapResponse getSeatmap(Integer showtimeId, Integer currentUserId) {
         log.info("Fetching seatmap for showtime: {}, user: {}", showtimeId, currentUserId);
 
-        Showtime showtime = showtimeRepository.findById(showtimeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Showtime " + showtimeId));
-
-        validateShowtime(showtime);
+        SeatInventory inventory = seatInventoryService.getInventory(showtimeId);
+        ShowtimeHeader header = getHeader(inventory);
+        validateShowtime(header);
 
-        Room room = showtime.getRoom();
-        Movie movie = showtime.getMovie();
-        BigDecimal basePrice = showtime.getBasePrice();
-
-        List<Seat> seats = seatRepository.findByRoomIdOrderBySeatRowAndNumber(room.getId());
-        Map<Integer, SeatStatus> seatStatusMap = getSeatStatusMap(showtimeId);
+        RoomLayout layout = roomLayoutCache.get(header.roomId());
+        return buildSeatmapResponse(header, layout, inventory, currentUserId);
+    }
 
-        if (seats.isEmpty()) {
-            throw new ResourceNotFoundException("Seats in roomId " + room.getId());
-        }
+    /**
+     * ETag (weak) của seatmap cho user hiện tại. Đổi khi có ghế đổi trạng thái, khi suất chiếu được sửa
+     * (inventory nạp lại) hoặc khi thông tin suất chiếu / sơ đồ phòng được dựng lại.
+     */
+    public String getSeatmapETag(Integer showtimeId, Integer currentUserId) {
+        SeatInventory inventory = seatInventoryService.getInventory(showtimeId);
+        ShowtimeHeader header = getHeader(inventory);
+        validateShowtime(header);
+
+        RoomLayout layout = roomLayoutCache.get(header.roomId());
+        return String.format("W/\"%d-%d-%d-%d-%d\"",
+                inventory.getGeneration(),
+                inventory.getVersion(),
+                header.builtAt(),
+                layout.builtAt(),
+                currentUserId);
+    }
 
-        return buildSeatmapResponse(showtime, room, movie, seats, seatStatusMap, basePrice, currentUserId);
+    @Scheduled(fixedDelay = SEAT_INVENTORY_PURGE_DELAY_MS)
+    public void purgeExpiredHeaders() {
+        long now = System.currentTimeMillis();
+        headers.values().removeIf(header -> now - header.builtAt() >= SEATMAP_HEADER_TTL_MS);
     }
 
     // ==================== PRIVATE METHODS ====================
 
-    private void validateShowtime(Showtime showtime) {
-        if (!showtime.getIsActive()) {
+    private void validateShowtime(ShowtimeHeader header) {
+        if (!header.active()) {
             throw new IllegalStateException("This showtime is not active");
         }
 
         LocalDateTime now = LocalDateTime.now();
-        if (showtime.getStartTime().isBefore(now)) {
+        if (header.startTime().isBefore(now)) {
             throw new IllegalStateException("This showtime has already started, tickets cannot be booked.");
         }
 
-        if (showtime.getStartTime().minusMinutes(15).isBefore(now)) {
+        if (header.startTime().minusMinutes(15).isBefore(now)) {
             throw new IllegalStateException("The booking deadline has passed.");
         }
     }
 
-    private Map<Integer, SeatStatus> getSeatStatusMap(Integer showtimeId) {
-        List<SeatStatus> seatStatuses = seatStatusRepository.findByShowtimeId(showtimeId);
-
-        if (seatStatuses.isEmpty()) {
-            return Collections.emptyMap();
+    private ShowtimeHeader getHeader(SeatInventory inventory) {
+        long now = System.currentTimeMillis();
+        ShowtimeHeader header = headers.get(inventory.getShowtimeId());
+        if (header != null
+                && header.generation() == inventory.getGeneration()
+                && now - header.builtAt() < SEATMAP_HEADER_TTL_MS) {
+            return header;
         }
 
-        return seatStatuses.stream()
-                .collect(Collectors.toMap(ss -> ss.getSeat().getSeatId(), Function.identity()));
+        Showtime showtime = showtimeRepository.findByIdWithMovieAndRoom(inventory.getShowtimeId())
+                .orElseThrow(() -> new ResourceNotFoundException("Showtime " + inventory.getShowtimeId()));
+        header = new ShowtimeHeader(
+                inventory.getGeneration(),
+                now,
+                buildShowtimeInfo(showtime, showtime.getMovie()),
+                showtime.getRoom().getId(),
+                Boolean.TRUE.equals(showtime.getIsActive()),
+                showtime.getStartTime(),
+                showtime.getBasePrice());
+        headers.put(inventory.getShowtimeId(), header);
+        return header;
     }
 
     private SeatmapResponse buildSeatmapResponse(
-            Showtime showtime,
-            Room room,
-            Movie movie,
-            List<Seat> seats,
-            Map<Integer, SeatStatus> seatStatusMap,
-            BigDecimal basePrice,
+            ShowtimeHeader header,
+            RoomLayout layout,
+            SeatInventory inventory,
             Integer currentUserId) {
 
-        // Build ShowtimeInfo
-        ShowtimeInfo showtimeInfo = buildShowtimeInfo(showtime, movie);
+        long now = SeatInventoryService.now();
 
-        // Build RoomInfo
-        RoomInfo roomInfo = buildRoomInfo(room, seats);
+        // Giá theo loại ghế của suất chiếu
+        PriceTable priceTable = priceTableCache.get(inventory.getShowtimeId(), header.basePrice(), layout);
 
-        // Build SeatTypes với giá đã tính
-        Map<Integer, SeatTypeInfo> seatTypeInfoMap = buildSeatTypeInfoMap(seats, basePrice, seatStatusMap);
+        Map<Integer, Integer> availableBySeatType = new HashMap<>();
+        int disabled = 0;
 
-        // Build SeatLayout
-        SeatLayout seatLayout = buildSeatLayout(seats, seatStatusMap, basePrice, currentUserId);
+        // Build SeatLayout: ghép sơ đồ phòng với trạng thái ghế trong inventory
+        List<SeatRow> rows = new ArrayList<>(layout.rows().size());
+        for (RoomLayout.Row row : layout.rows()) {
+            List<SeatInfo> seatInfoList = new ArrayList<>(row.seats().size());
+            for (RoomLayout.SeatCell cell : row.seats()) {
+                SeatInfo seatInfo = buildSeatInfo(
+                        cell, inventory, priceTable.decimalPrice(cell.seatTypeId()), currentUserId, now);
+                if ("available".equals(seatInfo.getStatus())) {
+                    availableBySeatType.merge(cell.seatTypeId(), 1, Integer::sum);
+                } else if ("disabled".equals(seatInfo.getStatus())) {
+                    disabled++;
+                }
+                seatInfoList.add(seatInfo);
+            }
+            rows.add(SeatRow.builder()
+                    .rowLabel(row.rowLabel())
+                    .rowIndex(row.rowIndex())
+                    .seats(seatInfoList)
+                    .build());
+        }
 
-        // Build Summary
-        SeatSummary summary = buildSeatSummary(seats, seatStatusMap);
+        // Build SeatTypes với giá đã tính
+        List<SeatTypeInfo> seatTypes = layout.seatTypes().stream()
+                .map(seatType -> SeatTypeInfo.builder()
+                        .seatTypeId(seatType.seatTypeId())
+                        .name(seatType.name())
+                        .description(seatType.description())
+                        .priceMultiplier(seatType.priceMultiplier())
+                        .finalPrice(priceTable.decimalPrice(seatType.seatTypeId()))
+                        .colorCode(seatType.colorCode())
+                        .availableCount(availableBySeatType.getOrDefault(seatType.seatTypeId(), 0))
+                        .build())
+                .toList();
+
+        // Tổng theo trạng thái lấy từ bộ đếm của inventory thay vì đếm lại từng ghế
+        SeatInventory.SeatCounts counts = inventory.counts();
+        int total = layout.seatCount();
+        double occupancyRate = total - disabled > 0
+                ? ((double) counts.booked() / (total - disabled)) * 100
+                : 0;
+
+        SeatSummary summary = SeatSummary.builder()
+                .totalSeats(total)
+                .availableSeats(counts.available())
+                .bookedSeats(counts.booked())
+                .heldSeats(counts.held())
+                .disabledSeats(disabled)
+                .occupancyRate(Math.round(occupancyRate * 100.0) / 100.0)
+                .build();
 
         return SeatmapResponse.builder()
-                .showtimeInfo(showtimeInfo)
-                .roomInfo(roomInfo)
-                .seatTypes(new ArrayList<>(seatTypeInfoMap.values()))
-                .seatLayout(seatLayout)
+                .showtimeInfo(header.showtimeInfo())
+                .roomInfo(layout.roomInfo())
+                .seatTypes(seatTypes)
+                .seatLayout(SeatLayout.builder()
+                        .rows(rows)
+                        .screenPosition("top")
+                        .build())
                 .summary(summary)
                 .build();
     }
@@ -127,148 +206,34 @@ public class SeatmapService {
                 .build();
     }
 
-    private RoomInfo buildRoomInfo(Room room, List<Seat> seats) {
-        Set<String> rows = seats.stream()
-                .map(Seat::getSeatRow)
-                .collect(Collectors.toSet());
-
-        int maxSeatsPerRow = seats.stream()
-                .collect(Collectors.groupingBy(Seat::getSeatRow, Collectors.counting()))
-                .values().stream()
-                .mapToInt(Long::intValue)
-                .max()
-                .orElse(0);
-
-        return RoomInfo.builder()
-                .roomId(room.getId())
-                .roomName(room.getName())
-                .cinemaId(room.getCinema().getId())
-                .cinemaName(room.getCinema().getName())
-                .cinemaAddress(room.getCinema().getAddress())
-                .totalSeats(room.getTotalSeats())
-                .totalRows(rows.size())
-                .maxSeatsPerRow(maxSeatsPerRow)
-                .build();
-    }
-
-    private Map<Integer, SeatTypeInfo> buildSeatTypeInfoMap(
-            List<Seat> seats,
-            BigDecimal basePrice,
-            Map<Integer, SeatStatus> seatStatusMap) {
-
-        Map<Integer, SeatTypeInfo> result = new LinkedHashMap<>();
-
-        // Group seats by type và count available
-        Map<Integer, List<Seat>> seatsByType = seats.stream()
-                .collect(Collectors.groupingBy(s -> s.getSeatType().getSeatTypeId()));
-
-        for (Map.Entry<Integer, List<Seat>> entry : seatsByType.entrySet()) {
-            SeatType seatType = entry.getValue().get(0).getSeatType();
-
-            // Count seat available
-            long availableCount = entry.getValue().stream()
-                    .filter(seat -> {
-                        SeatStatus status = seatStatusMap.get(seat.getSeatId());
-                        return status == null || status.isAvailable();
-                    })
-                    .count();
-
-            result.put(seatType.getSeatTypeId(), SeatTypeInfo.builder()
-                    .seatTypeId(seatType.getSeatTypeId())
-                    .name(seatType.getName())
-                    .description(seatType.getDescription())
-                    .priceMultiplier(seatType.getPriceMultiplier())
-                    .finalPrice(seatType.calculatePrice(basePrice))
-                    .colorCode(seatType.getColorCode())
-                    .availableCount((int) availableCount)
-                    .build());
-        }
-
-        return result;
-    }
-
-    private SeatLayout buildSeatLayout(
-            List<Seat> seats,
-            Map<Integer, SeatStatus> seatStatusMap,
-            BigDecimal basePrice,
-            Integer currentUserId) {
-
-        // Group seats by row
-        Map<String, List<Seat>> seatsByRow = seats.stream()
-                .collect(Collectors.groupingBy(
-                        Seat::getSeatRow,
-                        LinkedHashMap::new, // Keep order
-                        Collectors.toList()
-                ));
-
-        List<SeatRow> rows = new ArrayList<>();
-        int rowIndex = 0;
-
-        for (Map.Entry<String, List<Seat>> entry : seatsByRow.entrySet()) {
-            String rowLabel = entry.getKey();
-            List<Seat> rowSeats = entry.getValue();
-
-            // Sort by seat number
-            rowSeats.sort(Comparator.comparingInt(Seat::getSeatNumber));
-
-            List<SeatInfo> seatInfoList = new ArrayList<>();
-            for (Seat seat : rowSeats) {
-                SeatStatus status = seatStatusMap.get(seat.getSeatId());
-                seatInfoList.add(buildSeatInfo(seat, status, basePrice, currentUserId));
-            }
-
-            rows.add(SeatRow.builder()
-                    .rowLabel(rowLabel)
-                    .rowIndex(rowIndex++)
-                    .seats(seatInfoList)
-                    .build());
-        }
-
-        return SeatLayout.builder()
-                .rows(rows)
-                .screenPosition("top")
-                .build();
-    }
-
     private SeatInfo buildSeatInfo(
-            Seat seat,
-            SeatStatus seatStatus,
-            BigDecimal basePrice,
-            Integer currentUserId) {
-
-        SeatType seatType = seat.getSeatType();
-        BigDecimal price = seatType.calculatePrice(basePrice);
+            RoomLayout.SeatCell cell,
+            SeatInventory inventory,
+            BigDecimal price,
+            Integer currentUserId,
+            long now) {
 
         // Xác định status
         String status;
         Long holdExpiresIn = null;
         boolean isSelectable;
 
-        if (!seat.getIsActive()) {
+        int index = inventory.indexOf(cell.seatId());
+        if (!cell.active() || index < 0) {
             status = "disabled";
             isSelectable = false;
-        } else if (seatStatus == null) {
-            // Chưa có record -> available
-            status = "available";
-            isSelectable = true;
         } else {
-            switch (seatStatus.getStatus()) {
-                case AVAILABLE -> {
-                    status = "available";
-                    isSelectable = true;
-                }
-                case BOOKED -> {
+            long word = inventory.wordAt(index);
+            switch (SeatInventory.effectiveStatus(word, now)) {
+                case SeatInventory.BOOKED -> {
                     status = "booked";
                     isSelectable = false;
                 }
-                case HELD -> {
+                case SeatInventory.HELD -> {
                     // Check if this seat be hold by current user or not
-                    if (seatStatus.isHeldBy(currentUserId)) {
+                    if (currentUserId != null && SeatInventory.userOf(word) == currentUserId) {
                         status = "held_by_you";
-                        holdExpiresIn = seatStatus.getRemainingHoldSeconds();
-                        isSelectable = true;
-                    } else if (seatStatus.isAvailable()) {
-                        status = "available";
+                        holdExpiresIn = SeatInventory.heldUntilOf(word) - now;
                         isSelectable = true;
                     } else {
                         status = "held";
@@ -283,12 +248,12 @@ public class SeatmapService {
         }
 
         return SeatInfo.builder()
-                .seatId(seat.getSeatId())
-                .seatLabel(seat.getSeatLabel())
-                .rowLabel(seat.getSeatRow())
-                .seatNumber(seat.getSeatNumber())
-                .seatTypeId(seatType.getSeatTypeId())
-                .seatTypeName(seatType.getName())
+                .seatId(cell.seatId())
+                .seatLabel(cell.seatLabel())
+                .rowLabel(cell.rowLabel())
+                .seatNumber(cell.seatNumber())
+                .seatTypeId(cell.seatTypeId())
+                .seatTypeName(cell.seatTypeName())
                 .price(price)
                 .status(status)
                 .holdExpiresIn(holdExpiresIn)
@@ -296,48 +261,16 @@ public class SeatmapService {
                 .build();
     }
 
-    private SeatSummary buildSeatSummary(List<Seat> seats, Map<Integer, SeatStatus> seatStatusMap) {
-        int total = seats.size();
-        int available = 0;
-        int booked = 0;
-        int held = 0;
-        int disabled = 0;
-
-        for (Seat seat : seats) {
-            if (!seat.getIsActive()) {
-                disabled++;
-                continue;
-            }
-
-            SeatStatus status = seatStatusMap.get(seat.getSeatId());
-            if (status == null || status.isAvailable()) {
-                available++;
-            } else {
-                switch (status.getStatus()) {
-                    case BOOKED -> booked++;
-                    case HELD -> {
-                        if (status.isAvailable()) {
-                            available++;
-                        } else {
-                            held++;
-                        }
-                    }
-                    default -> available++;
-                }
-            }
-        }
-
-        double occupancyRate = total > 0
-                ? ((double) booked / (total - disabled)) * 100
-                : 0;
-
-        return SeatSummary.builder()
-                .totalSeats(total)
-                .availableSeats(available)
-                .bookedSeats(booked)
-                .heldSeats(held)
-                .disabledSeats(disabled)
-                .occupancyRate(Math.round(occupancyRate * 100.0) / 100.0)
-                .build();
-    }
-}
\ No newline at end of file
+    /**
+     * Thông tin suất chiếu dùng cho seatmap, gắn với generation của inventory (đổi khi suất chiếu được sửa).
+     */
+    private record ShowtimeHeader(
+            long generation,
+            long builtAt,
+            ShowtimeInfo showtimeInfo,
+            Integer roomId,
+            boolean active,
+            LocalDateTime startTime,
+            BigDecimal basePrice
+    ) {}
+}
@@ -0,0 +1,208 @@
+package com.viecinema.showtime.service;
+
+import com.viecinema.booking.service.SeatInventoryService;
+import com.viecinema.showtime.dto.SeatDelta;
+import com.viecinema.showtime.event.SeatStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.viecinema.common.constant.PolicyConstants.SEATMAP_STREAM_DISPATCH_MS;
+import static com.viecinema.common.constant.PolicyConstants.SEATMAP_STREAM_SEND_QUEUE;
+import static com.viecinema.common.constant.PolicyConstants.SEATMAP_STREAM_SEND_THREADS;
+import static com.viecinema.common.constant.PolicyConstants.SEATMAP_STREAM_SEND_TIMEOUT_MS;
+
+/**
+ * Kênh seatmap realtime (Server-Sent Events) theo suất chiếu.
+ *
+ * <p>Thay đổi ghế được gom vào buffer riêng của từng subscriber (giới hạn {@code MAX_PENDING_DELTAS} ghế,
+ * nhiều thay đổi trên cùng một ghế chỉ giữ lại bản mới nhất) và được gửi theo lô mỗi
+ * {@code SEATMAP_STREAM_DISPATCH_MS}. Subscriber quá chậm làm tràn buffer sẽ nhận event {@code resync}
+ * và phải tải lại toàn bộ seatmap.
+ *
+ * <p>{@link SseEmitter#send} chặn tới khi ghi xong, nên thread {@code @Scheduled} (dùng chung với hết hạn giữ ghế,
+ * flusher, outbox...) chỉ gom lô rồi giao cho pool gửi riêng ({@code SEATMAP_STREAM_SEND_THREADS} thread, hàng đợi
+ * giới hạn), mỗi subscriber tối đa một lần gửi đang chạy. Subscriber còn đang gửi thì bị bỏ qua ở lượt đó (buffer
+ * tiếp tục gộp, tràn thì resync); lần gửi kéo dài quá {@code SEATMAP_STREAM_SEND_TIMEOUT_MS} thì subscriber bị
+ * ngắt.
+ */
+@Slf4j
+@Service
+public class SeatmapStreamService {
+
+    private static final long STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final long HEARTBEAT_INTERVAL_MS = 15000;
+    private static final int MAX_PENDING_DELTAS = 256;
+
+    private final SeatInventoryService seatInventoryService;
+
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor sender = new ThreadPoolExecutor(
+            SEATMAP_STREAM_SEND_THREADS, SEATMAP_STREAM_SEND_THREADS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(SEATMAP_STREAM_SEND_QUEUE),
+            new CustomizableThreadFactory("seatmap-sse-"),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    public SeatmapStreamService(SeatInventoryService seatInventoryService) {
+        this.seatInventoryService = seatInventoryService;
+    }
+
+    public SseEmitter subscribe(Integer showtimeId) {
+        // Kiểm tra suất chiếu tồn tại và nạp sẵn inventory
+        seatInventoryService.getInventory(showtimeId);
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.computeIfAbsent(showtimeId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        Runnable unsubscribe = () -> unsubscribe(showtimeId, subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        try {
+            emitter.send(SseEmitter.event().name("subscribed").data(showtimeId));
+        } catch (IOException e) {
+            unsubscribe.run();
+        }
+        log.debug("New seatmap subscriber for showtime {}", showtimeId);
+        return emitter;
+    }
+
+    @EventListener
+    public void onSeatStatusChanged(SeatStatusChangedEvent event) {
+        Set<Subscriber> showtimeSubscribers = subscribers.get(event.getShowtimeId());
+        if (showtimeSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : showtimeSubscribers) {
+            subscriber.offer(event.getDeltas());
+        }
+    }
+
+    /**
+     * Giao lô của từng subscriber cho pool gửi; không tự ghi vào kết nối nào.
+     */
+    @Scheduled(fixedDelay = SEATMAP_STREAM_DISPATCH_MS)
+    public void dispatch() {
+        long now = System.currentTimeMillis();
+        subscribers.forEach((showtimeId, showtimeSubscribers) -> {
+            for (Subscriber subscriber : showtimeSubscribers) {
+                Future<?> running = subscriber.sending;
+                if (running != null && !running.isDone()) {
+                    long startedAt = subscriber.sendingSince;
+                    if (startedAt > 0 && now - startedAt > SEATMAP_STREAM_SEND_TIMEOUT_MS) {
+                        log.info("Dropping seatmap subscriber of showtime {}: send blocked for over {} ms",
+                                showtimeId, SEATMAP_STREAM_SEND_TIMEOUT_MS);
+                        unsubscribe(showtimeId, subscriber);
+                        running.cancel(true);
+                    }
+                    continue;
+                }
+                if (!subscriber.hasWork(now)) {
+                    continue;
+                }
+                subscriber.sendingSince = 0;
+                try {
+                    subscriber.sending = sender.submit(() -> send(showtimeId, subscriber, now));
+                } catch (RejectedExecutionException e) {
+                    // Pool đầy: buffer được giữ lại cho lượt sau
+                    log.debug("Seatmap send queue full, deferring subscriber of showtime {}", showtimeId);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void send(Integer showtimeId, Subscriber subscriber, long now) {
+        subscriber.sendingSince = System.currentTimeMillis();
+        try {
+            subscriber.flush(showtimeId, now);
+        } catch (IOException | IllegalStateException e) {
+            // Client đã ngắt kết nối
+            unsubscribe(showtimeId, subscriber);
+        }
+    }
+
+    private void unsubscribe(Integer showtimeId, Subscriber subscriber) {
+        subscribers.computeIfPresent(showtimeId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Map<Integer, SeatDelta> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+        private volatile long lastSentAt = System.currentTimeMillis();
+        /** Lần gửi gần nhất trên pool, chỉ thread dispatch gán; còn chạy khi chưa isDone(). */
+        private volatile Future<?> sending;
+        /** Lúc lần gửi bắt đầu chạy (không tính thời gian chờ trong hàng đợi); 0 khi chưa chạy. */
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(List<SeatDelta> deltas) {
+            if (overflowed) {
+                return;
+            }
+            for (SeatDelta delta : deltas) {
+                pending.put(delta.seatId(), delta);
+            }
+            if (pending.size() > MAX_PENDING_DELTAS) {
+                pending.clear();
+                overflowed = true;
+            }
+        }
+
+        synchronized boolean hasWork(long now) {
+            return overflowed || !pending.isEmpty() || now - lastSentAt >= HEARTBEAT_INTERVAL_MS;
+        }
+
+        void flush(Integer showtimeId, long now) throws IOException {
+            List<SeatDelta> batch;
+            boolean resync;
+            synchronized (this) {
+                resync = overflowed;
+                batch = resync || pending.isEmpty() ? List.of() : new ArrayList<>(pending.values());
+                pending.clear();
+                overflowed = false;
+            }
+
+            if (resync) {
+                emitter.send(SseEmitter.event().name("resync").data(showtimeId));
+            } else if (!batch.isEmpty()) {
+                emitter.send(SseEmitter.event().name("seats").data(batch));
+            } else if (now - lastSentAt >= HEARTBEAT_INTERVAL_MS) {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } else {
+                return;
+            }
+            lastSentAt = now;
+        }
+    }
+}
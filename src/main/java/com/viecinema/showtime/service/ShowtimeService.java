@@ -1,8 +1,11 @@
 package com.viecinema.showtime.service;
 
+import com.viecinema.booking.service.QuoteCache;
+import com.viecinema.booking.service.SeatInventoryService;
 import com.viecinema.common.enums.SeatStatusType;
 import com.viecinema.common.exception.BadRequestException;
 import com.viecinema.common.exception.ResourceNotFoundException;
+import com.viecinema.config.SeatInventoryConfig;
 import com.viecinema.movie.entity.Movie;
 import com.viecinema.movie.repository.MovieRepository;
 import com.viecinema.showtime.dto.PricingInfo;
@@ -10,7 +13,8 @@ import com.viecinema.showtime.dto.SeatAvailability;
 import com.viecinema.showtime.dto.ShowtimeGroupByCinemaDto;
 import com.viecinema.showtime.dto.ShowtimeGroupByTimeSlotDto;
 import com.viecinema.showtime.dto.projection.PricingSummary;
-import com.viecinema.showtime.dto.projection.SeatStatusCount;
+import com.viecinema.showtime.dto.projection.ShowtimePricingSummary;
+import com.viecinema.showtime.dto.projection.ShowtimeStatusCount;
 import com.viecinema.showtime.dto.request.CreateShowtimeRequest;
 import com.viecinema.showtime.dto.request.ShowtimeFilterRequest;
 import com.viecinema.showtime.dto.request.UpdateShowtimeRequest;
@@ -43,12 +47,18 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ShowtimeService {
 
+    private static final int ENRICH_BATCH_SIZE = 500;
+
     private final ShowtimeRepository showtimeRepository;
     private final SeatStatusRepository seatStatusRepository;
     private final SeatRepository seatRepository;
     private final RoomRepository roomRepository;
     private final MovieRepository movieRepository;
     private final ShowtimeMapper showtimeMapper;
+    private final SeatInventoryService seatInventoryService;
+    private final SeatInventoryConfig seatInventoryConfig;
+    private final PriceTableCache priceTableCache;
+    private final QuoteCache quoteCache;
 
     public Object findShowtimes(ShowtimeFilterRequest request) {
         // Validate request
@@ -75,18 +85,15 @@ public class ShowtimeService {
                 .and(ShowtimeSpecifications.hasDate(request.getDate()))
                 .and(ShowtimeSpecifications.hasCity(request.getCity()))
                 .and(ShowtimeSpecifications.hasActiveOnly(request.getActiveOnly()))
-                .and(ShowtimeSpecifications.hasFutureOnly(request.getFutureOnly()));
+                .and(ShowtimeSpecifications.hasFutureOnly(request.getFutureOnly()))
+                .and(ShowtimeSpecifications.fetchMovieAndRoom());
 
         List<Showtime> showtimes = showtimeRepository.findAll(spec);
         // Map to DTO
         List<ShowtimeDetailResponse> responses = showtimeMapper.toResponseList(showtimes);
 
-        responses.forEach(this::enrichWithSeatAvailability);
-
-        // Load pricing info if needed
-        if (Boolean.TRUE.equals(request.getIncludeAvailableSeats())) {
-            responses.forEach(this::enrichWithPricingInfo);
-        }
+        // Availability (and pricing if needed) for all showtimes with one grouped query each
+        enrichListing(responses, Boolean.TRUE.equals(request.getIncludeAvailableSeats()));
 
         log.info("Found {} showtimes", responses.size());
         return responses;
@@ -190,14 +197,17 @@ public class ShowtimeService {
         showtime.setEndTime(endTime);
         showtime.setBasePrice(request.getBasePrice());
         showtime.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
+        showtime.setAdmissionRatePerMinute(request.getAdmissionRatePerMinute());
+        showtime.setAdmissionBurst(request.getAdmissionBurst());
 
         Showtime savedShowtime = showtimeRepository.save(showtime);
 
-        generateInitialSeatStatuses(savedShowtime, room.getId());
+        if (!seatInventoryConfig.isSparseSeatStatus()) {
+            generateInitialSeatStatuses(savedShowtime, room.getId());
+        }
 
         ShowtimeDetailResponse response = showtimeMapper.toResponse(savedShowtime);
-        enrichWithSeatAvailability(response);
-        enrichWithPricingInfo(response);
+        enrichListing(List.of(response), true);
         return response;
     }
 
@@ -207,8 +217,7 @@ public class ShowtimeService {
                 .orElseThrow(() -> new ResourceNotFoundException("Showtime with ID " + id + " not found"));
 
         ShowtimeDetailResponse response = showtimeMapper.toResponse(showtime);
-        enrichWithSeatAvailability(response);
-        enrichWithPricingInfo(response);
+        enrichListing(List.of(response), true);
         return response;
     }
 
@@ -265,17 +274,32 @@ public class ShowtimeService {
         if (request.getIsActive() != null) {
             showtime.setIsActive(request.getIsActive());
         }
+        if (Boolean.TRUE.equals(request.getClearAdmission())) {
+            showtime.setAdmissionRatePerMinute(null);
+            showtime.setAdmissionBurst(null);
+        } else {
+            if (request.getAdmissionRatePerMinute() != null) {
+                showtime.setAdmissionRatePerMinute(request.getAdmissionRatePerMinute());
+            }
+            if (request.getAdmissionBurst() != null) {
+                showtime.setAdmissionBurst(request.getAdmissionBurst());
+            }
+        }
 
         Showtime updatedShowtime = showtimeRepository.save(showtime);
 
         if (roomChanged) {
             seatStatusRepository.deleteByShowtimeId(id);
-            generateInitialSeatStatuses(updatedShowtime, room.getId());
+            if (!seatInventoryConfig.isSparseSeatStatus()) {
+                generateInitialSeatStatuses(updatedShowtime, room.getId());
+            }
         }
+        seatInventoryService.evict(id);
+        priceTableCache.evict(id);
+        quoteCache.evictShowtime(id);
 
         ShowtimeDetailResponse response = showtimeMapper.toResponse(updatedShowtime);
-        enrichWithSeatAvailability(response);
-        enrichWithPricingInfo(response);
+        enrichListing(List.of(response), true);
         return response;
     }
 
@@ -293,6 +317,9 @@ public class ShowtimeService {
         showtime.setIsActive(false);
         showtime.setDeletedAt(LocalDateTime.now());
         showtimeRepository.save(showtime);
+        seatInventoryService.evict(id);
+        priceTableCache.evict(id);
+        quoteCache.evictShowtime(id);
     }
 
     private void generateInitialSeatStatuses(Showtime showtime, Integer roomId) {
@@ -314,23 +341,73 @@ public class ShowtimeService {
         log.info("Created {} initial seat statuses for showtime ID: {}", seatStatuses.size(), showtime.getId());
     }
 
-    private void enrichWithSeatAvailability(ShowtimeDetailResponse st) {
+    /**
+     * Gắn số ghế trống và giá theo loại ghế cho cả danh sách suất chiếu: mỗi loại thông tin là một truy vấn
+     * GROUP BY theo lô {@code ENRICH_BATCH_SIZE} suất chiếu, nên số truy vấn không tăng theo số suất chiếu.
+     * Suất chiếu đã có inventory trong bộ nhớ lấy số ghế từ bộ đếm của inventory, không truy vấn seat_status.
+     */
+    private void enrichListing(List<ShowtimeDetailResponse> responses, boolean includePricing) {
+        if (responses.isEmpty()) {
+            return;
+        }
+        List<Integer> showtimeIds = responses.stream()
+                .map(ShowtimeDetailResponse::getShowtimeId)
+                .toList();
+
+        Map<Integer, Map<String, Integer>> occupiedByShowtime = new HashMap<>();
+        Set<Integer> notLoaded = new HashSet<>();
+        for (Integer showtimeId : showtimeIds) {
+            seatInventoryService.findCounts(showtimeId).ifPresentOrElse(
+                    counts -> occupiedByShowtime.put(showtimeId, Map.of(
+                            SeatStatusType.HELD.name(), counts.held(),
+                            SeatStatusType.BOOKED.name(), counts.booked())),
+                    () -> notLoaded.add(showtimeId));
+        }
+
+        Map<Integer, List<PricingSummary>> pricingByShowtime = new HashMap<>();
+        for (int from = 0; from < showtimeIds.size(); from += ENRICH_BATCH_SIZE) {
+            List<Integer> batch = showtimeIds.subList(from, Math.min(from + ENRICH_BATCH_SIZE, showtimeIds.size()));
+            List<Integer> countBatch = batch.stream().filter(notLoaded::contains).toList();
+
+            if (!countBatch.isEmpty()) {
+                for (ShowtimeStatusCount count : seatStatusRepository.countOccupiedByShowtimeIdsGroupByStatus(countBatch)) {
+                    occupiedByShowtime.computeIfAbsent(count.getShowtimeId(), id -> new HashMap<>())
+                            .put(count.getStatus(), count.getCount());
+                }
+            }
+            if (includePricing) {
+                for (ShowtimePricingSummary pricing : showtimeRepository.findPricingInfoByShowtimes(batch)) {
+                    pricingByShowtime.computeIfAbsent(pricing.getShowtimeId(), id -> new ArrayList<>()).add(pricing);
+                }
+            }
+        }
+
+        for (ShowtimeDetailResponse response : responses) {
+            enrichWithSeatAvailability(response,
+                    occupiedByShowtime.getOrDefault(response.getShowtimeId(), Map.of()));
+            if (includePricing) {
+                enrichWithPricingInfo(response,
+                        pricingByShowtime.getOrDefault(response.getShowtimeId(), List.of()));
+            }
+        }
+    }
+
+    private void enrichWithSeatAvailability(ShowtimeDetailResponse st, Map<String, Integer> statusMap) {
         SeatAvailability seatAvailability = new SeatAvailability();
-        List<SeatStatusCount> seatStatus = seatStatusRepository.countByShowtimeIdGroupByStatus(st.getShowtimeId());
-        Map<String, Integer> statusMap = seatStatus.stream()
-                .collect(Collectors.toMap(SeatStatusCount::getStatus, SeatStatusCount::getCount));
+        // Chỉ đếm dòng HELD / BOOKED, ghế trống = sức chứa phòng - số ghế đó (đúng cả khi seat_status sparse)
 
-        seatAvailability.setTotalSeats(st.getRoom() != null ? st.getRoom().getTotalSeats() : 0);
-        seatAvailability.setAvailableSeats(statusMap.getOrDefault("AVAILABLE", 0));
-        seatAvailability.setBookedSeats(statusMap.getOrDefault("BOOKED", 0));
-        seatAvailability.setHeldSeats(statusMap.getOrDefault("HELD", 0));
+        int totalSeats = st.getRoom() != null && st.getRoom().getTotalSeats() != null ? st.getRoom().getTotalSeats() : 0;
+        int bookedSeats = statusMap.getOrDefault("BOOKED", 0);
+        int heldSeats = statusMap.getOrDefault("HELD", 0);
+        seatAvailability.setTotalSeats(totalSeats);
+        seatAvailability.setAvailableSeats(Math.max(0, totalSeats - bookedSeats - heldSeats));
+        seatAvailability.setBookedSeats(bookedSeats);
+        seatAvailability.setHeldSeats(heldSeats);
 
         st.setSeatAvailability(seatAvailability);
     }
 
-    private void enrichWithPricingInfo(ShowtimeDetailResponse dto) {
-        List<PricingSummary> pricingData = showtimeRepository.findPricingInfoByShowtime(dto.getShowtimeId());
-
+    private void enrichWithPricingInfo(ShowtimeDetailResponse dto, List<PricingSummary> pricingData) {
         if (pricingData.isEmpty()) {
             return;
         }
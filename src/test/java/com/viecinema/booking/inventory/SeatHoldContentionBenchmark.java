@@ -0,0 +1,133 @@
+package com.viecinema.booking.inventory;
+
+import com.viecinema.VieCinemaApplication;
+import com.viecinema.booking.service.SeatInventoryService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Giữ / nhả ghế dưới tranh chấp: {@code @Threads} user cùng giữ 2 ghế liền nhau ngẫu nhiên trong {@code hotSeats}
+ * ghế đầu của một suất chiếu rồi nhả ra, so chiến lược memory (CAS trong inventory) với optimistic (UPDATE có
+ * điều kiện trên seat_status).
+ *
+ * <p>Cần MySQL đã chạy schema và có dữ liệu: suất chiếu {@code showtimeId} chưa bắt đầu và các user
+ * {@code userIdBase .. userIdBase + threads - 1} (held_by_user_id là khoá ngoại tới users). Ứng dụng được khởi động
+ * với cấu hình datasource thường (application.yml trên classpath hoặc biến môi trường SPRING_DATASOURCE_*):
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec \
+ *     -Dbenchmark="SeatHoldContentionBenchmark -p showtimeId=12 -p userIdBase=1"
+ * </pre>
+ * Ngoài throughput, {@code held} / {@code conflicts} cho biết tỉ lệ lần giữ bị xung đột.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(16)
+public class SeatHoldContentionBenchmark {
+
+    @Param({"memory", "optimistic"})
+    public String strategy;
+
+    @Param({"1"})
+    public int showtimeId;
+
+    @Param({"1"})
+    public int userIdBase;
+
+    /** Số ghế bị tranh chấp; nhỏ hơn thì xung đột nhiều hơn. */
+    @Param({"20"})
+    public int hotSeats;
+
+    private final AtomicInteger nextUser = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+    private SeatInventoryService seatInventoryService;
+    private SeatInventory inventory;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(VieCinemaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "app.seat-inventory.hold-strategy=" + strategy,
+                        "logging.level.com.viecinema=WARN")
+                .run();
+        seatInventoryService = context.getBean(SeatInventoryService.class);
+        inventory = seatInventoryService.getInventory(showtimeId);
+        if (inventory.size() < hotSeats) {
+            throw new IllegalStateException("Showtime " + showtimeId + " has only " + inventory.size() + " seats");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        for (int i = 0; i < nextUser.get(); i++) {
+            seatInventoryService.releaseAllForUser(userIdBase + i);
+        }
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        int userId;
+        final SplittableRandom random = new SplittableRandom();
+
+        @Setup(Level.Trial)
+        public void assign(SeatHoldContentionBenchmark benchmark) {
+            userId = benchmark.userIdBase + benchmark.nextUser.getAndIncrement();
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcome {
+        public long held;
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            held = 0;
+            conflicts = 0;
+        }
+    }
+
+    @Benchmark
+    public boolean holdAndRelease(Client client, Outcome outcome) {
+        int first = client.random.nextInt(hotSeats - 1);
+        int[] indexes = {first, first + 1};
+        List<Integer> conflicts = seatInventoryService.hold(
+                inventory, indexes, client.userId, SeatInventoryService.now() + 60);
+        if (!conflicts.isEmpty()) {
+            outcome.conflicts++;
+            return false;
+        }
+        outcome.held++;
+        for (int index : indexes) {
+            seatInventoryService.release(showtimeId, inventory.seatAt(index).seatId(), client.userId, false);
+        }
+        return true;
+    }
+}
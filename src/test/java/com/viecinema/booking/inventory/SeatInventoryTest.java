@@ -0,0 +1,106 @@
+package com.viecinema.booking.inventory;
+
+import com.viecinema.showtime.entity.Seat;
+import com.viecinema.showtime.entity.SeatType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.viecinema.booking.inventory.SeatInventory.AVAILABLE;
+import static com.viecinema.booking.inventory.SeatInventory.HELD;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatInventoryTest {
+
+    private static final int USER_ID = 7;
+    private static final long NOW = 1_800_000_000L;
+
+    private SeatInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        SeatType standard = SeatType.builder().seatTypeId(1).name("STANDARD").build();
+        List<Seat> seats = IntStream.rangeClosed(1, 4)
+                .mapToObj(n -> Seat.builder().seatId(n).seatRow("A").seatNumber(n).seatType(standard).build())
+                .toList();
+        inventory = new SeatInventory(1, 1, NOW + 3600, seats);
+    }
+
+    @Test
+    void unbookRestoresLiveHold() {
+        int[] indexes = {0, 1};
+        inventory.hold(indexes, USER_ID, NOW + 300, NOW);
+        long held = inventory.wordAt(0);
+
+        long[] previous = inventory.book(indexes, USER_ID, NOW);
+        inventory.unbook(indexes, previous, USER_ID, NOW + 10);
+
+        assertThat(inventory.wordAt(0)).isEqualTo(held);
+        assertThat(inventory.counts()).isEqualTo(new SeatInventory.SeatCounts(2, 2, 0));
+        // Wheel vẫn hết hạn được ghế vì word khớp với lúc giữ
+        assertThat(inventory.expire(0, held)).isTrue();
+    }
+
+    @Test
+    void unbookReleasesHoldThatExpiredDuringBooking() {
+        int[] indexes = {0, 1};
+        inventory.hold(indexes, USER_ID, NOW + 300, NOW);
+        long[] previous = inventory.book(indexes, USER_ID, NOW);
+        inventory.drainDirty();
+
+        inventory.unbook(indexes, previous, USER_ID, NOW + 300);
+
+        assertThat(SeatInventory.statusOf(inventory.wordAt(0))).isEqualTo(AVAILABLE);
+        assertThat(SeatInventory.statusOf(inventory.wordAt(1))).isEqualTo(AVAILABLE);
+        assertThat(inventory.counts()).isEqualTo(new SeatInventory.SeatCounts(4, 0, 0));
+        assertThat(inventory.drainDirty()).containsExactlyInAnyOrder(0, 1);
+    }
+
+    @Test
+    void unbookKeepsAvailableSeatsAvailable() {
+        int[] indexes = {2, 3};
+        long[] previous = inventory.book(indexes, USER_ID, NOW);
+        assertThat(inventory.counts()).isEqualTo(new SeatInventory.SeatCounts(2, 0, 2));
+
+        inventory.unbook(indexes, previous, USER_ID, NOW);
+
+        assertThat(SeatInventory.statusOf(inventory.wordAt(2))).isEqualTo(AVAILABLE);
+        assertThat(inventory.counts()).isEqualTo(new SeatInventory.SeatCounts(4, 0, 0));
+        assertThat(inventory.drainDirty()).isEmpty();
+    }
+
+    @Test
+    void unbookLeavesSeatsChangedSinceBookingAlone() {
+        int[] indexes = {0};
+        inventory.hold(indexes, USER_ID, NOW + 300, NOW);
+        long[] previous = inventory.book(indexes, USER_ID, NOW);
+        inventory.releaseBooked(indexes);
+        inventory.hold(indexes, USER_ID + 1, NOW + 600, NOW);
+
+        inventory.unbook(indexes, previous, USER_ID, NOW + 400);
+
+        assertThat(SeatInventory.statusOf(inventory.wordAt(0))).isEqualTo(HELD);
+        assertThat(SeatInventory.userOf(inventory.wordAt(0))).isEqualTo(USER_ID + 1);
+    }
+
+    @Test
+    void resyncAppliesStoredStateAndKeepsNewerLocalChange() {
+        long seen = inventory.wordAt(0);
+        long heldElsewhere = SeatInventory.encode(HELD, USER_ID + 1, NOW + 300);
+        long version = inventory.getVersion();
+
+        assertThat(inventory.resync(0, seen, heldElsewhere)).isTrue();
+        assertThat(inventory.wordAt(0)).isEqualTo(heldElsewhere);
+        assertThat(inventory.counts()).isEqualTo(new SeatInventory.SeatCounts(3, 1, 0));
+        assertThat(inventory.getVersion()).isGreaterThan(version);
+        assertThat(inventory.drainDirty()).isEmpty();
+
+        // Ghế đổi cục bộ sau lúc đọc: bản từ DB cũ hơn nên bị bỏ qua
+        long seenBeforeLocalHold = inventory.wordAt(1);
+        inventory.hold(new int[]{1}, USER_ID, NOW + 300, NOW);
+        assertThat(inventory.resync(1, seenBeforeLocalHold, heldElsewhere)).isFalse();
+        assertThat(SeatInventory.userOf(inventory.wordAt(1))).isEqualTo(USER_ID);
+    }
+}
@@ -0,0 +1,66 @@
+package com.viecinema.booking.service;
+
+import com.viecinema.booking.repository.BookingRepository;
+import com.viecinema.config.BookingConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sinh mã đặt vé: cách cũ (ngày format lại mỗi lần + String.format + new Random) so với
+ * {@link BookingCodeGenerator#next()}. Điểm là thời gian sinh {@code BATCH} mã; mỗi iteration dùng generator mới
+ * vì sequence một ngày chỉ có 10^7 giá trị. Chạy thêm {@code -t 4} để xem đường không khoá dưới tranh chấp:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="BookingCodeGeneratorBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = BookingCodeGeneratorBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = BookingCodeGeneratorBenchmark.BATCH)
+@Fork(1)
+public class BookingCodeGeneratorBenchmark {
+
+    static final int BATCH = 1_000_000;
+
+    private BookingCodeGenerator generator;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findMaxBookingCode(anyString(), anyInt())).thenReturn(Optional.empty());
+        generator = new BookingCodeGenerator(bookingRepository, new BookingConfig());
+    }
+
+    @Benchmark
+    public String legacy() {
+        String datePart = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        String randomPart = String.format("%06d", new Random().nextInt(1000000));
+        return "BK" + datePart + randomPart;
+    }
+
+    @Benchmark
+    public String generator() {
+        return generator.next();
+    }
+}
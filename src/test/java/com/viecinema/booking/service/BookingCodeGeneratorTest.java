@@ -0,0 +1,209 @@
+package com.viecinema.booking.service;
+
+import com.viecinema.booking.repository.BookingRepository;
+import com.viecinema.config.BookingConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingCodeGeneratorTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+    private static final int CODE_LENGTH = 20;
+
+    private BookingRepository bookingRepository;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findMaxBookingCode(anyString(), anyInt())).thenReturn(Optional.empty());
+        clock = new MutableClock(LocalDateTime.of(2026, 10, 18, 9, 30).atZone(ZONE).toInstant(), ZONE);
+    }
+
+    @Test
+    void buildsCodeFromDateNodeAndSequence() {
+        BookingCodeGenerator generator = generator(7);
+
+        assertThat(generator.next()).startsWith("BK20261018070000001").hasSize(CODE_LENGTH);
+        assertThat(generator.next()).startsWith("BK20261018070000002");
+        verify(bookingRepository).findMaxBookingCode("BK2026101807", CODE_LENGTH);
+    }
+
+    @Test
+    void appendsValidLuhnCheckDigit() {
+        BookingCodeGenerator generator = generator(3);
+        for (int i = 0; i < 1_000; i++) {
+            String code = generator.next();
+            assertThat(isLuhnValid(code.substring(2))).as(code).isTrue();
+        }
+    }
+
+    @Test
+    void resumesSequenceFromLatestCodeInDatabase() {
+        when(bookingRepository.findMaxBookingCode("BK2026101807", CODE_LENGTH))
+                .thenReturn(Optional.of("BK2026101807000004" + "28"));
+
+        assertThat(generator(7).next()).startsWith("BK20261018070000043");
+    }
+
+    @Test
+    void rollsOverToNewPrefixAndSequenceAtMidnight() {
+        clock.set(LocalDateTime.of(2026, 10, 18, 23, 59, 59).atZone(ZONE).toInstant());
+        BookingCodeGenerator generator = generator(7);
+        generator.next();
+        assertThat(generator.next()).startsWith("BK20261018070000002");
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(generator.next()).startsWith("BK20261019070000001");
+        assertThat(generator.next()).startsWith("BK20261019070000002");
+        verify(bookingRepository).findMaxBookingCode("BK2026101907", CODE_LENGTH);
+    }
+
+    @Test
+    void readsDatabaseOncePerDay() {
+        BookingCodeGenerator generator = generator(7);
+        for (int i = 0; i < 100; i++) {
+            generator.next();
+        }
+        clock.advance(Duration.ofHours(1));
+        generator.next();
+
+        verify(bookingRepository, times(1)).findMaxBookingCode(anyString(), anyInt());
+    }
+
+    @Test
+    void reloadsSequenceWhenClockMovesBackAcrossMidnight() {
+        BookingCodeGenerator generator = generator(7);
+        generator.next();
+
+        clock.set(LocalDateTime.of(2026, 10, 17, 23, 0).atZone(ZONE).toInstant());
+        assertThat(generator.next()).startsWith("BK2026101707");
+        verify(bookingRepository).findMaxBookingCode(eq("BK2026101707"), anyInt());
+    }
+
+    @Test
+    void nodesWithDifferentIdsNeverCollide() throws Exception {
+        List<BookingCodeGenerator> generators = List.of(generator(1), generator(2), generator(42));
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Callable<List<String>>> tasks = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                BookingCodeGenerator generator = generators.get(i % generators.size());
+                tasks.add(() -> {
+                    List<String> codes = new ArrayList<>();
+                    for (int j = 0; j < 5_000; j++) {
+                        codes.add(generator.next());
+                    }
+                    return codes;
+                });
+            }
+            Set<String> codes = new HashSet<>();
+            int total = 0;
+            for (Future<List<String>> result : executor.invokeAll(tasks)) {
+                total += result.get().size();
+                codes.addAll(result.get());
+            }
+            assertThat(codes).hasSize(total);
+            assertThat(codes).allSatisfy(code -> assertThat(code.substring(10, 12)).isIn("01", "02", "42"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsNodeIdOutOfRange() {
+        assertThatThrownBy(() -> generator(100)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> generator(-1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void failsWhenDailySequenceIsExhausted() {
+        when(bookingRepository.findMaxBookingCode("BK2026101807", CODE_LENGTH))
+                .thenReturn(Optional.of("BK202610180799999990"));
+
+        assertThatThrownBy(() -> generator(7).next()).isInstanceOf(IllegalStateException.class);
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private BookingCodeGenerator generator(int nodeId) {
+        BookingConfig config = new BookingConfig();
+        config.setNodeId(nodeId);
+        return new BookingCodeGenerator(bookingRepository, config, clock);
+    }
+
+    private static boolean isLuhnValid(String digits) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+        private final ZoneId zone;
+
+        private MutableClock(Instant instant, ZoneId zone) {
+            this.instant = instant;
+            this.zone = zone;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new MutableClock(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
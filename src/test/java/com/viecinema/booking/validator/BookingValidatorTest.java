@@ -0,0 +1,134 @@
+package com.viecinema.booking.validator;
+
+import com.viecinema.common.enums.SeatStatusType;
+import com.viecinema.common.exception.SpecificBusinessException;
+import com.viecinema.showtime.dto.projection.SeatStatusSnapshot;
+import com.viecinema.showtime.entity.Seat;
+import com.viecinema.showtime.repository.SeatRepository;
+import com.viecinema.showtime.repository.SeatStatusRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link BookingValidator#checkSeatAvailability} chỉ đọc ảnh chụp seat_status qua một truy vấn không khoá; việc
+ * chiếm ghế thuộc về claimForBooking. Kiểm tra dưới tranh chấp thật trên MySQL: SeatAvailabilityCheckBenchmark.
+ */
+class BookingValidatorTest {
+
+    private static final int SHOWTIME_ID = 12;
+    private static final int USER_ID = 7;
+    private static final int OTHER_USER_ID = 8;
+
+    private SeatRepository seatRepository;
+    private SeatStatusRepository seatStatusRepository;
+    private BookingValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        seatRepository = mock(SeatRepository.class);
+        seatStatusRepository = mock(SeatStatusRepository.class);
+        validator = new BookingValidator(seatRepository, seatStatusRepository);
+    }
+
+    @Test
+    void readsOnlyTheSnapshotQuery() {
+        List<Integer> seatIds = List.of(1, 2, 3);
+        when(seatStatusRepository.findSnapshotsByShowtimeIdAndSeatIds(SHOWTIME_ID, seatIds)).thenReturn(List.of(
+                snapshot(1, SeatStatusType.AVAILABLE, null, null),
+                snapshot(2, SeatStatusType.HELD, USER_ID, LocalDateTime.now().plusMinutes(5))));
+
+        validator.checkSeatAvailability(SHOWTIME_ID, seatIds, USER_ID);
+
+        verify(seatStatusRepository).findSnapshotsByShowtimeIdAndSeatIds(SHOWTIME_ID, seatIds);
+        verifyNoMoreInteractions(seatStatusRepository);
+        verifyNoInteractions(seatRepository);
+    }
+
+    @Test
+    void snapshotQueryTakesNoRowLocks() throws NoSuchMethodException {
+        Method query = SeatStatusRepository.class
+                .getMethod("findSnapshotsByShowtimeIdAndSeatIds", Integer.class, List.class);
+
+        assertThat(query.getAnnotation(Lock.class)).isNull();
+        assertThat(query.getAnnotation(Query.class).value().toUpperCase())
+                .doesNotContain("FOR UPDATE")
+                .doesNotContain("FOR SHARE")
+                .doesNotContain("LOCK IN SHARE MODE");
+    }
+
+    @Test
+    void treatsSeatsWithoutRowAsAvailable() {
+        List<Integer> seatIds = List.of(1, 2);
+        when(seatStatusRepository.findSnapshotsByShowtimeIdAndSeatIds(SHOWTIME_ID, seatIds)).thenReturn(List.of());
+
+        assertThatCode(() -> validator.checkSeatAvailability(SHOWTIME_ID, seatIds, USER_ID))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsBookedSeat() {
+        List<Integer> seatIds = List.of(1);
+        when(seatStatusRepository.findSnapshotsByShowtimeIdAndSeatIds(SHOWTIME_ID, seatIds))
+                .thenReturn(List.of(snapshot(1, SeatStatusType.BOOKED, null, null)));
+        when(seatRepository.findById(1)).thenReturn(Optional.of(seat("A", 1)));
+
+        assertThatThrownBy(() -> validator.checkSeatAvailability(SHOWTIME_ID, seatIds, USER_ID))
+                .isInstanceOf(SpecificBusinessException.class)
+                .hasMessage("Seat A1 has been reserved");
+    }
+
+    @Test
+    void rejectsSeatHeldByAnotherUser() {
+        List<Integer> seatIds = List.of(4);
+        when(seatStatusRepository.findSnapshotsByShowtimeIdAndSeatIds(SHOWTIME_ID, seatIds)).thenReturn(List.of(
+                snapshot(4, SeatStatusType.HELD, OTHER_USER_ID, LocalDateTime.now().plusMinutes(5))));
+        when(seatRepository.findById(4)).thenReturn(Optional.of(seat("B", 4)));
+
+        assertThatThrownBy(() -> validator.checkSeatAvailability(SHOWTIME_ID, seatIds, USER_ID))
+                .isInstanceOf(SpecificBusinessException.class)
+                .hasMessage("Seat B4 is held by another user");
+    }
+
+    @Test
+    void ignoresExpiredHoldOfAnotherUser() {
+        List<Integer> seatIds = List.of(4);
+        when(seatStatusRepository.findSnapshotsByShowtimeIdAndSeatIds(SHOWTIME_ID, seatIds)).thenReturn(List.of(
+                snapshot(4, SeatStatusType.HELD, OTHER_USER_ID, LocalDateTime.now().minusSeconds(1))));
+
+        assertThatCode(() -> validator.checkSeatAvailability(SHOWTIME_ID, seatIds, USER_ID))
+                .doesNotThrowAnyException();
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private static SeatStatusSnapshot snapshot(int seatId, SeatStatusType status, Integer heldBy,
+                                               LocalDateTime heldUntil) {
+        return new Snapshot(seatId, status, heldBy, heldUntil);
+    }
+
+    private static Seat seat(String row, int number) {
+        Seat seat = new Seat();
+        seat.setSeatRow(row);
+        seat.setSeatNumber(number);
+        return seat;
+    }
+
+    private record Snapshot(Integer getSeatId, SeatStatusType getStatus, Integer getHeldByUserId,
+                            LocalDateTime getHeldUntil) implements SeatStatusSnapshot {}
+}
@@ -0,0 +1,127 @@
+package com.viecinema.booking.validator;
+
+import com.viecinema.VieCinemaApplication;
+import com.viecinema.booking.inventory.SeatInventory;
+import com.viecinema.booking.service.SeatInventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BookingValidator#checkSeatAvailability} dưới tranh chấp khoá: nhóm {@code contended} có một thread giữ
+ * {@code SELECT ... FOR UPDATE} trên chính các dòng seat_status đó trong {@code lockMillis} ms mỗi lần, nhóm
+ * {@code uncontended} thì không. Vì kiểm tra chỉ là consistent read của InnoDB, throughput của {@code check} ở hai
+ * nhóm phải xấp xỉ nhau; nếu nó khoá dòng thì ở nhóm contended sẽ tụt xuống cỡ {@code 1000 / lockMillis} op/s.
+ *
+ * <p>Cần MySQL đã chạy schema và có dữ liệu: suất chiếu {@code showtimeId} với ít nhất {@code seats} ghế.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="SeatAvailabilityCheckBenchmark -p showtimeId=12"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class SeatAvailabilityCheckBenchmark {
+
+    private static final String LOCK_SQL =
+            "SELECT seat_id FROM seat_status WHERE showtime_id = :showtimeId AND seat_id IN (:seatIds) FOR UPDATE";
+
+    @Param({"1"})
+    public int showtimeId;
+
+    @Param({"1"})
+    public int userId;
+
+    @Param({"8"})
+    public int seats;
+
+    @Param({"50"})
+    public long lockMillis;
+
+    private ConfigurableApplicationContext context;
+    private BookingValidator bookingValidator;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private List<Integer> seatIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(VieCinemaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.com.viecinema=WARN")
+                .run();
+        bookingValidator = context.getBean(BookingValidator.class);
+        jdbcTemplate = context.getBean(NamedParameterJdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        SeatInventory inventory = context.getBean(SeatInventoryService.class).getInventory(showtimeId);
+        if (inventory.size() < seats) {
+            throw new IllegalStateException("Showtime " + showtimeId + " has only " + inventory.size() + " seats");
+        }
+        seatIds = new ArrayList<>(seats);
+        for (int i = 0; i < seats; i++) {
+            seatIds.add(inventory.seatAt(i).seatId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("uncontended")
+    @GroupThreads(8)
+    public void check() {
+        bookingValidator.checkSeatAvailability(showtimeId, seatIds, userId);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(8)
+    public void checkWhileLocked() {
+        bookingValidator.checkSeatAvailability(showtimeId, seatIds, userId);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void holdRowLocks() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList(LOCK_SQL, new MapSqlParameterSource()
+                    .addValue("showtimeId", showtimeId)
+                    .addValue("seatIds", seatIds), Integer.class);
+            try {
+                Thread.sleep(lockMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package com.viecinema.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    private static final List<List<String>> KEYS_BY_RANK = List.of(
+            List.of("da nang", "nang"),
+            List.of("ha noi", "noi"),
+            List.of("da lat", "lat"),
+            List.of("nang am", "am"),
+            List.of("da"),
+            List.of("dan ca", "ca"),
+            List.of("ca ca", "ca"));
+
+    @Test
+    void topReturnsBestRanksMatchingPrefix() {
+        PrefixIndex index = PrefixIndex.build(KEYS_BY_RANK, 10);
+
+        assertThat(index.top("da")).containsExactly(0, 2, 4, 5);
+        assertThat(index.top("da ")).containsExactly(0, 2);
+        assertThat(index.top("nang")).containsExactly(0, 3);
+        assertThat(index.top("")).containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(index.top("x")).isEmpty();
+        assertThat(index.top("da nangx")).isEmpty();
+    }
+
+    @Test
+    void topKeepsOnlyKBestAndNoDuplicates() {
+        PrefixIndex index = PrefixIndex.build(KEYS_BY_RANK, 2);
+
+        assertThat(index.top("")).containsExactly(0, 1);
+        assertThat(index.top("da")).containsExactly(0, 2);
+        assertThat(index.top("n")).containsExactly(0, 1);
+        // Entry 6 khớp "ca" bằng hai key nhưng chỉ được tính một lần
+        assertThat(index.top("ca")).containsExactly(5, 6);
+    }
+}
@@ -0,0 +1,179 @@
+package com.viecinema.movie.repository;
+
+import com.viecinema.VieCinemaApplication;
+import com.viecinema.common.enums.MovieStatus;
+import com.viecinema.movie.entity.Movie;
+import jakarta.persistence.criteria.JoinType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Danh sách phim theo trạng thái trên catalog tổng hợp {@code movies} phim (mỗi phim 2 genre): phân trang hai bước
+ * trên movie_id ({@code idPaging}, cách {@code MovieService.getMoviesByStatus} đang làm) so với cách cũ fetch-join
+ * genres + DISTINCT trên truy vấn có phân trang ({@code fetchJoin}), khi đó Hibernate nạp mọi phim khớp rồi mới cắt
+ * trang trong bộ nhớ. Thời gian của {@code fetchJoin} tăng theo số phim, của {@code idPaging} gần như theo cỡ trang.
+ *
+ * <p>Cần MySQL đã chạy schema và có ít nhất 2 genre. Phim tổng hợp có {@code producer = 'jmh-synthetic'}, được tạo
+ * khi bắt đầu và xoá khi kết thúc.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="MoviePagingBenchmark -p page=0,500"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class MoviePagingBenchmark {
+
+    private static final String PRODUCER = "jmh-synthetic";
+    private static final int INSERT_BATCH = 1000;
+
+    private static final String INSERT_MOVIE_SQL = """
+            INSERT INTO movies (title, duration, language, producer, release_date, status)
+            VALUES (?, ?, 'Tiếng Việt', ?, ?, ?)
+            """;
+
+    private static final String INSERT_GENRES_SQL = """
+            INSERT INTO movie_genres (movie_id, genre_id)
+            SELECT m.movie_id, g.genre_id
+            FROM movies m
+            JOIN (SELECT genre_id FROM genres ORDER BY genre_id LIMIT 2) g
+            WHERE m.producer = ?
+            """;
+
+    @Param({"50000"})
+    public int movies;
+
+    @Param({"0", "500"})
+    public int page;
+
+    @Param({"20"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private MovieRepository movieRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private Specification<Movie> spec;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(VieCinemaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.com.viecinema=WARN", "logging.level.org.hibernate=ERROR")
+                .run();
+        movieRepository = context.getBean(MovieRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        deleteCatalog();
+        seedCatalog();
+
+        spec = Specification
+                .where(MovieSpecification.hasStatus(MovieStatus.NOW_SHOWING))
+                .and(MovieSpecification.isNotDeleted());
+        pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "releaseDate"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        deleteCatalog();
+        context.close();
+    }
+
+    @Benchmark
+    public List<Movie> idPaging() {
+        return readOnly.execute(status -> {
+            Page<Integer> ids = movieRepository.findIds(spec, pageable);
+            List<Movie> content = movieRepository.findAllWithGenresInOrder(ids.getContent());
+            content.forEach(movie -> movie.getGenres().size());
+            return content;
+        });
+    }
+
+    @Benchmark
+    public List<Movie> fetchJoin() {
+        return readOnly.execute(status -> {
+            List<Movie> content = movieRepository.findAll(spec.and(fetchGenres()), pageable).getContent();
+            content.forEach(movie -> movie.getGenres().size());
+            return content;
+        });
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    /*
+     * Specification fetchGenres() trước khi chuyển sang phân trang hai bước.
+     */
+    private static Specification<Movie> fetchGenres() {
+        return (root, query, criteriaBuilder) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("genres", JoinType.LEFT);
+                query.distinct(true);
+            }
+            return criteriaBuilder.conjunction();
+        };
+    }
+
+    private void seedCatalog() {
+        LocalDate firstRelease = LocalDate.now().minusYears(20);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < movies; i++) {
+            batch.add(new Object[]{
+                    "JMH Movie " + i,
+                    90 + i % 90,
+                    PRODUCER,
+                    Date.valueOf(firstRelease.plusDays(i % 7300)),
+                    MovieStatus.NOW_SHOWING.name()
+            });
+            if (batch.size() == INSERT_BATCH) {
+                jdbcTemplate.batchUpdate(INSERT_MOVIE_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MOVIE_SQL, batch);
+        }
+        int links = jdbcTemplate.update(INSERT_GENRES_SQL, PRODUCER);
+        if (links < movies * 2) {
+            throw new IllegalStateException("The benchmark needs at least 2 rows in genres");
+        }
+    }
+
+    private void deleteCatalog() {
+        // movie_genres xoá theo ON DELETE CASCADE
+        jdbcTemplate.update("DELETE FROM movies WHERE producer = ?", PRODUCER);
+    }
+}
@@ -0,0 +1,124 @@
+package com.viecinema.movie.service;
+
+import com.viecinema.common.enums.SuggestionType;
+import com.viecinema.movie.dto.SuggestionDto;
+import com.viecinema.movie.repository.MovieSuggestRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MovieSuggestService} trên catalog tổng hợp ({@code movies} phim, một nửa số đó diễn viên, một phần mười
+ * đạo diễn; tên ghép từ âm tiết tiếng Việt có dấu), không cần DB:
+ * <ul>
+ *     <li>{@code suggest}: độ trễ mỗi phím gõ (SampleTime, xem p0.99) với tiền tố 1–3 từ, gõ dở hoặc không dấu,
+ *     lấy từ chính catalog;</li>
+ *     <li>{@code refreshMovie}: chi phí một lần ghi phim ở admin, vốn dựng lại toàn bộ index.</li>
+ * </ul>
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="MovieSuggestBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieSuggestBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "Đà", "Nẵng", "Hà", "Nội", "Sài", "Gòn", "Người", "Tình", "Mùa", "Hè", "Bóng", "Đêm", "Ánh", "Trăng",
+            "Nguyễn", "Trần", "Lê", "Phạm", "Hoàng", "Văn", "Thị", "Minh", "Anh", "Thư", "Kiều", "Lửa", "Biển",
+            "Gió", "Mưa", "Sông", "Núi", "Hồn", "Ma", "Chiến", "Binh", "Tuổi", "Trẻ", "Quê", "Nhà", "Ký", "Ức",
+            "Mắt", "Biếc", "Cô", "Ba", "Bụi", "Đời", "Hai", "Phượng", "Nhật", "Bản", "Tiếng", "Chim"
+    };
+
+    @Param({"50000"})
+    public int movies;
+
+    private MovieSuggestService service;
+    private List<MovieSuggestRepository.Source> catalog;
+    private String[] queries;
+    private int next;
+    private long refreshes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = new ArrayList<>();
+        addSources(catalog, SuggestionType.MOVIE, movies, random);
+        addSources(catalog, SuggestionType.ACTOR, movies / 2, random);
+        addSources(catalog, SuggestionType.DIRECTOR, movies / 10, random);
+
+        service = new MovieSuggestService(new MovieSuggestRepository(null) {
+            @Override
+            public List<Source> findAll() {
+                return catalog;
+            }
+
+            @Override
+            public List<Source> findByMovieId(int movieId) {
+                Source movie = catalog.get(movieId - 1);
+                return List.of(new Source(movie.type(), movie.id(), movie.text(), movie.popularity() + ++refreshes));
+            }
+        });
+        service.reload();
+
+        queries = new String[1024];
+        for (int i = 0; i < queries.length; i++) {
+            String text = catalog.get(random.nextInt(catalog.size())).text();
+            String[] words = text.split(" ");
+            int from = random.nextInt(words.length);
+            String prefix = String.join(" ", List.of(words).subList(from, Math.min(words.length, from + 1 + i % 3)));
+            // Gõ dở từ cuối, nửa số query gõ không dấu
+            prefix = prefix.substring(0, Math.max(1, prefix.length() - random.nextInt(3)));
+            queries[i] = i % 2 == 0 ? prefix : prefix.toLowerCase().replace('đ', 'd');
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<SuggestionDto> suggest() {
+        String query = queries[next++ & (queries.length - 1)];
+        return service.suggest(query, 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void refreshMovie() {
+        service.refreshMovieAfterCommit(1 + next++ % movies);
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private static void addSources(List<MovieSuggestRepository.Source> sources, SuggestionType type, int count,
+                                   Random random) {
+        for (int id = 1; id <= count; id++) {
+            int words = 2 + random.nextInt(4);
+            StringBuilder text = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    text.append(' ');
+                }
+                text.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            // Độ phổ biến lệch như booking thật: ít phim rất nhiều vé, đa số rất ít
+            long popularity = (long) (100_000 / Math.pow(1 + random.nextInt(10_000), 1.2));
+            sources.add(new MovieSuggestRepository.Source(type, id, text.toString(), popularity));
+        }
+    }
+}
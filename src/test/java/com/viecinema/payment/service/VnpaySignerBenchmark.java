@@ -0,0 +1,70 @@
+package com.viecinema.payment.service;
+
+import com.viecinema.config.VnpayConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ký một bộ tham số tạo URL thanh toán điển hình: cách cũ (Mac.getInstance + init mỗi lần, dựng chuỗi hash data
+ * qua URLEncoder) so với {@link VnpaySigner}.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="VnpaySignerBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VnpaySignerBenchmark {
+
+    private static final String SECRET = "TESTSECRETKEY0123456789ABCDEFGH";
+
+    private final Map<String, String> fields = new HashMap<>();
+    private VnpaySigner signer;
+
+    @Setup
+    public void setUp() {
+        VnpayConfig config = new VnpayConfig();
+        config.setHashSecret(SECRET);
+        signer = new VnpaySigner(config);
+
+        fields.put("vnp_Version", "2.1.0");
+        fields.put("vnp_Command", "pay");
+        fields.put("vnp_TmnCode", "VIECINE1");
+        fields.put("vnp_Amount", "18000000");
+        fields.put("vnp_CurrCode", "VND");
+        fields.put("vnp_BankCode", "NCB");
+        fields.put("vnp_TxnRef", "1760812345678");
+        fields.put("vnp_OrderInfo", "Thanh toán vé xem phim - VC20261018A1B2C3");
+        fields.put("vnp_OrderType", "billpayment");
+        fields.put("vnp_Locale", "vn");
+        fields.put("vnp_ReturnUrl", "http://localhost:8080/api/payments/vnpay/callback");
+        fields.put("vnp_IpAddr", "127.0.0.1");
+        fields.put("vnp_CreateDate", "20261018185248");
+        fields.put("vnp_ExpireDate", "20261018190748");
+    }
+
+    @Benchmark
+    public String legacy() {
+        return LegacyVnpaySignature.sign(SECRET, fields);
+    }
+
+    @Benchmark
+    public String signer() {
+        return signer.sign(fields);
+    }
+}
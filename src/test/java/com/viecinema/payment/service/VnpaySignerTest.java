@@ -0,0 +1,145 @@
+package com.viecinema.payment.service;
+
+import com.viecinema.config.VnpayConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link VnpaySigner} phải cho đúng chữ ký của cách ký cũ ({@link LegacyVnpaySignature}) trên mọi input:
+ * bộ form-encode viết tay, xử lý surrogate, field rỗng / null và dấu {@code &} thừa ở cuối.
+ */
+class VnpaySignerTest {
+
+    private static final String SECRET = "TESTSECRETKEY0123456789ABCDEFGH";
+    private static final long SEED = 20261018L;
+    private static final int ROUNDS = 5_000;
+
+    /** Ký tự được form-encode giữ nguyên, ký tự đặc biệt ASCII, tiếng Việt, ký tự 3 byte UTF-8. */
+    private static final String[] ALPHABETS = {
+            "abcxyzABCXYZ0189.-*_",
+            " !\"#$%&'()+,/:;<=>?@[\\]^`{|}~\t\n",
+            "àáảãạăắằẳẵặâấầẩẫậđèéẻẽẹêếềểễệìíỉĩịòóỏõọôốồổỗộơớờởỡợùúủũụưứừửữựỳýỷỹỵĐ",
+            "€中文日本語한국어ࠀ�￿\u007F\u0080߿"
+    };
+
+    private VnpaySigner signer;
+
+    @BeforeEach
+    void setUp() {
+        VnpayConfig config = new VnpayConfig();
+        config.setHashSecret(SECRET);
+        signer = new VnpaySigner(config);
+    }
+
+    @Test
+    void matchesLegacySignatureOnRandomizedParameterMaps() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int round = 0; round < ROUNDS; round++) {
+            Map<String, String> fields = randomFields(random);
+            assertThat(signer.sign(fields))
+                    .as("round %d, fields %s", round, fields)
+                    .isEqualTo(LegacyVnpaySignature.sign(SECRET, fields));
+        }
+    }
+
+    @Test
+    void encodesSurrogatePairsAsFourByteUtf8() {
+        assertMatchesLegacy(Map.of("vnp_OrderInfo", "Vé 🎬 phim 😀", "vnp_TxnRef", "1"));
+    }
+
+    @Test
+    void replacesLoneSurrogatesLikeTheJdkEncoder() {
+        assertMatchesLegacy(Map.of(
+                "vnp_A", "\uD83C",
+                "vnp_B", "x\uDFACy",
+                "vnp_C", "\uDFAC\uD83C",
+                "vnp_D", "end\uD83C"));
+    }
+
+    @Test
+    void keepsTrailingAmpersandWhenLastFieldIsEmpty() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("vnp_Amount", "100000");
+        fields.put("vnp_Zzz", "");
+        assertThat(LegacyVnpaySignature.hashAllFields(fields)).isEqualTo("vnp_Amount=100000&");
+        assertMatchesLegacy(fields);
+    }
+
+    @Test
+    void skipsNullValues() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("vnp_Amount", "100000");
+        fields.put("vnp_BankCode", null);
+        fields.put("vnp_TxnRef", "123");
+        assertMatchesLegacy(fields);
+    }
+
+    @Test
+    void growsBufferForLongValues() {
+        assertMatchesLegacy(Map.of("vnp_OrderInfo", "Thanh toán vé xem phim ".repeat(200)));
+    }
+
+    @Test
+    void reusesPerThreadStateAcrossCalls() {
+        Map<String, String> big = Map.of("vnp_OrderInfo", "đ".repeat(2_000));
+        Map<String, String> small = Map.of("vnp_TxnRef", "1");
+        signer.sign(big);
+        assertMatchesLegacy(small);
+        assertMatchesLegacy(big);
+    }
+
+    @Test
+    void verifyAcceptsOwnSignatureOnly() {
+        Map<String, String> fields = Map.of("vnp_Amount", "100000", "vnp_TxnRef", "123");
+        String signature = LegacyVnpaySignature.sign(SECRET, fields);
+        assertThat(signer.verify(fields, signature)).isTrue();
+        assertThat(signer.verify(fields, signature.toUpperCase())).isFalse();
+        assertThat(signer.verify(fields, signature.substring(1))).isFalse();
+        assertThat(signer.verify(fields, null)).isFalse();
+    }
+
+    // ==================== PRIVATE METHODS ====================
+
+    private void assertMatchesLegacy(Map<String, String> fields) {
+        assertThat(signer.sign(fields)).isEqualTo(LegacyVnpaySignature.sign(SECRET, fields));
+    }
+
+    private static Map<String, String> randomFields(SplittableRandom random) {
+        Map<String, String> fields = new HashMap<>();
+        int count = random.nextInt(0, 16);
+        for (int i = 0; i < count; i++) {
+            String name = random.nextInt(10) == 0 ? randomText(random, 1, 8) : "vnp_" + randomText(random, 1, 12);
+            int kind = random.nextInt(10);
+            String value = kind == 0 ? null : kind == 1 ? "" : randomText(random, 1, 40);
+            fields.put(name, value);
+        }
+        return fields;
+    }
+
+    /** Trộn các bảng chữ cái, thêm cặp surrogate (emoji) và surrogate lẻ. */
+    private static String randomText(SplittableRandom random, int minLength, int maxLength) {
+        int length = random.nextInt(minLength, maxLength + 1);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            int kind = random.nextInt(12);
+            if (kind < ALPHABETS.length * 2) {
+                String alphabet = ALPHABETS[kind % ALPHABETS.length];
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            } else if (kind < 10) {
+                text.appendCodePoint(random.nextInt(0x10000, 0x110000));
+            } else if (kind == 10) {
+                text.append((char) random.nextInt(0xD800, 0xDC00));
+            } else {
+                text.append((char) random.nextInt(0xDC00, 0xE000));
+            }
+        }
+        return text.toString();
+    }
+}